@@ -19,6 +19,7 @@
 package grakn.core.common.cache;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import grakn.core.common.parameters.Options;
 
 import java.util.function.Function;
 
@@ -26,12 +27,10 @@ import static java.util.concurrent.TimeUnit.MINUTES;
 
 public class CommonCache<KEY, VALUE> {
 
-    private static final int CACHE_SIZE = 10_000; // TODO: parameterise this through grakn.properties
-    private static final int CACHE_TIMEOUT_MINUTES = 1_440;
     private final com.github.benmanes.caffeine.cache.Cache<KEY, VALUE> cache;
 
     public CommonCache() {
-        this(CACHE_SIZE, CACHE_TIMEOUT_MINUTES);
+        this(Options.Database.DEFAULT_CACHE_SIZE, Options.Database.DEFAULT_CACHE_TIMEOUT_MINUTES);
     }
 
     public CommonCache(int size, int timeoutMinutes) {
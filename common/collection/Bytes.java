@@ -68,6 +68,26 @@ public class Bytes {
         return true;
     }
 
+    /**
+     * Compare two byte arrays lexicographically, treating each byte as unsigned.
+     *
+     * This is the same ordering that the storage uses to sort its keys, and
+     * therefore can be used to check whether a key falls within a key range.
+     *
+     * @param first  the first byte array to compare
+     * @param second the second byte array to compare
+     * @return a negative number, zero or a positive number, if the first array
+     * is less than, equal to, or greater than the second array, respectively
+     */
+    public static int compareBytes(byte[] first, byte[] second) {
+        final int length = Math.min(first.length, second.length);
+        for (int i = 0; i < length; i++) {
+            final int comparison = Integer.compare(first[i] & 0xff, second[i] & 0xff);
+            if (comparison != 0) return comparison;
+        }
+        return Integer.compare(first.length, second.length);
+    }
+
     public static byte[] unsignedShortToBytes(int num) {
         final byte[] bytes = new byte[SHORT_SIZE];
         bytes[1] = (byte) (num);
@@ -77,7 +97,11 @@ public class Bytes {
 
     public static int unsignedBytesToShort(byte[] bytes) {
         assert bytes.length == SHORT_SIZE;
-        return ((bytes[0] << 8) & 0xff00) | (bytes[1] & 0xff);
+        return unsignedBytesToShort(bytes, 0);
+    }
+
+    public static int unsignedBytesToShort(byte[] bytes, int from) {
+        return ((bytes[from] << 8) & 0xff00) | (bytes[from + 1] & 0xff);
     }
 
     public static byte[] shortToSortedBytes(int num) {
@@ -89,8 +113,11 @@ public class Bytes {
 
     public static short sortedBytesToShort(byte[] bytes) {
         assert bytes.length == SHORT_SIZE;
-        bytes[0] = (byte) (bytes[0] ^ 0x80);
-        return ByteBuffer.wrap(bytes).getShort();
+        return sortedBytesToShort(bytes, 0);
+    }
+
+    public static short sortedBytesToShort(byte[] bytes, int from) {
+        return (short) ((((bytes[from] ^ 0x80) & 0xff) << 8) | (bytes[from + 1] & 0xff));
     }
 
     public static byte[] integerToSortedBytes(int num) {
@@ -123,8 +150,23 @@ public class Bytes {
 
     public static long sortedBytesToLong(byte[] bytes) {
         assert bytes.length == LONG_SIZE;
-        bytes[0] = (byte) (bytes[0] ^ 0x80);
-        return ByteBuffer.wrap(bytes).getLong();
+        return sortedBytesToLong(bytes, 0);
+    }
+
+    /**
+     * Decode a {@code long} from its sorted bytes, in place at the given offset
+     * of a larger array, without copying or modifying the array.
+     *
+     * @param bytes the array that contains the sorted bytes
+     * @param from  the offset at which the sorted bytes begin
+     * @return the decoded {@code long} value
+     */
+    public static long sortedBytesToLong(byte[] bytes, int from) {
+        long value = (bytes[from] ^ 0x80) & 0xff;
+        for (int i = 1; i < LONG_SIZE; i++) {
+            value = (value << 8) | (bytes[from + i] & 0xff);
+        }
+        return value;
     }
 
     public static byte[] longToBytes(long num) {
@@ -170,14 +212,19 @@ public class Bytes {
 
     public static double sortedBytesToDouble(byte[] bytes) {
         assert bytes.length == DOUBLE_SIZE;
-        if ((bytes[0] & 0x80) == 0x80) {
-            bytes[0] = (byte) (bytes[0] ^ 0x80);
-        } else {
-            for (int i = 0; i < DOUBLE_SIZE; i++) {
-                bytes[i] = (byte) (bytes[i] ^ 0xff);
-            }
+        return sortedBytesToDouble(bytes, 0);
+    }
+
+    public static double sortedBytesToDouble(byte[] bytes, int from) {
+        final boolean isPositive = (bytes[from] & 0x80) == 0x80;
+        long bits = 0;
+        for (int i = 0; i < DOUBLE_SIZE; i++) {
+            int aByte = bytes[from + i] & 0xff;
+            if (!isPositive) aByte ^= 0xff;
+            else if (i == 0) aByte ^= 0x80;
+            bits = (bits << 8) | aByte;
         }
-        return ByteBuffer.wrap(bytes).getDouble();
+        return Double.longBitsToDouble(bits);
     }
 
     public static byte[] stringToBytes(String value, Charset encoding) throws GraknCheckedException {
@@ -189,9 +236,12 @@ public class Bytes {
     }
 
     public static String bytesToString(byte[] bytes, Charset encoding) {
-        int stringLength = unsignedBytesToShort(new byte[]{bytes[0], bytes[1]});
-        final byte[] x = copyOfRange(bytes, SHORT_SIZE, SHORT_SIZE + stringLength);
-        return new String(x, encoding);
+        return bytesToString(bytes, 0, encoding);
+    }
+
+    public static String bytesToString(byte[] bytes, int from, Charset encoding) {
+        final int stringLength = unsignedBytesToShort(bytes, from);
+        return new String(bytes, from + SHORT_SIZE, stringLength, encoding);
     }
 
     public static byte booleanToByte(boolean value) {
@@ -207,7 +257,11 @@ public class Bytes {
     }
 
     public static java.time.LocalDateTime bytesToDateTime(byte[] bytes, ZoneId timeZoneID) {
-        return LocalDateTime.ofInstant(Instant.ofEpochMilli(sortedBytesToLong(bytes)), timeZoneID);
+        return bytesToDateTime(bytes, 0, timeZoneID);
+    }
+
+    public static java.time.LocalDateTime bytesToDateTime(byte[] bytes, int from, ZoneId timeZoneID) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(sortedBytesToLong(bytes, from)), timeZoneID);
     }
 
     public static byte[] uuidToBytes(UUID uuid) {
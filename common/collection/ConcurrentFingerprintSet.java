@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.common.collection;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A thread-safe set of 128-bit fingerprints, each given as a pair of
+ * primitive {@code long}s, used to deduplicate large numbers of objects
+ * without holding on to the objects themselves.
+ *
+ * The set uses open addressing with linear probing over a single array of
+ * interleaved high and low words, so an entry costs 16 bytes and no object
+ * allocation. The fingerprint of all zeroes marks an empty slot, and is
+ * therefore held by a flag outside of the table. Reads are optimistic, and writes are serialised by a {@code StampedLock}, as in
+ * {@link ConcurrentLongMap}.
+ *
+ * The set trades exactness for memory: two distinct objects with the same
+ * fingerprint are treated as one, so the second would be dropped. With
+ * well-mixed 128-bit fingerprints, the probability of any collision among
+ * {@code n} objects is about {@code n^2 / 2^129}, i.e. below one in 10^20
+ * for a billion objects, which is far below the rate of hardware faults.
+ * Callers that cannot accept that bound should compare the objects.
+ */
+public class ConcurrentFingerprintSet {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final StampedLock lock;
+    private volatile Table table;
+    private volatile boolean containsZero;
+    private int size;
+
+    public ConcurrentFingerprintSet() {
+        lock = new StampedLock();
+        table = new Table(DEFAULT_CAPACITY);
+        containsZero = false;
+        size = 0;
+    }
+
+    private static int hash(long high, long low) {
+        long hash = high ^ Long.rotateLeft(low, 32);
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) hash;
+    }
+
+    public boolean contains(long high, long low) {
+        if (high == 0 && low == 0) return containsZero;
+        final long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            final boolean contains = table.contains(high, low);
+            if (lock.validate(stamp)) return contains;
+        }
+        final long readStamp = lock.readLock();
+        try {
+            return table.contains(high, low);
+        } finally {
+            lock.unlockRead(readStamp);
+        }
+    }
+
+    /**
+     * Adds a fingerprint to the set, atomically with respect to other threads.
+     *
+     * @return true if the fingerprint was not already in the set
+     */
+    public boolean add(long high, long low) {
+        if (contains(high, low)) return false;
+
+        final long stamp = lock.writeLock();
+        try {
+            if (high == 0 && low == 0) {
+                if (containsZero) return false;
+                containsZero = true;
+                size++;
+                return true;
+            }
+            if (!table.add(high, low)) return false;
+            if (++size > table.capacity() * LOAD_FACTOR) table = table.resize();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        final long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static class Table {
+
+        private final long[] words;
+        private final int mask;
+
+        Table(int capacity) {
+            words = new long[capacity << 1];
+            mask = capacity - 1;
+        }
+
+        int capacity() {
+            return words.length >> 1;
+        }
+
+        boolean contains(long high, long low) {
+            for (int i = hash(high, low) & mask; ; i = (i + 1) & mask) {
+                final long h = words[i << 1], l = words[(i << 1) + 1];
+                if (h == 0 && l == 0) return false;
+                else if (h == high && l == low) return true;
+            }
+        }
+
+        boolean add(long high, long low) {
+            int i = hash(high, low) & mask;
+            while (words[i << 1] != 0 || words[(i << 1) + 1] != 0) {
+                if (words[i << 1] == high && words[(i << 1) + 1] == low) return false;
+                i = (i + 1) & mask;
+            }
+            words[i << 1] = high;
+            words[(i << 1) + 1] = low;
+            return true;
+        }
+
+        Table resize() {
+            final Table resized = new Table(capacity() << 1);
+            for (int i = 0; i < words.length; i += 2) {
+                if (words[i] != 0 || words[i + 1] != 0) resized.add(words[i], words[i + 1]);
+            }
+            return resized;
+        }
+    }
+}
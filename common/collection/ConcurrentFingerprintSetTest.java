@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.common.collection;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+public class ConcurrentFingerprintSetTest {
+
+    @Test
+    public void test_fingerprints_are_added_once() {
+        ConcurrentFingerprintSet set = new ConcurrentFingerprintSet();
+        assertTrue(set.add(1, 2));
+        assertTrue(set.add(2, 1));
+        assertFalse(set.add(1, 2));
+        assertTrue(set.contains(1, 2));
+        assertTrue(set.contains(2, 1));
+        assertFalse(set.contains(1, 1));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    public void test_fingerprints_survive_resizing() {
+        ConcurrentFingerprintSet set = new ConcurrentFingerprintSet();
+        for (long i = 1; i <= 10_000; i++) assertTrue(set.add(i, -i));
+        for (long i = 1; i <= 10_000; i++) {
+            assertTrue(set.contains(i, -i));
+            assertFalse(set.contains(-i, i));
+        }
+        assertEquals(10_000, set.size());
+    }
+
+    @Test
+    public void test_zero_fingerprint_is_distinct_from_others() {
+        ConcurrentFingerprintSet set = new ConcurrentFingerprintSet();
+        assertFalse(set.contains(0, 0));
+        assertTrue(set.add(0, 0));
+        assertTrue(set.contains(0, 0));
+        assertFalse(set.add(0, 0));
+        assertFalse(set.contains(0, 1));
+        assertTrue(set.add(0, 1));
+        assertTrue(set.contains(0, 1));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    public void test_zero_fingerprint_survives_resizes() {
+        ConcurrentFingerprintSet set = new ConcurrentFingerprintSet();
+        assertTrue(set.add(0, 0));
+        for (long i = 1; i <= 1000; i++) assertTrue(set.add(0, i));
+        assertTrue(set.contains(0, 0));
+        assertFalse(set.add(0, 0));
+        assertEquals(1001, set.size());
+    }
+
+    @Test
+    public void test_concurrent_adds_succeed_once_per_fingerprint() throws Exception {
+        int threads = 8, fingerprints = 20_000;
+        ConcurrentFingerprintSet set = new ConcurrentFingerprintSet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> added = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            added.add(executor.submit(() -> {
+                int count = 0;
+                for (long i = 1; i <= fingerprints; i++) {
+                    if (set.add(i * 31, i)) count++;
+                }
+                return count;
+            }));
+        }
+        int total = 0;
+        for (Future<Integer> future : added) total += future.get();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(fingerprints, total);
+        assertEquals(fingerprints, set.size());
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.common.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+
+/**
+ * A thread-safe hash map from primitive {@code long} keys to object values.
+ *
+ * The map uses open addressing with linear probing over a pair of parallel
+ * arrays, so that a lookup does not allocate a boxed key or an entry object,
+ * and does not have to hash and compare an array of bytes. Reads are
+ * optimistic: they are performed without taking a lock, and are only retried
+ * under a read lock if a write happened concurrently. Writes are serialised by
+ * a {@code StampedLock}. Removals shift the following entries of the probe
+ * sequence backwards, so that the table never contains tombstones.
+ *
+ * @param <V> the type of the values held in the map
+ */
+public class ConcurrentLongMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final StampedLock lock;
+    private volatile Table<V> table;
+    private int size;
+
+    public ConcurrentLongMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ConcurrentLongMap(int expectedSize) {
+        lock = new StampedLock();
+        table = new Table<>(capacityFor(expectedSize));
+        size = 0;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        final int required = (int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR);
+        return Integer.highestOneBit(required - 1) << 1;
+    }
+
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    public V get(long key) {
+        final long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            final V value = table.get(key);
+            if (lock.validate(stamp)) return value;
+        }
+        final long readStamp = lock.readLock();
+        try {
+            return table.get(key);
+        } finally {
+            lock.unlockRead(readStamp);
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public V computeIfAbsent(long key, LongFunction<? extends V> function) {
+        final V existing = get(key);
+        if (existing != null) return existing;
+
+        final long stamp = lock.writeLock();
+        try {
+            V value = table.get(key);
+            if (value == null) {
+                value = function.apply(key);
+                if (value != null) insert(key, value);
+            }
+            return value;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public V put(long key, V value) {
+        assert value != null;
+        final long stamp = lock.writeLock();
+        try {
+            return insert(key, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public V remove(long key) {
+        final long stamp = lock.writeLock();
+        try {
+            final V removed = table.remove(key);
+            if (removed != null) size--;
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        final long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns a stream over a snapshot of the values in the map, taken at
+     * the time of the call, so that the stream can be consumed (including in
+     * parallel) while the map continues to be modified.
+     *
+     * @return a stream of the values in the map
+     */
+    public Stream<V> values() {
+        final long stamp = lock.readLock();
+        try {
+            return table.values().stream();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void clear() {
+        final long stamp = lock.writeLock();
+        try {
+            table = new Table<>(DEFAULT_CAPACITY);
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private V insert(long key, V value) {
+        final V previous = table.put(key, value);
+        if (previous == null && ++size > table.capacity() * LOAD_FACTOR) table = table.resize();
+        return previous;
+    }
+
+    private static class Table<V> {
+
+        private final long[] keys;
+        private final Object[] values;
+        private final int mask;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+            mask = capacity - 1;
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        V get(long key) {
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                final Object value = values[i];
+                if (value == null) return null;
+                else if (keys[i] == key) return (V) value;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        V put(long key, V value) {
+            int i = hash(key) & mask;
+            while (values[i] != null) {
+                if (keys[i] == key) {
+                    final V previous = (V) values[i];
+                    values[i] = value;
+                    return previous;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        V remove(long key) {
+            int i = hash(key) & mask;
+            while (values[i] != null && keys[i] != key) i = (i + 1) & mask;
+            if (values[i] == null) return null;
+
+            final V removed = (V) values[i];
+            int gap = i;
+            for (int j = (gap + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+                final int home = hash(keys[j]) & mask;
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            values[gap] = null;
+            return removed;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<V> values() {
+            final List<V> list = new ArrayList<>();
+            for (Object value : values) {
+                if (value != null) list.add((V) value);
+            }
+            return list;
+        }
+
+        @SuppressWarnings("unchecked")
+        Table<V> resize() {
+            final Table<V> resized = new Table<>(keys.length << 1);
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null) resized.put(keys[i], (V) values[i]);
+            }
+            return resized;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.common.collection;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+
+public class ConcurrentLongMapTest {
+
+    @Test
+    public void test_values_are_put_and_replaced() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+        assertNull(map.put(1, "a"));
+        assertNull(map.put(-1, "b"));
+        assertEquals("a", map.put(1, "c"));
+        assertEquals("c", map.get(1));
+        assertEquals("b", map.get(-1));
+        assertNull(map.get(2));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void test_values_survive_resizing() {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>(1);
+        for (long i = 1; i <= 10_000; i++) assertNull(map.put(i * 31, i));
+        for (long i = 1; i <= 10_000; i++) {
+            assertEquals(Long.valueOf(i), map.get(i * 31));
+            assertNull(map.get(i * 31 + 1));
+        }
+        assertEquals(10_000, map.size());
+        assertEquals(10_000, map.values().collect(Collectors.toSet()).size());
+    }
+
+    @Test
+    public void test_removals_keep_colliding_keys_reachable() {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+        for (long i = 0; i < 1_000; i++) map.put(i, i);
+        for (long i = 0; i < 1_000; i += 2) assertEquals(Long.valueOf(i), map.remove(i));
+        assertNull(map.remove(0));
+        for (long i = 0; i < 1_000; i++) {
+            if (i % 2 == 0) assertFalse(map.containsKey(i));
+            else assertEquals(Long.valueOf(i), map.get(i));
+        }
+        assertEquals(500, map.size());
+
+        // the slots that were freed by removals are reused
+        for (long i = 0; i < 1_000; i += 2) map.put(i, -i);
+        for (long i = 0; i < 1_000; i++) assertEquals(Long.valueOf(i % 2 == 0 ? -i : i), map.get(i));
+        assertEquals(1_000, map.size());
+    }
+
+    @Test
+    public void test_zero_key_is_distinct_from_empty_slots() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+        assertNull(map.get(0));
+        assertFalse(map.containsKey(0));
+        map.put(0, "zero");
+        assertEquals("zero", map.get(0));
+        assertNull(map.get(1));
+        assertEquals("zero", map.remove(0));
+        assertNull(map.get(0));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void test_compute_if_absent_only_computes_absent_keys() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+        assertEquals("1", map.computeIfAbsent(1, Long::toString));
+        assertEquals("1", map.computeIfAbsent(1, key -> "other"));
+        assertNull(map.computeIfAbsent(2, key -> null));
+        assertFalse(map.containsKey(2));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void test_concurrent_puts_are_read_by_concurrent_gets() throws Exception {
+        int threads = 8, keys = 20_000;
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> read = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            read.add(executor.submit(() -> {
+                int count = 0;
+                for (long i = thread; i < keys; i += threads) {
+                    assertNull(map.put(i, -i));
+                    // the keys of the other threads are either absent, or mapped to their value
+                    for (long j = i - thread; j < i - thread + threads; j++) {
+                        Long value = map.get(j);
+                        if (value != null) {
+                            assertEquals(Long.valueOf(-j), value);
+                            count++;
+                        }
+                    }
+                }
+                return count;
+            }));
+        }
+        int total = 0;
+        for (Future<Integer> future : read) total += future.get();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(total >= keys);
+        assertEquals(keys, map.size());
+        for (long i = 0; i < keys; i++) assertEquals(Long.valueOf(-i), map.get(i));
+    }
+}
@@ -23,21 +23,36 @@ import grakn.common.concurrent.actor.EventLoopGroup;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ExecutorService {
 
     public static int PARALLELISATION_FACTOR = -1;
+    private static final int PLANNER_THREADS = 2;
     private static ExecutorService singleton = null;
 
     private final ForkJoinPool forkJoinPool;
     private final EventLoopGroup eventLoopGroup;
     private final ScheduledThreadPoolExecutor scheduledThreadPool;
+    private final ThreadPoolExecutor plannerThreadPool;
 
     private ExecutorService(int parallelisationFactor) {
         forkJoinPool = (ForkJoinPool) Executors.newWorkStealingPool(parallelisationFactor);
         eventLoopGroup = new EventLoopGroup(parallelisationFactor, "grakn-elg");
         scheduledThreadPool = new ScheduledThreadPoolExecutor(1);
         scheduledThreadPool.setRemoveOnCancelPolicy(true);
+        plannerThreadPool = (ThreadPoolExecutor) Executors.newFixedThreadPool(PLANNER_THREADS, daemonThreads("grakn-planner"));
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        final AtomicInteger count = new AtomicInteger(0);
+        return runnable -> {
+            final Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 
     public static synchronized void init(int parallelisationFactor) {
@@ -58,6 +73,17 @@ public class ExecutorService {
         return singleton.scheduledThreadPool;
     }
 
+    /**
+     * Returns the pool that traversal planners re-optimise their plans on, in
+     * the background of the queries that use them. The pool has few threads,
+     * which bounds the number of solvers running at a time, and its threads
+     * may block on a planner without holding up any other work.
+     */
+    public static ThreadPoolExecutor plannerThreadPool() {
+        assert singleton != null;
+        return singleton.plannerThreadPool;
+    }
+
     public static EventLoopGroup eventLoopGroup() {
         assert singleton != null;
         return singleton.eventLoopGroup;
@@ -149,6 +149,12 @@ public abstract class ErrorMessage extends grakn.common.exception.ErrorMessage {
                 new Transaction(9, "Transaction can not be null.");
         public static final Transaction BAD_TRANSACTION_TYPE =
                 new Transaction(10, "The transaction type '%s' was not recognised.");
+        public static final Transaction BULK_IN_SCHEMA_SESSION =
+                new Transaction(11, "Bulk transactions can only be opened in data sessions.");
+        public static final Transaction BULK_READ_AFTER_FLUSH =
+                new Transaction(12, "Bulk transactions cannot be read from once their writes have been flushed into SST files.");
+        public static final Transaction BULK_COMMIT_INCOMPLETE =
+                new Transaction(13, "The bulk transaction failed after ingesting %s of %s SST files, so the database is partially loaded: %s");
 
         private static final String codePrefix = "TXN";
         private static final String messagePrefix = "Invalid Transaction Operation";
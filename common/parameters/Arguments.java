@@ -51,14 +51,17 @@ public class Arguments {
 
         public enum Type {
             READ(0),
-            WRITE(1);
+            WRITE(1),
+            BULK(2);
 
             private final int id;
             private final boolean isWrite;
+            private final boolean isBulk;
 
             Type(int id) {
                 this.id = id;
-                this.isWrite = id == 1;
+                this.isWrite = id == 1 || id == 2;
+                this.isBulk = id == 2;
             }
 
             public static Arguments.Transaction.Type of(int value) {
@@ -71,6 +74,8 @@ public class Arguments {
             public boolean isRead() { return !isWrite; }
 
             public boolean isWrite() { return isWrite; }
+
+            public boolean isBulk() { return isBulk; }
         }
     }
 }
@@ -26,6 +26,9 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
     public static final boolean DEFAULT_INFER = true;
     public static final boolean DEFAULT_EXPLAIN = false;
     public static final int DEFAULT_BATCH_SIZE = 50;
+    public static final int DEFAULT_RESOLVER_BATCH_SIZE = 16;
+    public static final int DEFAULT_RESOLVER_MAX_PENDING_REQUESTS = 64;
+    public static final int DEFAULT_RESOLVER_MAX_COMPLETED_REQUESTS = 10_000;
     public static final int DEFAULT_SESSION_IDLE_TIMEOUT_MILLIS = 10000;
     public static final int DEFAULT_SCHEMA_LOCK_ACQUIRE_TIMEOUT_MILLIS = 10000;
 
@@ -33,6 +36,9 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
     private Boolean infer = null;
     private Boolean explain = null;
     private Integer batchSize = null;
+    private Integer resolverBatchSize = null;
+    private Integer resolverMaxPendingRequests = null;
+    private Integer resolverMaxCompletedRequests = null;
     private Integer sessionIdlTimeoutMillis = 10000;
     private Integer schemaLockAcquireTimeoutMillis = 10000;
 
@@ -76,6 +82,51 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
         return getThis();
     }
 
+    /**
+     * The number of answers that a resolver of the reasoner may return in one message to the resolver
+     * that requested them, where 1 means that every answer is requested and returned on its own.
+     */
+    public int resolverBatchSize() {
+        if (resolverBatchSize != null) return resolverBatchSize;
+        else if (parent != null) return parent.resolverBatchSize();
+        else return DEFAULT_RESOLVER_BATCH_SIZE;
+    }
+
+    public SELF resolverBatchSize(int resolverBatchSize) {
+        this.resolverBatchSize = resolverBatchSize;
+        return getThis();
+    }
+
+    /**
+     * The number of answers that the reasoner may be resolving for a query at any time, no matter how
+     * many answers the consumer of the query requires, so that its resolvers only work on demand.
+     */
+    public int resolverMaxPendingRequests() {
+        if (resolverMaxPendingRequests != null) return resolverMaxPendingRequests;
+        else if (parent != null) return parent.resolverMaxPendingRequests();
+        else return DEFAULT_RESOLVER_MAX_PENDING_REQUESTS;
+    }
+
+    public SELF resolverMaxPendingRequests(int resolverMaxPendingRequests) {
+        this.resolverMaxPendingRequests = resolverMaxPendingRequests;
+        return getThis();
+    }
+
+    /**
+     * The number of completely resolved requests that every resolver remembers, after their state has
+     * been evicted, so that any repeated request is answered without being resolved again.
+     */
+    public int resolverMaxCompletedRequests() {
+        if (resolverMaxCompletedRequests != null) return resolverMaxCompletedRequests;
+        else if (parent != null) return parent.resolverMaxCompletedRequests();
+        else return DEFAULT_RESOLVER_MAX_COMPLETED_REQUESTS;
+    }
+
+    public SELF resolverMaxCompletedRequests(int resolverMaxCompletedRequests) {
+        this.resolverMaxCompletedRequests = resolverMaxCompletedRequests;
+        return getThis();
+    }
+
     public int sessionIdleTimeoutMillis() {
         if (sessionIdlTimeoutMillis != null) return sessionIdlTimeoutMillis;
         else if (parent != null) return parent.sessionIdleTimeoutMillis();
@@ -101,6 +152,33 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
 
     public static class Database extends Options<Options<?, ?>, Database> {
 
+        public static final long DEFAULT_STORAGE_BLOCK_CACHE_SIZE = 256L * 1024 * 1024;
+        public static final long DEFAULT_STORAGE_WRITE_BUFFER_SIZE = 64L * 1024 * 1024;
+        public static final int DEFAULT_STORAGE_MAX_WRITE_BUFFER_NUMBER = 2;
+        public static final int DEFAULT_STORAGE_MAX_BACKGROUND_JOBS = 2;
+        public static final CompactionStyle DEFAULT_STORAGE_COMPACTION_STYLE = CompactionStyle.LEVEL;
+        public static final long DEFAULT_STORAGE_RATE_LIMIT_BYTES_PER_SECOND = 0L;
+        public static final boolean DEFAULT_STORAGE_DIRECT_IO_FOR_FLUSH_AND_COMPACTION = false;
+        public static final int DEFAULT_CACHE_SIZE = 10_000;
+        public static final int DEFAULT_CACHE_TIMEOUT_MINUTES = 1_440;
+        public static final long DEFAULT_CACHE_ADJACENCY_SIZE = 0L;
+        public static final int DEFAULT_PLANNER_EXHAUSTIVE_MAX_EDGES = 5;
+        public static final int MAX_PLANNER_EXHAUSTIVE_MAX_EDGES = 8;
+
+        public enum CompactionStyle {LEVEL, UNIVERSAL}
+
+        private Long storageBlockCacheSize = null;
+        private Long storageWriteBufferSize = null;
+        private Integer storageMaxWriteBufferNumber = null;
+        private Integer storageMaxBackgroundJobs = null;
+        private CompactionStyle storageCompactionStyle = null;
+        private Long storageRateLimitBytesPerSecond = null;
+        private Boolean storageDirectIOForFlushAndCompaction = null;
+        private Integer cacheSize = null;
+        private Integer cacheTimeoutMinutes = null;
+        private Long cacheAdjacencySize = null;
+        private Integer plannerExhaustiveMaxEdges = null;
+
         @Override
         Database getThis() {
             return this;
@@ -109,6 +187,136 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
         public Database parent(Options<?, ?> parent) {
             throw GraknException.of(ILLEGAL_ARGUMENT);
         }
+
+        public long storageBlockCacheSize() {
+            return storageBlockCacheSize != null ? storageBlockCacheSize : DEFAULT_STORAGE_BLOCK_CACHE_SIZE;
+        }
+
+        public Database storageBlockCacheSize(long storageBlockCacheSize) {
+            this.storageBlockCacheSize = storageBlockCacheSize;
+            return this;
+        }
+
+        public long storageWriteBufferSize() {
+            return storageWriteBufferSize != null ? storageWriteBufferSize : DEFAULT_STORAGE_WRITE_BUFFER_SIZE;
+        }
+
+        public Database storageWriteBufferSize(long storageWriteBufferSize) {
+            this.storageWriteBufferSize = storageWriteBufferSize;
+            return this;
+        }
+
+        public int storageMaxWriteBufferNumber() {
+            return storageMaxWriteBufferNumber != null ? storageMaxWriteBufferNumber : DEFAULT_STORAGE_MAX_WRITE_BUFFER_NUMBER;
+        }
+
+        public Database storageMaxWriteBufferNumber(int storageMaxWriteBufferNumber) {
+            this.storageMaxWriteBufferNumber = storageMaxWriteBufferNumber;
+            return this;
+        }
+
+        public int storageMaxBackgroundJobs() {
+            return storageMaxBackgroundJobs != null ? storageMaxBackgroundJobs : DEFAULT_STORAGE_MAX_BACKGROUND_JOBS;
+        }
+
+        public Database storageMaxBackgroundJobs(int storageMaxBackgroundJobs) {
+            this.storageMaxBackgroundJobs = storageMaxBackgroundJobs;
+            return this;
+        }
+
+        public CompactionStyle storageCompactionStyle() {
+            return storageCompactionStyle != null ? storageCompactionStyle : DEFAULT_STORAGE_COMPACTION_STYLE;
+        }
+
+        public Database storageCompactionStyle(CompactionStyle storageCompactionStyle) {
+            this.storageCompactionStyle = storageCompactionStyle;
+            return this;
+        }
+
+        /**
+         * The rate, in bytes per second, at which RocksDB may write to disk
+         * for flushes and compactions, where 0 means that it is unlimited.
+         */
+        public long storageRateLimitBytesPerSecond() {
+            return storageRateLimitBytesPerSecond != null ? storageRateLimitBytesPerSecond : DEFAULT_STORAGE_RATE_LIMIT_BYTES_PER_SECOND;
+        }
+
+        public Database storageRateLimitBytesPerSecond(long storageRateLimitBytesPerSecond) {
+            this.storageRateLimitBytesPerSecond = storageRateLimitBytesPerSecond;
+            return this;
+        }
+
+        public boolean storageDirectIOForFlushAndCompaction() {
+            return storageDirectIOForFlushAndCompaction != null ? storageDirectIOForFlushAndCompaction : DEFAULT_STORAGE_DIRECT_IO_FOR_FLUSH_AND_COMPACTION;
+        }
+
+        public Database storageDirectIOForFlushAndCompaction(boolean storageDirectIOForFlushAndCompaction) {
+            this.storageDirectIOForFlushAndCompaction = storageDirectIOForFlushAndCompaction;
+            return this;
+        }
+
+        public int cacheSize() {
+            return cacheSize != null ? cacheSize : DEFAULT_CACHE_SIZE;
+        }
+
+        public Database cacheSize(int cacheSize) {
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        public int cacheTimeoutMinutes() {
+            return cacheTimeoutMinutes != null ? cacheTimeoutMinutes : DEFAULT_CACHE_TIMEOUT_MINUTES;
+        }
+
+        public Database cacheTimeoutMinutes(int cacheTimeoutMinutes) {
+            this.cacheTimeoutMinutes = cacheTimeoutMinutes;
+            return this;
+        }
+
+        /**
+         * The maximum number of edges of persisted thing vertices that a database
+         * may cache across read transactions, where 0 means that it is disabled.
+         */
+        public long cacheAdjacencySize() {
+            return cacheAdjacencySize != null ? cacheAdjacencySize : DEFAULT_CACHE_ADJACENCY_SIZE;
+        }
+
+        public Database cacheAdjacencySize(long cacheAdjacencySize) {
+            this.cacheAdjacencySize = cacheAdjacencySize;
+            return this;
+        }
+
+        /**
+         * The maximum number of edges of a traversal structure that is planned by
+         * an exhaustive search, instead of the linear programming solver. The cost
+         * of the search grows factorially with the number of edges, so this is at
+         * most {@link #MAX_PLANNER_EXHAUSTIVE_MAX_EDGES}.
+         */
+        public int plannerExhaustiveMaxEdges() {
+            return plannerExhaustiveMaxEdges != null
+                    ? Math.min(plannerExhaustiveMaxEdges, MAX_PLANNER_EXHAUSTIVE_MAX_EDGES)
+                    : DEFAULT_PLANNER_EXHAUSTIVE_MAX_EDGES;
+        }
+
+        public Database plannerExhaustiveMaxEdges(int plannerExhaustiveMaxEdges) {
+            this.plannerExhaustiveMaxEdges = plannerExhaustiveMaxEdges;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "storage.block-cache-size=" + storageBlockCacheSize() +
+                    ", storage.write-buffer-size=" + storageWriteBufferSize() +
+                    ", storage.max-write-buffer-number=" + storageMaxWriteBufferNumber() +
+                    ", storage.max-background-jobs=" + storageMaxBackgroundJobs() +
+                    ", storage.compaction-style=" + storageCompactionStyle() +
+                    ", storage.rate-limit=" + storageRateLimitBytesPerSecond() +
+                    ", storage.direct-io=" + storageDirectIOForFlushAndCompaction() +
+                    ", cache.size=" + cacheSize() +
+                    ", cache.timeout-minutes=" + cacheTimeoutMinutes() +
+                    ", cache.adjacency-size=" + cacheAdjacencySize() +
+                    ", planner.exhaustive-max-edges=" + plannerExhaustiveMaxEdges();
+        }
     }
 
     public static class Session extends Options<Database, Session> {
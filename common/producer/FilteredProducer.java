@@ -58,5 +58,10 @@ public class FilteredProducer<T> implements Producer<T> {
         public void done(Producer<T> producer) {
             baseSink.done(FilteredProducer.this);
         }
+
+        @Override
+        public void fail(Producer<T> producer, Exception error) {
+            baseSink.fail(FilteredProducer.this, error);
+        }
     }
 }
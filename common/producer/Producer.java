@@ -39,5 +39,11 @@ public interface Producer<T> {
         void put(U item);
 
         void done(Producer<U> producer);
+
+        /**
+         * Fails every producer of this sink, with the error the given producer failed with,
+         * so that the consumer of the answers receives the error instead of the answers.
+         */
+        void fail(Producer<U> producer, Exception error);
     }
 }
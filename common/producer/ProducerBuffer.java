@@ -24,6 +24,7 @@ import grakn.core.common.concurrent.ManagedBlockingQueue;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
 
+import javax.annotation.Nullable;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -73,7 +74,15 @@ public class ProducerBuffer<T> {
         }
     }
 
-    private static class Done {}
+    private static class Done {
+
+        @Nullable
+        private final Exception error;
+
+        private Done(@Nullable Exception error) {
+            this.error = error;
+        }
+    }
     private enum State {EMPTY, FETCHED, COMPLETED}
 
     public class Iterator implements ResourceIterator<T> {
@@ -104,6 +113,9 @@ public class ProducerBuffer<T> {
             } else {
                 recycle();
                 state = State.COMPLETED;
+                Exception error = result.second().error;
+                if (error instanceof GraknException) throw (GraknException) error;
+                else if (error != null) throw GraknException.of(error);
             }
 
             return state == State.FETCHED;
@@ -141,7 +153,7 @@ public class ProducerBuffer<T> {
 
                 if (producers.isEmpty()) {
                     try {
-                        queue.put(Either.second(new Done()));
+                        queue.put(Either.second(new Done(null)));
                     } catch (InterruptedException e) {
                         throw GraknException.of(e);
                     }
@@ -152,5 +164,14 @@ public class ProducerBuffer<T> {
                 throw GraknException.of(ILLEGAL_STATE);
             }
         }
+
+        public void fail(Producer<T> caller, Exception error) {
+            // the producers are recycled by the iterator, once it receives the error
+            try {
+                queue.put(Either.second(new Done(error)));
+            } catch (InterruptedException e) {
+                throw GraknException.of(e);
+            }
+        }
     }
 }
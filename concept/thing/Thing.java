@@ -62,6 +62,16 @@ public interface Thing extends Concept {
      */
     void setHas(Attribute attribute);
 
+    /**
+     * Set an {@code Attribute} to be owned by this {@code Thing}, through an
+     * edge that is inferred if {@code isInferred} is true, and is then never
+     * committed.
+     *
+     * @param attribute  that will be owned by this {@code Thing}
+     * @param isInferred whether the ownership was concluded by a rule
+     */
+    void setHas(Attribute attribute, boolean isInferred);
+
     /**
      * Remove an {@code Attribute} from being owned by this {@code Thing}.
      *
@@ -93,6 +93,11 @@ public abstract class ThingImpl implements Thing {
 
     @Override
     public void setHas(Attribute attribute) {
+        setHas(attribute, false);
+    }
+
+    @Override
+    public void setHas(Attribute attribute, boolean isInferred) {
         if (getType().getOwns().noneMatch(t -> t.equals(attribute.getType()))) {
             throw exception(GraknException.of(THING_CANNOT_OWN_ATTRIBUTE, attribute.getType().getLabel(), vertex.type().label()));
         } else if (getType().getOwns(true).anyMatch(t -> t.equals(attribute.getType()))) {
@@ -102,7 +107,7 @@ public abstract class ThingImpl implements Thing {
                 throw exception(GraknException.of(THING_KEY_TAKEN, attribute.getType().getLabel(), getType().getLabel()));
             }
         }
-        vertex.outs().put(HAS, ((AttributeImpl<?>) attribute).vertex);
+        vertex.outs().put(HAS, ((AttributeImpl<?>) attribute).vertex, isInferred);
     }
 
     @Override
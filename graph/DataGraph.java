@@ -18,7 +18,9 @@
 
 package grakn.core.graph;
 
+import grabl.tracing.client.GrablTracingThreadStatic.ThreadTrace;
 import grakn.common.collection.Pair;
+import grakn.core.common.collection.ConcurrentLongMap;
 import grakn.core.common.exception.GraknCheckedException;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
@@ -27,9 +29,11 @@ import grakn.core.graph.iid.EdgeIID;
 import grakn.core.graph.iid.PrefixIID;
 import grakn.core.graph.iid.VertexIID;
 import grakn.core.graph.util.Encoding;
+import grakn.core.graph.util.HeavyHitters;
 import grakn.core.graph.util.KeyGenerator;
 import grakn.core.graph.util.StatisticsBytes;
 import grakn.core.graph.util.Storage;
+import grakn.core.graph.util.ValueHistogram;
 import grakn.core.graph.vertex.AttributeVertex;
 import grakn.core.graph.vertex.ThingVertex;
 import grakn.core.graph.vertex.TypeVertex;
@@ -37,9 +41,16 @@ import grakn.core.graph.vertex.Vertex;
 import grakn.core.graph.vertex.impl.AttributeVertexImpl;
 import grakn.core.graph.vertex.impl.ThingVertexImpl;
 
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -47,51 +58,74 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
+import static grabl.tracing.client.GrablTracingThreadStatic.traceOnThread;
 import static grakn.common.collection.Collections.list;
 import static grakn.common.collection.Collections.pair;
+import static grakn.common.collection.Collections.set;
 import static grakn.common.util.Objects.className;
 import static grakn.core.common.collection.Bytes.bytesToLong;
+import static grakn.core.common.collection.Bytes.compareBytes;
 import static grakn.core.common.collection.Bytes.join;
 import static grakn.core.common.collection.Bytes.longToBytes;
+import static grakn.core.common.collection.Bytes.longToSortedBytes;
+import static grakn.core.common.collection.Bytes.sortedBytesToLong;
 import static grakn.core.common.collection.Bytes.stripPrefix;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
 import static grakn.core.common.exception.ErrorMessage.ThingWrite.ILLEGAL_STRING_SIZE;
+import static grakn.core.common.iterator.Iterators.iterate;
 import static grakn.core.common.iterator.Iterators.link;
 import static grakn.core.common.iterator.Iterators.tree;
+import static grakn.core.graph.iid.VertexIID.Thing.PREFIX_W_TYPE_LENGTH;
 import static grakn.core.graph.iid.VertexIID.Thing.generate;
+import static grakn.core.graph.util.Encoding.Edge.Thing.HAS;
+import static grakn.core.graph.util.Encoding.Edge.Thing.PLAYING;
+import static grakn.core.graph.util.Encoding.Edge.Thing.RELATING;
+import static grakn.core.graph.util.Encoding.Edge.Thing.ROLEPLAYER;
 import static grakn.core.graph.util.Encoding.Edge.Type.SUB;
 import static grakn.core.graph.util.Encoding.Prefix.VERTEX_ATTRIBUTE_TYPE;
+import static grakn.core.graph.util.Encoding.Prefix.VERTEX_ENTITY;
 import static grakn.core.graph.util.Encoding.Prefix.VERTEX_ENTITY_TYPE;
 import static grakn.core.graph.util.Encoding.Prefix.VERTEX_RELATION_TYPE;
+import static grakn.core.graph.util.Encoding.Prefix.VERTEX_ROLE;
 import static grakn.core.graph.util.Encoding.StatisticsCountJobValue.CREATED;
 import static grakn.core.graph.util.Encoding.StatisticsCountJobValue.DELETED;
 import static grakn.core.graph.util.Encoding.ValueType.STRING_MAX_SIZE;
 import static grakn.core.graph.util.Encoding.Vertex.Thing.ATTRIBUTE;
 import static grakn.core.graph.util.StatisticsBytes.attributeCountJobKey;
 import static grakn.core.graph.util.StatisticsBytes.attributeCountedKey;
+import static grakn.core.graph.util.StatisticsBytes.attributeSampleKey;
 import static grakn.core.graph.util.StatisticsBytes.hasEdgeCountJobKey;
 import static grakn.core.graph.util.StatisticsBytes.hasEdgeCountKey;
 import static grakn.core.graph.util.StatisticsBytes.hasEdgeTotalCountKey;
+import static grakn.core.graph.util.StatisticsBytes.heavyHittersKey;
+import static grakn.core.graph.util.StatisticsBytes.rolePlayerEdgeCountJobKey;
+import static grakn.core.graph.util.StatisticsBytes.rolePlayerEdgeCountedKey;
+import static grakn.core.graph.util.StatisticsBytes.thingEdgesBackfillCursorKey;
+import static grakn.core.graph.util.StatisticsBytes.thingEdgeCountKey;
 import static grakn.core.graph.util.StatisticsBytes.vertexCountKey;
 import static grakn.core.graph.util.StatisticsBytes.vertexTransitiveCountKey;
 import static java.util.stream.Stream.concat;
 
 public class DataGraph implements Graph {
 
+    private static final String TRACE_PREFIX = "data_graph.";
     private final Storage.Data storage;
     private final SchemaGraph schemaGraph;
     private final KeyGenerator.Data.Buffered keyGenerator;
-    private final ConcurrentMap<VertexIID.Thing, ThingVertex> thingsByIID;
+    private final KeyGenerator.Data.Inferred inferredKeyGenerator;
+    private final ThingsByIID thingsByIID;
     private final ConcurrentMap<VertexIID.Type, Set<ThingVertex>> thingsByTypeIID;
     private final AttributesByIID attributesByIID;
     private final Statistics statistics;
     private boolean isModified;
+    private boolean hasInferred;
 
     public DataGraph(Storage.Data storage, SchemaGraph schemaGraph) {
         this.storage = storage;
         this.schemaGraph = schemaGraph;
         keyGenerator = new KeyGenerator.Data.Buffered();
-        thingsByIID = new ConcurrentHashMap<>();
+        inferredKeyGenerator = new KeyGenerator.Data.Inferred();
+        thingsByIID = new ThingsByIID();
         thingsByTypeIID = new ConcurrentHashMap<>();
         attributesByIID = new AttributesByIID();
         statistics = new Statistics(schemaGraph, storage);
@@ -111,7 +145,7 @@ public class DataGraph implements Graph {
     }
 
     public Stream<ThingVertex> vertices() {
-        return concat(thingsByIID.values().stream(), attributesByIID.valueStream());
+        return concat(thingsByIID.valueStream(), attributesByIID.valueStream());
     }
 
     public ThingVertex get(VertexIID.Thing iid) {
@@ -129,7 +163,6 @@ public class DataGraph implements Graph {
     }
 
     public ThingVertex convert(VertexIID.Thing iid) {
-        // TODO: benchmark caching persisted edges
         // assert storage.isOpen();
         // enable the the line above
         if (iid.encoding().equals(ATTRIBUTE)) return convert(iid.asAttribute());
@@ -167,11 +200,12 @@ public class DataGraph implements Graph {
     public ThingVertex create(TypeVertex typeVertex, boolean isInferred) {
         assert storage.isOpen();
         assert !typeVertex.isAttributeType();
-        final VertexIID.Thing iid = generate(keyGenerator, typeVertex.iid(), typeVertex.properLabel());
+        final KeyGenerator.Data generator = isInferred ? inferredKeyGenerator : keyGenerator;
+        final VertexIID.Thing iid = generate(generator, typeVertex.iid(), typeVertex.properLabel());
         final ThingVertex vertex = new ThingVertexImpl.Buffered(this, iid, isInferred);
         thingsByIID.put(iid, vertex);
-        thingsByTypeIID.computeIfAbsent(typeVertex.iid(), t -> new HashSet<>()).add(vertex);
-        statistics.vertexCreated(typeVertex.iid());
+        thingsByTypeIID.computeIfAbsent(typeVertex.iid(), t -> ConcurrentHashMap.newKeySet()).add(vertex);
+        if (!isInferred) statistics.vertexCreated(typeVertex.iid());
         return vertex;
     }
 
@@ -193,6 +227,94 @@ public class DataGraph implements Graph {
         else return link(list(thingsByTypeIID.get(typeVertex.iid()).iterator(), storageIterator)).distinct();
     }
 
+    /**
+     * Get the instances of a given type, split into ranges of their IIDs that
+     * can be iterated independently of each other, such as by parallel workers.
+     *
+     * The keys of entities, relations and roles are generated in sequence, so
+     * the ranges are split evenly between the first and the last key of the
+     * type in storage. The instances of attribute types are sorted by value,
+     * and the instances buffered by this transaction are not in storage, so
+     * in either case the instances are returned in a single range.
+     *
+     * @param typeVertex the type of the instances to retrieve
+     * @param ranges     the maximum number of ranges to split the instances into
+     * @return the iterators of the instances within each range
+     */
+    public List<ResourceIterator<ThingVertex>> get(TypeVertex typeVertex, int ranges) {
+        if (ranges <= 1 || typeVertex.isAttributeType() || thingsByTypeIID.containsKey(typeVertex.iid())) {
+            return list(get(typeVertex));
+        }
+
+        final byte[] prefix = join(typeVertex.iid().bytes(), Encoding.Edge.ISA.in().bytes());
+        final byte[] lastKey = storage.getLastKey(prefix);
+        final ResourceIterator<byte[]> keys = storage.iterate(prefix, (key, value) -> key);
+        final byte[] firstKey = keys.hasNext() ? keys.next() : null;
+        keys.recycle();
+        if (firstKey == null || lastKey == null) return list(get(typeVertex));
+
+        final long first = sortedBytesToLong(firstKey, prefix.length + PREFIX_W_TYPE_LENGTH);
+        final long last = sortedBytesToLong(lastKey, prefix.length + PREFIX_W_TYPE_LENGTH);
+        if (last - first < ranges) return list(get(typeVertex));
+
+        final byte[] thingPrefix = join(prefix, PrefixIID.of(typeVertex.encoding().instance()).bytes(), typeVertex.iid().bytes());
+        final long width = (last - first) / ranges + 1;
+        final List<ResourceIterator<ThingVertex>> iterators = new ArrayList<>(ranges);
+        for (long lower = first; lower <= last; lower += width) {
+            final long upper = Math.min(lower + width, last + 1);
+            iterators.add(storage.iterate(
+                    join(thingPrefix, longToSortedBytes(lower)), join(thingPrefix, longToSortedBytes(upper)),
+                    (key, value) -> convert(EdgeIID.InwardsISA.of(key).end())
+            ));
+        }
+        return iterators;
+    }
+
+    /**
+     * Get the attributes of a given type whose values fall within a range.
+     *
+     * The {@code InwardsISA} edges of an attribute type are sorted by the
+     * value of the attribute, as the values are encoded in the attribute IID
+     * as sortable bytes. Thus, we can seek directly to the lower bound of the
+     * range, and stop reading as soon as we reach the upper bound, instead of
+     * scanning through every instance of the type. A missing bound means that
+     * the range is unbounded on that side.
+     *
+     * @param type       the attribute type of the attributes to retrieve
+     * @param lowerBound the IID of the smallest attribute (inclusive) to retrieve
+     * @param upperBound the IID of the largest attribute (inclusive) to retrieve
+     * @return an iterator of the attributes of the type whose values are within the range
+     */
+    public ResourceIterator<AttributeVertex<?>> get(TypeVertex type, @Nullable VertexIID.Attribute<?> lowerBound,
+                                                    @Nullable VertexIID.Attribute<?> upperBound) {
+        assert storage.isOpen();
+        assert type.isAttributeType();
+
+        final byte[] isaPrefix = join(type.iid().bytes(), Encoding.Edge.ISA.in().bytes());
+        final byte[] valuePrefix = join(ATTRIBUTE.prefix().bytes(), type.iid().bytes(), type.valueType().bytes());
+        final byte[] lowerIID = lowerBound != null ? lowerBound.bytes() : valuePrefix;
+        final byte[] upperIID;
+        if (upperBound != null) {
+            upperIID = join(upperBound.bytes(), new byte[]{0});
+        } else {
+            upperIID = Arrays.copyOf(valuePrefix, valuePrefix.length);
+            upperIID[upperIID.length - 1] = (byte) (upperIID[upperIID.length - 1] + 1);
+            assert upperIID[upperIID.length - 1] != Byte.MIN_VALUE;
+        }
+
+        final ResourceIterator<AttributeVertex<?>> storageIterator = storage.iterate(
+                join(isaPrefix, lowerIID), join(isaPrefix, upperIID),
+                (key, value) -> convert(EdgeIID.InwardsISA.of(key).end().asAttribute())
+        );
+        if (!thingsByTypeIID.containsKey(type.iid())) return storageIterator;
+        else {
+            final ResourceIterator<AttributeVertex<?>> bufferedIterator = iterate(thingsByTypeIID.get(type.iid()))
+                    .filter(v -> compareBytes(v.iid().bytes(), lowerIID) >= 0 && compareBytes(v.iid().bytes(), upperIID) < 0)
+                    .<AttributeVertex<?>>map(ThingVertex::asAttribute);
+            return link(list(bufferedIterator, storageIterator)).distinct();
+        }
+    }
+
     public AttributeVertex<Boolean> get(TypeVertex type, boolean value) {
         assert storage.isOpen();
         assert type.isAttributeType();
@@ -269,12 +391,13 @@ public class DataGraph implements Graph {
                 new VertexIID.Attribute.Boolean(type.iid(), value),
                 iid -> {
                     final AttributeVertex<Boolean> v = new AttributeVertexImpl.Boolean(this, iid, isInferred);
-                    thingsByTypeIID.computeIfAbsent(type.iid(), t -> new HashSet<>()).add(v);
+                    thingsByTypeIID.computeIfAbsent(type.iid(), t -> ConcurrentHashMap.newKeySet()).add(v);
                     return v;
                 }
         );
         if (!isInferred && vertex.isInferred()) vertex.isInferred(false);
-        statistics.attributeVertexCreated(vertex.iid());
+        if (isInferred) setHasInferred();
+        else statistics.attributeVertexCreated(vertex.iid());
         return vertex;
     }
 
@@ -287,12 +410,13 @@ public class DataGraph implements Graph {
                 new VertexIID.Attribute.Long(type.iid(), value),
                 iid -> {
                     final AttributeVertex<Long> v = new AttributeVertexImpl.Long(this, iid, isInferred);
-                    thingsByTypeIID.computeIfAbsent(type.iid(), t -> new HashSet<>()).add(v);
+                    thingsByTypeIID.computeIfAbsent(type.iid(), t -> ConcurrentHashMap.newKeySet()).add(v);
                     return v;
                 }
         );
         if (!isInferred && vertex.isInferred()) vertex.isInferred(false);
-        statistics.attributeVertexCreated(vertex.iid());
+        if (isInferred) setHasInferred();
+        else statistics.attributeVertexCreated(vertex.iid());
         return vertex;
     }
 
@@ -305,12 +429,13 @@ public class DataGraph implements Graph {
                 new VertexIID.Attribute.Double(type.iid(), value),
                 iid -> {
                     final AttributeVertex<Double> v = new AttributeVertexImpl.Double(this, iid, isInferred);
-                    thingsByTypeIID.computeIfAbsent(type.iid(), t -> new HashSet<>()).add(v);
+                    thingsByTypeIID.computeIfAbsent(type.iid(), t -> ConcurrentHashMap.newKeySet()).add(v);
                     return v;
                 }
         );
         if (!isInferred && vertex.isInferred()) vertex.isInferred(false);
-        statistics.attributeVertexCreated(vertex.iid());
+        if (isInferred) setHasInferred();
+        else statistics.attributeVertexCreated(vertex.iid());
         return vertex;
     }
 
@@ -334,12 +459,13 @@ public class DataGraph implements Graph {
         final AttributeVertex<String> vertex = attributesByIID.strings.computeIfAbsent(
                 attIID, iid -> {
                     final AttributeVertex<String> v = new AttributeVertexImpl.String(this, iid, isInferred);
-                    thingsByTypeIID.computeIfAbsent(type.iid(), t -> new HashSet<>()).add(v);
+                    thingsByTypeIID.computeIfAbsent(type.iid(), t -> ConcurrentHashMap.newKeySet()).add(v);
                     return v;
                 }
         );
         if (!isInferred && vertex.isInferred()) vertex.isInferred(false);
-        statistics.attributeVertexCreated(vertex.iid());
+        if (isInferred) setHasInferred();
+        else statistics.attributeVertexCreated(vertex.iid());
         return vertex;
     }
 
@@ -352,12 +478,13 @@ public class DataGraph implements Graph {
                 new VertexIID.Attribute.DateTime(type.iid(), value),
                 iid -> {
                     final AttributeVertex<LocalDateTime> v = new AttributeVertexImpl.DateTime(this, iid, isInferred);
-                    thingsByTypeIID.computeIfAbsent(type.iid(), t -> new HashSet<>()).add(v);
+                    thingsByTypeIID.computeIfAbsent(type.iid(), t -> ConcurrentHashMap.newKeySet()).add(v);
                     return v;
                 }
         );
         if (!isInferred && vertex.isInferred()) vertex.isInferred(false);
-        statistics.attributeVertexCreated(vertex.iid());
+        if (isInferred) setHasInferred();
+        else statistics.attributeVertexCreated(vertex.iid());
         return vertex;
     }
 
@@ -390,6 +517,19 @@ public class DataGraph implements Graph {
         return isModified;
     }
 
+    /**
+     * Records that a rule has concluded a vertex or an edge into this graph, which does not
+     * modify the graph, as inferred vertices and edges are never committed.
+     */
+    public void setHasInferred() {
+        assert storage.isOpen();
+        if (!hasInferred) hasInferred = true;
+    }
+
+    public boolean hasInferred() {
+        return hasInferred;
+    }
+
     @Override
     public void clear() {
         thingsByIID.clear();
@@ -405,21 +545,83 @@ public class DataGraph implements Graph {
      * does not actually include {@code AttributeVertex}). We then write the every
      * {@code ThingVertex} onto the storage. Once all commit operations for every
      * {@code ThingVertex} is done, we the write all the {@code AttributeVertex}
-     * as the last step. Since the write operations to storage are serialised
-     * anyways, we don't need to parallelise the streams to commit the vertices.
+     * as the last step. The vertices are written in parallel, into the single
+     * sorted buffer that the storage holds for the whole transaction, which
+     * takes concurrent writes without a lock, and is only written to RocksDB in
+     * key order when the storage commits.
      */
     @Override
     public void commit() {
-        thingsByIID.values().parallelStream().filter(v -> v.status().equals(Encoding.Status.BUFFERED) && !v.isInferred()).forEach(
-                vertex -> vertex.iid(generate(storage.dataKeyGenerator(), vertex.type().iid(), vertex.type().properLabel()))
-        ); // thingByIID no longer contains valid mapping from IID to TypeVertex
-        thingsByIID.values().stream().filter(v -> !v.isInferred()).forEach(Vertex::commit);
-        attributesByIID.valueStream().forEach(Vertex::commit);
-        statistics.commit();
+        try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "commit.generate_iids")) {
+            thingsByIID.valueStream().parallel().filter(v -> v.status().equals(Encoding.Status.BUFFERED) && !v.isInferred()).forEach(
+                    vertex -> vertex.iid(generate(storage.dataKeyGenerator(), vertex.type().iid(), vertex.type().properLabel()))
+            ); // thingByIID no longer contains valid mapping from IID to TypeVertex
+        }
+        try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "commit.write_vertices")) {
+            thingsByIID.valueStream().parallel().filter(v -> !v.isInferred()).forEach(Vertex::commit);
+            attributesByIID.valueStream().parallel().forEach(Vertex::commit);
+        }
+        try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "commit.write_statistics")) {
+            statistics.commit();
+        }
 
         clear(); // we now flush the indexes after commit, and we do not expect this Graph.Thing to be used again
     }
 
+    /**
+     * An index of the (non-attribute) thing vertices in this graph, by their IIDs.
+     *
+     * A thing IID is made of the IID of its type followed by an 8-byte key,
+     * and there are only a handful of types in a schema compared to the number
+     * of things. Thus, we group the vertices by their type IID, and hold the
+     * vertices of each type in a map keyed by the primitive {@code long} value
+     * of the key. This avoids hashing and comparing the whole byte array of the
+     * IID, and allocating a map entry, for every vertex we touch.
+     */
+    private static class ThingsByIID {
+
+        private final ConcurrentMap<VertexIID.Type, ConcurrentLongMap<ThingVertex>> byType;
+
+        ThingsByIID() {
+            byType = new ConcurrentHashMap<>();
+        }
+
+        private static long key(VertexIID.Thing iid) {
+            assert iid.bytes().length == VertexIID.Thing.DEFAULT_LENGTH;
+            return sortedBytesToLong(iid.bytes(), PREFIX_W_TYPE_LENGTH);
+        }
+
+        boolean containsKey(VertexIID.Thing iid) {
+            final ConcurrentLongMap<ThingVertex> vertices = byType.get(iid.type());
+            return vertices != null && vertices.containsKey(key(iid));
+        }
+
+        ThingVertex computeIfAbsent(VertexIID.Thing iid, Function<VertexIID.Thing, ThingVertex> function) {
+            return byType.computeIfAbsent(iid.type(), t -> new ConcurrentLongMap<>())
+                    .computeIfAbsent(key(iid), k -> function.apply(iid));
+        }
+
+        void put(VertexIID.Thing iid, ThingVertex vertex) {
+            byType.computeIfAbsent(iid.type(), t -> new ConcurrentLongMap<>()).put(key(iid), vertex);
+        }
+
+        void remove(VertexIID.Thing iid) {
+            final ConcurrentLongMap<ThingVertex> vertices = byType.get(iid.type());
+            if (vertices != null) vertices.remove(key(iid));
+        }
+
+        Stream<ThingVertex> valueStream() {
+            // collected eagerly, so that a parallel stream is split across vertices rather than types
+            final List<ThingVertex> vertices = new ArrayList<>();
+            byType.values().forEach(map -> map.values().forEach(vertices::add));
+            return vertices.stream();
+        }
+
+        void clear() {
+            byType.clear();
+        }
+    }
+
     private static class AttributesByIID {
 
         private final ConcurrentMap<VertexIID.Attribute.Boolean, AttributeVertex<Boolean>> booleans;
@@ -492,13 +694,26 @@ public class DataGraph implements Graph {
     }
 
     public static class Statistics {
+
+        private static final Set<Encoding.Infix> DEGREE_INFIXES = set(
+                HAS.out(), HAS.in(), PLAYING.out(), RELATING.out(), ROLEPLAYER.out(), ROLEPLAYER.in()
+        );
+        // the things of entities, attributes and relations are keyed below the role vertices
+        private static final byte[] BACKFILL_START = VERTEX_ENTITY.bytes();
+        private static final byte[] BACKFILL_END = VERTEX_ROLE.bytes();
+        private static final int BACKFILL_BATCH_THINGS = 10_000;
+
         private final ConcurrentMap<VertexIID.Type, Long> persistedVertexCount;
         private final ConcurrentMap<VertexIID.Type, Long> persistedVertexTransitiveCount;
         private final ConcurrentMap<VertexIID.Type, Long> deltaVertexCount;
         private final ConcurrentMap<Pair<VertexIID.Type, VertexIID.Type>, Long> persistedHasEdgeCount;
         private final ConcurrentMap<VertexIID.Type, Long> persistedHasEdgeTotalCount;
+        private final ConcurrentMap<VertexIID.Type, Optional<ValueHistogram>> persistedValueHistograms;
+        private final ConcurrentMap<ByteBuffer, Long> persistedThingEdgeCount;
+        private final ConcurrentMap<ByteBuffer, HeavyHitters> persistedHeavyHitters;
         private final ConcurrentMap<VertexIID.Attribute<?>, Encoding.StatisticsCountJobValue> attributeVertexCountJobs;
         private final ConcurrentMap<Pair<VertexIID.Thing, VertexIID.Attribute<?>>, Encoding.StatisticsCountJobValue> hasEdgeCountJobs;
+        private final ConcurrentMap<ByteBuffer, Encoding.StatisticsCountJobValue> rolePlayerEdgeCountJobs;
         private boolean needsBackgroundCounting;
         private final SchemaGraph schemaGraph;
         private final Storage storage;
@@ -510,8 +725,12 @@ public class DataGraph implements Graph {
             deltaVertexCount = new ConcurrentHashMap<>();
             persistedHasEdgeCount = new ConcurrentHashMap<>();
             persistedHasEdgeTotalCount = new ConcurrentHashMap<>();
+            persistedValueHistograms = new ConcurrentHashMap<>();
+            persistedThingEdgeCount = new ConcurrentHashMap<>();
+            persistedHeavyHitters = new ConcurrentHashMap<>();
             attributeVertexCountJobs = new ConcurrentHashMap<>();
             hasEdgeCountJobs = new ConcurrentHashMap<>();
+            rolePlayerEdgeCountJobs = new ConcurrentHashMap<>();
             needsBackgroundCounting = false;
             this.schemaGraph = schemaGraph;
             this.storage = storage;
@@ -577,6 +796,88 @@ public class DataGraph implements Graph {
             ).max().orElse(0);
         }
 
+        /**
+         * Returns the histogram of the values of an attribute type, built from
+         * a sample of its values maintained by the background counting, or null
+         * if the attribute type has no sortable values counted yet.
+         */
+        @Nullable
+        public ValueHistogram valueHistogram(TypeVertex attributeType) {
+            return persistedValueHistograms.computeIfAbsent(attributeType.iid(), iid -> Optional.ofNullable(
+                    ValueHistogram.of(ValueHistogram.Sample.of(storage.get(attributeSampleKey(iid))))
+            )).orElse(null);
+        }
+
+        /**
+         * Returns the number of edges of the given encoding between things of
+         * the given type and things of the adjacent type, in the direction
+         * from the former to the latter.
+         */
+        public long thingEdgeCount(TypeVertex thing, Encoding.Edge.Thing encoding,
+                                   Encoding.Direction.Edge direction, TypeVertex adjacent) {
+            if (encoding == HAS) {
+                return direction.isForward() ? hasEdgeCount(thing, adjacent) : hasEdgeCount(adjacent, thing);
+            } else if (direction.isForward()) {
+                return persistedThingEdgeCount(thing.iid(), encoding.out(), adjacent.iid());
+            } else {
+                return persistedThingEdgeCount(adjacent.iid(), encoding.out(), thing.iid());
+            }
+        }
+
+        /**
+         * Returns the average number of edges of the given encoding from a thing
+         * of the given type to things of the adjacent type.
+         */
+        public double degreeMean(TypeVertex thing, Encoding.Edge.Thing encoding,
+                                 Encoding.Direction.Edge direction, TypeVertex adjacent) {
+            long things = thingVertexCount(thing);
+            if (things <= 0) return 0;
+            return (double) thingEdgeCount(thing, encoding, direction, adjacent) / things;
+        }
+
+        /**
+         * Returns the highest number of edges of the given encoding from a thing
+         * of the given type to things of the adjacent type.
+         */
+        public long degreeMax(TypeVertex thing, Encoding.Edge.Thing encoding,
+                              Encoding.Direction.Edge direction, TypeVertex adjacent) {
+            return heavyHitters(thing, encoding, direction, adjacent).max();
+        }
+
+        /**
+         * Returns the estimated sum of the squares of the degrees of things of
+         * the given type over edges of the given encoding to things of the
+         * adjacent type. The degrees of the heavy hitters are known, and the
+         * remaining edges are assumed to be spread evenly over the remaining
+         * things. Divided by the number of edges, this gives the expected degree
+         * of a thing that is reached through one of its edges, which is skewed
+         * towards the heavy hitters.
+         */
+        public double degreeSquareSum(TypeVertex thing, Encoding.Edge.Thing encoding,
+                                      Encoding.Direction.Edge direction, TypeVertex adjacent) {
+            HeavyHitters heavyHitters = heavyHitters(thing, encoding, direction, adjacent);
+            double squares = 0;
+            for (long degree : heavyHitters.degrees()) squares += (double) degree * degree;
+            double remainingEdges = thingEdgeCount(thing, encoding, direction, adjacent) - heavyHitters.sum();
+            double remainingThings = thingVertexCount(thing) - heavyHitters.size();
+            if (remainingEdges > 0 && remainingThings > 0) squares += remainingEdges * remainingEdges / remainingThings;
+            else if (remainingEdges > 0) squares += remainingEdges * remainingEdges;
+            return squares;
+        }
+
+        /**
+         * Returns the things of the given type with the most edges of the given
+         * encoding to things of the adjacent type.
+         */
+        public HeavyHitters heavyHitters(TypeVertex thing, Encoding.Edge.Thing encoding,
+                                         Encoding.Direction.Edge direction, TypeVertex adjacent) {
+            Encoding.Infix infix = direction.isForward() ? encoding.out() : encoding.in();
+            return persistedHeavyHitters.computeIfAbsent(
+                    ByteBuffer.wrap(heavyHittersKey(thing.iid(), infix, adjacent.iid())),
+                    key -> HeavyHitters.of(storage.get(key.array()))
+            );
+        }
+
         public boolean needsBackgroundCounting() {
             return needsBackgroundCounting;
         }
@@ -611,6 +912,16 @@ public class DataGraph implements Graph {
             needsBackgroundCounting = true;
         }
 
+        public void rolePlayerEdgeCreated(VertexIID.Thing relationIID, VertexIID.Thing playerIID, VertexIID.Thing roleIID) {
+            rolePlayerEdgeCountJobs.put(ByteBuffer.wrap(rolePlayerEdgeCountJobKey(relationIID, playerIID, roleIID)), CREATED);
+            needsBackgroundCounting = true;
+        }
+
+        public void rolePlayerEdgeDeleted(VertexIID.Thing relationIID, VertexIID.Thing playerIID, VertexIID.Thing roleIID) {
+            rolePlayerEdgeCountJobs.put(ByteBuffer.wrap(rolePlayerEdgeCountJobKey(relationIID, playerIID, roleIID)), DELETED);
+            needsBackgroundCounting = true;
+        }
+
         private long vertexCount(VertexIID.Type typeIID, boolean isTransitive) {
             return persistedVertexCount(typeIID, isTransitive) + deltaVertexCount(typeIID);
         }
@@ -659,6 +970,14 @@ public class DataGraph implements Graph {
             });
         }
 
+        private long persistedThingEdgeCount(VertexIID.Type thingTypeIID, Encoding.Infix infix, VertexIID.Type adjTypeIID) {
+            return persistedThingEdgeCount.computeIfAbsent(
+                    ByteBuffer.wrap(thingEdgeCountKey(thingTypeIID, infix, adjTypeIID)), key -> {
+                        final byte[] val = storage.get(key.array());
+                        return val == null ? 0 : bytesToLong(val);
+                    });
+        }
+
         private long persistedHasEdgeTotalCount(VertexIID.Type rootTypeIID) {
             if (isRootTypeIID(rootTypeIID)) {
                 return persistedHasEdgeTotalCount.computeIfAbsent(rootTypeIID, iid -> {
@@ -699,6 +1018,9 @@ public class DataGraph implements Graph {
             hasEdgeCountJobs.forEach((hasEdge, countWorkValue) -> storage.putUntracked(
                     hasEdgeCountJobKey(hasEdge.first(), hasEdge.second()), countWorkValue.bytes()
             ));
+            rolePlayerEdgeCountJobs.forEach((rolePlayerEdge, countWorkValue) -> storage.putUntracked(
+                    rolePlayerEdge.array(), countWorkValue.bytes()
+            ));
         }
 
         private void clear() {
@@ -706,67 +1028,102 @@ public class DataGraph implements Graph {
             persistedVertexTransitiveCount.clear();
             deltaVertexCount.clear();
             persistedHasEdgeCount.clear();
+            persistedValueHistograms.clear();
+            persistedThingEdgeCount.clear();
+            persistedHeavyHitters.clear();
             attributeVertexCountJobs.clear();
             hasEdgeCountJobs.clear();
+            rolePlayerEdgeCountJobs.clear();
         }
 
         public void processCountJobs() {
+            Map<VertexIID.Type, ValueHistogram.Sample> valueSamples = new HashMap<>();
+            Degrees degrees = new Degrees();
             ResourceIterator<CountJob> countJobs = storage.iterate(StatisticsBytes.countJobKey(), CountJob::of);
             while (countJobs.hasNext()) {
                 CountJob countJob = countJobs.next();
                 if (countJob instanceof CountJob.Attribute) {
-                    processAttributeCountJob(countJob);
+                    processAttributeCountJob(countJob, valueSamples);
                 } else if (countJob instanceof CountJob.HasEdge) {
-                    processHasEdgeCountJob(countJob);
+                    processHasEdgeCountJob(countJob, degrees);
+                } else if (countJob instanceof CountJob.RolePlayerEdge) {
+                    processRolePlayerEdgeCountJob(countJob, degrees);
                 } else {
                     assert false;
                 }
                 storage.delete(countJob.key());
             }
+            valueSamples.forEach((typeIID, sample) -> storage.putUntracked(attributeSampleKey(typeIID), sample.bytes()));
+            degrees.write();
         }
 
-        private void processAttributeCountJob(CountJob countJob) {
+        private void processAttributeCountJob(CountJob countJob, Map<VertexIID.Type, ValueHistogram.Sample> valueSamples) {
             VertexIID.Attribute<?> attIID = countJob.asAttribute().attIID();
             if (countJob.value() == CREATED) {
-                processAttributeCreatedCountJob(attIID);
+                processAttributeCreatedCountJob(attIID, valueSamples);
             } else if (countJob.value() == DELETED) {
-                processAttributeDeletedCountJob(attIID);
+                processAttributeDeletedCountJob(attIID, valueSamples);
             } else {
                 assert false;
             }
         }
 
-        private void processAttributeCreatedCountJob(VertexIID.Attribute<?> attIID) {
+        private void processAttributeCreatedCountJob(VertexIID.Attribute<?> attIID,
+                                                     Map<VertexIID.Type, ValueHistogram.Sample> valueSamples) {
             byte[] counted = storage.get(attributeCountedKey(attIID));
             if (counted == null) {
                 storage.mergeUntracked(vertexCountKey(attIID.type()), longToBytes(1));
                 storage.mergeUntracked(vertexTransitiveCountKey(schemaGraph.rootAttributeType().iid()), longToBytes(1));
                 storage.put(attributeCountedKey(attIID));
+                Double value = sortableValue(attIID);
+                if (value != null) valueSample(attIID.type(), valueSamples).add(value);
             }
         }
 
-        private void processAttributeDeletedCountJob(VertexIID.Attribute<?> attIID) {
+        private void processAttributeDeletedCountJob(VertexIID.Attribute<?> attIID,
+                                                     Map<VertexIID.Type, ValueHistogram.Sample> valueSamples) {
             byte[] counted = storage.get(attributeCountedKey(attIID));
             if (counted != null) {
                 storage.mergeUntracked(vertexCountKey(attIID.type()), longToBytes(-1));
                 storage.mergeUntracked(vertexTransitiveCountKey(schemaGraph.rootAttributeType().iid()), longToBytes(-1));
                 storage.delete(attributeCountedKey(attIID));
+                Double value = sortableValue(attIID);
+                if (value != null) valueSample(attIID.type(), valueSamples).remove(value);
             }
         }
 
-        private void processHasEdgeCountJob(CountJob countJob) {
+        private ValueHistogram.Sample valueSample(VertexIID.Type typeIID,
+                                                  Map<VertexIID.Type, ValueHistogram.Sample> valueSamples) {
+            return valueSamples.computeIfAbsent(typeIID, iid -> ValueHistogram.Sample.of(storage.get(attributeSampleKey(iid))));
+        }
+
+        @Nullable
+        private static Double sortableValue(VertexIID.Attribute<?> attIID) {
+            switch (attIID.valueType()) {
+                case LONG:
+                    return attIID.asLong().value().doubleValue();
+                case DOUBLE:
+                    return attIID.asDouble().value();
+                case DATETIME:
+                    return ValueHistogram.numeric(attIID.asDateTime().value());
+                default:
+                    return null;
+            }
+        }
+
+        private void processHasEdgeCountJob(CountJob countJob, Degrees degrees) {
             VertexIID.Thing thingIID = countJob.asHasEdge().thingIID();
             VertexIID.Attribute<?> attIID = countJob.asHasEdge().attIID();
             if (countJob.value() == CREATED) {
-                processHasEdgeCreatedCountJob(thingIID, attIID);
+                processHasEdgeCreatedCountJob(thingIID, attIID, degrees);
             } else if (countJob.value() == DELETED) {
-                processHasEdgeDeletedCountJob(thingIID, attIID);
+                processHasEdgeDeletedCountJob(thingIID, attIID, degrees);
             } else {
                 assert false;
             }
         }
 
-        private void processHasEdgeCreatedCountJob(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID) {
+        private void processHasEdgeCreatedCountJob(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID, Degrees degrees) {
             byte[] counted = storage.get(StatisticsBytes.hasEdgeCountedKey(thingIID, attIID));
             if (counted == null) {
                 storage.mergeUntracked(hasEdgeCountKey(thingIID.type(), attIID.type()), longToBytes(1));
@@ -777,11 +1134,13 @@ public class DataGraph implements Graph {
                 } else if (thingIID.type().encoding().prefix() == VERTEX_ATTRIBUTE_TYPE) {
                     storage.mergeUntracked(hasEdgeTotalCountKey(schemaGraph.rootAttributeType().iid()), longToBytes(1));
                 }
+                degrees.update(thingIID, HAS.out(), attIID.type());
+                degrees.update(attIID, HAS.in(), thingIID.type());
                 storage.put(StatisticsBytes.hasEdgeCountedKey(thingIID, attIID));
             }
         }
 
-        private void processHasEdgeDeletedCountJob(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID) {
+        private void processHasEdgeDeletedCountJob(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID, Degrees degrees) {
             byte[] counted = storage.get(StatisticsBytes.hasEdgeCountedKey(thingIID, attIID));
             if (counted != null) {
                 storage.mergeUntracked(hasEdgeCountKey(thingIID.type(), attIID.type()), longToBytes(-1));
@@ -792,10 +1151,154 @@ public class DataGraph implements Graph {
                 } else if (thingIID.type().encoding().prefix() == VERTEX_ATTRIBUTE_TYPE) {
                     storage.mergeUntracked(hasEdgeTotalCountKey(schemaGraph.rootAttributeType().iid()), longToBytes(-1));
                 }
+                degrees.update(thingIID, HAS.out(), attIID.type());
+                degrees.update(attIID, HAS.in(), thingIID.type());
                 storage.delete(StatisticsBytes.hasEdgeCountedKey(thingIID, attIID));
             }
         }
 
+        private void processRolePlayerEdgeCountJob(CountJob countJob, Degrees degrees) {
+            CountJob.RolePlayerEdge rolePlayerEdge = countJob.asRolePlayerEdge();
+            VertexIID.Thing relationIID = rolePlayerEdge.relationIID();
+            VertexIID.Thing playerIID = rolePlayerEdge.playerIID();
+            VertexIID.Thing roleIID = rolePlayerEdge.roleIID();
+            byte[] counted = storage.get(rolePlayerEdgeCountedKey(roleIID));
+            if (countJob.value() == CREATED && counted == null) {
+                processRolePlayerEdgeCount(relationIID, playerIID, roleIID, 1);
+                storage.put(rolePlayerEdgeCountedKey(roleIID));
+            } else if (countJob.value() == DELETED && counted != null) {
+                processRolePlayerEdgeCount(relationIID, playerIID, roleIID, -1);
+                storage.delete(rolePlayerEdgeCountedKey(roleIID));
+            } else {
+                return;
+            }
+            degrees.update(relationIID, ROLEPLAYER.out(), playerIID.type());
+            degrees.update(playerIID, ROLEPLAYER.in(), relationIID.type());
+            degrees.update(relationIID, RELATING.out(), roleIID.type());
+            degrees.update(playerIID, PLAYING.out(), roleIID.type());
+        }
+
+        /**
+         * Counts a role player edge into the counts of the edges between the
+         * types of the relation, the player and the role, which are only kept in
+         * the outwards direction of the edges.
+         */
+        private void processRolePlayerEdgeCount(VertexIID.Thing relationIID, VertexIID.Thing playerIID,
+                                                VertexIID.Thing roleIID, long delta) {
+            storage.mergeUntracked(thingEdgeCountKey(relationIID.type(), ROLEPLAYER.out(), playerIID.type()), longToBytes(delta));
+            storage.mergeUntracked(thingEdgeCountKey(relationIID.type(), RELATING.out(), roleIID.type()), longToBytes(delta));
+            storage.mergeUntracked(thingEdgeCountKey(playerIID.type(), PLAYING.out(), roleIID.type()), longToBytes(delta));
+        }
+
+        /**
+         * Counts the role player edges, and the heavy hitters of all edges with
+         * degree statistics, that were written before these statistics were
+         * kept. Things are scanned in the order of their keys, in batches of a
+         * bounded number of things that are each committed by their own
+         * transaction, and the key of the next thing to scan is stored as the
+         * cursor to resume from. Role player edges that are already counted,
+         * or that have count jobs processed after the scan, are not counted
+         * twice. Returns whether every thing has been scanned.
+         */
+        public boolean backfillThingEdges() {
+            byte[] cursor = storage.get(thingEdgesBackfillCursorKey());
+            if (cursor == null) cursor = BACKFILL_START;
+            else if (Arrays.equals(cursor, BACKFILL_END)) return true;
+
+            Degrees degrees = new Degrees();
+            ResourceIterator<byte[]> keys = storage.iterate(cursor, BACKFILL_END, (key, value) -> key);
+            VertexIID.Thing thingIID = null;
+            Map<Pair<Encoding.Infix, VertexIID.Type>, Long> thingDegrees = new HashMap<>();
+            int things = 0;
+            cursor = BACKFILL_END;
+            while (keys.hasNext()) {
+                byte[] key = keys.next();
+                VertexIID.Thing startIID = VertexIID.Thing.extract(key, 0);
+                if (!startIID.equals(thingIID)) {
+                    if (thingIID != null) degrees.update(thingIID, thingDegrees);
+                    if (things == BACKFILL_BATCH_THINGS) {
+                        cursor = startIID.bytes();
+                        thingIID = null;
+                        break;
+                    }
+                    thingIID = startIID;
+                    thingDegrees.clear();
+                    things++;
+                }
+                if (key.length == startIID.bytes().length) continue;
+                Encoding.Infix infix = Encoding.Infix.of(key[startIID.bytes().length]);
+                if (!DEGREE_INFIXES.contains(infix)) continue;
+                EdgeIID.Thing edge = EdgeIID.Thing.of(key);
+                thingDegrees.merge(pair(infix, edge.end().type()), 1L, Long::sum);
+                if (infix == ROLEPLAYER.out()) backfillRolePlayerEdge(edge);
+            }
+            keys.recycle();
+            if (thingIID != null) degrees.update(thingIID, thingDegrees);
+            degrees.write();
+            storage.putUntracked(thingEdgesBackfillCursorKey(), cursor);
+            return Arrays.equals(cursor, BACKFILL_END);
+        }
+
+        private void backfillRolePlayerEdge(EdgeIID.Thing edge) {
+            VertexIID.Thing roleIID = VertexIID.Thing.of(join(
+                    VERTEX_ROLE.bytes(), edge.infix().asRolePlayer().tail().bytes(), edge.suffix().bytes()
+            ));
+            if (storage.get(rolePlayerEdgeCountedKey(roleIID)) == null) {
+                processRolePlayerEdgeCount(edge.start(), edge.end(), roleIID, 1);
+                storage.put(rolePlayerEdgeCountedKey(roleIID));
+            }
+        }
+
+        /**
+         * Returns the number of edges of a thing under the given infix to things
+         * of the adjacent type.
+         */
+        private long degree(VertexIID.Thing thingIID, Encoding.Infix infix, VertexIID.Type adjTypeIID) {
+            return storage.iterate(join(thingIID.bytes(), infix.bytes()), (key, value) -> EdgeIID.Thing.of(key).end().type())
+                    .filter(adjTypeIID::equals).stream().count();
+        }
+
+        /**
+         * The heavy hitters updated by one run of the background counting,
+         * which are read from the storage once, and written back to it at the
+         * end of the run. The degrees of things are not stored: the degree of a
+         * thing is counted from its edges the first time one of them is counted
+         * in a run, so the storage of the statistics grows with the number of
+         * types rather than the number of things, and counting the same edge
+         * twice cannot skew the degrees.
+         */
+        private class Degrees {
+
+            private final Set<ByteBuffer> counted;
+            private final Map<ByteBuffer, HeavyHitters> heavyHitters;
+
+            private Degrees() {
+                counted = new HashSet<>();
+                heavyHitters = new HashMap<>();
+            }
+
+            private void update(VertexIID.Thing thingIID, Encoding.Infix infix, VertexIID.Type adjTypeIID) {
+                if (counted.add(ByteBuffer.wrap(join(thingIID.bytes(), infix.bytes(), adjTypeIID.bytes())))) {
+                    update(thingIID, infix, adjTypeIID, degree(thingIID, infix, adjTypeIID));
+                }
+            }
+
+            private void update(VertexIID.Thing thingIID, Map<Pair<Encoding.Infix, VertexIID.Type>, Long> degrees) {
+                degrees.forEach((edge, degree) -> update(thingIID, edge.first(), edge.second(), degree));
+            }
+
+            private void update(VertexIID.Thing thingIID, Encoding.Infix infix, VertexIID.Type adjTypeIID, long degree) {
+                heavyHitters.computeIfAbsent(
+                        ByteBuffer.wrap(heavyHittersKey(thingIID.type(), infix, adjTypeIID)),
+                        key -> HeavyHitters.of(storage.get(key.array()))
+                ).update(thingIID, degree);
+            }
+
+            private void write() {
+                heavyHitters.forEach((key, hitters) -> storage.putUntracked(key.array(), hitters.bytes()));
+            }
+        }
+
         public abstract static class CountJob {
             private final Encoding.StatisticsCountJobValue value;
             private final byte[] key;
@@ -806,17 +1309,23 @@ public class DataGraph implements Graph {
             }
 
             public static CountJob of(byte[] key, byte[] value) {
-                byte[] countJobKey = stripPrefix(key, PrefixIID.LENGTH);
-                Encoding.StatisticsCountJobType countJobType = Encoding.StatisticsCountJobType.of(new byte[]{countJobKey[0]});
+                final int countJobTypeIndex = PrefixIID.LENGTH;
+                final int countJobIIDIndex = countJobTypeIndex + PrefixIID.LENGTH;
+                Encoding.StatisticsCountJobType countJobType = Encoding.StatisticsCountJobType.of(new byte[]{key[countJobTypeIndex]});
                 Encoding.StatisticsCountJobValue countJobValue = Encoding.StatisticsCountJobValue.of(value);
-                byte[] countJobIID = stripPrefix(countJobKey, PrefixIID.LENGTH);
                 if (countJobType == Encoding.StatisticsCountJobType.ATTRIBUTE_VERTEX) {
-                    VertexIID.Attribute<?> attIID = VertexIID.Attribute.of(countJobIID);
+                    VertexIID.Attribute<?> attIID = VertexIID.Attribute.of(stripPrefix(key, countJobIIDIndex));
                     return new Attribute(key, attIID, countJobValue);
                 } else if (countJobType == Encoding.StatisticsCountJobType.HAS_EDGE) {
-                    VertexIID.Thing thingIID = VertexIID.Thing.extract(countJobIID, 0);
-                    VertexIID.Attribute<?> attIID = VertexIID.Attribute.extract(countJobIID, thingIID.bytes().length);
+                    VertexIID.Thing thingIID = VertexIID.Thing.extract(key, countJobIIDIndex);
+                    VertexIID.Attribute<?> attIID = VertexIID.Attribute.extract(key, countJobIIDIndex + thingIID.bytes().length);
                     return new HasEdge(key, thingIID, attIID, countJobValue);
+                } else if (countJobType == Encoding.StatisticsCountJobType.ROLE_PLAYER_EDGE) {
+                    VertexIID.Thing relationIID = VertexIID.Thing.extract(key, countJobIIDIndex);
+                    int playerIndex = countJobIIDIndex + relationIID.bytes().length;
+                    VertexIID.Thing playerIID = VertexIID.Thing.extract(key, playerIndex);
+                    VertexIID.Thing roleIID = VertexIID.Thing.extract(key, playerIndex + playerIID.bytes().length);
+                    return new RolePlayerEdge(key, relationIID, playerIID, roleIID, countJobValue);
                 } else {
                     assert false;
                     return null;
@@ -839,6 +1348,10 @@ public class DataGraph implements Graph {
                 throw GraknException.of(ILLEGAL_CAST, className(this.getClass()), className(HasEdge.class));
             }
 
+            public RolePlayerEdge asRolePlayerEdge() {
+                throw GraknException.of(ILLEGAL_CAST, className(this.getClass()), className(RolePlayerEdge.class));
+            }
+
             public static class Attribute extends CountJob {
                 private final VertexIID.Attribute<?> attIID;
 
@@ -881,6 +1394,37 @@ public class DataGraph implements Graph {
                     return this;
                 }
             }
+
+            public static class RolePlayerEdge extends CountJob {
+                private final VertexIID.Thing relationIID;
+                private final VertexIID.Thing playerIID;
+                private final VertexIID.Thing roleIID;
+
+                private RolePlayerEdge(byte[] key, VertexIID.Thing relationIID, VertexIID.Thing playerIID,
+                                       VertexIID.Thing roleIID, Encoding.StatisticsCountJobValue value) {
+                    super(key, value);
+                    this.relationIID = relationIID;
+                    this.playerIID = playerIID;
+                    this.roleIID = roleIID;
+                }
+
+                public VertexIID.Thing relationIID() {
+                    return relationIID;
+                }
+
+                public VertexIID.Thing playerIID() {
+                    return playerIID;
+                }
+
+                public VertexIID.Thing roleIID() {
+                    return roleIID;
+                }
+
+                @Override
+                public RolePlayerEdge asRolePlayerEdge() {
+                    return this;
+                }
+            }
         }
     }
 }
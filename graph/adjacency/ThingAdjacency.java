@@ -85,6 +85,17 @@ public interface ThingAdjacency {
      */
     ThingEdge put(Encoding.Edge.Thing encoding, ThingVertex adjacent);
 
+    /**
+     * Puts an adjacent vertex over an edge with a given encoding, which is
+     * inferred if {@code isInferred} is true, and is then never committed.
+     *
+     * @param encoding   of the edge that will connect the owner to the adjacent vertex
+     * @param adjacent   the adjacent vertex
+     * @param isInferred whether the edge was concluded by a rule
+     * @return an edge of type {@code encoding} that connects to {@code adjacent}.
+     */
+    ThingEdge put(Encoding.Edge.Thing encoding, ThingVertex adjacent, boolean isInferred);
+
     /**
      * Puts an edge of type {@code encoding} from the owner to an adjacent vertex,
      * which is an optimisation edge over a given {@code optimised} vertex.
@@ -101,6 +112,18 @@ public interface ThingAdjacency {
      */
     ThingEdge put(Encoding.Edge.Thing encoding, ThingVertex adjacent, ThingVertex optimised);
 
+    /**
+     * Puts an optimisation edge over a given {@code optimised} vertex, which is
+     * inferred if {@code isInferred} is true, and is then never committed.
+     *
+     * @param encoding   type of the edge
+     * @param adjacent   the adjacent vertex
+     * @param optimised  vertex that this optimised edge is compressing
+     * @param isInferred whether the edge was concluded by a rule
+     * @return an edge of type {@code encoding} that connects to {@code adjacent}.
+     */
+    ThingEdge put(Encoding.Edge.Thing encoding, ThingVertex adjacent, ThingVertex optimised, boolean isInferred);
+
     /**
      * Deletes all edges with a given encoding from the {@code Adjacency} map.
      *
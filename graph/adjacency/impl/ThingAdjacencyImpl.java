@@ -37,7 +37,6 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.function.Predicate;
 
 import static grakn.common.collection.Collections.list;
-import static grakn.core.common.collection.Bytes.join;
 import static grakn.core.common.iterator.Iterators.iterate;
 import static grakn.core.common.iterator.Iterators.link;
 import static java.util.Arrays.copyOfRange;
@@ -139,7 +138,8 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
             );
         }
         edges.computeIfAbsent(infixIID, iid -> newKeySet()).add(edge);
-        if (isModified) owner.isModified();
+        if (edge.isInferred()) owner.graph().setHasInferred();
+        else if (isModified) owner.setModified();
         if (recurse) {
             if (direction.isOut()) ((ThingAdjacencyImpl) edge.to().ins()).putNonRecursive(edge);
             else ((ThingAdjacencyImpl) edge.from().outs()).putNonRecursive(edge);
@@ -149,23 +149,36 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
 
     @Override
     public ThingEdgeImpl put(Encoding.Edge.Thing encoding, ThingVertex adjacent) {
+        return put(encoding, adjacent, false);
+    }
+
+    @Override
+    public ThingEdgeImpl put(Encoding.Edge.Thing encoding, ThingVertex adjacent, boolean isInferred) {
         assert !encoding.isOptimisation();
-        if (encoding == Encoding.Edge.Thing.HAS && direction.isOut()) {
+        if (encoding == Encoding.Edge.Thing.HAS && direction.isOut() && !isInferred) {
             owner.graph().stats().hasEdgeCreated(owner.iid(), adjacent.iid().asAttribute());
         }
         ThingEdgeImpl edge = direction.isOut()
-                ? new ThingEdgeImpl.Buffered(encoding, owner, adjacent)
-                : new ThingEdgeImpl.Buffered(encoding, adjacent, owner);
+                ? new ThingEdgeImpl.Buffered(encoding, owner, adjacent, isInferred)
+                : new ThingEdgeImpl.Buffered(encoding, adjacent, owner, isInferred);
         IID[] infixes = new IID[]{adjacent.iid().prefix(), adjacent.iid().type()};
         return put(encoding, edge, infixes, true, true);
     }
 
     @Override
     public ThingEdge put(Encoding.Edge.Thing encoding, ThingVertex adjacent, ThingVertex optimised) {
+        return put(encoding, adjacent, optimised, false);
+    }
+
+    @Override
+    public ThingEdge put(Encoding.Edge.Thing encoding, ThingVertex adjacent, ThingVertex optimised, boolean isInferred) {
         assert encoding.isOptimisation();
+        if (encoding == Encoding.Edge.Thing.ROLEPLAYER && direction.isOut() && !isInferred) {
+            owner.graph().stats().rolePlayerEdgeCreated(owner.iid(), adjacent.iid(), optimised.iid());
+        }
         ThingEdgeImpl edge = direction.isOut()
-                ? new ThingEdgeImpl.Buffered(encoding, owner, adjacent, optimised)
-                : new ThingEdgeImpl.Buffered(encoding, adjacent, owner, optimised);
+                ? new ThingEdgeImpl.Buffered(encoding, owner, adjacent, optimised, isInferred)
+                : new ThingEdgeImpl.Buffered(encoding, adjacent, owner, optimised, isInferred);
         IID[] infixes = new IID[]{optimised.iid().type(), adjacent.iid().prefix(), adjacent.iid().type()};
         return put(encoding, edge, infixes, true, true);
     }
@@ -184,7 +197,7 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
         InfixIID.Thing infixIID = infixIID(edge.encoding(), infixTails(edge));
         if (edges.containsKey(infixIID)) {
             edges.get(infixIID).remove(edge);
-            owner.setModified();
+            if (!edge.isInferred()) owner.setModified();
         }
     }
 
@@ -256,9 +269,10 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
         }
 
         private ResourceIterator<ThingEdge> edgeIterator(Encoding.Edge.Thing encoding, IID... lookahead) {
-            byte[] iid = join(owner.iid().bytes(), infixIID(encoding, lookahead).bytes());
-            ResourceIterator<ThingEdge> storageIterator =
-                    owner.graph().storage().iterate(iid, (key, value) -> cache(new ThingEdgeImpl.Persisted(owner.graph(), EdgeIID.Thing.of(key))));
+            ResourceIterator<ThingEdge> storageIterator = owner.graph().storage().iterateAdjacency(
+                    owner.iid(), infixIID(encoding, lookahead),
+                    (key, value) -> cache(new ThingEdgeImpl.Persisted(owner.graph(), EdgeIID.Thing.of(key)))
+            );
             ResourceIterator<ThingEdge> bufferedIterator = bufferedEdgeIterator(encoding, lookahead);
             return link(list(bufferedIterator, storageIterator)).distinct();
         }
@@ -32,4 +32,11 @@ import java.util.Optional;
 public interface ThingEdge extends Edge<Encoding.Edge.Thing, EdgeIID.Thing, ThingVertex> {
 
     Optional<ThingVertex> optimised();
+
+    /**
+     * Indicates whether this edge was concluded by a rule, and is therefore never committed.
+     *
+     * @return true if this edge is inferred, else false
+     */
+    boolean isInferred();
 }
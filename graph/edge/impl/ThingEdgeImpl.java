@@ -55,34 +55,39 @@ public abstract class ThingEdgeImpl implements ThingEdge {
         private final ThingVertex from;
         private final ThingVertex to;
         private final ThingVertex optimised;
+        private final boolean isInferred;
         private final int hash;
 
         /**
          * Default constructor for {@code ThingEdgeImpl.Buffered}.
          *
-         * @param encoding the edge {@code Encoding}
-         * @param from     the tail vertex
-         * @param to       the head vertex
+         * @param encoding   the edge {@code Encoding}
+         * @param from       the tail vertex
+         * @param to         the head vertex
+         * @param isInferred whether the edge was concluded by a rule
          */
-        public Buffered(Encoding.Edge.Thing encoding, ThingVertex from, ThingVertex to) {
-            this(encoding, from, to, null);
+        public Buffered(Encoding.Edge.Thing encoding, ThingVertex from, ThingVertex to, boolean isInferred) {
+            this(encoding, from, to, null, isInferred);
         }
 
         /**
          * Constructor for an optimised {@code ThingEdgeImpl.Buffered}.
          *
-         * @param encoding  the edge {@code Encoding}
-         * @param from      the tail vertex
-         * @param to        the head vertex
-         * @param optimised vertex that this optimised edge is compressing
+         * @param encoding   the edge {@code Encoding}
+         * @param from       the tail vertex
+         * @param to         the head vertex
+         * @param optimised  vertex that this optimised edge is compressing
+         * @param isInferred whether the edge was concluded by a rule
          */
-        public Buffered(Encoding.Edge.Thing encoding, ThingVertex from, ThingVertex to, @Nullable ThingVertex optimised) {
+        public Buffered(Encoding.Edge.Thing encoding, ThingVertex from, ThingVertex to, @Nullable ThingVertex optimised,
+                        boolean isInferred) {
             super(from.graph(), encoding);
             assert this.graph == to.graph();
             assert encoding.isOptimisation() || optimised == null;
             this.from = from;
             this.to = to;
             this.optimised = optimised;
+            this.isInferred = isInferred;
             this.hash = hash(Buffered.class, encoding, from, to);
             committed = new AtomicBoolean(false);
         }
@@ -127,6 +132,11 @@ public abstract class ThingEdgeImpl implements ThingEdge {
             return Optional.ofNullable(optimised);
         }
 
+        @Override
+        public boolean isInferred() {
+            return isInferred;
+        }
+
         /**
          * Deletes this {@code Edge} from connecting between two {@code Vertex}.
          *
@@ -138,19 +148,22 @@ public abstract class ThingEdgeImpl implements ThingEdge {
             if (deleted.compareAndSet(false, true)) {
                 from.outs().remove(this);
                 to.ins().remove(this);
+                if (isInferred) return;
                 if (!(from.status().equals(BUFFERED)) && !(to.status().equals(BUFFERED))) {
                     graph.storage().delete(outIID().bytes());
                     graph.storage().delete(inIID().bytes());
                 }
                 if (encoding == Encoding.Edge.Thing.HAS) {
                     graph.stats().hasEdgeDeleted(from.iid(), to.iid().asAttribute());
+                } else if (encoding == Encoding.Edge.Thing.ROLEPLAYER) {
+                    graph.stats().rolePlayerEdgeDeleted(from.iid(), to.iid(), optimised.iid());
                 }
             }
         }
 
         @Override
         public void commit() {
-            if (committed.compareAndSet(false, true)) {
+            if (!isInferred && committed.compareAndSet(false, true)) {
                 graph.storage().put(outIID().bytes());
                 graph.storage().put(inIID().bytes());
             }
@@ -284,6 +297,11 @@ public abstract class ThingEdgeImpl implements ThingEdge {
             return Optional.ofNullable(optimised);
         }
 
+        @Override
+        public boolean isInferred() {
+            return false;
+        }
+
         /**
          * Delete operation of a persisted edge.
          *
@@ -302,6 +320,8 @@ public abstract class ThingEdgeImpl implements ThingEdge {
                 graph.storage().delete(this.inIID.bytes());
                 if (encoding == Encoding.Edge.Thing.HAS) {
                     graph.stats().hasEdgeDeleted(fromIID, toIID.asAttribute());
+                } else if (encoding == Encoding.Edge.Thing.ROLEPLAYER) {
+                    graph.stats().rolePlayerEdgeDeleted(fromIID, toIID, optimisedIID);
                 }
             }
         }
@@ -101,7 +101,7 @@ public abstract class EdgeIID<
 
         @Override
         public VertexIID.Type start() {
-            if (start == null) start = VertexIID.Type.of(copyOfRange(bytes, 0, VertexIID.Type.LENGTH));
+            if (start == null) start = VertexIID.Type.extract(bytes, 0);
             return start;
         }
 
@@ -192,7 +192,7 @@ public abstract class EdgeIID<
         @Override
         public VertexIID.Type start() {
             if (start != null) return start;
-            start = VertexIID.Type.of(copyOfRange(bytes, 0, VertexIID.Type.LENGTH));
+            start = VertexIID.Type.extract(bytes, 0);
             return start;
         }
 
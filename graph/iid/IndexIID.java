@@ -24,8 +24,6 @@ import grakn.core.graph.util.Encoding;
 import javax.annotation.Nullable;
 import java.time.LocalDateTime;
 
-import static grakn.core.common.collection.Bytes.DOUBLE_SIZE;
-import static grakn.core.common.collection.Bytes.LONG_SIZE;
 import static grakn.core.common.collection.Bytes.booleanToByte;
 import static grakn.core.common.collection.Bytes.byteToBoolean;
 import static grakn.core.common.collection.Bytes.bytesToDateTime;
@@ -152,16 +150,16 @@ public abstract class IndexIID extends IID {
                         value = byteToBoolean(bytes[VALUE_INDEX]).toString();
                         break;
                     case LONG:
-                        value = sortedBytesToLong(copyOfRange(bytes, VALUE_INDEX, VALUE_INDEX + LONG_SIZE)) + "";
+                        value = sortedBytesToLong(bytes, VALUE_INDEX) + "";
                         break;
                     case DOUBLE:
-                        value = sortedBytesToDouble(copyOfRange(bytes, VALUE_INDEX, VALUE_INDEX + DOUBLE_SIZE)) + "";
+                        value = sortedBytesToDouble(bytes, VALUE_INDEX) + "";
                         break;
                     case STRING:
-                        value = bytesToString(copyOfRange(bytes, VALUE_INDEX, bytes.length - VertexIID.Type.LENGTH), STRING_ENCODING);
+                        value = bytesToString(bytes, VALUE_INDEX, STRING_ENCODING);
                         break;
                     case DATETIME:
-                        value = bytesToDateTime(copyOfRange(bytes, VALUE_INDEX, bytes.length - VertexIID.Type.LENGTH), TIME_ZONE_ID).toString();
+                        value = bytesToDateTime(bytes, VALUE_INDEX, TIME_ZONE_ID).toString();
                         break;
                     default:
                         value = "";
@@ -22,7 +22,6 @@ import grakn.core.graph.util.KeyGenerator;
 
 import static grakn.core.common.collection.Bytes.join;
 import static grakn.core.common.collection.Bytes.sortedBytesToShort;
-import static java.util.Arrays.copyOfRange;
 
 public abstract class StructureIID extends IID {
 
@@ -70,7 +69,7 @@ public abstract class StructureIID extends IID {
             if (readableString == null) {
                 readableString = "[" + PrefixIID.LENGTH + ": " + encoding().toString() + "][" +
                         (LENGTH - PrefixIID.LENGTH) + ": " +
-                        sortedBytesToShort(copyOfRange(bytes, PrefixIID.LENGTH, LENGTH)) + "]";
+                        sortedBytesToShort(bytes, PrefixIID.LENGTH) + "]";
             }
             return readableString;
         }
@@ -119,7 +119,7 @@ public abstract class VertexIID extends IID {
             if (readableString == null) {
                 readableString = "[" + PrefixIID.LENGTH + ": " + encoding().toString() + "][" +
                         (VertexIID.Type.LENGTH - PrefixIID.LENGTH) + ": " +
-                        sortedBytesToShort(copyOfRange(bytes, PrefixIID.LENGTH, VertexIID.Type.LENGTH)) + "]";
+                        sortedBytesToShort(bytes, PrefixIID.LENGTH) + "]";
             }
             return readableString;
         }
@@ -131,6 +131,8 @@ public abstract class VertexIID extends IID {
         public static final int PREFIX_W_TYPE_LENGTH = PrefixIID.LENGTH + VertexIID.Type.LENGTH;
         public static final int DEFAULT_LENGTH = PREFIX_W_TYPE_LENGTH + LONG_SIZE;
 
+        private Type type;
+
         private Thing(byte[] bytes) {
             super(bytes);
         }
@@ -165,7 +167,8 @@ public abstract class VertexIID extends IID {
         }
 
         public Type type() {
-            return Type.of(copyOfRange(bytes, PrefixIID.LENGTH, PREFIX_W_TYPE_LENGTH));
+            if (type == null) type = Type.extract(bytes, PrefixIID.LENGTH);
+            return type;
         }
 
         public Encoding.Vertex.Thing encoding() {
@@ -190,7 +193,7 @@ public abstract class VertexIID extends IID {
                 readableString = "[" + PrefixIID.LENGTH + ": " + encoding().toString() + "]" +
                         "[" + VertexIID.Type.LENGTH + ": " + type().toString() + "]" +
                         "[" + (DEFAULT_LENGTH - PREFIX_W_TYPE_LENGTH) + ": " +
-                        sortedBytesToLong(copyOfRange(bytes, PREFIX_W_TYPE_LENGTH, DEFAULT_LENGTH)) + "]";
+                        sortedBytesToLong(bytes, PREFIX_W_TYPE_LENGTH) + "]";
             }
             return readableString;
         }
@@ -341,7 +344,7 @@ public abstract class VertexIID extends IID {
 
             @Override
             public java.lang.Long value() {
-                return sortedBytesToLong(copyOfRange(bytes, VALUE_INDEX, VALUE_INDEX + LONG_SIZE));
+                return sortedBytesToLong(bytes, VALUE_INDEX);
             }
 
             @Override
@@ -366,7 +369,7 @@ public abstract class VertexIID extends IID {
 
             @Override
             public java.lang.Double value() {
-                return sortedBytesToDouble(copyOfRange(bytes, VALUE_INDEX, VALUE_INDEX + DOUBLE_SIZE));
+                return sortedBytesToDouble(bytes, VALUE_INDEX);
             }
 
             @Override
@@ -388,14 +391,14 @@ public abstract class VertexIID extends IID {
 
             public static VertexIID.Attribute.String extract(byte[] bytes, int from) {
                 int attValIndex = from + VALUE_INDEX;
-                int strValLen = unsignedBytesToShort(copyOfRange(bytes, attValIndex, attValIndex + STRING_SIZE_ENCODING));
+                int strValLen = unsignedBytesToShort(bytes, attValIndex);
                 int stringEnd = from + PREFIX_W_TYPE_LENGTH + VALUE_TYPE_LENGTH + STRING_SIZE_ENCODING + strValLen;
                 return new VertexIID.Attribute.String(copyOfRange(bytes, from, stringEnd));
             }
 
             @Override
             public java.lang.String value() {
-                return bytesToString(copyOfRange(bytes, VALUE_INDEX, bytes.length), STRING_ENCODING);
+                return bytesToString(bytes, VALUE_INDEX, STRING_ENCODING);
             }
 
             @Override
@@ -420,7 +423,7 @@ public abstract class VertexIID extends IID {
 
             @Override
             public java.time.LocalDateTime value() {
-                return bytesToDateTime(copyOfRange(bytes, VALUE_INDEX, bytes.length), TIME_ZONE_ID);
+                return bytesToDateTime(bytes, VALUE_INDEX, TIME_ZONE_ID);
             }
 
             @Override
@@ -43,10 +43,12 @@ public class Encoding {
 
     public static final String ROCKS_DATA = "data";
     public static final String ROCKS_SCHEMA = "schema";
+    public static final String ROCKS_BULK = "bulk";
 
     public enum Key {
         PERSISTED(0, true),
-        BUFFERED(-1, false);
+        BUFFERED(-1, false),
+        INFERRED(Integer.MIN_VALUE, false);
 
         private final int initialValue;
         private final boolean isIncrement;
@@ -107,17 +109,62 @@ public class Encoding {
         }
     }
 
+    /**
+     * The partitions of the data storage, each of which holds the keys of a
+     * group of prefixes that are read and written in the same way. This allows
+     * the storage to tune each key space independently, e.g. with different
+     * caching, prefix extraction and Bloom filtering.
+     *
+     * The keys of the schema storage are never partitioned.
+     */
+    public enum Partition {
+        DEFAULT(0, "default"),
+        THING(1, "thing"), // thing vertices and their edges, prefixed by the vertex IID
+        TYPE(2, "type"), // edges from types to their instances, prefixed by the type IID
+        INDEX(3, "index"),
+        STATISTICS(4, "statistics");
+
+        private final int key;
+        private final String label;
+
+        Partition(int key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+
+        public static Partition of(byte[] key) {
+            assert key.length > 0;
+            final Prefix prefix = Prefix.BY_KEY[key[0] & 0xff];
+            return prefix == null ? DEFAULT : prefix.type.partition;
+        }
+
+        public int key() {
+            return key;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
     public enum PrefixType {
-        INDEX(0),
-        TYPE(1),
-        THING(2),
-        RULE(3),
-        STATISTICS(4);
+        INDEX(0, Partition.INDEX),
+        TYPE(1, Partition.TYPE),
+        THING(2, Partition.THING),
+        RULE(3, Partition.DEFAULT),
+        STATISTICS(4, Partition.STATISTICS),
+        SYSTEM(5, Partition.DEFAULT);
 
         private final int key;
+        private final Partition partition;
 
-        PrefixType(int key) {
+        PrefixType(int key, Partition partition) {
             this.key = key;
+            this.partition = partition;
+        }
+
+        public Partition partition() {
+            return partition;
         }
     }
 
@@ -144,7 +191,15 @@ public class Encoding {
         VERTEX_ATTRIBUTE(160, PrefixType.THING),
         VERTEX_RELATION(170, PrefixType.THING),
         VERTEX_ROLE(180, PrefixType.THING),
-        STRUCTURE_RULE(190, PrefixType.RULE);
+        STRUCTURE_RULE(190, PrefixType.RULE),
+        SYSTEM_SCHEMA_VERSION(200, PrefixType.SYSTEM),
+        SYSTEM_PLAN(201, PrefixType.SYSTEM);
+
+        private static final Prefix[] BY_KEY = new Prefix[256];
+
+        static {
+            for (Prefix prefix : Prefix.values()) BY_KEY[prefix.key & 0xff] = prefix;
+        }
 
         private final byte key;
         private final PrefixType type;
@@ -192,7 +247,8 @@ public class Encoding {
 
     public enum StatisticsCountJobType {
         ATTRIBUTE_VERTEX(0),
-        HAS_EDGE(1);
+        HAS_EDGE(1),
+        ROLE_PLAYER_EDGE(2);
 
         private final byte key;
 
@@ -250,7 +306,11 @@ public class Encoding {
         VERTEX_COUNT(0),
         VERTEX_TRANSITIVE_COUNT(1),
         HAS_EDGE_COUNT(2),
-        HAS_EDGE_TOTAL_COUNT(3);
+        HAS_EDGE_TOTAL_COUNT(3),
+        ATTRIBUTE_SAMPLE(4),
+        THING_EDGE_COUNT(5),
+        THING_EDGE_HEAVY_HITTERS(6),
+        THING_EDGES_BACKFILL_CURSOR(7);
 
         private final byte key;
 
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graph.util;
+
+import grakn.core.graph.iid.VertexIID;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static grakn.core.common.collection.Bytes.INTEGER_SIZE;
+import static grakn.core.common.collection.Bytes.LONG_SIZE;
+
+/**
+ * The vertices with the highest degrees over one kind of edge, between a type
+ * of things and a type of adjacent things, along with their degrees.
+ *
+ * A vertex whose degree grows beyond the lowest degree held replaces the
+ * vertex with that degree. A vertex that is held has its degree updated as it
+ * shrinks, so the degrees held are exact, but a vertex that is not held may
+ * come to have a higher degree than the lowest one held, after the degrees of
+ * the vertices held have shrunk.
+ */
+public class HeavyHitters {
+
+    static final int CAPACITY = 8;
+
+    private final List<byte[]> vertices;
+    private final List<Long> degrees;
+
+    private HeavyHitters(List<byte[]> vertices, List<Long> degrees) {
+        this.vertices = vertices;
+        this.degrees = degrees;
+    }
+
+    public static HeavyHitters of(@Nullable byte[] bytes) {
+        List<byte[]> vertices = new ArrayList<>(CAPACITY);
+        List<Long> degrees = new ArrayList<>(CAPACITY);
+        if (bytes != null) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            int size = Math.min(buffer.getInt(), CAPACITY);
+            for (int i = 0; i < size; i++) {
+                byte[] vertex = new byte[buffer.getInt()];
+                buffer.get(vertex);
+                vertices.add(vertex);
+                degrees.add(buffer.getLong());
+            }
+        }
+        return new HeavyHitters(vertices, degrees);
+    }
+
+    public void update(VertexIID.Thing vertex, long degree) {
+        int index = indexOf(vertex.bytes());
+        if (index >= 0) {
+            if (degree > 0) {
+                degrees.set(index, degree);
+            } else {
+                vertices.remove(index);
+                degrees.remove(index);
+            }
+        } else if (degree > 0 && vertices.size() < CAPACITY) {
+            vertices.add(vertex.bytes());
+            degrees.add(degree);
+        } else if (degree > 0) {
+            int lowest = 0;
+            for (int i = 1; i < degrees.size(); i++) {
+                if (degrees.get(i) < degrees.get(lowest)) lowest = i;
+            }
+            if (degree > degrees.get(lowest)) {
+                vertices.set(lowest, vertex.bytes());
+                degrees.set(lowest, degree);
+            }
+        }
+    }
+
+    private int indexOf(byte[] vertex) {
+        for (int i = 0; i < vertices.size(); i++) {
+            if (Arrays.equals(vertices.get(i), vertex)) return i;
+        }
+        return -1;
+    }
+
+    public long max() {
+        return degrees.stream().mapToLong(d -> d).max().orElse(0);
+    }
+
+    public long sum() {
+        return degrees.stream().mapToLong(d -> d).sum();
+    }
+
+    public int size() {
+        return vertices.size();
+    }
+
+    /**
+     * Returns the degrees held, from the highest to the lowest.
+     */
+    public long[] degrees() {
+        return degrees.stream().sorted(Comparator.reverseOrder()).mapToLong(d -> d).toArray();
+    }
+
+    public byte[] bytes() {
+        int length = INTEGER_SIZE;
+        for (byte[] vertex : vertices) length += INTEGER_SIZE + vertex.length + LONG_SIZE;
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(vertices.size());
+        for (int i = 0; i < vertices.size(); i++) {
+            buffer.putInt(vertices.get(i).length);
+            buffer.put(vertices.get(i));
+            buffer.putLong(degrees.get(i));
+        }
+        return buffer.array();
+    }
+}
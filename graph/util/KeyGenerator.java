@@ -22,7 +22,6 @@ import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Label;
 import grakn.core.graph.iid.PrefixIID;
-import grakn.core.graph.iid.StructureIID;
 import grakn.core.graph.iid.VertexIID;
 
 import java.util.concurrent.ConcurrentHashMap;
@@ -38,14 +37,13 @@ import static grakn.core.common.collection.Bytes.sortedBytesToShort;
 import static grakn.core.common.exception.ErrorMessage.RuleWrite.MAX_RULE_REACHED;
 import static grakn.core.common.exception.ErrorMessage.ThingWrite.MAX_INSTANCE_REACHED;
 import static grakn.core.common.exception.ErrorMessage.TypeWrite.MAX_SUBTYPE_REACHED;
-import static grakn.core.graph.iid.VertexIID.Thing.DEFAULT_LENGTH;
 import static grakn.core.graph.iid.VertexIID.Thing.PREFIX_W_TYPE_LENGTH;
 import static grakn.core.graph.util.Encoding.Key.BUFFERED;
+import static grakn.core.graph.util.Encoding.Key.INFERRED;
 import static grakn.core.graph.util.Encoding.Key.PERSISTED;
 import static grakn.core.graph.util.Encoding.Vertex.Thing.ENTITY;
 import static grakn.core.graph.util.Encoding.Vertex.Thing.RELATION;
 import static grakn.core.graph.util.Encoding.Vertex.Thing.ROLE;
-import static java.util.Arrays.copyOfRange;
 
 public class KeyGenerator {
 
@@ -108,7 +106,7 @@ public class KeyGenerator {
                     final byte[] prefix = encoding.prefix().bytes();
                     final byte[] lastIID = storage.getLastKey(prefix);
                     final AtomicInteger nextValue = lastIID != null ?
-                            new AtomicInteger(sortedBytesToShort(copyOfRange(lastIID, PrefixIID.LENGTH, VertexIID.Type.LENGTH)) + delta) :
+                            new AtomicInteger(sortedBytesToShort(lastIID, PrefixIID.LENGTH) + delta) :
                             new AtomicInteger(initialValue);
                     typeKeys.put(PrefixIID.of(encoding), nextValue);
                 }
@@ -118,7 +116,7 @@ public class KeyGenerator {
                 final byte[] prefix = Encoding.Structure.RULE.prefix().bytes();
                 final byte[] lastIID = storage.getLastKey(prefix);
                 if (lastIID != null) {
-                    ruleKey.set(sortedBytesToShort(copyOfRange(lastIID, PrefixIID.LENGTH, StructureIID.Rule.LENGTH)) + delta);
+                    ruleKey.set(sortedBytesToShort(lastIID, PrefixIID.LENGTH) + delta);
                 } else {
                     ruleKey.set(initialValue);
                 }
@@ -160,6 +158,13 @@ public class KeyGenerator {
             }
         }
 
+        public static class Inferred extends Data {
+
+            public Inferred() {
+                super(INFERRED.initialValue(), INFERRED.isIncrement() ? 1 : -1);
+            }
+        }
+
         public static class Persisted extends Data {
 
             public Persisted() {
@@ -178,7 +183,7 @@ public class KeyGenerator {
                         final byte[] prefix = join(thingEncoding.prefix().bytes(), typeIID);
                         final byte[] lastIID = storage.getLastKey(prefix);
                         final AtomicLong nextValue = lastIID != null ?
-                                new AtomicLong(sortedBytesToLong(copyOfRange(lastIID, PREFIX_W_TYPE_LENGTH, DEFAULT_LENGTH)) + delta) :
+                                new AtomicLong(sortedBytesToLong(lastIID, PREFIX_W_TYPE_LENGTH) + delta) :
                                 new AtomicLong(initialValue);
                         thingKeys.put(VertexIID.Type.of(typeIID), nextValue);
                     }
@@ -52,6 +52,37 @@ public class StatisticsBytes {
                 Encoding.StatisticsInfix.HAS_EDGE_TOTAL_COUNT.bytes());
     }
 
+    public static byte[] attributeSampleKey(VertexIID.Type attTypeIID) {
+        return join(
+                Encoding.Prefix.STATISTICS_THINGS.bytes(),
+                attTypeIID.bytes(),
+                Encoding.StatisticsInfix.ATTRIBUTE_SAMPLE.bytes());
+    }
+
+    public static byte[] thingEdgeCountKey(VertexIID.Type thingTypeIID, Encoding.Infix infix, VertexIID.Type adjTypeIID) {
+        return join(
+                Encoding.Prefix.STATISTICS_THINGS.bytes(),
+                thingTypeIID.bytes(),
+                Encoding.StatisticsInfix.THING_EDGE_COUNT.bytes(),
+                infix.bytes(),
+                adjTypeIID.bytes());
+    }
+
+    public static byte[] heavyHittersKey(VertexIID.Type thingTypeIID, Encoding.Infix infix, VertexIID.Type adjTypeIID) {
+        return join(
+                Encoding.Prefix.STATISTICS_THINGS.bytes(),
+                thingTypeIID.bytes(),
+                Encoding.StatisticsInfix.THING_EDGE_HEAVY_HITTERS.bytes(),
+                infix.bytes(),
+                adjTypeIID.bytes());
+    }
+
+    public static byte[] thingEdgesBackfillCursorKey() {
+        return join(
+                Encoding.Prefix.STATISTICS_THINGS.bytes(),
+                Encoding.StatisticsInfix.THING_EDGES_BACKFILL_CURSOR.bytes());
+    }
+
     public static byte[] countJobKey() {
         return join(
                 Encoding.Prefix.STATISTICS_COUNT_JOB.bytes());
@@ -87,4 +118,22 @@ public class StatisticsBytes {
                 attIID.bytes()
         );
     }
+
+    public static byte[] rolePlayerEdgeCountJobKey(VertexIID.Thing relationIID, VertexIID.Thing playerIID, VertexIID.Thing roleIID) {
+        return join(
+                Encoding.Prefix.STATISTICS_COUNT_JOB.bytes(),
+                Encoding.StatisticsCountJobType.ROLE_PLAYER_EDGE.bytes(),
+                relationIID.bytes(),
+                playerIID.bytes(),
+                roleIID.bytes()
+        );
+    }
+
+    public static byte[] rolePlayerEdgeCountedKey(VertexIID.Thing roleIID) {
+        return join(
+                Encoding.Prefix.STATISTICS_COUNTED.bytes(),
+                roleIID.bytes(),
+                Encoding.Infix.EDGE_ROLEPLAYER_OUT.bytes()
+        );
+    }
 }
@@ -21,16 +21,21 @@ package grakn.core.graph.util;
 import grakn.core.common.exception.ErrorMessage;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.graph.iid.InfixIID;
+import grakn.core.graph.iid.VertexIID;
 
 import java.util.function.BiFunction;
 
 import static grakn.common.util.Objects.className;
+import static grakn.core.common.collection.Bytes.join;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
 
 public interface Storage {
 
     boolean isOpen();
 
+    boolean isReadOnly();
+
     byte[] get(byte[] key);
 
     byte[] getLastKey(byte[] prefix);
@@ -49,6 +54,8 @@ public interface Storage {
 
     <G> ResourceIterator<G> iterate(byte[] key, BiFunction<byte[], byte[], G> constructor);
 
+    <G> Seekable<G> iterate(byte[] lowerBound, byte[] upperBound, BiFunction<byte[], byte[], G> constructor);
+
     GraknException exception(ErrorMessage error);
 
     GraknException exception(Exception exception);
@@ -63,6 +70,18 @@ public interface Storage {
         throw exception(GraknException.of(ILLEGAL_CAST, className(this.getClass()), className(Schema.class)));
     }
 
+    /**
+     * An iterator over the keys of the storage, in key order, that can skip ahead to a given key.
+     */
+    interface Seekable<G> extends ResourceIterator<G> {
+
+        /**
+         * Moves the iterator to the first key that is equal to, or greater than, the target key, without reopening
+         * it. The iterator never moves backwards.
+         */
+        void seek(byte[] target);
+    }
+
     interface Schema extends Storage {
 
         KeyGenerator.Schema schemaKeyGenerator();
@@ -75,5 +94,14 @@ public interface Storage {
     interface Data extends Storage {
 
         KeyGenerator.Data dataKeyGenerator();
+
+        /**
+         * Iterates over the persisted edges of a thing vertex under a given infix,
+         * which the storage may serve from a cache shared across transactions.
+         */
+        default <G> ResourceIterator<G> iterateAdjacency(VertexIID.Thing vertex, InfixIID.Thing infix,
+                                                         BiFunction<byte[], byte[], G> constructor) {
+            return iterate(join(vertex.bytes(), infix.bytes()), constructor);
+        }
     }
 }
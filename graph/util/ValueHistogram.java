@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graph.util;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static grakn.core.common.collection.Bytes.DOUBLE_SIZE;
+import static grakn.core.common.collection.Bytes.INTEGER_SIZE;
+import static grakn.core.common.collection.Bytes.LONG_SIZE;
+import static grakn.core.graph.util.Encoding.ValueType.TIME_ZONE_ID;
+
+/**
+ * An equi-depth histogram of the values of an attribute type, with sortable
+ * values, built from a uniform sample of those values.
+ *
+ * Every bucket of the histogram holds the same fraction of the values, so the
+ * boundaries of the buckets are the quantiles of the sample. The fraction of
+ * values below a given value is interpolated linearly within its bucket.
+ */
+public class ValueHistogram {
+
+    static final int BUCKETS = 32;
+
+    private final double[] boundaries;
+
+    private ValueHistogram(double[] boundaries) {
+        this.boundaries = boundaries;
+    }
+
+    @Nullable
+    public static ValueHistogram of(Sample sample) {
+        if (sample.size == 0) return null;
+        double[] sorted = Arrays.copyOf(sample.values, sample.size);
+        Arrays.sort(sorted);
+        double[] boundaries = new double[BUCKETS + 1];
+        for (int i = 0; i <= BUCKETS; i++) boundaries[i] = sorted[(int) ((long) i * (sorted.length - 1) / BUCKETS)];
+        return new ValueHistogram(boundaries);
+    }
+
+    public static double numeric(LocalDateTime value) {
+        return value.atZone(TIME_ZONE_ID).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Returns the estimated fraction of values that are lower than the given
+     * value, between 0 and 1.
+     */
+    public double fractionBelow(double value) {
+        if (value <= boundaries[0]) return 0;
+        if (value > boundaries[BUCKETS]) return 1;
+        int bucket = Arrays.binarySearch(boundaries, value);
+        if (bucket < 0) bucket = -bucket - 2;
+        else while (bucket > 0 && boundaries[bucket - 1] == value) bucket--;
+        if (bucket >= BUCKETS) return 1;
+        double width = boundaries[bucket + 1] - boundaries[bucket];
+        double withinBucket = width > 0 ? (value - boundaries[bucket]) / width : 0;
+        return (bucket + withinBucket) / BUCKETS;
+    }
+
+    /**
+     * A reservoir sample of the values of an attribute type, which is kept
+     * uniform as values are added, by replacing a random value of a full sample
+     * with the probability of the size of the sample over the number of values
+     * seen. A value that is removed leaves space in the sample for the next
+     * value that is added.
+     */
+    public static class Sample {
+
+        static final int CAPACITY = 512;
+
+        private final double[] values;
+        private long seen;
+        private int size;
+
+        private Sample(double[] values, long seen, int size) {
+            this.values = values;
+            this.seen = seen;
+            this.size = size;
+        }
+
+        public static Sample of(@Nullable byte[] bytes) {
+            double[] values = new double[CAPACITY];
+            if (bytes == null) return new Sample(values, 0, 0);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            long seen = buffer.getLong();
+            int size = Math.min(buffer.getInt(), CAPACITY);
+            for (int i = 0; i < size; i++) values[i] = buffer.getDouble();
+            return new Sample(values, seen, size);
+        }
+
+        public void add(double value) {
+            seen++;
+            if (size < CAPACITY) {
+                values[size++] = value;
+            } else {
+                long index = ThreadLocalRandom.current().nextLong(seen);
+                if (index < CAPACITY) values[(int) index] = value;
+            }
+        }
+
+        public void remove(double value) {
+            if (seen > 0) seen--;
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+
+        public byte[] bytes() {
+            ByteBuffer buffer = ByteBuffer.allocate(LONG_SIZE + INTEGER_SIZE + size * DOUBLE_SIZE);
+            buffer.putLong(seen);
+            buffer.putInt(size);
+            for (int i = 0; i < size; i++) buffer.putDouble(values[i]);
+            return buffer.array();
+        }
+    }
+}
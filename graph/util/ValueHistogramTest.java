@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graph.util;
+
+import org.junit.Test;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNotNull;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+
+public class ValueHistogramTest {
+
+    private static ValueHistogram histogram(double from, double to) {
+        ValueHistogram.Sample sample = ValueHistogram.Sample.of(null);
+        for (double value = from; value < to; value++) sample.add(value);
+        return ValueHistogram.of(sample);
+    }
+
+    @Test
+    public void test_empty_sample_has_no_histogram() {
+        assertNull(ValueHistogram.of(ValueHistogram.Sample.of(null)));
+    }
+
+    @Test
+    public void test_fraction_below_is_bounded_by_the_sampled_values() {
+        ValueHistogram histogram = histogram(100, 200);
+        assertEquals(0.0, histogram.fractionBelow(50));
+        assertEquals(0.0, histogram.fractionBelow(100));
+        assertEquals(1.0, histogram.fractionBelow(250));
+    }
+
+    @Test
+    public void test_fraction_below_is_interpolated_within_buckets() {
+        // fewer values than the capacity of the sample, so every value is sampled
+        ValueHistogram histogram = histogram(0, 257);
+        assertEquals(0.25, histogram.fractionBelow(64), 0.01);
+        assertEquals(0.5, histogram.fractionBelow(128), 0.01);
+        assertEquals(0.75, histogram.fractionBelow(192), 0.01);
+        assertEquals(0.5, histogram.fractionBelow(128.5), 0.01);
+    }
+
+    @Test
+    public void test_fraction_below_a_repeated_value_excludes_it() {
+        ValueHistogram.Sample sample = ValueHistogram.Sample.of(null);
+        for (int i = 0; i < 100; i++) sample.add(5);
+        ValueHistogram histogram = ValueHistogram.of(sample);
+        assertNotNull(histogram);
+        assertEquals(0.0, histogram.fractionBelow(5));
+        assertEquals(1.0, histogram.fractionBelow(6));
+    }
+
+    @Test
+    public void test_reservoir_stays_uniform_beyond_its_capacity() {
+        int values = ValueHistogram.Sample.CAPACITY * 200;
+        ValueHistogram histogram = histogram(0, values);
+        // each estimate is off by a few times the standard error of a quantile of the sample
+        assertEquals(0.25, histogram.fractionBelow(values * 0.25), 0.1);
+        assertEquals(0.5, histogram.fractionBelow(values * 0.5), 0.1);
+        assertEquals(0.75, histogram.fractionBelow(values * 0.75), 0.1);
+    }
+
+    @Test
+    public void test_removed_values_leave_space_for_new_values() {
+        ValueHistogram.Sample sample = ValueHistogram.Sample.of(null);
+        for (int i = 0; i < ValueHistogram.Sample.CAPACITY; i++) sample.add(0);
+        sample.remove(0);
+        sample.add(1000);
+        ValueHistogram histogram = ValueHistogram.of(sample);
+        assertNotNull(histogram);
+        // without the new value, every value would be below 999
+        assertTrue(histogram.fractionBelow(999) < 1);
+        assertEquals(1.0, histogram.fractionBelow(1001));
+    }
+
+    @Test
+    public void test_sample_survives_serialisation() {
+        ValueHistogram.Sample sample = ValueHistogram.Sample.of(null);
+        for (int i = 0; i < 100; i++) sample.add(i);
+        ValueHistogram original = ValueHistogram.of(sample);
+        ValueHistogram deserialised = ValueHistogram.of(ValueHistogram.Sample.of(sample.bytes()));
+        assertNotNull(original);
+        assertNotNull(deserialised);
+        for (double value = -1; value <= 100; value += 0.5) {
+            assertEquals(original.fractionBelow(value), deserialised.fractionBelow(value));
+        }
+    }
+}
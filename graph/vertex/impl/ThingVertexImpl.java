@@ -102,7 +102,8 @@ public abstract class ThingVertexImpl extends VertexImpl<VertexIID.Thing> implem
     public void setModified() {
         if (!isModified) {
             isModified = true;
-            graph.setModified();
+            if (isInferred) graph.setHasInferred();
+            else graph.setModified();
         }
     }
 
@@ -30,18 +30,23 @@ public class LogicCache  {
 
     private CommonCache<Conjunction, Map<Reference, Set<Label>>> typeHinterCache;
     private CommonCache<String, Rule> ruleCache;
+    private RuleIndex ruleIndex;
 
     public LogicCache() {
         typeHinterCache = new CommonCache<>();
         ruleCache = new CommonCache<>();
+        ruleIndex = new RuleIndex();
     }
 
     public LogicCache(int size, int timeOutMinutes) {
         typeHinterCache = new CommonCache<>(size, timeOutMinutes);
         ruleCache = new CommonCache<>(size, timeOutMinutes);
+        ruleIndex = new RuleIndex();
     }
 
     public CommonCache<Conjunction, Map<Reference, Set<Label>>> hinter() { return typeHinterCache; }
 
     CommonCache<String, Rule> rule() { return ruleCache; }
+
+    RuleIndex ruleIndex() { return ruleIndex; }
 }
@@ -18,14 +18,17 @@
 
 package grakn.core.logic;
 
+import grakn.common.collection.Pair;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Label;
 import grakn.core.concept.ConceptManager;
 import grakn.core.concept.type.RelationType;
+import grakn.core.concept.type.Type;
 import grakn.core.graph.GraphManager;
 import grakn.core.graph.structure.RuleStructure;
 import grakn.core.graph.util.Encoding;
+import grakn.core.logic.concludable.ConjunctionConcludable;
 import grakn.core.logic.tool.TypeHinter;
 import grakn.core.traversal.TraversalEngine;
 import graql.lang.pattern.Conjunctable;
@@ -36,6 +39,8 @@ import graql.lang.pattern.constraint.TypeConstraint;
 import graql.lang.pattern.variable.BoundVariable;
 import graql.lang.pattern.variable.ThingVariable;
 
+import java.util.HashSet;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
@@ -43,6 +48,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static grakn.core.common.exception.ErrorMessage.RuleWrite.TYPES_NOT_FOUND;
+import static grakn.core.common.iterator.Iterators.iterate;
 
 public class LogicManager {
 
@@ -65,7 +71,9 @@ public class LogicManager {
             structure.delete();
             logicCache.rule().invalidate(label);
         }
-        return logicCache.rule().get(label, l -> Rule.of(graphMgr, conceptMgr, this, label, when, then));
+        Rule rule = logicCache.rule().get(label, l -> Rule.of(graphMgr, conceptMgr, this, label, when, then));
+        logicCache.ruleIndex().put(rule);
+        return rule;
     }
 
     public Rule getRule(String label) {
@@ -86,6 +94,39 @@ public class LogicManager {
         });
     }
 
+    /**
+     * Returns the rules that may conclude answers to the given concludable. The candidate rules are looked up
+     * in the rule index by the types that the concludable concludes, including their subtypes, as a rule that
+     * concludes a subtype also answers the concludable, and only the candidates are unified with it.
+     */
+    public ResourceIterator<Rule> applicableRules(ConjunctionConcludable<?, ?> concludable) {
+        RuleIndex ruleIndex = logicCache.ruleIndex();
+        if (!ruleIndex.isInitialised()) ruleIndex.initialise(rules());
+        Stream<Rule> candidates = ruleIndex.candidates(withSubtypes(concludable.conclusionTypes())).stream()
+                .map(this::getRule).filter(Objects::nonNull);
+        return iterate(concludable.findUnifiableRules(candidates).map(Pair::first).collect(Collectors.toSet()));
+    }
+
+    private Set<Label> withSubtypes(Set<Label> types) {
+        Set<Label> subtypes = new HashSet<>();
+        for (Label label : types) {
+            Type type = label.scope().isPresent() ? null : conceptMgr.getType(label.name());
+            if (type == null) subtypes.add(label);
+            else type.getSubtypes().forEach(subtype -> subtypes.add(subtype.getLabel()));
+        }
+        return subtypes;
+    }
+
+    void ruleDeleted(String label) {
+        logicCache.rule().invalidate(label);
+        logicCache.ruleIndex().remove(label);
+    }
+
+    void ruleRelabelled(String previousLabel, Rule rule) {
+        ruleDeleted(previousLabel);
+        logicCache.ruleIndex().put(rule);
+    }
+
     /**
      * On commit we must clear the rule cache and revalidate rules
      * Rule indexes should also be deleted and regenerated at approximate the same time
@@ -93,6 +134,7 @@ public class LogicManager {
      */
     public void validateRules() {
         logicCache.rule().clear();
+        logicCache.ruleIndex().clear();
         // validate all schema structures contain valid types
         graphMgr.schema().rules().forEachRemaining(structure -> validateRuleStructureLabels(conceptMgr, structure));
         // validate all rules are satisfiable
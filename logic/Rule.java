@@ -37,6 +37,7 @@ import java.util.Set;
 
 import static grakn.common.collection.Collections.list;
 import static grakn.common.collection.Collections.set;
+import static grakn.core.common.iterator.Iterators.iterate;
 import static grakn.core.logic.LogicManager.validateRuleStructureLabels;
 
 
@@ -89,6 +90,14 @@ public class Rule {
         return new Rule(graphMgr, conceptMgr, logicManager, label, when, then);
     }
 
+    public Conjunction when() {
+        return when;
+    }
+
+    public Conjunction then() {
+        return then;
+    }
+
     public Set<ConjunctionConcludable<?, ?>> whenConcludables() {
         return requiredWhenConcludables;
     }
@@ -98,13 +107,13 @@ public class Rule {
     }
 
     public ResourceIterator<Rule> findApplicableRulesPositive() {
-        // TODO find applicable rules from each non-negated ConjunctionConcludables
-        return null;
+        return iterate(requiredWhenConcludables).flatMap(logicManager::applicableRules).distinct();
     }
 
     public ResourceIterator<Rule> findApplicableRulesNegative() {
-        // TODO find applicable rules from negated ConjunctionConcludables
-        return null;
+        return iterate(when.negations()).flatMap(negation -> iterate(negation.disjunction().conjunctions()))
+                .flatMap(conjunction -> iterate(ConjunctionConcludable.create(conjunction)))
+                .flatMap(logicManager::applicableRules).distinct();
     }
 
     public String getLabel() {
@@ -112,7 +121,9 @@ public class Rule {
     }
 
     public void setLabel(String label) {
+        String previousLabel = getLabel();
         structure.label(label);
+        logicManager.ruleRelabelled(previousLabel, this);
     }
 
     public boolean isDeleted() {
@@ -120,7 +131,9 @@ public class Rule {
     }
 
     public void delete() {
+        String label = getLabel();
         structure.delete();
+        logicManager.ruleDeleted(label);
     }
 
     public ThingVariable<?> getThenPreNormalised() {
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.logic;
+
+import grakn.core.common.parameters.Label;
+import grakn.core.logic.concludable.ThenConcludable;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indexes the labels of the rules by the types of the concepts that their conclusions may conclude, so that
+ * the rules that may answer a concludable are looked up by its types, instead of trying every rule against it.
+ *
+ * The index is built from all the rules the first time it is used. A rule whose conclusions do not all have
+ * a known type is not indexed by type, and is a candidate for every concludable.
+ */
+class RuleIndex {
+
+    private final Map<Label, Set<String>> rulesByConclusionType;
+    private final Map<String, Set<Label>> conclusionTypesByRule;
+    private final Set<String> untypedRules;
+    private boolean isInitialised;
+
+    RuleIndex() {
+        rulesByConclusionType = new HashMap<>();
+        conclusionTypesByRule = new HashMap<>();
+        untypedRules = new HashSet<>();
+        isInitialised = false;
+    }
+
+    synchronized boolean isInitialised() {
+        return isInitialised;
+    }
+
+    synchronized void initialise(Iterator<Rule> rules) {
+        if (isInitialised) return;
+        rules.forEachRemaining(this::add);
+        isInitialised = true;
+    }
+
+    /**
+     * Returns the labels of the rules whose conclusions may conclude a concept of any of the given types,
+     * or of all rules when no type is given.
+     */
+    synchronized Set<String> candidates(Set<Label> conclusionTypes) {
+        assert isInitialised;
+        if (conclusionTypes.isEmpty()) return new HashSet<>(conclusionTypesByRule.keySet());
+        Set<String> candidates = new HashSet<>(untypedRules);
+        for (Label type : conclusionTypes) {
+            Set<String> rules = rulesByConclusionType.get(type);
+            if (rules != null) candidates.addAll(rules);
+        }
+        return candidates;
+    }
+
+    synchronized void put(Rule rule) {
+        if (!isInitialised) return;
+        remove(rule.getLabel());
+        add(rule);
+    }
+
+    synchronized void remove(String label) {
+        if (!isInitialised) return;
+        Set<Label> types = conclusionTypesByRule.remove(label);
+        if (types == null) return;
+        untypedRules.remove(label);
+        for (Label type : types) {
+            Set<String> rules = rulesByConclusionType.get(type);
+            rules.remove(label);
+            if (rules.isEmpty()) rulesByConclusionType.remove(type);
+        }
+    }
+
+    synchronized void clear() {
+        rulesByConclusionType.clear();
+        conclusionTypesByRule.clear();
+        untypedRules.clear();
+        isInitialised = false;
+    }
+
+    private void add(Rule rule) {
+        Set<Label> types = new HashSet<>();
+        boolean isTyped = true;
+        for (ThenConcludable<?, ?> conclusion : rule.possibleThenConcludables()) {
+            Set<Label> conclusionTypes = conclusion.conclusionTypes();
+            if (conclusionTypes.isEmpty()) isTyped = false;
+            types.addAll(conclusionTypes);
+        }
+        conclusionTypesByRule.put(rule.getLabel(), types);
+        if (!isTyped) untypedRules.add(rule.getLabel());
+        for (Label type : types) {
+            rulesByConclusionType.computeIfAbsent(type, t -> new HashSet<>()).add(rule.getLabel());
+        }
+    }
+}
@@ -19,6 +19,7 @@ package grakn.core.logic.concludable;
 
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.parameters.Label;
+import grakn.core.pattern.Conjunction;
 import grakn.core.pattern.constraint.Constraint;
 import grakn.core.pattern.constraint.thing.HasConstraint;
 import grakn.core.pattern.constraint.thing.IsaConstraint;
@@ -26,11 +27,16 @@ import grakn.core.pattern.constraint.thing.RelationConstraint;
 import grakn.core.pattern.constraint.thing.ValueConstraint;
 import grakn.core.pattern.variable.ThingVariable;
 import grakn.core.pattern.variable.TypeVariable;
+import grakn.core.pattern.variable.Variable;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import static grakn.common.collection.Collections.set;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 
 public abstract class Concludable<C extends Constraint, T extends Concludable<C, T>> {
@@ -45,10 +51,40 @@ public abstract class Concludable<C extends Constraint, T extends Concludable<C,
         return constraint;
     }
 
+    /**
+     * The conjunction of the variables that this concludable constrains, which can be
+     * traversed to retrieve the answers to this concludable that are already in the graph.
+     */
+    public Conjunction conjunction() {
+        Set<Variable> variables = new HashSet<>();
+        Deque<Variable> toVisit = new ArrayDeque<>(constraint.variables());
+        while (!toVisit.isEmpty()) {
+            Variable variable = toVisit.pop();
+            if (variables.add(variable)) variable.constraints().forEach(c -> toVisit.addAll(c.variables()));
+        }
+        return new Conjunction(variables, set());
+    }
+
+    /**
+     * The labels of the types that the concept concluded by this concludable may have, which is the relation,
+     * the attribute, or the thing that it constrains. They are empty when the type of the concept is not known.
+     */
+    public Set<Label> conclusionTypes() {
+        ThingVariable concluded;
+        if (constraint.asThing().isHas()) concluded = constraint.asThing().asHas().attribute();
+        else concluded = constraint.asThing().owner();
+        if (!concluded.isa().isPresent()) return set();
+
+        IsaConstraint isa = concluded.isa().get();
+        Set<Label> types = new HashSet<>(isa.getTypeHints());
+        isa.type().label().ifPresent(label -> types.add(label.properLabel()));
+        return types;
+    }
+
     static RelationConstraint copyConstraint(RelationConstraint relationConstraint) {
         ThingVariable ownerCopy = copyIsaAndValues(relationConstraint.owner());
         List<RelationConstraint.RolePlayer> rolePlayersCopy = copyRolePlayers(relationConstraint.players());
-        return new RelationConstraint(ownerCopy, rolePlayersCopy);
+        return ownerCopy.relation(rolePlayersCopy);
     }
 
     static List<RelationConstraint.RolePlayer> copyRolePlayers(List<RelationConstraint.RolePlayer> players) {
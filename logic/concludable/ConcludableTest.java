@@ -34,6 +34,7 @@ import static grakn.common.collection.Collections.list;
 import static grakn.core.pattern.variable.VariableRegistry.createFromThings;
 import static graql.lang.common.GraqlToken.Predicate.Equality.GT;
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 
 public class ConcludableTest {
@@ -295,4 +296,22 @@ public class ConcludableTest {
         assertEquals("person-type", relationConcludable.constraint().players().get(0).player().isa().get()
                 .type().label().get().label());
     }
+
+    @Test
+    public void test_relation_concludables_with_renamed_variables_are_alpha_equivalent() {
+        ConjunctionConcludable<?, ?> concludable =
+                ConjunctionConcludable.create(parseConjunction("{ (friend: $a, friend: $b) isa friendship; }")).iterator().next();
+        ConjunctionConcludable<?, ?> renamed =
+                ConjunctionConcludable.create(parseConjunction("{ (friend: $x, friend: $y) isa friendship; }")).iterator().next();
+        assertTrue(concludable.alphaEquals(renamed).isValid());
+    }
+
+    @Test
+    public void test_relation_concludables_of_different_types_are_not_alpha_equivalent() {
+        ConjunctionConcludable<?, ?> concludable =
+                ConjunctionConcludable.create(parseConjunction("{ (friend: $a, friend: $b) isa friendship; }")).iterator().next();
+        ConjunctionConcludable<?, ?> other =
+                ConjunctionConcludable.create(parseConjunction("{ (spouse: $a, spouse: $b) isa marriage; }")).iterator().next();
+        assertFalse(concludable.alphaEquals(other).isValid());
+    }
 }
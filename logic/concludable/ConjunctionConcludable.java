@@ -28,6 +28,7 @@ import grakn.core.pattern.constraint.thing.IsaConstraint;
 import grakn.core.pattern.constraint.thing.RelationConstraint;
 import grakn.core.pattern.constraint.thing.ThingConstraint;
 import grakn.core.pattern.constraint.thing.ValueConstraint;
+import grakn.core.pattern.equivalence.AlphaEquivalence;
 import grakn.core.pattern.variable.Variable;
 
 import java.util.HashSet;
@@ -80,6 +81,15 @@ public abstract class ConjunctionConcludable<CONSTRAINT extends Constraint, U ex
         return Stream.empty();
     }
 
+    /**
+     * Two concludables are alpha-equivalent when they constrain their variables in the same way, up to the
+     * names of those variables, which the returned alpha-equivalence maps from this concludable to that one.
+     */
+    public AlphaEquivalence alphaEquals(ConjunctionConcludable<?, ?> that) {
+        if (!getClass().equals(that.getClass())) return AlphaEquivalence.invalid();
+        return constraint.asThing().owner().alphaEquals(that.constraint.asThing().owner());
+    }
+
     public boolean isRelation() {
         return false;
     }
@@ -20,16 +20,25 @@ package grakn.core.reasoner;
 
 import grakn.core.common.concurrent.ExecutorService;
 import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.common.parameters.Context;
+import grakn.core.common.parameters.Options;
 import grakn.core.common.producer.Producer;
+import grakn.core.concept.Concept;
 import grakn.core.concept.ConceptManager;
 import grakn.core.concept.answer.ConceptMap;
 import grakn.core.logic.LogicManager;
+import grakn.core.logic.concludable.ConjunctionConcludable;
 import grakn.core.pattern.Conjunction;
 import grakn.core.pattern.Disjunction;
+import grakn.core.pattern.variable.Variable;
 import grakn.core.reasoner.resolution.ResolverRegistry;
+import grakn.core.traversal.Traversal;
 import grakn.core.traversal.TraversalEngine;
+import grakn.core.traversal.common.Identifier;
+import graql.lang.pattern.variable.Reference;
 
 import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 
 import static grakn.common.collection.Collections.list;
@@ -43,13 +52,17 @@ public class Reasoner {
     private final TraversalEngine traversalEng;
     private final ConceptManager conceptMgr;
     private final LogicManager logicMgr;
+    private final Context.Transaction context;
     private final ResolverRegistry resolverRegistry;
 
-    public Reasoner(ConceptManager conceptMgr, TraversalEngine traversalEng, LogicManager logicMgr) {
+    public Reasoner(ConceptManager conceptMgr, TraversalEngine traversalEng, LogicManager logicMgr,
+                    Context.Transaction context) {
         this.conceptMgr = conceptMgr;
         this.traversalEng = traversalEng;
         this.logicMgr = logicMgr;
-        this.resolverRegistry = new ResolverRegistry(ExecutorService.eventLoopGroup());
+        this.context = context;
+        this.resolverRegistry = new ResolverRegistry(ExecutorService.eventLoopGroup(), traversalEng, conceptMgr, logicMgr,
+                                                     context.options().resolverMaxCompletedRequests());
     }
 
     public ResourceIterator<ConceptMap> executeSync(Disjunction disjunction) {
@@ -59,8 +72,13 @@ public class Reasoner {
     }
 
     public ResourceIterator<ConceptMap> execute(Disjunction disjunction) {
+        return execute(disjunction, new Options.Query());
+    }
+
+    public ResourceIterator<ConceptMap> execute(Disjunction disjunction, Options.Query options) {
+        Context.Query context = new Context.Query(this.context, options);
         return buffer(disjunction.conjunctions().stream()
-                              .flatMap(conjunction -> execute(conjunction).stream())
+                              .flatMap(conjunction -> execute(conjunction, context).stream())
                               .collect(toList())).iterator();
     }
 
@@ -69,33 +87,68 @@ public class Reasoner {
     }
 
     public List<Producer<ConceptMap>> execute(Conjunction conjunction) {
+        return execute(conjunction, new Context.Query(context, new Options.Query()));
+    }
+
+    private List<Producer<ConceptMap>> execute(Conjunction conjunction, Context.Query context) {
         // TODO conjunction = logicMgr.typeHinter().computeHints(conjunction, PARALLELISATION_FACTOR);
+        Producer<ConceptMap> answers;
+        if (isInferrable(conjunction, context)) answers = resolve(conjunction, context);
+        else answers = traversalEng.producer(conjunction.traversal(), PARALLELISATION_FACTOR).map(conceptMgr::conceptMap);
+        return list(filterNegations(conjunction, answers));
+    }
+
+    public List<Producer<ConceptMap>> execute(Conjunction conjunction, ConceptMap bounds) {
         Producer<ConceptMap> answers = traversalEng
-                .producer(conjunction.traversal(), PARALLELISATION_FACTOR)
+                .producer(boundTraversal(conjunction, bounds), PARALLELISATION_FACTOR)
                 .map(conceptMgr::conceptMap);
+        return list(filterNegations(conjunction, answers));
+    }
 
-        // TODO enable reasoner here
-        //      ResourceIterator<ConceptMap> answers = link(list(
-        //          traversalEng.execute(conjunctionResolvedTypes.traversal()).map(conceptMgr::conceptMap)
-        //          resolve(conjunctionResolvedTypes)
-        //      ));
-
+    private Producer<ConceptMap> filterNegations(Conjunction conjunction, Producer<ConceptMap> answers) {
         if (conjunction.negations().isEmpty()) {
-            return list(answers);
+            return answers;
         } else {
             Predicate<ConceptMap> predicate = answer -> !buffer(conjunction.negations().stream().flatMap(
                     negation -> execute(negation.disjunction(), answer).stream()
             ).collect(toList())).iterator().hasNext();
-            return list(answers.filter(predicate));
+            return answers.filter(predicate);
         }
     }
 
-    public List<Producer<ConceptMap>> execute(Conjunction conjunction, ConceptMap bounds) {
-        return null; // TODO
+    /**
+     * Inferred answers are only resolved when inference is enabled, and only in read transactions,
+     * as the concepts they conclude are materialised into the transaction.
+     */
+    private boolean isInferrable(Conjunction conjunction, Context.Query context) {
+        if (!context.options().infer()) return false;
+        if (!this.context.transactionType().isRead()) return false;
+        return iterate(ConjunctionConcludable.create(conjunction))
+                .anyMatch(concludable -> resolverRegistry.applicableRules(concludable).hasNext());
     }
 
-    private ReasonerProducer resolve(Conjunction conjunction) {
-        // TODO get onAnswer and onDone callbacks
-        return new ReasonerProducer(conjunction, resolverRegistry);
+    private ReasonerProducer resolve(Conjunction conjunction, Context.Query context) {
+        return new ReasonerProducer(conjunction, resolverRegistry, context.options().resolverBatchSize(),
+                                    context.options().resolverMaxPendingRequests());
+    }
+
+    /**
+     * Returns the traversal of a conjunction, where the variables of the conjunction that
+     * are answered by the given bounds are restricted to the concepts they are bound to.
+     */
+    public static Traversal boundTraversal(Conjunction conjunction, ConceptMap bounds) {
+        Traversal traversal = conjunction.traversal();
+        for (Map.Entry<Reference.Name, ? extends Concept> bound : bounds.concepts().entrySet()) {
+            Identifier.Variable id = Identifier.Variable.of(bound.getKey());
+            Variable variable = iterate(conjunction.variables()).filter(v -> v.identifier().equals(id)).firstOrNull();
+            if (variable == null) continue;
+            Concept concept = bound.getValue();
+            if (variable.isThing() && concept.isThing()) {
+                traversal.iid(id, concept.asThing().getIID());
+            } else if (variable.isType() && concept.isType()) {
+                traversal.labels(id, concept.asType().getLabel());
+            }
+        }
+        return traversal;
     }
 }
@@ -17,20 +17,101 @@
 
 package grakn.core.reasoner;
 
+import grakn.common.concurrent.actor.Actor;
 import grakn.core.common.producer.Producer;
 import grakn.core.concept.answer.ConceptMap;
 import grakn.core.pattern.Conjunction;
 import grakn.core.reasoner.resolution.ResolverRegistry;
+import grakn.core.reasoner.resolution.framework.Answer;
+import grakn.core.reasoner.resolution.framework.Request;
+import grakn.core.reasoner.resolution.resolver.RootResolver;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static grakn.common.collection.Collections.list;
+
+/**
+ * Produces the answers to a conjunction, including inferred answers, by sending one request
+ * to the root resolver of the conjunction for every answer that is required. The resolvers
+ * below the root return their answers to each other in batches of the given size.
+ *
+ * No more than the given maximum number of requests are pending at the root at any time,
+ * and the remaining answers required by the sink are requested as pending requests are
+ * answered, so that the resolvers only ever work on the answers that are in demand.
+ *
+ * If any resolver fails, the resolution is terminated, and the sink receives the failure.
+ */
 public class ReasonerProducer implements Producer<ConceptMap> {
 
-    public ReasonerProducer(Conjunction conjunction, ResolverRegistry resolverRegistry) {
+    private final Actor<RootResolver> rootResolver;
+    private final ResolverRegistry resolverRegistry;
+    private final Request resolveRequest;
+    private final int maxPendingRequests;
+    private final AtomicInteger required;
+    private final AtomicInteger pending;
+    private final AtomicInteger pendingHighWaterMark;
+    private final AtomicBoolean isDone;
+    private volatile Sink<ConceptMap> sink;
 
+    public ReasonerProducer(Conjunction conjunction, ResolverRegistry resolverRegistry, int batchSize,
+                            int maxPendingRequests) {
+        this.resolverRegistry = resolverRegistry;
+        this.rootResolver = resolverRegistry.createRoot(conjunction, this::onAnswer, this::onDone, this::onFailed);
+        this.resolveRequest = new Request(new Request.Path(rootResolver), new ConceptMap(), list(), Answer.Derivation.EMPTY,
+                                          batchSize);
+        this.maxPendingRequests = maxPendingRequests;
+        this.required = new AtomicInteger(0);
+        this.pending = new AtomicInteger(0);
+        this.pendingHighWaterMark = new AtomicInteger(0);
+        this.isDone = new AtomicBoolean(false);
+        this.sink = null;
     }
 
     @Override
     public void produce(Sink<ConceptMap> sink, int count) {
-        // TODO
+        assert this.sink == null || this.sink == sink;
+        this.sink = sink;
+        required.addAndGet(count);
+        // the resolvers may have failed before the sink that receives the failure was known
+        Exception cause = resolverRegistry.terminationCause();
+        if (cause != null) onFailed(cause);
+        else requestAnswers();
+    }
+
+    private void requestAnswers() {
+        while (!isDone.get() && required.get() > 0) {
+            int pendingRequests = pending.get();
+            if (pendingRequests >= maxPendingRequests) return;
+            if (!pending.compareAndSet(pendingRequests, pendingRequests + 1)) continue;
+            pendingHighWaterMark.accumulateAndGet(pendingRequests + 1, Math::max);
+            if (required.getAndUpdate(count -> count > 0 ? count - 1 : count) > 0) {
+                rootResolver.tell(actor -> actor.executeReceiveRequest(resolveRequest, resolverRegistry));
+            } else {
+                pending.decrementAndGet();
+            }
+        }
+    }
+
+    private void onAnswer(Answer answer) {
+        sink.put(answer.conceptMap());
+        pending.decrementAndGet();
+        requestAnswers();
+    }
+
+    private void onDone() {
+        if (isDone.compareAndSet(false, true)) sink.done(this);
+    }
+
+    private void onFailed(Exception cause) {
+        if (sink != null && isDone.compareAndSet(false, true)) sink.fail(this, cause);
+    }
+
+    /**
+     * The largest number of requests that have been pending at the root at the same time.
+     */
+    int pendingHighWaterMark() {
+        return pendingHighWaterMark.get();
     }
 
     @Override
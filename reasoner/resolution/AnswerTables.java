@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.reasoner.resolution;
+
+import grakn.core.concept.Concept;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.logic.concludable.ConjunctionConcludable;
+import grakn.core.pattern.equivalence.AlphaEquivalence;
+import grakn.core.pattern.variable.Variable;
+import grakn.core.reasoner.resolution.framework.Answer;
+import graql.lang.pattern.variable.Reference;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Tables the answers of the concludables that have been completely resolved in a transaction. A table
+ * is keyed by a concludable, up to alpha-equivalence, and by the concepts its variables were bound to,
+ * so that later requests for the same sub-goal reuse its answers instead of resolving its rules again.
+ *
+ * Answers are tabled in the variable names of the first concludable registered of its alpha-equivalence
+ * class, and every {@link Subgoal} renames them from and to the variable names of its own concludable.
+ *
+ * A table whose answers depend on a recursive rule is only complete once that rule has reached a fixpoint.
+ * Its completion is deferred to the round of the rule that it depends on, which is the leader of the strongly
+ * connected component of the table, and the tables of a round are completed together when the rule reaches its
+ * fixpoint in that round, or discarded when the rule needs another round.
+ */
+public class AnswerTables {
+
+    private final List<Subgoal> representatives;
+    private final Map<ConjunctionConcludable<?, ?>, Map<ConceptMap, Table>> completed;
+    private final Map<Long, List<Runnable>> deferred;
+
+    AnswerTables() {
+        representatives = new ArrayList<>();
+        completed = new ConcurrentHashMap<>();
+        deferred = new HashMap<>();
+    }
+
+    public synchronized Subgoal subgoal(ConjunctionConcludable<?, ?> concludable) {
+        Set<Reference.Name> names = names(concludable);
+        for (Subgoal representative : representatives) {
+            AlphaEquivalence alphaEquivalence = concludable.alphaEquals(representative.concludable);
+            if (!alphaEquivalence.isValid()) continue;
+            Map<Reference.Name, Reference.Name> renaming = renaming(alphaEquivalence.asValid().map());
+            if (renaming.keySet().equals(names) && new HashSet<>(renaming.values()).equals(representative.names)) {
+                return new Subgoal(representative.concludable, names, renaming);
+            }
+        }
+        Map<Reference.Name, Reference.Name> identity = new HashMap<>();
+        names.forEach(name -> identity.put(name, name));
+        Subgoal subgoal = new Subgoal(concludable, names, identity);
+        representatives.add(subgoal);
+        return subgoal;
+    }
+
+    /**
+     * Defers the completion of the tables of a round to another round, as the rule that resolved the round depends on
+     * a rule upstream of itself, whose strongly connected component then also contains the tables of the round.
+     */
+    public synchronized void deferRound(long round, long toRound) {
+        List<Runnable> completions = deferred.remove(round);
+        if (completions != null) deferred.computeIfAbsent(toRound, r -> new ArrayList<>()).addAll(completions);
+    }
+
+    public synchronized void completeRound(long round) {
+        List<Runnable> completions = deferred.remove(round);
+        if (completions != null) completions.forEach(Runnable::run);
+    }
+
+    public synchronized void discardRound(long round) {
+        deferred.remove(round);
+    }
+
+    private synchronized void defer(long round, Runnable completion) {
+        deferred.computeIfAbsent(round, r -> new ArrayList<>()).add(completion);
+    }
+
+    private static Set<Reference.Name> names(ConjunctionConcludable<?, ?> concludable) {
+        Set<Reference.Name> names = new HashSet<>();
+        for (Variable variable : concludable.conjunction().variables()) {
+            if (variable.reference().isName()) names.add(variable.reference().asName());
+        }
+        return names;
+    }
+
+    private static Map<Reference.Name, Reference.Name> renaming(Map<Variable, Variable> alphaMap) {
+        Map<Reference.Name, Reference.Name> renaming = new HashMap<>();
+        alphaMap.forEach((from, to) -> {
+            if (from.reference().isName() && to.reference().isName()) {
+                renaming.put(from.reference().asName(), to.reference().asName());
+            }
+        });
+        return renaming;
+    }
+
+    /**
+     * A concludable as it is tabled, with the renaming of its variables to those of the table.
+     */
+    public class Subgoal {
+
+        private final ConjunctionConcludable<?, ?> concludable;
+        private final Set<Reference.Name> names;
+        private final Map<Reference.Name, Reference.Name> toTable;
+        private final Map<Reference.Name, Reference.Name> fromTable;
+
+        private Subgoal(ConjunctionConcludable<?, ?> representative, Set<Reference.Name> names,
+                        Map<Reference.Name, Reference.Name> toTable) {
+            this.concludable = representative;
+            this.names = names;
+            this.toTable = toTable;
+            this.fromTable = new HashMap<>();
+            toTable.forEach((from, to) -> fromTable.put(to, from));
+        }
+
+        /**
+         * Returns the completed table of this sub-goal for the given bounds, if there is one.
+         */
+        @Nullable
+        public Table completed(ConceptMap bounds) {
+            Map<ConceptMap, Table> tables = completed.get(concludable);
+            if (tables == null) return null;
+            return tables.get(rename(bounds, toTable));
+        }
+
+        public void complete(ConceptMap bounds, Table table) {
+            completed.computeIfAbsent(concludable, c -> new ConcurrentHashMap<>()).put(rename(bounds, toTable), table);
+        }
+
+        /**
+         * Completes the table of this sub-goal for the given bounds once the given round of a recursive rule,
+         * which its answers depend on, reaches a fixpoint.
+         */
+        public void completeWith(long round, ConceptMap bounds, Table table) {
+            defer(round, () -> complete(bounds, table));
+        }
+
+        public void record(Table table, ConceptMap answer, Answer.Derivation derivation) {
+            table.answers.computeIfAbsent(derivation, d -> new ArrayList<>()).add(rename(answer, toTable));
+        }
+
+        /**
+         * Iterates the answers of a table, in the variable names of this sub-goal and extended with the
+         * given bounds, grouped by the derivation they share.
+         */
+        public void forEachAnswers(Table table, ConceptMap bounds, BiConsumer<List<ConceptMap>, Answer.Derivation> consumer) {
+            table.answers.forEach((derivation, answers) -> {
+                List<ConceptMap> renamed = new ArrayList<>(answers.size());
+                for (ConceptMap answer : answers) renamed.add(extend(rename(answer, fromTable), bounds));
+                consumer.accept(renamed, derivation);
+            });
+        }
+
+        /**
+         * Only the concepts bound to the variables of the concludable are part of the key of a table,
+         * and of its answers, as the other concepts of a partial answer do not change them.
+         */
+        private ConceptMap rename(ConceptMap conceptMap, Map<Reference.Name, Reference.Name> renaming) {
+            Map<Reference.Name, Concept> renamed = new HashMap<>();
+            conceptMap.concepts().forEach((name, concept) -> {
+                Reference.Name to = renaming.get(name);
+                if (to != null) renamed.put(to, concept);
+            });
+            return new ConceptMap(renamed);
+        }
+
+        private ConceptMap extend(ConceptMap answer, ConceptMap bounds) {
+            if (bounds.concepts().keySet().stream().allMatch(names::contains)) return answer;
+            Map<Reference.Name, Concept> concepts = new HashMap<>(bounds.concepts());
+            concepts.putAll(answer.concepts());
+            return new ConceptMap(concepts);
+        }
+    }
+
+    /**
+     * The answers to a sub-goal with some bounds, which are grouped by their derivation as they are
+     * produced, and which can only be reused once the sub-goal has been resolved completely.
+     */
+    public static class Table {
+
+        private final Map<Answer.Derivation, List<ConceptMap>> answers;
+
+        public Table() {
+            answers = new LinkedHashMap<>();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.reasoner.resolution;
+
+import grakn.core.common.exception.GraknException;
+import grakn.core.concept.Concept;
+import grakn.core.concept.ConceptManager;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.thing.Attribute;
+import grakn.core.concept.thing.Relation;
+import grakn.core.concept.thing.Thing;
+import grakn.core.concept.type.AttributeType;
+import grakn.core.concept.type.RelationType;
+import grakn.core.logic.Rule;
+import grakn.core.pattern.constraint.thing.HasConstraint;
+import grakn.core.pattern.constraint.thing.RelationConstraint;
+import grakn.core.pattern.constraint.thing.ValueConstraint;
+import grakn.core.pattern.variable.ThingVariable;
+import grakn.core.pattern.variable.TypeVariable;
+import grakn.core.pattern.variable.Variable;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
+
+/**
+ * Materialises the conclusion of a rule into the transaction, as inferred concepts, for an
+ * answer to the condition of the rule. Inferred concepts are never committed, and are only
+ * seen by the traversals of the reasoner, so they live as long as the answer tables of the
+ * transaction that refer to them.
+ */
+public class Materialiser {
+
+    /**
+     * Materialises the conclusion of a rule for an answer to its condition, unless the
+     * conclusion already holds in the graph, and returns whether anything was materialised.
+     */
+    public static boolean materialise(Rule rule, ConceptMap whenAnswer, ResolverRegistry registry) {
+        // rules are resolved concurrently, so checking and materialising a conclusion must be atomic, but only
+        // against the conclusions that may conclude the same concepts, so that other rules are not blocked
+        synchronized (registry.conclusionLock(conclusionHash(rule, whenAnswer))) {
+            if (registry.traverse(rule.then(), whenAnswer).hasNext()) return false;
+            for (Variable variable : rule.then().variables()) {
+                if (!variable.isThing()) continue;
+                ThingVariable thing = variable.asThing();
+                thing.relation().forEach(relation -> materialise(relation, whenAnswer, registry.conceptMgr()));
+                thing.has().forEach(has -> materialise(has, whenAnswer, registry.conceptMgr()));
+            }
+            registry.recordMaterialisation();
+            return true;
+        }
+    }
+
+    /**
+     * Hashes the types and the bound concepts of the conclusion of a rule for an answer to its condition,
+     * which do not depend on the names of the variables of the rule, so that any two conclusions of the
+     * same concepts hash the same.
+     */
+    private static int conclusionHash(Rule rule, ConceptMap whenAnswer) {
+        Set<String> types = new HashSet<>();
+        Set<Concept> concepts = new HashSet<>();
+        for (Variable variable : rule.then().variables()) {
+            if (variable.isType() && variable.asType().label().isPresent()) {
+                types.add(variable.asType().label().get().label());
+            } else if (variable.reference().isName() && whenAnswer.contains(variable.reference().asName())) {
+                concepts.add(whenAnswer.get(variable.reference().asName()));
+            }
+        }
+        return Objects.hash(types, concepts);
+    }
+
+    private static void materialise(RelationConstraint constraint, ConceptMap whenAnswer, ConceptManager conceptMgr) {
+        RelationType relationType = conceptMgr.getRelationType(label(constraint.owner()));
+        Relation relation = relationType.create(true);
+        for (RelationConstraint.RolePlayer rolePlayer : constraint.players()) {
+            if (!rolePlayer.roleType().isPresent()) throw GraknException.of(ILLEGAL_STATE);
+            relation.addPlayer(relationType.getRelates(label(rolePlayer.roleType().get())),
+                               bound(rolePlayer.player(), whenAnswer), true);
+        }
+    }
+
+    private static void materialise(HasConstraint constraint, ConceptMap whenAnswer, ConceptManager conceptMgr) {
+        ThingVariable attribute = constraint.attribute();
+        if (attribute.reference().isName() && whenAnswer.contains(attribute.reference().asName())) {
+            bound(constraint.owner(), whenAnswer).setHas(bound(attribute, whenAnswer).asAttribute(), true);
+        } else {
+            bound(constraint.owner(), whenAnswer).setHas(put(attribute, conceptMgr), true);
+        }
+    }
+
+    private static Attribute put(ThingVariable attribute, ConceptManager conceptMgr) {
+        AttributeType attributeType = conceptMgr.getAttributeType(label(attribute));
+        ValueConstraint<?> value = attribute.value().stream().findFirst()
+                .orElseThrow(() -> GraknException.of(ILLEGAL_STATE));
+        if (value.isLong()) return attributeType.asLong().put(value.asLong().value(), true);
+        else if (value.isDouble()) return attributeType.asDouble().put(value.asDouble().value(), true);
+        else if (value.isBoolean()) return attributeType.asBoolean().put(value.asBoolean().value(), true);
+        else if (value.isString()) return attributeType.asString().put(value.asString().value(), true);
+        else if (value.isDateTime()) return attributeType.asDateTime().put(value.asDateTime().value(), true);
+        else throw GraknException.of(ILLEGAL_STATE);
+    }
+
+    private static Thing bound(ThingVariable variable, ConceptMap whenAnswer) {
+        if (!variable.reference().isName()) throw GraknException.of(ILLEGAL_STATE);
+        return whenAnswer.get(variable.reference().asName()).asThing();
+    }
+
+    private static String label(ThingVariable variable) {
+        if (!variable.isa().isPresent()) throw GraknException.of(ILLEGAL_STATE);
+        return label(variable.isa().get().type());
+    }
+
+    private static String label(TypeVariable variable) {
+        if (!variable.label().isPresent()) throw GraknException.of(ILLEGAL_STATE);
+        return variable.label().get().label();
+    }
+}
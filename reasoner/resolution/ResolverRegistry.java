@@ -20,50 +20,192 @@ package grakn.core.reasoner.resolution;
 
 import grakn.common.concurrent.actor.Actor;
 import grakn.common.concurrent.actor.EventLoopGroup;
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.concept.Concept;
+import grakn.core.concept.ConceptManager;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.logic.LogicManager;
+import grakn.core.logic.Rule;
+import grakn.core.logic.concludable.ConjunctionConcludable;
+import grakn.core.pattern.Conjunction;
 import grakn.core.reasoner.resolution.framework.Answer;
+import grakn.core.reasoner.resolution.framework.Resolver;
 import grakn.core.reasoner.resolution.resolver.ConcludableResolver;
 import grakn.core.reasoner.resolution.resolver.RootResolver;
 import grakn.core.reasoner.resolution.resolver.RuleResolver;
+import grakn.core.traversal.Traversal;
+import grakn.core.traversal.TraversalEngine;
+import graql.lang.pattern.variable.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
+import static grakn.core.reasoner.Reasoner.boundTraversal;
+
 public class ResolverRegistry {
 
     private final static Logger LOG = LoggerFactory.getLogger(ResolverRegistry.class);
+    private static final int CONCLUSION_LOCK_STRIPES = 64;
 
-    private final HashMap<Long, Actor<ConcludableResolver>> concludables;
-    private final HashMap<List<Long>, Actor<RuleResolver>> rules;
+    private final Map<ConjunctionConcludable<?, ?>, Actor<ConcludableResolver>> concludables;
+    private final Map<Rule, Actor<RuleResolver>> rules;
+    private final Set<Actor<RootResolver>> roots;
     private final Actor<ResolutionRecorder> resolutionRecorder;
+    private final AnswerTables answerTables;
     private final EventLoopGroup elg;
+    private final TraversalEngine traversalEng;
+    private final ConceptManager conceptMgr;
+    private final LogicManager logicMgr;
+    private final int maxCompletedRequests;
+    private final AtomicReference<Exception> terminationCause;
+    private final Object[] conclusionLocks;
+    private final AtomicLong rounds;
+    private final AtomicLong materialisations;
 
-    public ResolverRegistry(EventLoopGroup elg) {
+    public ResolverRegistry(EventLoopGroup elg, TraversalEngine traversalEng, ConceptManager conceptMgr,
+                            LogicManager logicMgr, int maxCompletedRequests) {
         this.elg = elg;
-        concludables = new HashMap<>();
-        rules = new HashMap<>();
+        this.traversalEng = traversalEng;
+        this.conceptMgr = conceptMgr;
+        this.logicMgr = logicMgr;
+        this.maxCompletedRequests = maxCompletedRequests;
+        concludables = new ConcurrentHashMap<>();
+        rules = new ConcurrentHashMap<>();
+        roots = ConcurrentHashMap.newKeySet();
+        terminationCause = new AtomicReference<>(null);
+        conclusionLocks = new Object[CONCLUSION_LOCK_STRIPES];
+        for (int i = 0; i < conclusionLocks.length; i++) conclusionLocks[i] = new Object();
+        rounds = new AtomicLong(0);
+        materialisations = new AtomicLong(0);
         resolutionRecorder = Actor.create(elg, ResolutionRecorder::new);
+        answerTables = new AnswerTables();
+    }
+
+    public Actor<ConcludableResolver> registerConcludable(ConjunctionConcludable<?, ?> concludable) {
+        LOG.debug("Register retrieval for concludable actor: '{}'", concludable.conjunction());
+        return concludables.computeIfAbsent(concludable, c -> Actor.create(elg, self -> new ConcludableResolver(self, c)));
+    }
+
+    public Actor<RuleResolver> registerRule(Rule rule) {
+        LOG.debug("Register retrieval for rule actor: '{}'", rule.getLabel());
+        return rules.computeIfAbsent(rule, r -> Actor.create(elg, self -> new RuleResolver(self, r)));
+    }
+
+    public Actor<RootResolver> createRoot(Conjunction conjunction, Consumer<Answer> onAnswer, Runnable onExhausted,
+                                          Consumer<Exception> onFailed) {
+        LOG.debug("Creating Conjunction Actor for pattern: '{}'", conjunction);
+        Actor<RootResolver> root = Actor.create(elg, self -> new RootResolver(self, conjunction, onAnswer, onExhausted, onFailed));
+        roots.add(root);
+        Exception cause = terminationCause.get();
+        if (cause != null) root.tell(actor -> actor.terminate(cause));
+        return root;
+    }
+
+    public void deregisterRoot(Actor<RootResolver> root) {
+        roots.remove(root);
+    }
+
+    /**
+     * Terminates every resolver of this registry, once any of them has failed, by failing the query of every
+     * root. The resolvers are shared by the queries of a transaction, so none of them can be resolved further.
+     */
+    public void terminate(Exception cause) {
+        if (!terminationCause.compareAndSet(null, cause)) return;
+        LOG.debug("Terminating the resolvers of every query, as a resolver failed with: '{}'", cause.getMessage());
+        roots.forEach(root -> root.tell(actor -> actor.terminate(cause)));
     }
 
-    public Actor<ConcludableResolver> registerConcludable(Long pattern, List<List<Long>> rules, long traversalSize) {
-        LOG.debug("Register retrieval for concludable actor: '{}'", pattern);
-        return concludables.computeIfAbsent(pattern, (p) -> Actor.create(elg, self -> new ConcludableResolver(self, p, rules, traversalSize)));
+    public boolean isTerminated() {
+        return terminationCause.get() != null;
     }
 
-    public Actor<RuleResolver> registerRule(List<Long> pattern, long traversalSize) {
-        LOG.debug("Register retrieval for rule actor: '{}'", pattern);
-        return rules.computeIfAbsent(pattern, (p) -> Actor.create(elg, self -> new RuleResolver(self, p, traversalSize)));
+    @Nullable
+    public Exception terminationCause() {
+        return terminationCause.get();
     }
 
-    public Actor<RootResolver> createRoot(final List<Long> pattern, final long traversalSize, final Consumer<Answer> onAnswer,
-                                          Runnable onExhausted) {
-        LOG.debug("Creating Conjunction Actor for pattern: '{}'", pattern);
-        return Actor.create(elg, self -> new RootResolver(self, pattern, traversalSize, onAnswer, onExhausted));
+    /**
+     * Returns the concludable and rule resolvers that have been registered.
+     */
+    public List<Actor<? extends Resolver<?>>> resolvers() {
+        List<Actor<? extends Resolver<?>>> resolvers = new ArrayList<>(concludables.values());
+        resolvers.addAll(rules.values());
+        return resolvers;
     }
 
     public Actor<ResolutionRecorder> resolutionRecorder() {
         return resolutionRecorder;
     }
+
+    public AnswerTables answerTables() {
+        return answerTables;
+    }
+
+    public int maxCompletedRequests() {
+        return maxCompletedRequests;
+    }
+
+    /**
+     * Returns the lock under which a conclusion with the given hash is materialised. Conclusions of the
+     * same concepts always share a lock, and other conclusions only share one when their hashes collide.
+     */
+    public Object conclusionLock(int conclusionHash) {
+        return conclusionLocks[Math.floorMod(conclusionHash, conclusionLocks.length)];
+    }
+
+    /**
+     * Returns a new round of resolution, which is distinct from every other round of this registry.
+     */
+    public long nextRound() {
+        return rounds.incrementAndGet();
+    }
+
+    /**
+     * The number of conclusions that have been materialised in the transaction, which only ever grows.
+     */
+    public long materialisations() {
+        return materialisations.get();
+    }
+
+    public void recordMaterialisation() {
+        materialisations.incrementAndGet();
+    }
+
+    public ConceptManager conceptMgr() {
+        return conceptMgr;
+    }
+
+    /**
+     * Returns the rules whose conclusion may answer the given concludable.
+     */
+    public ResourceIterator<Rule> applicableRules(ConjunctionConcludable<?, ?> concludable) {
+        return logicMgr.applicableRules(concludable);
+    }
+
+    /**
+     * Returns the answers to a conjunction that are in the graph, including any concepts that
+     * have already been materialised by rules, extended with the bounds they were retrieved for.
+     */
+    public ResourceIterator<ConceptMap> traverse(Conjunction conjunction, ConceptMap bounds) {
+        Traversal traversal = boundTraversal(conjunction, bounds);
+        traversal.includeInferred();
+        return traversalEng.iterator(traversal).map(conceptMgr::conceptMap).map(answer -> extend(answer, bounds));
+    }
+
+    private static ConceptMap extend(ConceptMap answer, ConceptMap bounds) {
+        if (bounds.concepts().isEmpty()) return answer;
+        Map<Reference.Name, Concept> concepts = new HashMap<>(bounds.concepts());
+        concepts.putAll(answer.concepts());
+        return new ConceptMap(concepts);
+    }
 }
@@ -33,15 +33,19 @@ public class Request {
     private final ConceptMap partialConceptMap;
     private final List<Object> unifiers;
     private final Answer.Derivation partialDerivation;
+    private final int batchSize;
 
     public Request(Path path,
                    ConceptMap partialConceptMap,
                    List<Object> unifiers,
-                   Answer.Derivation partialDerivation) {
+                   Answer.Derivation partialDerivation,
+                   int batchSize) {
+        assert batchSize > 0;
         this.path = path;
         this.partialConceptMap = partialConceptMap;
         this.unifiers = unifiers;
         this.partialDerivation = partialDerivation;
+        this.batchSize = batchSize;
     }
 
     public Path path() {
@@ -68,6 +72,14 @@ public class Request {
         return unifiers;
     }
 
+    /**
+     * The number of responses that the receiver may return for this request in one message. The batch size
+     * is not part of the equality of requests, as it does not change the responses, only how they are sent.
+     */
+    public int batchSize() {
+        return batchSize;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -92,22 +104,60 @@ public class Request {
         return partialDerivation;
     }
 
+    /**
+     * The resolvers that a request was sent through, each with the round of resolution that it was
+     * resolving when it sent the request on. Rounds are only ever started again by the resolver of a
+     * recursive rule, and they make the requests of every round distinct from those of earlier rounds.
+     */
     public static class Path {
         final List<Actor<? extends Resolver<?>>> path;
+        final List<Long> rounds;
 
         public Path(Actor<? extends Resolver<?>> sender) {
-            this(list(sender));
+            this(list(sender), list(0L));
         }
 
-        private Path(List<Actor<? extends Resolver<?>>> path) {
+        private Path(List<Actor<? extends Resolver<?>>> path, List<Long> rounds) {
             assert !path.isEmpty() : "Path cannot be empty";
+            assert path.size() == rounds.size();
             this.path = path;
+            this.rounds = rounds;
+        }
+
+        public boolean contains(Actor<? extends Resolver<?>> actor) {
+            return path.contains(actor);
+        }
+
+        public int indexOf(Actor<? extends Resolver<?>> actor) {
+            return path.indexOf(actor);
+        }
+
+        /**
+         * The index of the receiver of the request in the path.
+         */
+        public int depth() {
+            return path.size() - 1;
+        }
+
+        public long round(int index) {
+            return rounds.get(index);
         }
 
         public Path append(Actor<? extends Resolver<?>> actor) {
             List<Actor<? extends Resolver<?>>> appended = new ArrayList<>(path);
             appended.add(actor);
-            return new Path(appended);
+            List<Long> appendedRounds = new ArrayList<>(rounds);
+            appendedRounds.add(0L);
+            return new Path(appended, appendedRounds);
+        }
+
+        /**
+         * Returns this path with the given round for its receiver, which is resolving that round.
+         */
+        public Path withRound(long round) {
+            List<Long> replacedRounds = new ArrayList<>(rounds);
+            replacedRounds.set(depth(), round);
+            return new Path(path, replacedRounds);
         }
 
         @Override
@@ -115,12 +165,12 @@ public class Request {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             Path path1 = (Path) o;
-            return Objects.equals(path, path1.path);
+            return Objects.equals(path, path1.path) && Objects.equals(rounds, path1.rounds);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(path);
+            return Objects.hash(path, rounds);
         }
     }
 }
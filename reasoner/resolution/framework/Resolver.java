@@ -20,20 +20,32 @@ package grakn.core.reasoner.resolution.framework;
 
 import grakn.common.collection.Either;
 import grakn.common.concurrent.actor.Actor;
+import grakn.core.common.iterator.Iterators;
 import grakn.core.reasoner.resolution.ResolverRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+import static grakn.common.collection.Collections.list;
+
 public abstract class Resolver<T extends Resolver<T>> extends Actor.State<T> {
     private static final Logger LOG = LoggerFactory.getLogger(Resolver.class);
 
     protected final String name;
     private final Map<Request, ResponseProducer> responseProducers;
-    private final Map<Request, Request> requestRouter;
+    private final Map<Request, Deque<Request>> requestRouter;
+    private final Map<Request, Deque<Response>> prefetched;
+    private final Map<Request, Integer> completed;
     private boolean isInitialised;
+    protected ResolverRegistry registry;
 
     public Resolver(Actor<T> self, String name) {
         super(self);
@@ -41,12 +53,28 @@ public abstract class Resolver<T extends Resolver<T>> extends Actor.State<T> {
         isInitialised = false;
         responseProducers = new HashMap<>();
         requestRouter = new HashMap<>();
+        prefetched = new HashMap<>();
+        completed = new LinkedHashMap<>();
     }
 
     public String name() {
         return name;
     }
 
+    /**
+     * The number of requests from upstream that this resolver holds a response producer for.
+     */
+    public int activeRequests() {
+        return responseProducers.size();
+    }
+
+    /**
+     * The number of completed requests that this resolver remembers, up to the maximum of its registry.
+     */
+    public int completedRequests() {
+        return completed.size();
+    }
+
     protected abstract ResponseProducer createResponseProducer(Request fromUpstream);
 
     protected abstract void initialiseDownstreamActors(ResolverRegistry registry);
@@ -64,43 +92,70 @@ public abstract class Resolver<T extends Resolver<T>> extends Actor.State<T> {
      */
     public void executeReceiveRequest(Request fromUpstream, ResolverRegistry registry) {
         LOG.trace("{}: Receiving a new Request: {}", name, fromUpstream);
+        this.registry = registry;
+        if (registry.isTerminated()) return;
         if (!isInitialised) {
             LOG.debug(name + ": initialising downstream actors");
             initialiseDownstreamActors(registry);
             isInitialised = true;
         }
 
-        ResponseProducer responseProducer = responseProducers.computeIfAbsent(fromUpstream, key -> {
-            LOG.debug("{}: Creating a new ResponseProducer for the given Request: {}", name, fromUpstream);
-            return createResponseProducer(fromUpstream);
-        });
-        Either<Request, Response> action = receiveRequest(fromUpstream, responseProducer);
-        if (action.isFirst()) requestFromDownstream(action.first(), fromUpstream, registry);
-        else respondToUpstream(action.second(), registry);
-    }
-
-    void executeReceiveAnswer(Response.Answer fromDownstream, ResolverRegistry registry) {
-        LOG.trace("{}: Receiving a new Answer from downstream: {}", name, fromDownstream);
-        Request sentDownstream = fromDownstream.sourceRequest();
-        Request fromUpstream = requestRouter.get(sentDownstream);
         ResponseProducer responseProducer = responseProducers.get(fromUpstream);
-        Either<Request, Response> action = receiveAnswer(fromUpstream, fromDownstream, responseProducer);
+        if (responseProducer == null) {
+            if (completed.containsKey(fromUpstream)) {
+                responseProducer = exhaustedResponseProducer(completed.get(fromUpstream));
+            } else {
+                LOG.debug("{}: Creating a new ResponseProducer for the given Request: {}", name, fromUpstream);
+                responseProducer = createResponseProducer(fromUpstream);
+                responseProducers.put(fromUpstream, responseProducer);
+            }
+        }
+
+        // answer the same request again, up to its batch size, so that the answers are sent upstream in one message
+        List<Response> responses = new ArrayList<>();
+        Either<Request, Response> action = receiveRequest(fromUpstream, responseProducer);
+        while (true) {
+            action = receivePrefetched(action, fromUpstream);
+            if (action.isFirst()) break;
+            responses.add(action.second());
+            if (!action.second().isAnswer() || responses.size() >= fromUpstream.batchSize()) break;
+            action = receiveRequest(fromUpstream, responseProducer);
+        }
 
+        if (!responses.isEmpty()) respondToUpstream(fromUpstream, responses, registry);
         if (action.isFirst()) requestFromDownstream(action.first(), fromUpstream, registry);
-        else respondToUpstream(action.second(), registry);
     }
 
-    void executeReceiveExhausted(Response.Exhausted fromDownstream, ResolverRegistry registry) {
-        LOG.trace("{}: Receiving a new Exhausted from downstream: {}", name, fromDownstream);
-        Request sentDownstream = fromDownstream.sourceRequest();
-        Request fromUpstream = requestRouter.get(sentDownstream);
-        ResponseProducer responseProducer = responseProducers.get(fromUpstream);
-
-        Either<Request, Response> action = receiveExhausted(fromUpstream, fromDownstream, responseProducer);
+    void executeReceiveResponses(List<Response> fromDownstream, ResolverRegistry registry) {
+        LOG.trace("{}: Receiving {} new Responses from downstream", name, fromDownstream.size());
+        this.registry = registry;
+        if (registry.isTerminated()) return;
+        for (Response response : fromDownstream) {
+            prefetched.computeIfAbsent(response.sourceRequest(), request -> new ArrayDeque<>()).addLast(response);
+        }
 
-        if (action.isFirst()) requestFromDownstream(action.first(), fromUpstream, registry);
-        else respondToUpstream(action.second(), registry);
+        // every response answers at most one of the requests sent downstream, in the order they were sent,
+        // and the rest are kept until requested
+        for (Response response : fromDownstream) {
+            Request sentDownstream = response.sourceRequest();
+            Deque<Request> upstreams = requestRouter.get(sentDownstream);
+            if (upstreams == null) continue;
+            Request fromUpstream = upstreams.removeFirst();
+            if (upstreams.isEmpty()) requestRouter.remove(sentDownstream);
+
+            Either<Request, Response> action = receivePrefetched(Either.first(sentDownstream), fromUpstream);
+            if (action.isFirst()) requestFromDownstream(action.first(), fromUpstream, registry);
+            else respondToUpstream(fromUpstream, list(action.second()), registry);
+        }
+    }
 
+    /**
+     * Terminates every query of the registry, as the resolvers are shared by the queries.
+     */
+    @Override
+    protected void exception(Exception e) {
+        LOG.error("{}: Actor exception", name, e);
+        if (registry != null) registry.terminate(e);
     }
 
     /*
@@ -108,29 +163,78 @@ public abstract class Resolver<T extends Resolver<T>> extends Actor.State<T> {
      * Helper method private to this class.
      *
      * */
+
+    /**
+     * Receives the responses already prefetched for the requests this resolver sends downstream.
+     */
+    private Either<Request, Response> receivePrefetched(Either<Request, Response> action, Request fromUpstream) {
+        while (action.isFirst()) {
+            Request toDownstream = action.first();
+            Deque<Response> responses = prefetched.get(toDownstream);
+            if (responses == null) break;
+            Response response = responses.removeFirst();
+            if (responses.isEmpty()) prefetched.remove(toDownstream);
+
+            // only exhausted responses can still arrive once the request from upstream has been completed
+            ResponseProducer responseProducer = responseProducers.get(fromUpstream);
+            if (responseProducer == null) responseProducer = exhaustedResponseProducer(Response.Exhausted.INDEPENDENT);
+            if (response.isAnswer()) {
+                LOG.trace("{}: Receiving a new Answer from downstream: {}", name, response);
+                action = receiveAnswer(fromUpstream, response.asAnswer(), responseProducer);
+            } else if (response.isExhausted()) {
+                LOG.trace("{}: Receiving a new Exhausted from downstream: {}", name, response);
+                action = receiveExhausted(fromUpstream, response.asExhausted(), responseProducer);
+                if (!requestRouter.containsKey(toDownstream)) prefetched.remove(toDownstream);
+            } else {
+                throw new RuntimeException(("Unknown response type " + response.getClass().getSimpleName()));
+            }
+        }
+        return action;
+    }
+
+    /**
+     * Routes the response of the request back to the request from upstream it was sent for.
+     */
     private void requestFromDownstream(Request request, Request fromUpstream, ResolverRegistry registry) {
         LOG.trace("{} : Sending a new answer Request to downstream: {}", name, request);
-        // TODO we may overwrite if multiple identical requests are sent, when to clean up?
-        requestRouter.put(request, fromUpstream);
+        requestRouter.computeIfAbsent(request, r -> new ArrayDeque<>()).addLast(fromUpstream);
         Actor<? extends Resolver<?>> receiver = request.receiver();
         receiver.tell(actor -> actor.executeReceiveRequest(request, registry));
     }
 
-    private void respondToUpstream(Response response, ResolverRegistry registry) {
-        if (response.isRootResponse()) {
+    private void respondToUpstream(Request fromUpstream, List<Response> responses, ResolverRegistry registry) {
+        assert !responses.isEmpty();
+        Response last = responses.get(responses.size() - 1);
+        if (!last.isAnswer()) evictIfExhausted(fromUpstream, registry);
+        if (last.isRootResponse()) {
             return;
         }
 
-        Actor<? extends Resolver<?>> receiver = response.sourceRequest().sender();
-        if (response.isAnswer()) {
-            LOG.trace("{} : Sending a new Response.Answer to upstream", name);
-            receiver.tell(actor -> actor.executeReceiveAnswer(response.asAnswer(), registry));
-        } else if (response.isExhausted()) {
-            LOG.trace("{}: Sending a new Response.Exhausted to upstream", name);
-            receiver.tell(actor -> actor.executeReceiveExhausted(response.asExhausted(), registry));
-        } else {
-            throw new RuntimeException(("Unknown response type " + response.getClass().getSimpleName()));
+        Actor<? extends Resolver<?>> receiver = last.sourceRequest().sender();
+        LOG.trace("{} : Sending {} new Responses to upstream", name, responses.size());
+        receiver.tell(actor -> actor.executeReceiveResponses(responses, registry));
+    }
+
+    /**
+     * Replaces an exhausted response producer with a bounded record that its request is completed.
+     */
+    private void evictIfExhausted(Request fromUpstream, ResolverRegistry registry) {
+        ResponseProducer responseProducer = responseProducers.get(fromUpstream);
+        if (responseProducer == null || !responseProducer.isExhausted()) return;
+        LOG.debug("{}: Evicting the exhausted ResponseProducer for the given Request: {}", name, fromUpstream);
+        responseProducers.remove(fromUpstream);
+        completed.put(fromUpstream, responseProducer.dependency());
+        if (completed.size() > registry.maxCompletedRequests()) {
+            Iterator<Request> eldest = completed.keySet().iterator();
+            eldest.next();
+            eldest.remove();
         }
     }
 
+    private static ResponseProducer exhaustedResponseProducer(int dependency) {
+        ResponseProducer responseProducer = new ResponseProducer(Iterators.empty());
+        responseProducer.addDependency(dependency);
+        return responseProducer;
+    }
+
 }
@@ -99,10 +99,19 @@ public interface Response {
     }
 
     class Exhausted implements Response {
+
+        public static final int INDEPENDENT = Integer.MAX_VALUE;
+
         private final Request sourceRequest;
+        private final int dependency;
 
         public Exhausted(Request sourceRequest) {
+            this(sourceRequest, INDEPENDENT);
+        }
+
+        public Exhausted(Request sourceRequest, int dependency) {
             this.sourceRequest = sourceRequest;
+            this.dependency = dependency;
         }
 
         @Override
@@ -110,6 +119,15 @@ public interface Response {
             return sourceRequest;
         }
 
+        /**
+         * The index, in the path of the source request, of the earliest recursive rule that was not resolved again
+         * below the request, as it was already being resolved. The answers to the request are then only complete once
+         * that rule has been resolved to a fixpoint. A request that depends on no rule upstream is independent.
+         */
+        public int dependency() {
+            return dependency;
+        }
+
         @Override
         public boolean isAnswer() {
             return false;
@@ -135,6 +153,7 @@ public interface Response {
         public String toString() {
             return "Exhausted{" +
                     "sourceRequest=" + sourceRequest +
+                    ", dependency=" + dependency +
                     '}';
         }
     }
@@ -20,21 +20,32 @@ package grakn.core.reasoner.resolution.framework;
 
 import grakn.core.concept.answer.ConceptMap;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 
 public class ResponseProducer {
     private final Set<ConceptMap> produced;
-    private final Iterator<ConceptMap> traversalProducer;
+    private final Deque<Traversal> traversalProducers;
     private final Set<Request> downstreamProducer;
     private Iterator<Request> downstreamProducerSelector;
+    private long round;
+    private long materialisations;
+    private long traversedMaterialisations;
+    private int dependency;
 
     public ResponseProducer(Iterator<ConceptMap> traversalProducer) {
         produced = new HashSet<>();
-        this.traversalProducer = traversalProducer;
+        traversalProducers = new ArrayDeque<>();
+        traversalProducers.add(new Traversal(traversalProducer, Answer.Derivation.EMPTY));
         downstreamProducer = new HashSet<>();
         downstreamProducerSelector = downstreamProducer.iterator();
+        round = 0;
+        materialisations = 0;
+        traversedMaterialisations = 0;
+        dependency = Response.Exhausted.INDEPENDENT;
     }
 
     public void recordProduced(ConceptMap conceptMap) {
@@ -46,11 +57,28 @@ public class ResponseProducer {
     }
 
     public boolean hasTraversalProducer() {
-        return traversalProducer.hasNext();
+        while (!traversalProducers.isEmpty() && !traversalProducers.peekFirst().answers.hasNext()) {
+            traversalProducers.removeFirst();
+        }
+        return !traversalProducers.isEmpty();
     }
 
     public Iterator<ConceptMap> traversalProducer() {
-        return traversalProducer;
+        assert !traversalProducers.isEmpty();
+        return traversalProducers.peekFirst().answers;
+    }
+
+    /**
+     * The derivation shared by the answers of the current traversal producer, which is empty
+     * unless the traversal was added to retrieve the answers concluded by a downstream answer.
+     */
+    public Answer.Derivation traversalDerivation() {
+        assert !traversalProducers.isEmpty();
+        return traversalProducers.peekFirst().derivation;
+    }
+
+    public void addTraversalProducer(Iterator<ConceptMap> traversalProducer, Answer.Derivation derivation) {
+        traversalProducers.addLast(new Traversal(traversalProducer, derivation));
     }
 
     public boolean hasDownstreamProducer() {
@@ -75,4 +103,65 @@ public class ResponseProducer {
         // note: this is a large performance win when processing large batches of requests
         if (removed) downstreamProducerSelector = downstreamProducer.iterator();
     }
+
+    /**
+     * The round of resolution that this producer is producing, which is only ever started again for a recursive
+     * rule, together with the number of conclusions that had been materialised in the transaction when it started.
+     */
+    public long round() {
+        return round;
+    }
+
+    public long roundMaterialisations() {
+        return materialisations;
+    }
+
+    public void startRound(long round, long materialisations) {
+        this.round = round;
+        this.materialisations = materialisations;
+        this.dependency = Response.Exhausted.INDEPENDENT;
+    }
+
+    /**
+     * The number of conclusions that had been materialised in the transaction when the graph was last
+     * traversed for the answers of this producer.
+     */
+    public long traversedMaterialisations() {
+        return traversedMaterialisations;
+    }
+
+    public void traversed(long materialisations) {
+        this.traversedMaterialisations = materialisations;
+    }
+
+    /**
+     * The index, in the path of the request of this producer, of the earliest recursive rule that any of its
+     * answers depend on, as defined by {@link Response.Exhausted#dependency()}.
+     */
+    public int dependency() {
+        return dependency;
+    }
+
+    public void addDependency(int dependency) {
+        this.dependency = Math.min(this.dependency, dependency);
+    }
+
+    /**
+     * A response producer is exhausted once it has no more answers to traverse and no more downstream
+     * requests to wait for, and it will then never produce another answer.
+     */
+    public boolean isExhausted() {
+        return !hasTraversalProducer() && !hasDownstreamProducer();
+    }
+
+    private static class Traversal {
+
+        private final Iterator<ConceptMap> answers;
+        private final Answer.Derivation derivation;
+
+        private Traversal(Iterator<ConceptMap> answers, Answer.Derivation derivation) {
+            this.answers = answers;
+            this.derivation = derivation;
+        }
+    }
 }
@@ -20,9 +20,11 @@ package grakn.core.reasoner.resolution.resolver;
 
 import grakn.common.collection.Either;
 import grakn.common.concurrent.actor.Actor;
+import grakn.core.common.iterator.Iterators;
 import grakn.core.concept.answer.ConceptMap;
-import grakn.core.reasoner.resolution.MockTransaction;
-import grakn.core.reasoner.resolution.ResolutionRecorder;
+import grakn.core.logic.concludable.ConjunctionConcludable;
+import grakn.core.pattern.Conjunction;
+import grakn.core.reasoner.resolution.AnswerTables;
 import grakn.core.reasoner.resolution.ResolverRegistry;
 import grakn.core.reasoner.resolution.framework.Answer;
 import grakn.core.reasoner.resolution.framework.Request;
@@ -32,33 +34,33 @@ import grakn.core.reasoner.resolution.framework.ResponseProducer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-
-import static grakn.common.collection.Collections.map;
-import static grakn.common.collection.Collections.pair;
 
 public class ConcludableResolver extends Resolver<ConcludableResolver> {
     private static final Logger LOG = LoggerFactory.getLogger(ConcludableResolver.class);
 
-    private final Long traversalPattern;
-    private final long traversalSize;
-    private final List<List<Long>> rules;
-    private final Map<Actor<RuleResolver>, List<Long>> ruleActorSources;
-    private final Set<ConceptMap> receivedConceptMaps;
-    private Actor<ResolutionRecorder> resolutionRecorder;
-
-    public ConcludableResolver(Actor<ConcludableResolver> self, Long traversalPattern, List<List<Long>> rules, long traversalSize) {
-        super(self, ConcludableResolver.class.getSimpleName() + "(pattern: " + traversalPattern + ")");
-        this.traversalPattern = traversalPattern;
-        this.traversalSize = traversalSize;
-        this.rules = rules;
-        ruleActorSources = new HashMap<>();
-        receivedConceptMaps = new HashSet<>();
+    private final ConjunctionConcludable<?, ?> concludable;
+    private final Conjunction conjunction;
+    private final List<Actor<RuleResolver>> ruleActors;
+    private final Map<Request, AnswerTables.Table> tables;
+    private final Map<Request, Answer.Derivation> derivations;
+    private AnswerTables.Subgoal subgoal;
+
+    public ConcludableResolver(Actor<ConcludableResolver> self, ConjunctionConcludable<?, ?> concludable) {
+        this(self, concludable, concludable.conjunction());
+    }
+
+    private ConcludableResolver(Actor<ConcludableResolver> self, ConjunctionConcludable<?, ?> concludable,
+                                Conjunction conjunction) {
+        super(self, ConcludableResolver.class.getSimpleName() + "(pattern: " + conjunction + ")");
+        this.concludable = concludable;
+        this.conjunction = conjunction;
+        this.ruleActors = new ArrayList<>();
+        this.tables = new HashMap<>();
+        this.derivations = new HashMap<>();
     }
 
     @Override
@@ -69,52 +71,41 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
     @Override
     public Either<Request, Response> receiveAnswer(Request fromUpstream, Response.Answer fromDownstream,
                                                    ResponseProducer responseProducer) {
-        // TODO may combine with partial concept maps from the fromUpstream message
-
-        LOG.trace("{}: hasProduced: {}", name, fromDownstream.answer().conceptMap());
-        if (!responseProducer.hasProduced(fromDownstream.answer().conceptMap())) {
-            responseProducer.recordProduced(fromDownstream.answer().conceptMap());
-
-            // update partial derivation provided from upstream to carry derivations sideways
-            Answer.Derivation derivation = new Answer.Derivation(map(pair(fromDownstream.sourceRequest().receiver(), fromDownstream.answer())));
-            Answer answer = new Answer(fromDownstream.answer().conceptMap(), traversalPattern.toString(), derivation, self());
-
-            return Either.second(new Response.Answer(fromUpstream, answer, fromUpstream.unifiers()));
-        } else {
-            Answer.Derivation derivation = new Answer.Derivation(map(pair(fromDownstream.sourceRequest().receiver(), fromDownstream.answer())));
-            Answer deduplicated = new Answer(fromDownstream.answer().conceptMap(), traversalPattern.toString(), derivation, self());
-            LOG.debug("Recording deduplicated answer: {}", deduplicated);
-            resolutionRecorder.tell(actor -> actor.record(deduplicated));
-
-            return produceMessage(fromUpstream, responseProducer);
-        }
+        LOG.trace("{}: Rule has materialised answer: {}", name, fromDownstream.answer().conceptMap());
+        derivations.put(fromUpstream, derivations.getOrDefault(fromUpstream, Answer.Derivation.EMPTY)
+                .withAnswer(fromDownstream.sourceRequest().receiver(), fromDownstream.answer()));
+        return produceMessage(fromUpstream, responseProducer);
     }
 
     @Override
     public Either<Request, Response> receiveExhausted(Request fromUpstream, Response.Exhausted fromDownstream, ResponseProducer responseProducer) {
+        responseProducer.addDependency(fromDownstream.dependency());
         responseProducer.removeDownstreamProducer(fromDownstream.sourceRequest());
         return produceMessage(fromUpstream, responseProducer);
     }
 
     @Override
     protected ResponseProducer createResponseProducer(Request request) {
-        Iterator<ConceptMap> traversal = (new MockTransaction(traversalSize)).query(traversalPattern, request.partialConceptMap());
-        ResponseProducer responseProducer = new ResponseProducer(traversal);
-
-        if (!receivedConceptMaps.contains(request.partialConceptMap())) {
-            registerDownstreamRules(responseProducer, request.path(), request.partialConceptMap(), request.unifiers());
-            receivedConceptMaps.add(request.partialConceptMap());
+        AnswerTables.Table completed = subgoal.completed(request.partialConceptMap());
+        if (completed != null) {
+            LOG.debug("{}: Reusing the completed answer table for the given Request: {}", name, request);
+            ResponseProducer responseProducer = new ResponseProducer(Iterators.empty());
+            subgoal.forEachAnswers(completed, request.partialConceptMap(),
+                                   (answers, derivation) -> responseProducer.addTraversalProducer(answers.iterator(), derivation));
+            return responseProducer;
         }
+
+        ResponseProducer responseProducer = new ResponseProducer(Iterators.empty());
+        traverse(request, responseProducer, Answer.Derivation.EMPTY);
+        tables.put(request, new AnswerTables.Table());
+        registerDownstreamRules(responseProducer, request);
         return responseProducer;
     }
 
     @Override
     protected void initialiseDownstreamActors(ResolverRegistry registry) {
-        resolutionRecorder = registry.resolutionRecorder();
-        for (List<Long> rule : rules) {
-            Actor<RuleResolver> ruleActor = registry.registerRule(rule, 1L);
-            ruleActorSources.put(ruleActor, rule);
-        }
+        this.subgoal = registry.answerTables().subgoal(concludable);
+        registry.applicableRules(concludable).forEachRemaining(rule -> ruleActors.add(registry.registerRule(rule)));
     }
 
     private Either<Request, Response> produceMessage(Request fromUpstream, ResponseProducer responseProducer) {
@@ -123,30 +114,53 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
             LOG.trace("{}: hasProduced: {}", name, conceptMap);
             if (!responseProducer.hasProduced(conceptMap)) {
                 responseProducer.recordProduced(conceptMap);
-                Answer answer = new Answer(conceptMap, traversalPattern.toString(), new Answer.Derivation(map()), self());
+                Answer.Derivation derivation = responseProducer.traversalDerivation();
+                AnswerTables.Table table = tables.get(fromUpstream);
+                if (table != null) subgoal.record(table, conceptMap, derivation);
+                Answer answer = new Answer(conceptMap, conjunction.toString(), derivation, self());
                 return Either.second(new Response.Answer(fromUpstream, answer, fromUpstream.unifiers()));
             }
         }
 
-        if (responseProducer.hasDownstreamProducer()) {
+        long materialised = registry.materialisations() - responseProducer.traversedMaterialisations();
+        if (tables.containsKey(fromUpstream) && materialised > 0 &&
+                (materialised >= fromUpstream.batchSize() || !responseProducer.hasDownstreamProducer())) {
+            // the rules may have concluded answers to this request since it last traversed the graph, which are
+            // retrieved by traversing it again once for a batch of conclusions, instead of once for every conclusion
+            traverse(fromUpstream, responseProducer, derivations.getOrDefault(fromUpstream, Answer.Derivation.EMPTY));
+            derivations.remove(fromUpstream);
+            return produceMessage(fromUpstream, responseProducer);
+        } else if (responseProducer.hasDownstreamProducer()) {
             return Either.first(responseProducer.nextDownstreamProducer());
         } else {
-            return Either.second(new Response.Exhausted(fromUpstream));
+            derivations.remove(fromUpstream);
+            AnswerTables.Table table = tables.remove(fromUpstream);
+            int dependency = responseProducer.dependency();
+            if (table != null && dependency == Response.Exhausted.INDEPENDENT) {
+                subgoal.complete(fromUpstream.partialConceptMap(), table);
+            } else if (table != null) {
+                subgoal.completeWith(fromUpstream.path().round(dependency), fromUpstream.partialConceptMap(), table);
+            }
+            return Either.second(new Response.Exhausted(fromUpstream, dependency));
         }
     }
 
-    private void registerDownstreamRules(ResponseProducer responseProducer, Request.Path path, ConceptMap partialConceptMap,
-                                         List<Object> unifiers) {
-        for (Actor<RuleResolver> ruleActor : ruleActorSources.keySet()) {
-            Request toDownstream = new Request(path.append(ruleActor), partialConceptMap, unifiers, Answer.Derivation.EMPTY);
-            responseProducer.addDownstreamProducer(toDownstream);
-        }
+    private void traverse(Request request, ResponseProducer responseProducer, Answer.Derivation derivation) {
+        responseProducer.traversed(registry.materialisations());
+        responseProducer.addTraversalProducer(registry.traverse(conjunction, request.partialConceptMap()), derivation);
     }
 
-    @Override
-    protected void exception(Exception e) {
-        LOG.error("Actor exception", e);
-        // TODO, once integrated into the larger flow of executing queries, kill the actors and report and exception to root
+    private void registerDownstreamRules(ResponseProducer responseProducer, Request request) {
+        for (Actor<RuleResolver> ruleActor : ruleActors) {
+            // a rule that is already being resolved upstream of this request is recursive, and is not resolved again
+            // below itself, but resolved again upstream, until it reaches a fixpoint
+            if (request.path().contains(ruleActor)) {
+                responseProducer.addDependency(request.path().indexOf(ruleActor));
+                continue;
+            }
+            Request toDownstream = new Request(request.path().append(ruleActor), request.partialConceptMap(),
+                                               request.unifiers(), Answer.Derivation.EMPTY, request.batchSize());
+            responseProducer.addDownstreamProducer(toDownstream);
+        }
     }
 }
-
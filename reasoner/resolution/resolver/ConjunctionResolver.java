@@ -18,61 +18,139 @@
 
 package grakn.core.reasoner.resolution.resolver;
 
+import grakn.common.collection.Either;
 import grakn.common.concurrent.actor.Actor;
+import grakn.core.common.iterator.Iterators;
 import grakn.core.concept.answer.ConceptMap;
-import grakn.core.reasoner.resolution.MockTransaction;
+import grakn.core.logic.concludable.ConjunctionConcludable;
+import grakn.core.pattern.Conjunction;
 import grakn.core.reasoner.resolution.ResolutionRecorder;
 import grakn.core.reasoner.resolution.ResolverRegistry;
 import grakn.core.reasoner.resolution.framework.Answer;
 import grakn.core.reasoner.resolution.framework.Request;
 import grakn.core.reasoner.resolution.framework.Resolver;
+import grakn.core.reasoner.resolution.framework.Response;
 import grakn.core.reasoner.resolution.framework.ResponseProducer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Iterator;
 import java.util.List;
 
-import static grakn.common.collection.Collections.list;
-import static grakn.common.collection.Collections.map;
-
+/**
+ * Resolves a conjunction by traversing it directly, for the answers that are in the graph,
+ * and by joining the answers of its concludables one after another, for the answers that
+ * rules may conclude. Every joined answer is checked against the whole conjunction, which
+ * may contain constraints that are not part of any concludable.
+ */
 public abstract class ConjunctionResolver<T extends ConjunctionResolver<T>> extends Resolver<T> {
     private static final Logger LOG = LoggerFactory.getLogger(ConjunctionResolver.class);
 
-    final List<Long> conjunction;
+    final Conjunction conjunction;
     Actor<ResolutionRecorder> resolutionRecorder;
-    private final Long traversalSize;
     private final List<Actor<ConcludableResolver>> plannedConcludables;
 
-    public ConjunctionResolver(Actor<T> self, String name, List<Long> conjunction, Long traversalSize) {
+    public ConjunctionResolver(Actor<T> self, String name, Conjunction conjunction) {
         super(self, name);
-
         this.conjunction = conjunction;
-        this.traversalSize = traversalSize;
         this.plannedConcludables = new ArrayList<>();
     }
 
+    abstract Either<Request, Response> answerFound(Request fromUpstream, ConceptMap conceptMap, Answer.Derivation derivation);
+
+    abstract Either<Request, Response> exhausted(Request fromUpstream, ResponseProducer responseProducer);
+
     @Override
     protected ResponseProducer createResponseProducer(Request request) {
-        Iterator<ConceptMap> traversal = (new MockTransaction(traversalSize)).query(conjunction, new ConceptMap());
-        ResponseProducer responseProducer = new ResponseProducer(traversal);
-        Request toDownstream = new Request(request.path().append(plannedConcludables.get(0)), request.partialConceptMap(),
-                                           request.unifiers(), new Answer.Derivation(map()));
-        responseProducer.addDownstreamProducer(toDownstream);
-
+        ResponseProducer responseProducer = new ResponseProducer(Iterators.empty());
+        startRound(request, responseProducer);
         return responseProducer;
     }
 
+    /**
+     * Starts a round of resolution for a request, which traverses the conjunction and joins the answers of its
+     * concludables, with requests to the concludables that are distinct from those of any earlier round.
+     */
+    void startRound(Request request, ResponseProducer responseProducer) {
+        responseProducer.startRound(registry.nextRound(), registry.materialisations());
+        responseProducer.addTraversalProducer(registry.traverse(conjunction, bounds(request)), Answer.Derivation.EMPTY);
+        if (!plannedConcludables.isEmpty()) {
+            Request.Path path = request.path().withRound(responseProducer.round()).append(plannedConcludables.get(0));
+            Request toDownstream = new Request(path, bounds(request), request.unifiers(), Answer.Derivation.EMPTY,
+                                               request.batchSize());
+            responseProducer.addDownstreamProducer(toDownstream);
+        }
+    }
+
+    /**
+     * The concepts that the variables of the conjunction are bound to by a request.
+     */
+    ConceptMap bounds(Request request) {
+        return request.partialConceptMap();
+    }
+
     @Override
     protected void initialiseDownstreamActors(ResolverRegistry registry) {
         resolutionRecorder = registry.resolutionRecorder();
-        List<Long> planned = list(conjunction);
-        // in the future, we'll check if the atom is rule resolvable first
-        for (Long atomicPattern : planned) {
-            Actor<ConcludableResolver> atomicActor = registry.registerConcludable(atomicPattern, Arrays.asList(), 5L);
-            plannedConcludables.add(atomicActor);
+        List<ConjunctionConcludable<?, ?>> planned = new ArrayList<>(ConjunctionConcludable.create(conjunction));
+        // the concludables only need to be resolved when a rule may conclude any of them
+        if (planned.stream().anyMatch(concludable -> registry.applicableRules(concludable).hasNext())) {
+            for (ConjunctionConcludable<?, ?> concludable : planned) {
+                plannedConcludables.add(registry.registerConcludable(concludable));
+            }
+        }
+    }
+
+    @Override
+    public Either<Request, Response> receiveRequest(Request fromUpstream, ResponseProducer responseProducer) {
+        return produceMessage(fromUpstream, responseProducer);
+    }
+
+    @Override
+    public Either<Request, Response> receiveAnswer(Request fromUpstream, Response.Answer fromDownstream, ResponseProducer responseProducer) {
+        Actor<? extends Resolver<?>> sender = fromDownstream.sourceRequest().receiver();
+        ConceptMap conceptMap = fromDownstream.answer().conceptMap();
+
+        Answer.Derivation derivation = fromDownstream.sourceRequest().partialResolutions();
+        if (fromDownstream.answer().isInferred()) {
+            derivation = derivation.withAnswer(fromDownstream.sourceRequest().receiver(), fromDownstream.answer());
+        }
+
+        if (isLast(sender)) {
+            LOG.trace("{}: Joined answer of concludables: {}", name, conceptMap);
+            responseProducer.addTraversalProducer(registry.traverse(conjunction, conceptMap), derivation);
+            return produceMessage(fromUpstream, responseProducer);
+        } else {
+            Actor<ConcludableResolver> nextPlannedDownstream = nextPlannedDownstream(sender);
+            Request downstreamRequest = new Request(fromUpstream.path().withRound(responseProducer.round()).append(nextPlannedDownstream),
+                                                    conceptMap, fromDownstream.unifiers(), derivation,
+                                                    fromUpstream.batchSize());
+            responseProducer.addDownstreamProducer(downstreamRequest);
+            return Either.first(downstreamRequest);
+        }
+    }
+
+    @Override
+    public Either<Request, Response> receiveExhausted(Request fromUpstream, Response.Exhausted fromDownstream, ResponseProducer responseProducer) {
+        responseProducer.addDependency(fromDownstream.dependency());
+        responseProducer.removeDownstreamProducer(fromDownstream.sourceRequest());
+        return produceMessage(fromUpstream, responseProducer);
+    }
+
+    Either<Request, Response> produceMessage(Request fromUpstream, ResponseProducer responseProducer) {
+        while (responseProducer.hasTraversalProducer()) {
+            ConceptMap conceptMap = responseProducer.traversalProducer().next();
+            LOG.trace("{}: traversal answer: {}", name, conceptMap);
+            if (!responseProducer.hasProduced(conceptMap)) {
+                responseProducer.recordProduced(conceptMap);
+                return answerFound(fromUpstream, conceptMap, responseProducer.traversalDerivation());
+            }
+        }
+
+        if (responseProducer.hasDownstreamProducer()) {
+            return Either.first(responseProducer.nextDownstreamProducer());
+        } else {
+            return exhausted(fromUpstream, responseProducer);
         }
     }
 
@@ -83,10 +161,4 @@ public abstract class ConjunctionResolver<T extends ConjunctionResolver<T>> exte
     Actor<ConcludableResolver> nextPlannedDownstream(Actor<? extends Resolver<?>> actor) {
         return plannedConcludables.get(plannedConcludables.indexOf(actor) + 1);
     }
-
-    @Override
-    protected void exception(Exception e) {
-        LOG.error("Actor exception", e);
-        // TODO, once integrated into the larger flow of executing queries, kill the actors and report and exception to root
-    }
 }
@@ -21,81 +21,71 @@ package grakn.core.reasoner.resolution.resolver;
 import grakn.common.collection.Either;
 import grakn.common.concurrent.actor.Actor;
 import grakn.core.concept.answer.ConceptMap;
+import grakn.core.logic.Rule;
+import grakn.core.reasoner.resolution.AnswerTables;
+import grakn.core.reasoner.resolution.Materialiser;
 import grakn.core.reasoner.resolution.framework.Answer;
 import grakn.core.reasoner.resolution.framework.Request;
-import grakn.core.reasoner.resolution.framework.Resolver;
 import grakn.core.reasoner.resolution.framework.Response;
 import grakn.core.reasoner.resolution.framework.ResponseProducer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
-
-// TODO unify and materialise in receiveAnswer
+/**
+ * Resolves the condition of a rule, and materialises the conclusion of the rule into the
+ * transaction for every answer to the condition, before answering upstream with it. A
+ * recursive rule is resolved in rounds, until it reaches a fixpoint.
+ */
 public class RuleResolver extends ConjunctionResolver<RuleResolver> {
     private static final Logger LOG = LoggerFactory.getLogger(RuleResolver.class);
 
-    public RuleResolver(Actor<RuleResolver> self, List<Long> when, Long traversalSize) {
-        super(self, RuleResolver.class.getSimpleName() + "(pattern:" + when + ")", when, traversalSize);
-    }
+    private final Rule rule;
 
-    @Override
-    public Either<Request, Response> receiveRequest(Request fromUpstream, ResponseProducer responseProducer) {
-        return produceMessage(fromUpstream, responseProducer);
+    public RuleResolver(Actor<RuleResolver> self, Rule rule) {
+        super(self, RuleResolver.class.getSimpleName() + "(rule:" + rule.getLabel() + ")", rule.when());
+        this.rule = rule;
     }
 
     @Override
-    public Either<Request, Response> receiveAnswer(Request fromUpstream, Response.Answer fromDownstream, ResponseProducer responseProducer) {
-        Actor<? extends Resolver<?>> sender = fromDownstream.sourceRequest().receiver();
-        ConceptMap conceptMap = fromDownstream.answer().conceptMap();
-
-        Answer.Derivation derivation = fromDownstream.sourceRequest().partialResolutions();
-        if (fromDownstream.answer().isInferred()) {
-            derivation = derivation.withAnswer(fromDownstream.sourceRequest().receiver(), fromDownstream.answer());
-        }
-
-        if (isLast(sender)) {
-            LOG.trace("{}: hasProduced: {}", name, conceptMap);
-
-            if (!responseProducer.hasProduced(conceptMap)) {
-                responseProducer.recordProduced(conceptMap);
-
-                Answer answer = new Answer(conceptMap, conjunction.toString(), derivation, self());
-                Response.Answer response = new Response.Answer(fromUpstream, answer, fromUpstream.unifiers());
-                return Either.second(response);
-            } else {
-                return produceMessage(fromUpstream, responseProducer);
-            }
-        } else {
-            Actor<ConcludableResolver> nextPlannedDownstream = nextPlannedDownstream(sender);
-            Request downstreamRequest = new Request(fromUpstream.path().append(nextPlannedDownstream),
-                                                    conceptMap, fromDownstream.unifiers(), derivation);
-            responseProducer.addDownstreamProducer(downstreamRequest);
-            return Either.first(downstreamRequest);
-        }
+    Either<Request, Response> answerFound(Request fromUpstream, ConceptMap conceptMap, Answer.Derivation derivation) {
+        boolean isMaterialised = Materialiser.materialise(rule, conceptMap, registry);
+        LOG.trace("{}: answer: {}, materialised: {}", name, conceptMap, isMaterialised);
+        Answer answer = new Answer(conceptMap, rule.getLabel(), derivation, self());
+        return Either.second(new Response.Answer(fromUpstream, answer, fromUpstream.unifiers()));
     }
 
+    /**
+     * A request to a rule carries the bindings of the concludable that the rule may conclude, which keep apart the
+     * requests of different bindings, but which cannot bind the condition of the rule without a unifier.
+     */
     @Override
-    public Either<Request, Response> receiveExhausted(Request fromUpstream, Response.Exhausted fromDownstream, ResponseProducer responseProducer) {
-        responseProducer.removeDownstreamProducer(fromDownstream.sourceRequest());
-        return produceMessage(fromUpstream, responseProducer);
+    ConceptMap bounds(Request request) {
+        return new ConceptMap();
     }
 
-    private Either<Request, Response> produceMessage(Request fromUpstream, ResponseProducer responseProducer) {
-        while (responseProducer.hasTraversalProducer()) {
-            ConceptMap conceptMap = responseProducer.traversalProducer().next();
-            LOG.trace("{}: traversal answer: {}", name, conceptMap);
-            if (!responseProducer.hasProduced(conceptMap)) {
-                responseProducer.recordProduced(conceptMap);
-                Answer answer = new Answer(conceptMap, conjunction.toString(), Answer.Derivation.EMPTY, self());
-                return Either.second(new Response.Answer(fromUpstream, answer, fromUpstream.unifiers()));
+    /**
+     * A rule that was not resolved again below itself, as it was already being resolved, is recursive, and the answers
+     * below it were only resolved against the conclusions that had been materialised so far. The rule is then resolved
+     * again, in a new round, until a round materialises no new conclusion, when its recursion has reached a fixpoint,
+     * and the answer tables that depend on the round are complete. The rule is the leader of those answer tables,
+     * unless it depends on a rule upstream of itself, which then leads the answer tables of the rule as well.
+     */
+    @Override
+    Either<Request, Response> exhausted(Request fromUpstream, ResponseProducer responseProducer) {
+        AnswerTables answerTables = registry.answerTables();
+        int dependency = responseProducer.dependency();
+        if (dependency == fromUpstream.path().depth()) {
+            if (registry.materialisations() != responseProducer.roundMaterialisations()) {
+                LOG.debug("{}: resolving recursive rule again for the given Request: {}", name, fromUpstream);
+                answerTables.discardRound(responseProducer.round());
+                startRound(fromUpstream, responseProducer);
+                return produceMessage(fromUpstream, responseProducer);
             }
+            answerTables.completeRound(responseProducer.round());
+            dependency = Response.Exhausted.INDEPENDENT;
+        } else if (dependency < fromUpstream.path().depth()) {
+            answerTables.deferRound(responseProducer.round(), fromUpstream.path().round(dependency));
         }
-
-        if (responseProducer.hasDownstreamProducer()) {
-            return Either.first(responseProducer.nextDownstreamProducer());
-        } else {
-            return Either.second(new Response.Exhausted(fromUpstream));
-        }
+        return Either.second(new Response.Exhausted(fromUpstream, dependency));
     }
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.rocks;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import grakn.common.collection.Pair;
+import grakn.core.graph.iid.InfixIID;
+import grakn.core.graph.iid.VertexIID;
+import org.rocksdb.OptimisticTransactionDB;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * A cache of the persisted edges of thing vertices, shared by the read
+ * transactions of a database, where each snapshot of edges is only read by
+ * transactions whose storage sequence number falls within its valid range.
+ */
+class RocksAdjacencyCache {
+
+    private final OptimisticTransactionDB rocksDB;
+    private final com.github.benmanes.caffeine.cache.Cache<VertexIID.Thing, Adjacency> cache;
+    private final ConcurrentMap<VertexIID.Thing, Integer> committing;
+    private final AtomicLong minSequence;
+    private final AtomicInteger bulkCommits;
+    private final long maxEdgesPerInfix;
+
+    RocksAdjacencyCache(OptimisticTransactionDB rocksDB, long maxEdges) {
+        this.rocksDB = rocksDB;
+        this.cache = Caffeine.newBuilder().maximumWeight(maxEdges).weigher(
+                (VertexIID.Thing vertex, Adjacency adjacency) -> adjacency.weight()
+        ).build();
+        this.committing = new ConcurrentHashMap<>();
+        this.minSequence = new AtomicLong(rocksDB.getLatestSequenceNumber());
+        this.bulkCommits = new AtomicInteger(0);
+        this.maxEdgesPerInfix = Math.max(1, maxEdges / 16);
+    }
+
+    long maxEdgesPerInfix() {
+        return maxEdgesPerInfix;
+    }
+
+    @Nullable
+    List<Pair<byte[], byte[]>> get(VertexIID.Thing vertex, InfixIID.Thing infix, long sequence) {
+        final Adjacency adjacency = cache.getIfPresent(vertex);
+        if (adjacency == null || !adjacency.isValidAt(sequence)) return null;
+        else return adjacency.edges.get(infix);
+    }
+
+    void put(VertexIID.Thing vertex, InfixIID.Thing infix, long sequence, List<Pair<byte[], byte[]>> edges) {
+        assert edges.size() <= maxEdgesPerInfix;
+        cache.asMap().compute(vertex, (v, existing) -> {
+            if (existing != null && existing.isValidAt(sequence)) return existing.with(infix, edges);
+            else if (sequence >= minSequence.get() && bulkCommits.get() == 0 && !committing.containsKey(v)) {
+                return new Adjacency(sequence, Long.MAX_VALUE).with(infix, edges);
+            } else {
+                return existing;
+            }
+        });
+    }
+
+    /**
+     * Marks the vertices written by a commit, which must be followed by {@link #commitEnded(Set)}.
+     */
+    void commitStarted(Set<VertexIID.Thing> vertices) {
+        final long commitSequence = rocksDB.getLatestSequenceNumber() + 1;
+        vertices.forEach(vertex -> committing.merge(vertex, 1, Integer::sum));
+        minSequence.accumulateAndGet(commitSequence, Math::max);
+        vertices.forEach(vertex -> cache.asMap().computeIfPresent(vertex, (v, adjacency) -> adjacency.until(commitSequence)));
+    }
+
+    void commitEnded(Set<VertexIID.Thing> vertices) {
+        minSequence.accumulateAndGet(rocksDB.getLatestSequenceNumber(), Math::max);
+        vertices.forEach(vertex -> committing.computeIfPresent(vertex, (v, count) -> count > 1 ? count - 1 : null));
+    }
+
+    /**
+     * Empties the cache before a bulk commit, which must be followed by {@link #bulkCommitEnded()}.
+     */
+    void bulkCommitStarted() {
+        final long commitSequence = rocksDB.getLatestSequenceNumber() + 1;
+        bulkCommits.incrementAndGet();
+        minSequence.accumulateAndGet(commitSequence, Math::max);
+        cache.invalidateAll();
+    }
+
+    void bulkCommitEnded() {
+        minSequence.accumulateAndGet(rocksDB.getLatestSequenceNumber(), Math::max);
+        bulkCommits.decrementAndGet();
+    }
+
+    private static class Adjacency {
+
+        private final long fromSequence;
+        private final long untilSequence;
+        private final Map<InfixIID.Thing, List<Pair<byte[], byte[]>>> edges;
+
+        private Adjacency(long fromSequence, long untilSequence) {
+            this(fromSequence, untilSequence, new HashMap<>());
+        }
+
+        private Adjacency(long fromSequence, long untilSequence, Map<InfixIID.Thing, List<Pair<byte[], byte[]>>> edges) {
+            this.fromSequence = fromSequence;
+            this.untilSequence = untilSequence;
+            this.edges = edges;
+        }
+
+        boolean isValidAt(long sequence) {
+            return fromSequence <= sequence && sequence < untilSequence;
+        }
+
+        Adjacency with(InfixIID.Thing infix, List<Pair<byte[], byte[]>> infixEdges) {
+            final Map<InfixIID.Thing, List<Pair<byte[], byte[]>>> newEdges = new HashMap<>(edges);
+            newEdges.put(infix, unmodifiableList(infixEdges));
+            return new Adjacency(fromSequence, untilSequence, newEdges);
+        }
+
+        Adjacency until(long sequence) {
+            return new Adjacency(fromSequence, Math.min(untilSequence, sequence), edges);
+        }
+
+        int weight() {
+            int weight = 1;
+            for (List<Pair<byte[], byte[]>> infixEdges : edges.values()) weight += infixEdges.size();
+            return weight;
+        }
+    }
+}
@@ -29,14 +29,20 @@ import grakn.core.graph.util.Encoding;
 import grakn.core.graph.util.KeyGenerator;
 import grakn.core.logic.LogicCache;
 import grakn.core.traversal.TraversalCache;
+import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.OptimisticTransactionDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -60,12 +66,15 @@ public class RocksDatabase implements Grakn.Database {
     private final RocksGrakn rocksGrakn;
     private final OptimisticTransactionDB rocksData;
     private final OptimisticTransactionDB rocksSchema;
+    private final RocksPartitions dataPartitions;
+    private final RocksPartitions schemaPartitions;
     private final KeyGenerator.Data.Persisted dataKeyGenerator;
     private final KeyGenerator.Schema.Persisted schemaKeyGenerator;
     private final ConcurrentMap<UUID, Pair<RocksSession, Long>> sessions;
     private final StampedLock dataWriteSchemaLock;
     private final AtomicBoolean isOpen;
     private Cache cache;
+    private final RocksPlanStore planStore;
     private final RocksSession.Data statisticsBackgroundCounterSession;
     final StatisticsBackgroundCounter statisticsBackgroundCounter;
 
@@ -78,13 +87,19 @@ public class RocksDatabase implements Grakn.Database {
         dataWriteSchemaLock = new StampedLock();
 
         try {
-            rocksSchema = OptimisticTransactionDB.open(this.rocksGrakn.rocksOptions(), directory().resolve(Encoding.ROCKS_SCHEMA).toString());
-            rocksData = OptimisticTransactionDB.open(this.rocksGrakn.rocksOptions(), directory().resolve(Encoding.ROCKS_DATA).toString());
+            final List<ColumnFamilyHandle> dataHandles = new ArrayList<>();
+            rocksSchema = OptimisticTransactionDB.open(this.rocksGrakn.rocksSchemaOptions(), directory().resolve(Encoding.ROCKS_SCHEMA).toString());
+            rocksData = OptimisticTransactionDB.open(this.rocksGrakn.rocksDataOptions().dbOptions(), directory().resolve(Encoding.ROCKS_DATA).toString(),
+                                                     this.rocksGrakn.rocksDataOptions().descriptors(), dataHandles);
+            schemaPartitions = RocksPartitions.single(rocksSchema.getDefaultColumnFamily());
+            dataPartitions = RocksPartitions.of(dataHandles);
+            if (!isNew) dataPartitions.migrate(rocksData);
         } catch (RocksDBException e) {
             throw GraknException.of(e);
         }
 
         isOpen = new AtomicBoolean(true);
+        planStore = new RocksPlanStore(rocksSchema, options().cacheSize());
         if (isNew) initialise();
         else load();
         statisticsBackgroundCounterSession = new RocksSession.Data(this, new Options.Session());
@@ -121,6 +136,7 @@ public class RocksDatabase implements Grakn.Database {
                 dataKeyGenerator.sync(txn.asSchema().dataStorage());
             }
         }
+        planStore.loadInBackground();
     }
 
     RocksSession createAndOpenSession(Arguments.Session.Type type, Options.Session options) {
@@ -161,6 +177,7 @@ public class RocksDatabase implements Grakn.Database {
             cache.invalidate();
             cache = null;
         }
+        planStore.schemaChanged();
     }
 
     private synchronized void closeCache() {
@@ -183,6 +200,26 @@ public class RocksDatabase implements Grakn.Database {
         return rocksSchema;
     }
 
+    RocksPlanStore planStore() {
+        return planStore;
+    }
+
+    RocksPartitions.Config dataConfig() {
+        return rocksGrakn.rocksDataOptions();
+    }
+
+    Path bulkDirectory() {
+        return directory().resolve(Encoding.ROCKS_BULK);
+    }
+
+    RocksPartitions dataPartitions() {
+        return dataPartitions;
+    }
+
+    RocksPartitions schemaPartitions() {
+        return schemaPartitions;
+    }
+
     KeyGenerator.Schema schemaKeyGenerator() {
         return schemaKeyGenerator;
     }
@@ -217,6 +254,8 @@ public class RocksDatabase implements Grakn.Database {
             statisticsBackgroundCounter.stop();
             statisticsBackgroundCounterSession.close();
             closeCache();
+            planStore.close();
+            dataPartitions.close();
             rocksData.close();
             rocksSchema.close();
         }
@@ -256,18 +295,27 @@ public class RocksDatabase implements Grakn.Database {
 
     static class Cache {
 
+        private static final Logger LOG = LoggerFactory.getLogger(Cache.class);
+
+        private final String database;
         private final TraversalCache traversalCache;
         private final LogicCache logicCache;
+        private final RocksAdjacencyCache adjacencyCache;
         private final SchemaGraph schemaGraph;
         private final RocksStorage schemaStorage;
         private long borrowerCount;
         private boolean invalidated;
 
         private Cache(RocksDatabase database) {
-            schemaStorage = new RocksStorage(database.rocksSchema(), true);
+            this.database = database.name;
+            schemaStorage = new RocksStorage(database.rocksSchema(), database.schemaPartitions());
             schemaGraph = new SchemaGraph(schemaStorage, true);
-            traversalCache = new TraversalCache();
-            logicCache = new LogicCache();
+            traversalCache = new TraversalCache(database.options().cacheSize(), database.options().cacheTimeoutMinutes(),
+                                                database.options().plannerExhaustiveMaxEdges(), database.planStore());
+            logicCache = new LogicCache(database.options().cacheSize(), database.options().cacheTimeoutMinutes());
+            adjacencyCache = database.options().cacheAdjacencySize() > 0
+                    ? new RocksAdjacencyCache(database.rocksData(), database.options().cacheAdjacencySize())
+                    : null;
             borrowerCount = 0L;
             invalidated = false;
         }
@@ -280,6 +328,11 @@ public class RocksDatabase implements Grakn.Database {
             return logicCache;
         }
 
+        @Nullable
+        RocksAdjacencyCache adjacency() {
+            return adjacencyCache;
+        }
+
         public SchemaGraph schemaGraph() {
             return schemaGraph;
         }
@@ -299,13 +352,18 @@ public class RocksDatabase implements Grakn.Database {
         }
 
         private void mayClose() {
-            if (borrowerCount == 0 && invalidated) {
-                schemaStorage.close();
-            }
+            if (borrowerCount == 0 && invalidated) close();
         }
 
+        /**
+         * Closes the cache, and logs how often the traversal cache served a
+         * planner, so that its size can be tuned to the queries of a database.
+         */
         private void close() {
+            if (!schemaStorage.isOpen()) return;
             schemaStorage.close();
+            LOG.debug("Traversal cache of database '{}' closed after {} hits and {} misses",
+                      database, traversalCache.hitCount(), traversalCache.missCount());
         }
     }
 
@@ -329,9 +387,12 @@ public class RocksDatabase implements Grakn.Database {
 
         private void countFn() {
             do {
-                try (RocksTransaction.Data tx = session.transaction(WRITE)) {
-                    tx.graphMgr.data().stats().processCountJobs();
-                    tx.commit();
+                try {
+                    boolean isBackfilled;
+                    do {
+                        isBackfilled = backfillThingEdges();
+                    } while (!isBackfilled && !isStopped);
+                    if (isBackfilled) processCountJobs();
                 } catch (GraknException e) {
                     if (e.code().isPresent() && e.code().get().equals(DATABASE_CLOSED.code())) {
                         break;
@@ -351,6 +412,21 @@ public class RocksDatabase implements Grakn.Database {
             } while (!isStopped);
         }
 
+        private boolean backfillThingEdges() {
+            try (RocksTransaction.Data tx = session.transaction(WRITE)) {
+                boolean isBackfilled = tx.graphMgr.data().stats().backfillThingEdges();
+                tx.commit();
+                return isBackfilled;
+            }
+        }
+
+        private void processCountJobs() {
+            try (RocksTransaction.Data tx = session.transaction(WRITE)) {
+                tx.graphMgr.data().stats().processCountJobs();
+                tx.commit();
+            }
+        }
+
         private void waitForCountJob() {
             try {
                 countJobNotifications.acquire();
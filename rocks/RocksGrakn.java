@@ -45,6 +45,7 @@ public class RocksGrakn implements Grakn {
     private final Path directory;
     private final Options.Database options;
     private final org.rocksdb.Options rocksConfig;
+    private final RocksPartitions.Config rocksDataConfig;
     private final AtomicBoolean isOpen;
     private final RocksDatabaseManager databaseMgr;
 
@@ -54,6 +55,7 @@ public class RocksGrakn implements Grakn {
         this.rocksConfig = new org.rocksdb.Options()
                 .setCreateIfMissing(true)
                 .setMergeOperator(new UInt64AddOperator());
+        this.rocksDataConfig = new RocksPartitions.Config(options);
 
         ExecutorService.init(MAX_THREADS);
         databaseMgr = new RocksDatabaseManager(this);
@@ -73,10 +75,14 @@ public class RocksGrakn implements Grakn {
         return directory;
     }
 
-    org.rocksdb.Options rocksOptions() {
+    org.rocksdb.Options rocksSchemaOptions() {
         return rocksConfig;
     }
 
+    RocksPartitions.Config rocksDataOptions() {
+        return rocksDataConfig;
+    }
+
     public Options.Database options() {
         return options;
     }
@@ -108,6 +114,7 @@ public class RocksGrakn implements Grakn {
         if (isOpen.compareAndSet(true, false)) {
             databaseMgr.all().parallelStream().forEach(RocksDatabase::close);
             rocksConfig.close();
+            rocksDataConfig.close();
         }
     }
 }
@@ -18,29 +18,57 @@
 
 package grakn.core.rocks;
 
-import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.graph.util.Storage;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.Slice;
 
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
 
 import static grakn.core.common.collection.Bytes.bytesHavePrefix;
+import static grakn.core.common.collection.Bytes.compareBytes;
 
-public class RocksIterator<T> implements ResourceIterator<T>, AutoCloseable {
+public class RocksIterator<T> implements Storage.Seekable<T>, AutoCloseable {
 
     private final byte[] prefix;
+    private final byte[] upperBound;
     private final RocksStorage storage;
     private final AtomicBoolean isOpen;
     private final BiFunction<byte[], byte[], T> constructor;
     private org.rocksdb.RocksIterator internalRocksIterator;
+    private Iterator<Map.Entry<byte[], RocksStorage.Write>> writesIterator;
+    private Map.Entry<byte[], RocksStorage.Write> nextWrite;
+    private ReadOptions boundedReadOptions;
+    private Slice upperBoundSlice;
     private State state;
     private T next;
+    private byte[] nextKey;
 
     private enum State {INIT, EMPTY, FETCHED, COMPLETED}
 
     RocksIterator(RocksStorage storage, byte[] prefix, BiFunction<byte[], byte[], T> constructor) {
+        this(storage, prefix, null, constructor);
+    }
+
+    /**
+     * Construct an iterator over the keys of the storage.
+     *
+     * When an {@code upperBound} is not provided, the iterator will iterate
+     * over every key that begins with {@code prefix}. Otherwise, {@code prefix}
+     * is treated as an inclusive lower bound, and the iterator will iterate over
+     * every key from the lower bound up to (but excluding) the upper bound. The
+     * upper bound is also passed down to RocksDB, so that it can stop reading
+     * the SST files once the boundary is reached.
+     */
+    RocksIterator(RocksStorage storage, byte[] prefix, @Nullable byte[] upperBound,
+                  BiFunction<byte[], byte[], T> constructor) {
         this.storage = storage;
         this.prefix = prefix;
+        this.upperBound = upperBound;
         this.constructor = constructor;
 
         isOpen = new AtomicBoolean(true);
@@ -48,22 +76,80 @@ public class RocksIterator<T> implements ResourceIterator<T>, AutoCloseable {
     }
 
     private void initalise() {
-        this.internalRocksIterator = storage.getInternalRocksIterator();
+        if (upperBound == null) {
+            this.internalRocksIterator = storage.getInternalRocksIterator(prefix);
+        } else {
+            this.upperBoundSlice = new Slice(upperBound);
+            this.boundedReadOptions = new ReadOptions().setSnapshot(storage.snapshot())
+                    .setIterateUpperBound(upperBoundSlice)
+                    .setTotalOrderSeek(storage.requiresTotalOrderSeek(prefix));
+            this.internalRocksIterator = storage.getInternalRocksIterator(prefix, boundedReadOptions);
+        }
         this.internalRocksIterator.seek(prefix);
+        this.writesIterator = storage.writes().tailMap(prefix).entrySet().iterator();
+        this.nextWrite = nextWrite();
+    }
+
+    private Map.Entry<byte[], RocksStorage.Write> nextWrite() {
+        if (!writesIterator.hasNext()) return null;
+        final Map.Entry<byte[], RocksStorage.Write> write = writesIterator.next();
+        return isWithinBounds(write.getKey()) ? write : null;
+    }
+
+    private boolean isWithinBounds(byte[] key) {
+        if (upperBound == null) return bytesHavePrefix(key, prefix);
+        else return compareBytes(key, upperBound) < 0;
     }
 
+    /**
+     * Fetches the next key from the storage, merged with the writes buffered by
+     * the transaction in key order. A buffered write replaces the same key
+     * in storage, and a buffered deletion hides it.
+     */
     private boolean fetchAndCheck() {
-        final byte[] key;
-        if (!internalRocksIterator.isValid() || !bytesHavePrefix(key = internalRocksIterator.key(), prefix)) {
-            state = State.COMPLETED;
-            recycle();
-            return false;
+        while (true) {
+            byte[] storedKey = internalRocksIterator.isValid() ? internalRocksIterator.key() : null;
+            if (storedKey != null && !isWithinBounds(storedKey)) storedKey = null;
+            if (storedKey == null && nextWrite == null) {
+                state = State.COMPLETED;
+                recycle();
+                return false;
+            }
+
+            final int comparison = storedKey == null ? 1 : nextWrite == null ? -1 : compareBytes(storedKey, nextWrite.getKey());
+            if (comparison < 0) {
+                next = constructor.apply(storedKey, internalRocksIterator.value());
+                nextKey = storedKey;
+                internalRocksIterator.next();
+                state = State.FETCHED;
+                return true;
+            }
+
+            if (comparison == 0) internalRocksIterator.next();
+            final Map.Entry<byte[], RocksStorage.Write> write = nextWrite;
+            nextWrite = nextWrite();
+            if (write.getValue() != RocksStorage.Write.DELETE) {
+                next = constructor.apply(write.getKey(), write.getValue().value);
+                nextKey = write.getKey();
+                state = State.FETCHED;
+                return true;
+            }
         }
+    }
 
-        next = constructor.apply(key, internalRocksIterator.value());
-        internalRocksIterator.next();
-        state = State.FETCHED;
-        return true;
+    /**
+     * Seeks the native iterator, and the writes of the transaction, in place, unless the iterator has already
+     * reached the target key.
+     */
+    @Override
+    public void seek(byte[] target) {
+        if (state == State.COMPLETED) return;
+        else if (state == State.INIT) initalise();
+        if (compareBytes(target, nextKey != null ? nextKey : prefix) <= 0) return;
+        internalRocksIterator.seek(target);
+        writesIterator = storage.writes().tailMap(target).entrySet().iterator();
+        nextWrite = nextWrite();
+        state = State.EMPTY;
     }
 
     public final T peek() {
@@ -79,7 +165,16 @@ public class RocksIterator<T> implements ResourceIterator<T>, AutoCloseable {
     @Override
     public void close() {
         if (isOpen.compareAndSet(true, false)) {
-            if (state != State.INIT) storage.recycle(internalRocksIterator);
+            if (state != State.INIT) {
+                if (upperBound == null) {
+                    storage.recycle(prefix, internalRocksIterator);
+                } else {
+                    // bounded iterators are tied to their own read options, and cannot be recycled
+                    internalRocksIterator.close();
+                    boundedReadOptions.close();
+                    upperBoundSlice.close();
+                }
+            }
             state = State.COMPLETED;
             storage.remove(this);
         }
@@ -0,0 +1,294 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.rocks;
+
+import grakn.core.common.parameters.Options;
+import grakn.core.graph.iid.PrefixIID;
+import grakn.core.graph.iid.VertexIID;
+import grakn.core.graph.util.Encoding;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.CompactionStyle;
+import org.rocksdb.CompressionType;
+import org.rocksdb.DBOptions;
+import org.rocksdb.Filter;
+import org.rocksdb.LRUCache;
+import org.rocksdb.RateLimiter;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.UInt64AddOperator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The RocksDB column families of a database, one per {@code Encoding.Partition}.
+ */
+class RocksPartitions {
+
+    private static final int MIGRATION_BATCH_SIZE = 10_000;
+
+    private final ColumnFamilyHandle[] handles;
+    private final boolean isOwner;
+
+    private RocksPartitions(ColumnFamilyHandle[] handles, boolean isOwner) {
+        this.handles = handles;
+        this.isOwner = isOwner;
+    }
+
+    /**
+     * Create a set of partitions where every partition shares the same column
+     * family, which is owned by the database it was retrieved from.
+     */
+    static RocksPartitions single(ColumnFamilyHandle handle) {
+        final ColumnFamilyHandle[] handles = new ColumnFamilyHandle[Encoding.Partition.values().length];
+        Arrays.fill(handles, handle);
+        return new RocksPartitions(handles, false);
+    }
+
+    /**
+     * Create a set of partitions from the column family handles of a database,
+     * opened with the descriptors of {@link Config#descriptors()}, in that order.
+     */
+    static RocksPartitions of(List<ColumnFamilyHandle> handles) {
+        assert handles.size() == Encoding.Partition.values().length;
+        final ColumnFamilyHandle[] array = new ColumnFamilyHandle[handles.size()];
+        for (Encoding.Partition partition : Encoding.Partition.values()) {
+            array[partition.key()] = handles.get(partition.ordinal());
+        }
+        return new RocksPartitions(array, true);
+    }
+
+    ColumnFamilyHandle handle(byte[] key) {
+        return handles[Encoding.Partition.of(key).key()];
+    }
+
+    ColumnFamilyHandle handle(Encoding.Partition partition) {
+        return handles[partition.key()];
+    }
+
+    /**
+     * Returns true if the prefix is shorter than the bloom filter prefix of its column family.
+     */
+    boolean requiresTotalOrderSeek(byte[] prefix) {
+        return isOwner && prefix.length < prefixLength(Encoding.Partition.of(prefix));
+    }
+
+    private static int prefixLength(Encoding.Partition partition) {
+        switch (partition) {
+            case THING:
+                return VertexIID.Thing.DEFAULT_LENGTH;
+            case TYPE:
+                return VertexIID.Type.LENGTH;
+            case INDEX:
+            case STATISTICS:
+                return PrefixIID.LENGTH;
+            case DEFAULT:
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Moves the keys of a database written before it was partitioned into the column families of their partitions.
+     *
+     * @return the number of keys that were moved
+     */
+    long migrate(RocksDB rocksDB) throws RocksDBException {
+        if (!isOwner) return 0;
+        final ColumnFamilyHandle defaultHandle = handle(Encoding.Partition.DEFAULT);
+        long migrated = 0;
+        try (ReadOptions readOptions = new ReadOptions().setTotalOrderSeek(true);
+             WriteOptions writeOptions = new WriteOptions();
+             RocksIterator iterator = rocksDB.newIterator(defaultHandle, readOptions)) {
+            WriteBatch batch = new WriteBatch();
+            try {
+                for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
+                    final byte[] key = iterator.key();
+                    final Encoding.Partition partition = Encoding.Partition.of(key);
+                    if (partition == Encoding.Partition.DEFAULT) continue;
+                    batch.put(handle(partition), key, iterator.value());
+                    batch.delete(defaultHandle, key);
+                    if (++migrated % MIGRATION_BATCH_SIZE == 0) {
+                        rocksDB.write(writeOptions, batch);
+                        batch.close();
+                        batch = new WriteBatch();
+                    }
+                }
+                if (batch.count() > 0) rocksDB.write(writeOptions, batch);
+            } finally {
+                batch.close();
+            }
+        }
+        return migrated;
+    }
+
+    void close() {
+        if (isOwner) Arrays.stream(handles).forEach(ColumnFamilyHandle::close);
+    }
+
+    /**
+     * The configuration of the column families of a partitioned database, which
+     * is shared by every database opened by the same server.
+     */
+    static class Config {
+
+        private static final int BLOOM_FILTER_BITS_PER_KEY = 10;
+        private static final double MEMTABLE_PREFIX_BLOOM_SIZE_RATIO = 0.1;
+
+        private final DBOptions dbOptions;
+        private final RateLimiter rateLimiter;
+        private final UInt64AddOperator mergeOperator;
+        private final List<LRUCache> blockCaches;
+        private final List<Filter> filters;
+        private final List<ColumnFamilyOptions> columnFamilyOptions;
+        private final List<ColumnFamilyDescriptor> descriptors;
+
+        Config(Options.Database options) {
+            dbOptions = new DBOptions().setCreateIfMissing(true).setCreateMissingColumnFamilies(true)
+                    .setMaxBackgroundJobs(options.storageMaxBackgroundJobs())
+                    .setUseDirectIoForFlushAndCompaction(options.storageDirectIOForFlushAndCompaction());
+            if (options.storageRateLimitBytesPerSecond() > 0) {
+                rateLimiter = new RateLimiter(options.storageRateLimitBytesPerSecond());
+                dbOptions.setRateLimiter(rateLimiter);
+            } else {
+                rateLimiter = null;
+            }
+            mergeOperator = new UInt64AddOperator();
+            blockCaches = new ArrayList<>();
+            filters = new ArrayList<>();
+            columnFamilyOptions = new ArrayList<>();
+            descriptors = new ArrayList<>();
+            for (Encoding.Partition partition : Encoding.Partition.values()) {
+                final ColumnFamilyOptions cfOptions = columnFamilyOptions(partition, options);
+                final byte[] name = partition == Encoding.Partition.DEFAULT
+                        ? RocksDB.DEFAULT_COLUMN_FAMILY : partition.label().getBytes(UTF_8);
+                columnFamilyOptions.add(cfOptions);
+                descriptors.add(new ColumnFamilyDescriptor(name, cfOptions));
+            }
+        }
+
+        private ColumnFamilyOptions columnFamilyOptions(Encoding.Partition partition, Options.Database databaseOptions) {
+            final LRUCache blockCache = new LRUCache((long) (databaseOptions.storageBlockCacheSize() * blockCacheShare(partition)));
+            blockCaches.add(blockCache);
+            final BlockBasedTableConfig tableConfig = new BlockBasedTableConfig().setBlockCache(blockCache);
+            final ColumnFamilyOptions options = new ColumnFamilyOptions().setMergeOperator(mergeOperator)
+                    .setWriteBufferSize(databaseOptions.storageWriteBufferSize())
+                    .setMaxWriteBufferNumber(databaseOptions.storageMaxWriteBufferNumber())
+                    .setCompactionStyle(compactionStyle(databaseOptions.storageCompactionStyle()));
+
+            switch (partition) {
+                case THING:
+                    // edges are prefixed by the IID of their vertex, so the prefix filter lets adjacency
+                    // scans skip SST files of other vertices, and the whole key filter does the same for
+                    // point lookups of a single vertex or edge
+                    options.useFixedLengthPrefixExtractor(prefixLength(partition))
+                            .setMemtablePrefixBloomSizeRatio(MEMTABLE_PREFIX_BLOOM_SIZE_RATIO)
+                            .setCompressionType(CompressionType.LZ4_COMPRESSION);
+                    tableConfig.setFilterPolicy(bloomFilter())
+                            .setWholeKeyFiltering(true);
+                    break;
+                case TYPE:
+                    options.useFixedLengthPrefixExtractor(prefixLength(partition))
+                            .setCompressionType(CompressionType.LZ4_COMPRESSION);
+                    tableConfig.setFilterPolicy(bloomFilter())
+                            .setWholeKeyFiltering(false);
+                    break;
+                case INDEX:
+                    options.useFixedLengthPrefixExtractor(prefixLength(partition))
+                            .setCompressionType(CompressionType.LZ4_COMPRESSION);
+                    tableConfig.setFilterPolicy(bloomFilter())
+                            .setWholeKeyFiltering(true);
+                    break;
+                case STATISTICS:
+                    // statistics are small, frequently merged counters, so we don't compress them
+                    options.useFixedLengthPrefixExtractor(prefixLength(partition))
+                            .setCompressionType(CompressionType.NO_COMPRESSION);
+                    tableConfig.setFilterPolicy(bloomFilter())
+                            .setWholeKeyFiltering(true);
+                    break;
+                case DEFAULT:
+                default:
+                    break;
+            }
+            return options.setTableFormatConfig(tableConfig);
+        }
+
+        private Filter bloomFilter() {
+            final Filter filter = new BloomFilter(BLOOM_FILTER_BITS_PER_KEY, false);
+            filters.add(filter);
+            return filter;
+        }
+
+        private static CompactionStyle compactionStyle(Options.Database.CompactionStyle style) {
+            switch (style) {
+                case UNIVERSAL:
+                    return CompactionStyle.UNIVERSAL;
+                case LEVEL:
+                default:
+                    return CompactionStyle.LEVEL;
+            }
+        }
+
+        private static double blockCacheShare(Encoding.Partition partition) {
+            switch (partition) {
+                case THING:
+                    return 0.6;
+                case TYPE:
+                case INDEX:
+                    return 0.15;
+                case STATISTICS:
+                case DEFAULT:
+                default:
+                    return 0.05;
+            }
+        }
+
+        DBOptions dbOptions() {
+            return dbOptions;
+        }
+
+        List<ColumnFamilyDescriptor> descriptors() {
+            return descriptors;
+        }
+
+        ColumnFamilyOptions columnFamilyOptions(Encoding.Partition partition) {
+            return columnFamilyOptions.get(partition.ordinal());
+        }
+
+        void close() {
+            columnFamilyOptions.forEach(ColumnFamilyOptions::close);
+            blockCaches.forEach(LRUCache::close);
+            filters.forEach(Filter::close);
+            mergeOperator.close();
+            if (rateLimiter != null) rateLimiter.close();
+            dbOptions.close();
+        }
+    }
+}
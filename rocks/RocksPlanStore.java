@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.rocks;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import grakn.core.common.exception.GraknException;
+import grakn.core.traversal.planner.PlanStore;
+import org.rocksdb.OptimisticTransactionDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static grakn.core.common.collection.Bytes.LONG_SIZE;
+import static grakn.core.common.collection.Bytes.bytesHavePrefix;
+import static grakn.core.common.collection.Bytes.join;
+import static grakn.core.common.collection.Bytes.longToSortedBytes;
+import static grakn.core.common.collection.Bytes.sortedBytesToLong;
+import static grakn.core.common.concurrent.ExecutorService.forkJoinPool;
+import static grakn.core.graph.util.Encoding.Prefix.SYSTEM_PLAN;
+import static grakn.core.graph.util.Encoding.Prefix.SYSTEM_SCHEMA_VERSION;
+
+/**
+ * A store of traversal plans, persisted in the schema storage of a database so
+ * that they survive restarts of the server.
+ *
+ * Every plan is keyed by the version of the schema it was produced under, and
+ * the fingerprint of its structure. The schema version is incremented by every
+ * schema commit, after which the plans of previous versions are no longer
+ * served, and are deleted in the background. The plans of the current version
+ * are loaded into memory in the background when the database is opened. The
+ * plans that planners produce, and the deletions of the plans evicted from
+ * memory, are written to storage in batches in the background, so the storage
+ * holds at most as many plans as the memory does.
+ */
+class RocksPlanStore implements PlanStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RocksPlanStore.class);
+    private static final byte[] SCHEMA_VERSION_KEY = SYSTEM_SCHEMA_VERSION.bytes();
+    private static final byte[] DELETED = new byte[0];
+
+    private final OptimisticTransactionDB rocksSchema;
+    private final com.github.benmanes.caffeine.cache.Cache<ByteBuffer, byte[]> plans;
+    private final ConcurrentMap<ByteBuffer, byte[]> writes;
+    private final AtomicBoolean isFlushScheduled;
+    private final ReadWriteLock lock;
+    private volatile long schemaVersion;
+    private boolean isOpen;
+
+    RocksPlanStore(OptimisticTransactionDB rocksSchema, long maxPlans) {
+        this.rocksSchema = rocksSchema;
+        this.plans = Caffeine.newBuilder().maximumSize(maxPlans).executor(Runnable::run)
+                .removalListener((ByteBuffer fingerprint, byte[] plan, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) write(fingerprint.array(), DELETED);
+                }).build();
+        this.writes = new ConcurrentHashMap<>();
+        this.isFlushScheduled = new AtomicBoolean(false);
+        this.lock = new ReentrantReadWriteLock();
+        this.schemaVersion = readSchemaVersion();
+        this.isOpen = true;
+    }
+
+    /**
+     * Increments the schema version in the given schema storage, to be
+     * committed along with the rest of a schema transaction.
+     */
+    static void incrementSchemaVersion(RocksStorage schemaStorage) {
+        byte[] version = schemaStorage.get(SCHEMA_VERSION_KEY);
+        long next = version == null ? 1 : sortedBytesToLong(version) + 1;
+        schemaStorage.put(SCHEMA_VERSION_KEY, longToSortedBytes(next));
+    }
+
+    @Override
+    public long version() {
+        return schemaVersion;
+    }
+
+    @Nullable
+    @Override
+    public byte[] get(byte[] fingerprint) {
+        return plans.getIfPresent(ByteBuffer.wrap(fingerprint));
+    }
+
+    /**
+     * Records a plan under the current schema version, and schedules it to be
+     * written to storage. The version is checked under the lock that
+     * {@link #schemaChanged()} takes exclusively, so a planner of a previous
+     * schema can never record its plan once the store has moved on.
+     */
+    @Override
+    public void put(long version, byte[] fingerprint, byte[] plan) {
+        lock.readLock().lock();
+        try {
+            if (!isOpen || version != schemaVersion) return;
+            plans.put(ByteBuffer.wrap(fingerprint), plan);
+            write(fingerprint, plan);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(byte[] fingerprint, byte[] plan) {
+        writes.put(ByteBuffer.wrap(key(schemaVersion, fingerprint)), plan);
+        if (isFlushScheduled.compareAndSet(false, true)) {
+            forkJoinPool().execute(() -> {
+                try {
+                    flush();
+                } catch (Throwable e) {
+                    LOG.error("Failed to write traversal plans", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Writes the plans recorded since the last flush, and deletes the plans
+     * evicted since, in a single batch.
+     */
+    synchronized void flush() throws RocksDBException {
+        isFlushScheduled.set(false);
+        plans.cleanUp();
+        lock.readLock().lock();
+        try (WriteBatch batch = new WriteBatch(); WriteOptions options = new WriteOptions()) {
+            if (!isOpen) return;
+            for (ByteBuffer key : writes.keySet()) {
+                byte[] plan = writes.remove(key);
+                if (plan == DELETED) batch.delete(key.array());
+                else if (sortedBytesToLong(key.array(), SYSTEM_PLAN.bytes().length) == schemaVersion) {
+                    batch.put(key.array(), plan);
+                }
+            }
+            if (batch.count() > 0) rocksSchema.write(options, batch);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void loadInBackground() {
+        forkJoinPool().execute(() -> {
+            try {
+                load();
+            } catch (Throwable e) {
+                LOG.error("Failed to load persisted traversal plans", e);
+            }
+        });
+    }
+
+    /**
+     * Moves the store on to the latest schema version. The plans of previous
+     * versions stop being served immediately, and are deleted from storage in
+     * the background.
+     */
+    void schemaChanged() {
+        lock.writeLock().lock();
+        try {
+            if (!isOpen) return;
+            schemaVersion = readSchemaVersion();
+            plans.invalidateAll();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        loadInBackground();
+    }
+
+    void load() throws RocksDBException {
+        lock.readLock().lock();
+        try {
+            if (!isOpen) return;
+            byte[] prefix = SYSTEM_PLAN.bytes();
+            try (org.rocksdb.RocksIterator iterator = rocksSchema.newIterator()) {
+                for (iterator.seek(prefix); iterator.isValid() && bytesHavePrefix(iterator.key(), prefix); iterator.next()) {
+                    byte[] key = iterator.key();
+                    if (key.length > prefix.length + LONG_SIZE && sortedBytesToLong(key, prefix.length) == schemaVersion) {
+                        byte[] fingerprint = new byte[key.length - prefix.length - LONG_SIZE];
+                        System.arraycopy(key, prefix.length + LONG_SIZE, fingerprint, 0, fingerprint.length);
+                        plans.asMap().putIfAbsent(ByteBuffer.wrap(fingerprint), iterator.value());
+                    } else {
+                        rocksSchema.delete(key);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void close() {
+        try {
+            flush();
+        } catch (RocksDBException e) {
+            LOG.error("Failed to write traversal plans", e);
+        }
+        lock.writeLock().lock();
+        try {
+            isOpen = false;
+            plans.invalidateAll();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long readSchemaVersion() {
+        try {
+            byte[] version = rocksSchema.get(SCHEMA_VERSION_KEY);
+            return version == null ? 0 : sortedBytesToLong(version);
+        } catch (RocksDBException e) {
+            throw GraknException.of(e);
+        }
+    }
+
+    private static byte[] key(long schemaVersion, byte[] fingerprint) {
+        return join(SYSTEM_PLAN.bytes(), longToSortedBytes(schemaVersion), fingerprint);
+    }
+}
@@ -32,6 +32,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import static grakn.common.util.Objects.className;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
 import static grakn.core.common.exception.ErrorMessage.Session.SESSION_CLOSED;
+import static grakn.core.common.exception.ErrorMessage.Transaction.BULK_IN_SCHEMA_SESSION;
 
 public abstract class RocksSession implements Grakn.Session {
 
@@ -132,6 +133,7 @@ public abstract class RocksSession implements Grakn.Session {
         @Override
         public RocksTransaction.Schema transaction(Arguments.Transaction.Type type, Options.Transaction options) {
             if (!isOpen.get()) throw GraknException.of(SESSION_CLOSED);
+            else if (type.isBulk()) throw GraknException.of(BULK_IN_SCHEMA_SESSION);
             final RocksTransaction.Schema transaction = new RocksTransaction.Schema(this, type, options);
             transactions.put(transaction, 0L);
             return transaction;
@@ -18,56 +18,96 @@
 
 package grakn.core.rocks;
 
-import grakn.core.common.concurrent.ManagedReadWriteLock;
+import grakn.common.collection.Pair;
+import grakn.core.common.collection.Bytes;
 import grakn.core.common.exception.ErrorMessage;
 import grakn.core.common.exception.GraknException;
+import grakn.core.common.iterator.Iterators;
 import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.graph.iid.InfixIID;
+import grakn.core.graph.iid.VertexIID;
+import grakn.core.graph.util.Encoding;
 import grakn.core.graph.util.KeyGenerator;
 import grakn.core.graph.util.Storage;
 import org.rocksdb.AbstractImmutableNativeReference;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.IngestExternalFileOptions;
 import org.rocksdb.OptimisticTransactionDB;
 import org.rocksdb.OptimisticTransactionOptions;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.Snapshot;
+import org.rocksdb.SstFileWriter;
 import org.rocksdb.Transaction;
 import org.rocksdb.WriteOptions;
 
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiFunction;
 
+import static grakn.common.collection.Collections.list;
+import static grakn.common.collection.Collections.pair;
 import static grakn.core.common.collection.Bytes.bytesHavePrefix;
+import static grakn.core.common.collection.Bytes.join;
+import static grakn.core.common.exception.ErrorMessage.Transaction.BULK_COMMIT_INCOMPLETE;
+import static grakn.core.common.exception.ErrorMessage.Transaction.BULK_READ_AFTER_FLUSH;
 import static grakn.core.common.exception.ErrorMessage.Transaction.TRANSACTION_CLOSED;
+import static java.util.Comparator.reverseOrder;
 
 class RocksStorage implements Storage {
 
     private static final byte[] EMPTY_ARRAY = new byte[]{};
 
-    private final boolean isReadOnly;
     private final Set<RocksIterator<?>> iterators;
-    private final ConcurrentLinkedQueue<org.rocksdb.RocksIterator> recycled;
+    private final ConcurrentMap<ColumnFamilyHandle, ConcurrentLinkedQueue<org.rocksdb.RocksIterator>> recycled;
+    private final ConcurrentMap<ColumnFamilyHandle, ConcurrentLinkedQueue<org.rocksdb.RocksIterator>> recycledTotalOrder;
+    private final RocksPartitions partitions;
     private final OptimisticTransactionOptions transactionOptions;
     private final WriteOptions writeOptions;
     private final ReadOptions readOptions;
+    private final ReadOptions prefixReadOptions;
+    private final ReadOptions totalOrderReadOptions;
     private final Snapshot snapshot;
-    private final ManagedReadWriteLock readWriteLock;
+    private final ConcurrentNavigableMap<byte[], Write> writes;
+    private final ConcurrentLinkedQueue<Pair<byte[], byte[]>> merges;
     private final AtomicBoolean isOpen;
     final Transaction rocksTx;
 
-    RocksStorage(OptimisticTransactionDB rocksDB, boolean isReadOnly) {
-        this.isReadOnly = isReadOnly;
+    RocksStorage(OptimisticTransactionDB rocksDB, RocksPartitions partitions) {
+        this.partitions = partitions;
         iterators = ConcurrentHashMap.newKeySet();
-        recycled = new ConcurrentLinkedQueue<>();
-        readWriteLock = new ManagedReadWriteLock();
+        recycled = new ConcurrentHashMap<>();
+        recycledTotalOrder = new ConcurrentHashMap<>();
+        writes = new ConcurrentSkipListMap<>(Bytes::compareBytes);
+        merges = new ConcurrentLinkedQueue<>();
         writeOptions = new WriteOptions();
         transactionOptions = new OptimisticTransactionOptions().setSetSnapshot(true);
         rocksTx = rocksDB.beginTransaction(writeOptions, transactionOptions);
         snapshot = rocksTx.getSnapshot();
         readOptions = new ReadOptions().setSnapshot(snapshot);
+        prefixReadOptions = new ReadOptions().setSnapshot(snapshot).setPrefixSameAsStart(true);
+        totalOrderReadOptions = new ReadOptions().setSnapshot(snapshot).setTotalOrderSeek(true);
 
         isOpen = new AtomicBoolean(true);
     }
@@ -77,20 +117,33 @@ class RocksStorage implements Storage {
         return isOpen.get();
     }
 
+    /**
+     * Storage that is not bounded by a transaction is only read from, by the
+     * caches of the database that are shared across transactions.
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * Returns the value of a key as written by this transaction, or otherwise as in its snapshot.
+     */
     @Override
     public byte[] get(byte[] key) {
         validateTransactionIsOpen();
+        final Write write = writes.get(key);
+        if (write != null) return write.value;
         try {
-            // We don't need to check isOpen.get() as tx.commit() does not involve this method
-            if (!isReadOnly) readWriteLock.lockRead();
-            return rocksTx.get(readOptions, key);
-        } catch (RocksDBException | InterruptedException e) {
+            return rocksTx.get(partitions.handle(key), readOptions, key);
+        } catch (RocksDBException e) {
             throw exception(e);
-        } finally {
-            if (!isReadOnly) readWriteLock.unlockRead();
         }
     }
 
+    /**
+     * Returns the last key with the given prefix in the snapshot, excluding the buffered writes.
+     */
     @Override
     public byte[] getLastKey(byte[] prefix) {
         validateTransactionIsOpen();
@@ -98,9 +151,10 @@ class RocksStorage implements Storage {
         upperBound[upperBound.length - 1] = (byte) (upperBound[upperBound.length - 1] + 1);
         assert upperBound[upperBound.length - 1] != Byte.MIN_VALUE;
 
-        try (org.rocksdb.RocksIterator iterator = getInternalRocksIterator()) {
+        // the upper bound may fall under a different extracted prefix, so we always seek in total order
+        try (org.rocksdb.RocksIterator iterator = rocksTx.getIterator(totalOrderReadOptions, partitions.handle(prefix))) {
             iterator.seekForPrev(upperBound);
-            if (bytesHavePrefix(iterator.key(), prefix)) return iterator.key();
+            if (iterator.isValid() && bytesHavePrefix(iterator.key(), prefix)) return iterator.key();
             else return null;
         }
     }
@@ -108,14 +162,7 @@ class RocksStorage implements Storage {
     @Override
     public void delete(byte[] key) {
         validateTransactionIsOpen();
-        try {
-            if (isOpen.get()) readWriteLock.lockWrite();
-            rocksTx.delete(key);
-        } catch (RocksDBException | InterruptedException e) {
-            throw exception(e);
-        } finally {
-            if (isOpen.get()) readWriteLock.unlockWrite();
-        }
+        writes.put(key, Write.DELETE);
     }
 
     @Override
@@ -126,14 +173,7 @@ class RocksStorage implements Storage {
     @Override
     public void put(byte[] key, byte[] value) {
         validateTransactionIsOpen();
-        try {
-            if (isOpen.get()) readWriteLock.lockWrite();
-            rocksTx.put(key, value);
-        } catch (RocksDBException | InterruptedException e) {
-            throw exception(e);
-        } finally {
-            if (isOpen.get()) readWriteLock.unlockWrite();
-        }
+        writes.put(key, new Write(value, true));
     }
 
     @Override
@@ -144,27 +184,16 @@ class RocksStorage implements Storage {
     @Override
     public void putUntracked(byte[] key, byte[] value) {
         validateTransactionIsOpen();
-        try {
-            readWriteLock.lockWrite();
-            rocksTx.putUntracked(key, value);
-        } catch (RocksDBException | InterruptedException e) {
-            throw exception(e);
-        } finally {
-            if (isOpen()) readWriteLock.unlockWrite();
-        }
+        writes.put(key, new Write(value, false));
     }
 
+    /**
+     * Buffers a merge operand, which is not visible to reads until the transaction commits.
+     */
     @Override
     public void mergeUntracked(byte[] key, byte[] value) {
         validateTransactionIsOpen();
-        try {
-            readWriteLock.lockWrite();
-            rocksTx.mergeUntracked(key, value);
-        } catch (RocksDBException | InterruptedException e) {
-            throw exception(e);
-        } finally {
-            if (isOpen()) readWriteLock.unlockWrite();
-        }
+        merges.add(pair(key, value));
     }
 
     @Override
@@ -175,6 +204,15 @@ class RocksStorage implements Storage {
         return iterator;
     }
 
+    @Override
+    public <G> Seekable<G> iterate(byte[] lowerBound, byte[] upperBound,
+                                   BiFunction<byte[], byte[], G> constructor) {
+        validateTransactionIsOpen();
+        final RocksIterator<G> iterator = new RocksIterator<>(this, lowerBound, upperBound, constructor);
+        iterators.add(iterator);
+        return iterator;
+    }
+
     @Override
     public GraknException exception(ErrorMessage error) {
         return GraknException.of(error);
@@ -194,44 +232,114 @@ class RocksStorage implements Storage {
     public void close() {
         if (isOpen.compareAndSet(true, false)) {
             iterators.parallelStream().forEach(RocksIterator::close);
-            recycled.forEach(AbstractImmutableNativeReference::close);
+            recycled.values().forEach(queue -> queue.forEach(AbstractImmutableNativeReference::close));
+            recycledTotalOrder.values().forEach(queue -> queue.forEach(AbstractImmutableNativeReference::close));
             snapshot.close();
             rocksTx.close();
             transactionOptions.close();
             readOptions.close();
+            prefixReadOptions.close();
+            totalOrderReadOptions.close();
             writeOptions.close();
         }
     }
 
+    /**
+     * Writes the buffered writes and merges into the RocksDB transaction, in key order, and commits it.
+     */
+    void commit() throws RocksDBException {
+        for (Map.Entry<byte[], Write> entry : writes.entrySet()) {
+            final byte[] key = entry.getKey();
+            final Write write = entry.getValue();
+            if (write == Write.DELETE) rocksTx.delete(partitions.handle(key), key);
+            else if (write.isTracked) rocksTx.put(partitions.handle(key), key, write.value);
+            else rocksTx.putUntracked(partitions.handle(key), key, write.value);
+        }
+        for (Pair<byte[], byte[]> merge : merges) {
+            rocksTx.mergeUntracked(partitions.handle(merge.first()), merge.first(), merge.second());
+        }
+        rocksTx.commit();
+    }
+
+    void rollback() throws RocksDBException {
+        writes.clear();
+        merges.clear();
+        rocksTx.rollback();
+    }
+
+    ConcurrentNavigableMap<byte[], Write> writes() {
+        return writes;
+    }
+
     void validateTransactionIsOpen() {
         if (!isOpen()) throw GraknException.of(TRANSACTION_CLOSED);
     }
 
-    org.rocksdb.RocksIterator getInternalRocksIterator() {
-        if (isReadOnly) {
-            final org.rocksdb.RocksIterator iterator = recycled.poll();
-            if (iterator != null) return iterator;
-        }
-        return rocksTx.getIterator(readOptions);
+    /**
+     * Returns a native iterator for the given prefix, reusing a recycled one if possible.
+     */
+    org.rocksdb.RocksIterator getInternalRocksIterator(byte[] prefix) {
+        final ColumnFamilyHandle handle = partitions.handle(prefix);
+        final boolean isTotalOrder = partitions.requiresTotalOrderSeek(prefix);
+        final org.rocksdb.RocksIterator iterator = recycled(handle, isTotalOrder).poll();
+        if (iterator != null) return iterator;
+        else return rocksTx.getIterator(isTotalOrder ? totalOrderReadOptions : prefixReadOptions, handle);
+    }
+
+    org.rocksdb.RocksIterator getInternalRocksIterator(byte[] prefix, ReadOptions readOptions) {
+        return rocksTx.getIterator(readOptions, partitions.handle(prefix));
     }
 
-    public void recycle(org.rocksdb.RocksIterator rocksIterator) {
-        recycled.add(rocksIterator);
+    boolean requiresTotalOrderSeek(byte[] prefix) {
+        return partitions.requiresTotalOrderSeek(prefix);
+    }
+
+    Snapshot snapshot() {
+        return snapshot;
+    }
+
+    public void recycle(byte[] prefix, org.rocksdb.RocksIterator rocksIterator) {
+        recycled(partitions.handle(prefix), partitions.requiresTotalOrderSeek(prefix)).add(rocksIterator);
+    }
+
+    private ConcurrentLinkedQueue<org.rocksdb.RocksIterator> recycled(ColumnFamilyHandle handle, boolean isTotalOrder) {
+        return (isTotalOrder ? recycledTotalOrder : recycled).computeIfAbsent(handle, h -> new ConcurrentLinkedQueue<>());
     }
 
     void remove(RocksIterator<?> iterator) {
         iterators.remove(iterator);
     }
 
+    /**
+     * A buffered deletion, or a put that is tracked or untracked for conflicts.
+     */
+    static class Write {
+
+        static final Write DELETE = new Write(null, true);
+
+        final byte[] value;
+        final boolean isTracked;
+
+        private Write(@Nullable byte[] value, boolean isTracked) {
+            this.value = value;
+            this.isTracked = isTracked;
+        }
+    }
+
     static abstract class TransactionBounded extends RocksStorage {
 
         private final RocksTransaction transaction;
 
-        TransactionBounded(OptimisticTransactionDB rocksDB, RocksTransaction transaction) {
-            super(rocksDB, transaction.type().isRead());
+        TransactionBounded(OptimisticTransactionDB rocksDB, RocksPartitions partitions, RocksTransaction transaction) {
+            super(rocksDB, partitions);
             this.transaction = transaction;
         }
 
+        @Override
+        public boolean isReadOnly() {
+            return transaction.type().isRead();
+        }
+
         @Override
         public GraknException exception(ErrorMessage error) {
             transaction.close();
@@ -257,7 +365,7 @@ class RocksStorage implements Storage {
         private final KeyGenerator.Schema schemaKeyGenerator;
 
         Schema(RocksDatabase database, RocksTransaction transaction) {
-            super(database.rocksSchema(), transaction);
+            super(database.rocksSchema(), database.schemaPartitions(), transaction);
             this.schemaKeyGenerator = database.schemaKeyGenerator();
         }
 
@@ -270,15 +378,225 @@ class RocksStorage implements Storage {
     static class Data extends TransactionBounded implements Storage.Data {
 
         private final KeyGenerator.Data dataKeyGenerator;
+        private final RocksAdjacencyCache adjacencyCache;
 
         Data(RocksDatabase database, RocksTransaction transaction) {
-            super(database.rocksData(), transaction);
+            this(database, transaction, null);
+        }
+
+        Data(RocksDatabase database, RocksTransaction transaction, @Nullable RocksAdjacencyCache adjacencyCache) {
+            super(database.rocksData(), database.dataPartitions(), transaction);
             this.dataKeyGenerator = database.dataKeyGenerator();
+            this.adjacencyCache = adjacencyCache;
         }
 
         @Override
         public KeyGenerator.Data dataKeyGenerator() {
             return dataKeyGenerator;
         }
+
+        /**
+         * Iterates over the persisted edges of a vertex under an infix, through the adjacency cache if given one.
+         */
+        @Override
+        public <G> ResourceIterator<G> iterateAdjacency(VertexIID.Thing vertex, InfixIID.Thing infix,
+                                                        BiFunction<byte[], byte[], G> constructor) {
+            final byte[] prefix = join(vertex.bytes(), infix.bytes());
+            if (adjacencyCache == null) return iterate(prefix, constructor);
+
+            validateTransactionIsOpen();
+            final long sequence = snapshot().getSequenceNumber();
+            List<Pair<byte[], byte[]>> edges = adjacencyCache.get(vertex, infix, sequence);
+            if (edges == null) {
+                edges = new ArrayList<>();
+                final ResourceIterator<Pair<byte[], byte[]>> iterator = iterate(prefix, (key, value) -> pair(key, value));
+                while (iterator.hasNext() && edges.size() <= adjacencyCache.maxEdgesPerInfix()) {
+                    edges.add(iterator.next());
+                }
+                iterator.recycle();
+                if (edges.size() > adjacencyCache.maxEdgesPerInfix()) return iterate(prefix, constructor);
+                adjacencyCache.put(vertex, infix, sequence, edges);
+            }
+            return Iterators.iterate(edges).map(edge -> constructor.apply(edge.first(), edge.second()));
+        }
+
+        /**
+         * Returns the thing vertices written to, including the owners of the edges written to.
+         */
+        Set<VertexIID.Thing> writtenVertices() {
+            final Set<VertexIID.Thing> vertices = new HashSet<>();
+            for (byte[] key : writes().keySet()) {
+                if (Encoding.Partition.of(key) == Encoding.Partition.THING) vertices.add(VertexIID.Thing.extract(key, 0));
+            }
+            return vertices;
+        }
+    }
+
+    /**
+     * The storage of a {@code BULK} transaction, which flushes its writes into SST
+     * files and ingests them on commit, without conflict checks or atomicity across
+     * files. Reads fail once the first flush has happened.
+     */
+    static class Bulk extends Data {
+
+        private final RocksDatabase database;
+        private final Path directory;
+        private final long flushThreshold;
+        private final AtomicLong bufferedBytes;
+        private final ReadWriteLock flushLock;
+        private final List<Pair<Encoding.Partition, String>> files;
+        private volatile boolean isFlushed;
+
+        Bulk(RocksDatabase database, RocksTransaction transaction) {
+            super(database, transaction);
+            this.database = database;
+            this.directory = database.bulkDirectory().resolve(UUID.randomUUID().toString());
+            this.flushThreshold = database.options().storageWriteBufferSize();
+            this.bufferedBytes = new AtomicLong(0);
+            this.flushLock = new ReentrantReadWriteLock();
+            this.files = new ArrayList<>();
+            this.isFlushed = false;
+        }
+
+        @Override
+        public byte[] get(byte[] key) {
+            validateIsNotFlushed();
+            return super.get(key);
+        }
+
+        @Override
+        public byte[] getLastKey(byte[] prefix) {
+            validateIsNotFlushed();
+            return super.getLastKey(prefix);
+        }
+
+        @Override
+        public <G> ResourceIterator<G> iterate(byte[] key, BiFunction<byte[], byte[], G> constructor) {
+            validateIsNotFlushed();
+            return super.iterate(key, constructor);
+        }
+
+        @Override
+        public <G> Seekable<G> iterate(byte[] lowerBound, byte[] upperBound,
+                                       BiFunction<byte[], byte[], G> constructor) {
+            validateIsNotFlushed();
+            return super.iterate(lowerBound, upperBound, constructor);
+        }
+
+        private void validateIsNotFlushed() {
+            if (isFlushed) throw exception(BULK_READ_AFTER_FLUSH);
+        }
+
+        @Override
+        public void delete(byte[] key) {
+            buffer(key.length, () -> super.delete(key));
+        }
+
+        @Override
+        public void put(byte[] key, byte[] value) {
+            buffer(key.length + value.length, () -> super.put(key, value));
+        }
+
+        @Override
+        public void putUntracked(byte[] key, byte[] value) {
+            buffer(key.length + value.length, () -> super.putUntracked(key, value));
+        }
+
+        /**
+         * Buffers a write, and flushes the buffer once it has grown past the threshold.
+         */
+        private void buffer(int bytes, Runnable write) {
+            flushLock.readLock().lock();
+            try {
+                write.run();
+            } finally {
+                flushLock.readLock().unlock();
+            }
+            if (bufferedBytes.addAndGet(bytes) < flushThreshold) return;
+
+            flushLock.writeLock().lock();
+            try {
+                if (bufferedBytes.get() >= flushThreshold) flush();
+            } finally {
+                flushLock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Writes the buffered writes into new SST files, one per partition, and clears the buffer.
+         */
+        private void flush() {
+            if (writes().isEmpty()) return;
+            final Map<Encoding.Partition, SstFileWriter> writers = new EnumMap<>(Encoding.Partition.class);
+            final Map<Encoding.Partition, org.rocksdb.Options> writerOptions = new EnumMap<>(Encoding.Partition.class);
+            final RocksPartitions.Config config = database.dataConfig();
+            final int flush = files.size();
+            try (EnvOptions envOptions = new EnvOptions()) {
+                Files.createDirectories(directory);
+                for (Map.Entry<byte[], Write> entry : writes().entrySet()) {
+                    final Encoding.Partition partition = Encoding.Partition.of(entry.getKey());
+                    SstFileWriter writer = writers.get(partition);
+                    if (writer == null) {
+                        final org.rocksdb.Options options = new org.rocksdb.Options(
+                                config.dbOptions(), config.columnFamilyOptions(partition)
+                        );
+                        writerOptions.put(partition, options);
+                        writer = new SstFileWriter(envOptions, options);
+                        writer.open(file(partition, flush));
+                        writers.put(partition, writer);
+                    }
+                    if (entry.getValue() == Write.DELETE) writer.delete(entry.getKey());
+                    else writer.put(entry.getKey(), entry.getValue().value);
+                }
+                for (SstFileWriter writer : writers.values()) writer.finish();
+            } catch (IOException | RocksDBException e) {
+                throw exception(e);
+            } finally {
+                writers.values().forEach(SstFileWriter::close);
+                writerOptions.values().forEach(org.rocksdb.Options::close);
+            }
+            writers.keySet().forEach(partition -> files.add(pair(partition, file(partition, flush))));
+            writes().clear();
+            bufferedBytes.set(0);
+            isFlushed = true;
+        }
+
+        /**
+         * Ingests the SST files one by one, in the order they were written, then commits the merges.
+         */
+        @Override
+        void commit() throws RocksDBException {
+            flush();
+            int ingested = 0;
+            try (IngestExternalFileOptions options = new IngestExternalFileOptions().setMoveFiles(true)) {
+                for (Pair<Encoding.Partition, String> file : files) {
+                    database.rocksData().ingestExternalFile(
+                            database.dataPartitions().handle(file.first()), list(file.second()), options
+                    );
+                    ingested++;
+                }
+                super.commit();
+            } catch (RocksDBException e) {
+                if (ingested == 0) throw e;
+                throw exception(GraknException.of(BULK_COMMIT_INCOMPLETE, ingested, files.size(), e.getMessage()));
+            }
+            files.clear();
+        }
+
+        private String file(Encoding.Partition partition, int flush) {
+            return directory.resolve(partition.label() + "-" + flush + ".sst").toString();
+        }
+
+        @Override
+        public void close() {
+            super.close();
+            if (Files.exists(directory)) {
+                try {
+                    Files.walk(directory).sorted(reverseOrder()).map(Path::toFile).forEach(File::delete);
+                } catch (IOException e) {
+                    throw GraknException.of(e);
+                }
+            }
+        }
     }
 }
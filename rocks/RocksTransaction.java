@@ -18,6 +18,7 @@
 
 package grakn.core.rocks;
 
+import grabl.tracing.client.GrablTracingThreadStatic.ThreadTrace;
 import grakn.core.Grakn;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.parameters.Arguments;
@@ -27,6 +28,7 @@ import grakn.core.concept.ConceptManager;
 import grakn.core.graph.DataGraph;
 import grakn.core.graph.GraphManager;
 import grakn.core.graph.SchemaGraph;
+import grakn.core.graph.iid.VertexIID;
 import grakn.core.logic.LogicCache;
 import grakn.core.logic.LogicManager;
 import grakn.core.query.QueryManager;
@@ -35,8 +37,10 @@ import grakn.core.traversal.TraversalCache;
 import grakn.core.traversal.TraversalEngine;
 import org.rocksdb.RocksDBException;
 
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static grabl.tracing.client.GrablTracingThreadStatic.traceOnThread;
 import static grakn.common.util.Objects.className;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
 import static grakn.core.common.exception.ErrorMessage.Transaction.ILLEGAL_COMMIT;
@@ -46,6 +50,7 @@ import static grakn.core.common.exception.ErrorMessage.Transaction.TRANSACTION_C
 
 public abstract class RocksTransaction implements Grakn.Transaction {
 
+    private static final String TRACE_PREFIX = "transaction.";
     final RocksSession session;
     final Arguments.Transaction.Type type;
     final Context.Transaction context;
@@ -67,7 +72,7 @@ public abstract class RocksTransaction implements Grakn.Transaction {
         traversalEng = new TraversalEngine(graphMgr, traversalCache);
         conceptMgr = new ConceptManager(graphMgr);
         logicMgr = new LogicManager(graphMgr, conceptMgr, traversalEng, logicCache);
-        reasoner = new Reasoner(conceptMgr, traversalEng, logicMgr);
+        reasoner = new Reasoner(conceptMgr, traversalEng, logicMgr, context);
         queryMgr = new QueryManager(conceptMgr, logicMgr, reasoner, context);
         isOpen = new AtomicBoolean(true);
     }
@@ -158,7 +163,10 @@ public abstract class RocksTransaction implements Grakn.Transaction {
             DataGraph dataGraph = new DataGraph(dataStorage, schemaGraph);
 
             graphMgr = new GraphManager(schemaGraph, dataGraph);
-            initialise(graphMgr, new TraversalCache(), new LogicCache());
+            final Options.Database databaseOptions = session.database.options();
+            initialise(graphMgr, new TraversalCache(databaseOptions.cacheSize(), databaseOptions.cacheTimeoutMinutes(),
+                                                    databaseOptions.plannerExhaustiveMaxEdges()),
+                       new LogicCache(databaseOptions.cacheSize(), databaseOptions.cacheTimeoutMinutes()));
         }
 
         @Override
@@ -194,7 +202,8 @@ public abstract class RocksTransaction implements Grakn.Transaction {
          * flush all changes in the graph into storage by calling {@code graph.commit()},
          * which may result in acquiring a lock on the storage to confirm that the data
          * will be committed into storage. The operation will then continue to commit
-         * all the writes into RocksDB by calling {@code rocksTransaction.commit()}.
+         * all the writes into RocksDB by calling {@code rocksTransaction.commit()}, or,
+         * for a {@code BULK} transaction, by ingesting the writes as SST files first.
          * If the operation reaches this state, then the RocksDB commit was successful.
          * We then need let go of the transaction that this resources of hold.
          *
@@ -215,7 +224,8 @@ public abstract class RocksTransaction implements Grakn.Transaction {
                     conceptMgr.validateTypes();
                     logicMgr.validateRules();
                     graphMgr.schema().commit();
-                    schemaStorage.rocksTx.commit();
+                    RocksPlanStore.incrementSchemaVersion(schemaStorage);
+                    schemaStorage.commit();
                     session.database.invalidateCache();
                 } catch (RocksDBException e) {
                     rollback();
@@ -233,7 +243,7 @@ public abstract class RocksTransaction implements Grakn.Transaction {
         public void rollback() {
             try {
                 graphMgr.clear();
-                schemaStorage.rocksTx.rollback();
+                schemaStorage.rollback();
             } catch (RocksDBException e) {
                 throw GraknException.of(e);
             }
@@ -254,7 +264,9 @@ public abstract class RocksTransaction implements Grakn.Transaction {
             super(session, type, options);
 
             cache = session.database.borrowCache();
-            dataStorage = new RocksStorage.Data(session.database, this);
+            if (type.isBulk()) dataStorage = new RocksStorage.Bulk(session.database, this);
+            else if (type.isRead()) dataStorage = new RocksStorage.Data(session.database, this, cache.adjacency());
+            else dataStorage = new RocksStorage.Data(session.database, this);
             DataGraph dataGraph = new DataGraph(dataStorage, cache.schemaGraph());
             graphMgr = new GraphManager(cache.schemaGraph(), dataGraph);
 
@@ -271,6 +283,11 @@ public abstract class RocksTransaction implements Grakn.Transaction {
             return this;
         }
 
+        RocksStorage.Data dataStorage() {
+            if (!isOpen.get()) throw GraknException.of(TRANSACTION_CLOSED);
+            return dataStorage;
+        }
+
         /**
          * Commits any writes captured in the transaction into storage.
          *
@@ -280,7 +297,8 @@ public abstract class RocksTransaction implements Grakn.Transaction {
          * flush all changes in the graph into storage by calling {@code graph.commit()},
          * which may result in acquiring a lock on the storage to confirm that the data
          * will be committed into storage. The operation will then continue to commit
-         * all the writes into RocksDB by calling {@code rocksTransaction.commit()}.
+         * all the writes into RocksDB by calling {@code rocksTransaction.commit()}, or,
+         * for a {@code BULK} transaction, by ingesting the writes as SST files first.
          * If the operation reaches this state, then the RocksDB commit was successful.
          * We then need let go of the transaction that this resources of hold.
          *
@@ -298,9 +316,15 @@ public abstract class RocksTransaction implements Grakn.Transaction {
                     // We disable RocksDB indexing of uncommitted writes, as we're only about to write and never again reading
                     // TODO: We should benchmark this
                     dataStorage.rocksTx.disableIndexing();
-                    conceptMgr.validateThings();
-                    graphMgr.data().commit();
-                    dataStorage.rocksTx.commit();
+                    try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "commit.validate")) {
+                        conceptMgr.validateThings();
+                    }
+                    try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "commit.graph")) {
+                        graphMgr.data().commit();
+                    }
+                    try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "commit.storage")) {
+                        commitStorage();
+                    }
                     if (graphMgr.data().stats().needsBackgroundCounting()) {
                         session.database.statisticsBackgroundCounter.needsBackgroundCounting();
                     }
@@ -316,11 +340,41 @@ public abstract class RocksTransaction implements Grakn.Transaction {
             }
         }
 
+        /**
+         * Commits the storage, while the vertices that it writes to are kept
+         * from being served by, or cached into, the adjacency cache of the database.
+         * Bulk storage flushes its writes as it goes, so a bulk commit keeps
+         * every vertex out of the cache instead.
+         */
+        private void commitStorage() throws RocksDBException {
+            final RocksAdjacencyCache adjacencyCache = cache.adjacency();
+            if (adjacencyCache == null) {
+                dataStorage.commit();
+                return;
+            } else if (type().isBulk()) {
+                adjacencyCache.bulkCommitStarted();
+                try {
+                    dataStorage.commit();
+                } finally {
+                    adjacencyCache.bulkCommitEnded();
+                }
+                return;
+            }
+
+            final Set<VertexIID.Thing> vertices = dataStorage.writtenVertices();
+            adjacencyCache.commitStarted(vertices);
+            try {
+                dataStorage.commit();
+            } finally {
+                adjacencyCache.commitEnded(vertices);
+            }
+        }
+
         @Override
         public void rollback() {
             try {
                 graphMgr.clear();
-                dataStorage.rocksTx.rollback();
+                dataStorage.rollback();
             } catch (RocksDBException e) {
                 throw GraknException.of(e);
             }
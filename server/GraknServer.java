@@ -24,6 +24,7 @@ import grakn.common.concurrent.NamedThreadFactory;
 import grakn.core.Grakn;
 import grakn.core.common.concurrent.ExecutorService;
 import grakn.core.common.exception.GraknException;
+import grakn.core.common.parameters.Options;
 import grakn.core.rocks.RocksGrakn;
 import grakn.core.server.rpc.GraknRPCService;
 import grakn.core.server.util.ServerDefaults;
@@ -78,7 +79,9 @@ public class GraknServer implements AutoCloseable {
             LOG.info("Running Grakn Core Server in debug mode.");
         }
 
-        grakn = RocksGrakn.open(options.dataDir());
+        final Options.Database databaseOptions = options.databaseOptions();
+        LOG.info("Grakn Core Server configuration: data={}, port={}, {}", options.dataDir(), options.port(), databaseOptions);
+        grakn = RocksGrakn.open(options.dataDir(), databaseOptions);
         graknRPCService = new GraknRPCService(grakn);
 
         server = rpcServer();
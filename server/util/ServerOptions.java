@@ -18,17 +18,26 @@
 
 package grakn.core.server.util;
 
+import grakn.core.common.parameters.Options;
 import grakn.core.server.Version;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
 
 import java.net.URI;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import static grakn.core.common.parameters.Options.Database.MAX_PLANNER_EXHAUSTIVE_MAX_EDGES;
+
 @Command(name = "grakn", mixinStandardHelpOptions = true, version = {Version.VERSION})
 public class ServerOptions {
 
+    @Spec
+    private CommandSpec spec;
+
     @Option(descriptionKey = "server.data",
             names = {"--data"},
             description = "Directory in which database server data will be stored")
@@ -62,6 +71,59 @@ public class ServerOptions {
             description = "Grabl account access token")
     private String grablToken;
 
+    @Option(descriptionKey = "storage.block-cache-size",
+            names = {"--storage-block-cache-size"},
+            description = "Size in bytes of the block cache shared by the storage of all databases of the server")
+    private Long storageBlockCacheSize;
+
+    @Option(descriptionKey = "storage.write-buffer-size",
+            names = {"--storage-write-buffer-size"},
+            description = "Size in bytes of each write buffer (memtable) of the storage")
+    private Long storageWriteBufferSize;
+
+    @Option(descriptionKey = "storage.max-write-buffer-number",
+            names = {"--storage-max-write-buffer-number"},
+            description = "Maximum number of write buffers (memtables) of the storage held in memory")
+    private Integer storageMaxWriteBufferNumber;
+
+    @Option(descriptionKey = "storage.max-background-jobs",
+            names = {"--storage-max-background-jobs"},
+            description = "Maximum number of concurrent background flushes and compactions of the storage")
+    private Integer storageMaxBackgroundJobs;
+
+    @Option(descriptionKey = "storage.compaction-style",
+            names = {"--storage-compaction-style"},
+            description = "Compaction style of the storage: LEVEL or UNIVERSAL")
+    private Options.Database.CompactionStyle storageCompactionStyle;
+
+    @Option(descriptionKey = "storage.rate-limit",
+            names = {"--storage-rate-limit"},
+            description = "Rate in bytes per second at which the storage may write flushes and compactions, 0 for unlimited")
+    private Long storageRateLimitBytesPerSecond;
+
+    @Option(descriptionKey = "storage.direct-io",
+            names = {"--storage-direct-io"},
+            negatable = true,
+            description = "Use direct I/O for flushes and compactions of the storage")
+    private Boolean storageDirectIOForFlushAndCompaction;
+
+    @Option(descriptionKey = "cache.size",
+            names = {"--cache-size"},
+            description = "Maximum number of entries in each traversal and logic cache of a database")
+    private Integer cacheSize;
+
+    @Option(descriptionKey = "cache.timeout-minutes",
+            names = {"--cache-timeout-minutes"},
+            description = "Minutes after which an unused entry of a traversal or logic cache expires")
+    private Integer cacheTimeoutMinutes;
+
+    @Option(descriptionKey = "cache.adjacency-size",
+            names = {"--cache-adjacency-size"},
+            description = "Maximum number of persisted edges cached across the read transactions of a database, 0 to disable")
+    private Long cacheAdjacencySize;
+
+    private Integer plannerExhaustiveMaxEdges;
+
     @Option(descriptionKey = "debug",
             names = {"--debug"},
             description = "Debug mode")
@@ -69,6 +131,20 @@ public class ServerOptions {
 
     public ServerOptions() {}
 
+    @Option(descriptionKey = "planner.exhaustive-max-edges",
+            names = {"--planner-exhaustive-max-edges"},
+            description = "Maximum number of edges of a query structure to be planned exhaustively, instead of by the solver, " +
+                    "at most " + MAX_PLANNER_EXHAUSTIVE_MAX_EDGES)
+    private void plannerExhaustiveMaxEdges(int plannerExhaustiveMaxEdges) {
+        if (plannerExhaustiveMaxEdges < 0 || plannerExhaustiveMaxEdges > MAX_PLANNER_EXHAUSTIVE_MAX_EDGES) {
+            throw new ParameterException(spec.commandLine(), String.format(
+                    "Invalid value '%s' for option '--planner-exhaustive-max-edges': must be between 0 and %s.",
+                    plannerExhaustiveMaxEdges, MAX_PLANNER_EXHAUSTIVE_MAX_EDGES
+            ));
+        }
+        this.plannerExhaustiveMaxEdges = plannerExhaustiveMaxEdges;
+    }
+
     public Path dataDir() {
         if (data == null) return ServerDefaults.DATA_DIR;
         return Paths.get(data).isAbsolute()
@@ -99,4 +175,22 @@ public class ServerOptions {
     public String grablToken() {
         return grablToken;
     }
+
+    public Options.Database databaseOptions() {
+        final Options.Database options = new Options.Database();
+        if (storageBlockCacheSize != null) options.storageBlockCacheSize(storageBlockCacheSize);
+        if (storageWriteBufferSize != null) options.storageWriteBufferSize(storageWriteBufferSize);
+        if (storageMaxWriteBufferNumber != null) options.storageMaxWriteBufferNumber(storageMaxWriteBufferNumber);
+        if (storageMaxBackgroundJobs != null) options.storageMaxBackgroundJobs(storageMaxBackgroundJobs);
+        if (storageCompactionStyle != null) options.storageCompactionStyle(storageCompactionStyle);
+        if (storageRateLimitBytesPerSecond != null) options.storageRateLimitBytesPerSecond(storageRateLimitBytesPerSecond);
+        if (storageDirectIOForFlushAndCompaction != null) {
+            options.storageDirectIOForFlushAndCompaction(storageDirectIOForFlushAndCompaction);
+        }
+        if (cacheSize != null) options.cacheSize(cacheSize);
+        if (cacheTimeoutMinutes != null) options.cacheTimeoutMinutes(cacheTimeoutMinutes);
+        if (cacheAdjacencySize != null) options.cacheAdjacencySize(cacheAdjacencySize);
+        if (plannerExhaustiveMaxEdges != null) options.plannerExhaustiveMaxEdges(plannerExhaustiveMaxEdges);
+        return options;
+    }
 }
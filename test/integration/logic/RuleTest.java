@@ -25,6 +25,8 @@ import grakn.core.concept.type.EntityType;
 import grakn.core.concept.type.RelationType;
 import grakn.core.logic.concludable.ConjunctionConcludable;
 import grakn.core.logic.concludable.ThenConcludable;
+import grakn.core.pattern.Conjunction;
+import grakn.core.pattern.Disjunction;
 import grakn.core.rocks.RocksGrakn;
 import grakn.core.test.integration.util.Util;
 import graql.lang.Graql;
@@ -35,6 +37,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Set;
 
+import static java.util.stream.Collectors.toSet;
 import static junit.framework.TestCase.assertEquals;
 
 public class RuleTest {
@@ -201,4 +204,53 @@ public class RuleTest {
             }
         }
     }
+
+    @Test
+    public void applicable_rules_are_looked_up_by_the_types_they_conclude() throws IOException {
+        Util.resetDirectory(directory);
+
+        try (Grakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (Grakn.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    final ConceptManager conceptMgr = txn.concepts();
+                    final LogicManager logicMgr = txn.logic();
+
+                    final EntityType person = conceptMgr.putEntityType("person");
+                    final RelationType friendship = conceptMgr.putRelationType("friendship");
+                    friendship.setRelates("friend");
+                    final RelationType marriage = conceptMgr.putRelationType("marriage");
+                    marriage.setRelates("spouse");
+                    person.setPlays(friendship.getRelates("friend"));
+                    person.setPlays(marriage.getRelates("spouse"));
+                    logicMgr.putRule(
+                            "marriage-is-friendship",
+                            Graql.parsePattern("{$x isa person; $y isa person; (spouse: $x, spouse: $y) isa marriage; }").asConjunction(),
+                            Graql.parseVariable("(friend: $x, friend: $y) isa friendship").asThing());
+
+                    assertEquals(1, applicableRules(logicMgr, "{ $f isa friendship; }").size());
+                    assertEquals(0, applicableRules(logicMgr, "{ $p isa person; }").size());
+                    txn.commit();
+                }
+                try (Grakn.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    final LogicManager logicMgr = txn.logic();
+                    assertEquals(1, applicableRules(logicMgr, "{ $f isa friendship; }").size());
+
+                    logicMgr.getRule("marriage-is-friendship").delete();
+                    assertEquals(0, applicableRules(logicMgr, "{ $f isa friendship; }").size());
+                    txn.commit();
+                }
+                try (Grakn.Transaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(0, applicableRules(txn.logic(), "{ $f isa friendship; }").size());
+                }
+            }
+        }
+    }
+
+    private Set<Rule> applicableRules(LogicManager logicMgr, String pattern) {
+        Conjunction conjunction = Disjunction.create(Graql.parsePattern(pattern).asConjunction().normalise())
+                .conjunctions().iterator().next();
+        return ConjunctionConcludable.create(conjunction).stream()
+                .flatMap(concludable -> logicMgr.applicableRules(concludable).stream()).collect(toSet());
+    }
 }
@@ -0,0 +1,558 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.reasoner;
+
+import grakn.common.concurrent.actor.Actor;
+import grakn.core.common.concurrent.ExecutorService;
+import grakn.core.common.exception.GraknException;
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.common.parameters.Options;
+import grakn.core.concept.Concept;
+import grakn.core.concept.ConceptManager;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.thing.Relation;
+import grakn.core.concept.thing.Thing;
+import grakn.core.concept.type.EntityType;
+import grakn.core.concept.type.RelationType;
+import grakn.core.concept.type.RoleType;
+import grakn.core.logic.concludable.ConjunctionConcludable;
+import grakn.core.pattern.Conjunction;
+import grakn.core.pattern.Disjunction;
+import grakn.core.reasoner.resolution.AnswerTables;
+import grakn.core.reasoner.resolution.ResolverRegistry;
+import grakn.core.reasoner.resolution.framework.Resolver;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import grakn.core.test.integration.util.Util;
+import graql.lang.Graql;
+import graql.lang.pattern.variable.Reference;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static grakn.common.collection.Collections.list;
+import static grakn.core.common.parameters.Arguments.Session.Type.DATA;
+import static grakn.core.common.parameters.Arguments.Session.Type.SCHEMA;
+import static grakn.core.common.parameters.Arguments.Transaction.Type.READ;
+import static grakn.core.common.parameters.Arguments.Transaction.Type.WRITE;
+import static grakn.core.common.producer.Producers.buffer;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ResolutionTest {
+
+    private static Path directory = Paths.get(System.getProperty("user.dir")).resolve("resolution-test");
+    private static String database = "resolution-test";
+    private static String recursionDatabase = "resolution-test-recursion";
+    private static RocksGrakn grakn;
+
+    private static final RelationRule MARRIAGE_IS_FRIENDSHIP = new RelationRule(
+            "marriage-is-friendship", "$x isa person; $y isa person; (spouse: $x, spouse: $y) isa marriage;",
+            "friendship", "friend", "x", "friend", "y"
+    );
+    private static final String FRIENDS = "{ $f (friend: $x, friend: $y) isa friendship; }";
+    private static final List<RelationRule> RECURSIVE_RULES = list(
+            new RelationRule("link-is-reachable", "(from: $x, to: $y) isa link;",
+                             "reachable", "from", "x", "to", "y"),
+            new RelationRule("reachable-is-transitive", "(from: $x, to: $y) isa reachable; (from: $y, to: $z) isa reachable;",
+                             "reachable", "from", "x", "to", "z"),
+            new RelationRule("reachable-is-connected", "(from: $x, to: $y) isa reachable;",
+                             "connection", "endpoint", "x", "endpoint", "y")
+    );
+
+    @BeforeClass
+    public static void before() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(database);
+
+        try (RocksSession session = grakn.session(database, SCHEMA)) {
+            try (RocksTransaction txn = session.transaction(WRITE)) {
+                ConceptManager conceptMgr = txn.concepts();
+                EntityType person = conceptMgr.putEntityType("person");
+                RelationType friendship = conceptMgr.putRelationType("friendship");
+                friendship.setRelates("friend");
+                RelationType marriage = conceptMgr.putRelationType("marriage");
+                marriage.setRelates("spouse");
+                person.setPlays(friendship.getRelates("friend"));
+                person.setPlays(marriage.getRelates("spouse"));
+                MARRIAGE_IS_FRIENDSHIP.put(txn);
+                txn.commit();
+            }
+        }
+
+        try (RocksSession session = grakn.session(database, DATA)) {
+            try (RocksTransaction txn = session.transaction(WRITE)) {
+                txn.query().insert(Graql.parseQuery(
+                        "insert $a isa person; $b isa person; $c isa person; $d isa person; $e isa person;" +
+                                "(spouse: $a, spouse: $b) isa marriage;" +
+                                "(spouse: $c, spouse: $d) isa marriage;" +
+                                "(friend: $a, friend: $b) isa friendship;" +
+                                "(friend: $d, friend: $e) isa friendship;"
+                ).asInsert());
+                txn.commit();
+            }
+        }
+
+        grakn.databases().create(recursionDatabase);
+        try (RocksSession session = grakn.session(recursionDatabase, SCHEMA)) {
+            try (RocksTransaction txn = session.transaction(WRITE)) {
+                ConceptManager conceptMgr = txn.concepts();
+                EntityType node = conceptMgr.putEntityType("node");
+                for (String relation : list("link", "reachable")) {
+                    RelationType relationType = conceptMgr.putRelationType(relation);
+                    relationType.setRelates("from");
+                    relationType.setRelates("to");
+                    node.setPlays(relationType.getRelates("from"));
+                    node.setPlays(relationType.getRelates("to"));
+                }
+                RelationType connection = conceptMgr.putRelationType("connection");
+                connection.setRelates("endpoint");
+                node.setPlays(connection.getRelates("endpoint"));
+                RECURSIVE_RULES.forEach(rule -> rule.put(txn));
+                txn.commit();
+            }
+        }
+
+        try (RocksSession session = grakn.session(recursionDatabase, DATA)) {
+            try (RocksTransaction txn = session.transaction(WRITE)) {
+                txn.query().insert(Graql.parseQuery(
+                        "insert $a isa node; $b isa node; $c isa node; $d isa node; $e isa node; $f isa node;" +
+                                "(from: $a, to: $b) isa link;" +
+                                "(from: $b, to: $c) isa link;" +
+                                "(from: $c, to: $d) isa link;" +
+                                "(from: $d, to: $b) isa link;" +
+                                "(from: $e, to: $f) isa link;"
+                ).asInsert());
+                txn.commit();
+            }
+        }
+    }
+
+    @AfterClass
+    public static void after() {
+        grakn.close();
+    }
+
+    @Test
+    public void inferred_answers_match_forward_chaining() {
+        Set<Set<String>> expectedFriends;
+        long expectedFriendships;
+        try (RocksSession session = grakn.session(database, DATA)) {
+            try (RocksTransaction txn = session.transaction(WRITE)) {
+                forwardChain(txn, list(MARRIAGE_IS_FRIENDSHIP));
+                expectedFriends = friends(txn.query().match(Graql.parseQuery("match " + FRIENDS).asMatch()).toList());
+                expectedFriendships = txn.query().match(Graql.parseQuery("match $f isa friendship;").asMatch()).toList().size();
+                // the transaction is closed without committing the concepts concluded by forward chaining
+            }
+
+            try (RocksTransaction txn = session.transaction(READ, infer())) {
+                Reasoner reasoner = new Reasoner(txn.concepts(), txn.traversal(), txn.logic(), txn.context());
+                List<ConceptMap> friendships = reasoner.execute(disjunction("{ $f isa friendship; }")).toList();
+                assertEquals(expectedFriendships, friendships.size());
+                assertEquals(expectedFriendships, new HashSet<>(friendships).size());
+                assertTrue(friendships.stream().anyMatch(answer -> answer.get("f").asThing().isInferred()));
+                assertEquals(expectedFriends, friends(reasoner.execute(disjunction(FRIENDS)).toList()));
+            }
+
+            try (RocksTransaction txn = session.transaction(READ)) {
+                assertEquals(2, txn.query().match(Graql.parseQuery("match $f isa friendship;").asMatch()).toList().size());
+            }
+        }
+    }
+
+    @Test
+    public void inferred_answers_are_resolved_unless_inference_is_disabled() {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            try (RocksTransaction txn = session.transaction(READ)) {
+                Reasoner reasoner = new Reasoner(txn.concepts(), txn.traversal(), txn.logic(), txn.context());
+                List<ConceptMap> friendships = reasoner.execute(disjunction("{ $f isa friendship; }")).toList();
+                assertTrue(friendships.stream().anyMatch(answer -> answer.get("f").asThing().isInferred()));
+            }
+            try (RocksTransaction txn = session.transaction(READ, new Options.Transaction().infer(false))) {
+                Reasoner reasoner = new Reasoner(txn.concepts(), txn.traversal(), txn.logic(), txn.context());
+                List<ConceptMap> friendships = reasoner.execute(disjunction("{ $f isa friendship; }")).toList();
+                assertEquals(2, friendships.size());
+                assertTrue(friendships.stream().noneMatch(answer -> answer.get("f").asThing().isInferred()));
+            }
+            try (RocksTransaction txn = session.transaction(READ, new Options.Transaction().infer(false))) {
+                Reasoner reasoner = new Reasoner(txn.concepts(), txn.traversal(), txn.logic(), txn.context());
+                List<ConceptMap> friendships = reasoner.execute(disjunction("{ $f isa friendship; }"),
+                                                                new Options.Query().infer(true)).toList();
+                assertTrue(friendships.stream().anyMatch(answer -> answer.get("f").asThing().isInferred()));
+            }
+        }
+    }
+
+    @Test
+    public void queries_without_inference_do_not_answer_with_concepts_inferred_before_them() {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            Set<Set<String>> stored;
+            try (RocksTransaction txn = session.transaction(READ)) {
+                stored = friends(txn.query().match(Graql.parseQuery("match " + FRIENDS).asMatch()).toList());
+            }
+            try (RocksTransaction txn = session.transaction(READ, infer())) {
+                Reasoner reasoner = new Reasoner(txn.concepts(), txn.traversal(), txn.logic(), txn.context());
+                List<ConceptMap> inferred = reasoner.execute(disjunction(FRIENDS)).toList();
+                assertTrue(inferred.stream().anyMatch(answer -> answer.get("f").asThing().isInferred()));
+                assertNotEquals(stored, friends(inferred));
+
+                // the inferred concepts are still in the transaction, but only the reasoner traverses them
+                List<ConceptMap> friendships = reasoner.execute(disjunction(FRIENDS), new Options.Query().infer(false)).toList();
+                assertTrue(friendships.stream().noneMatch(answer -> answer.get("f").asThing().isInferred()));
+                assertEquals(stored, friends(friendships));
+                assertEquals(stored, friends(txn.query().match(Graql.parseQuery("match " + FRIENDS).asMatch()).toList()));
+                assertEquals(2, txn.query().match(Graql.parseQuery("match $f isa friendship;").asMatch()).toList().size());
+
+                // materialising the inferred concepts did not modify the graph
+                assertTrue(txn.traversal().graph().data().hasInferred());
+                assertFalse(txn.traversal().graph().data().isModified());
+            }
+        }
+    }
+
+    @Test
+    public void repeated_inferred_queries_reuse_completed_answer_tables() {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            try (RocksTransaction txn = session.transaction(READ, infer())) {
+                ResolverRegistry registry = registry(txn);
+                AnswerTables.Subgoal subgoal = registry.answerTables().subgoal(concludable("{ $r isa friendship; }"));
+                assertNull(subgoal.completed(new ConceptMap()));
+
+                Set<ConceptMap> friendships = new HashSet<>(resolve("{ $f isa friendship; }", registry));
+                AnswerTables.Table table = subgoal.completed(new ConceptMap());
+                assertNotNull(table);
+                long materialisations = registry.materialisations();
+
+                Set<ConceptMap> renamed = new HashSet<>(resolve("{ $r isa friendship; }", registry));
+                // the renamed query is answered from the completed table, without materialising any conclusion again
+                assertSame(table, subgoal.completed(new ConceptMap()));
+                assertEquals(materialisations, registry.materialisations());
+                assertEquals(friendships.size(), renamed.size());
+                assertEquals(friendships.stream().map(answer -> answer.get("f")).collect(toSet()),
+                             renamed.stream().map(answer -> answer.get("r")).collect(toSet()));
+            }
+        }
+    }
+
+    @Test
+    public void batched_resolution_returns_the_same_answers_as_unbatched_resolution() {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            Set<ConceptMap> unbatched;
+            try (RocksTransaction txn = session.transaction(READ, infer())) {
+                Reasoner reasoner = new Reasoner(txn.concepts(), txn.traversal(), txn.logic(), txn.context());
+                unbatched = new HashSet<>(reasoner.execute(disjunction("{ (friend: $x, friend: $y) isa friendship; }"),
+                                                           new Options.Query().resolverBatchSize(1)).toList());
+            }
+            try (RocksTransaction txn = session.transaction(READ, infer())) {
+                Reasoner reasoner = new Reasoner(txn.concepts(), txn.traversal(), txn.logic(), txn.context());
+                List<ConceptMap> batched = reasoner.execute(disjunction("{ (friend: $x, friend: $y) isa friendship; }"),
+                                                            new Options.Query().resolverBatchSize(4)).toList();
+                assertEquals(unbatched.size(), batched.size());
+                assertEquals(unbatched, new HashSet<>(batched));
+            }
+        }
+    }
+
+    @Test
+    public void bounded_resolution_returns_the_same_answers_as_unbounded_resolution() throws Exception {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            Set<ConceptMap> unbounded;
+            try (RocksTransaction txn = session.transaction(READ, infer())) {
+                Reasoner reasoner = new Reasoner(txn.concepts(), txn.traversal(), txn.logic(), txn.context());
+                unbounded = new HashSet<>(reasoner.execute(disjunction("{ (friend: $x, friend: $y) isa friendship; }")).toList());
+            }
+            try (RocksTransaction txn = session.transaction(READ, infer())) {
+                ResolverRegistry registry = new ResolverRegistry(ExecutorService.eventLoopGroup(), txn.traversal(), txn.concepts(),
+                                                                 txn.logic(), 1);
+                Conjunction conjunction = disjunction("{ (friend: $x, friend: $y) isa friendship; }").conjunctions().iterator().next();
+                ReasonerProducer producer = new ReasonerProducer(conjunction, registry, Options.DEFAULT_RESOLVER_BATCH_SIZE, 1);
+                List<ConceptMap> bounded = buffer(producer).iterator().toList();
+                assertEquals(unbounded.size(), bounded.size());
+                assertEquals(unbounded, new HashSet<>(bounded));
+
+                // no more requests were pending than allowed, and every resolver evicted the state of its exhausted
+                // requests, while remembering no more completed requests than allowed
+                assertEquals(1, producer.pendingHighWaterMark());
+                assertFalse(registry.resolvers().isEmpty());
+                for (Actor<? extends Resolver<?>> resolver : registry.resolvers()) {
+                    CompletableFuture<List<Integer>> state = new CompletableFuture<>();
+                    resolver.tell(actor -> state.complete(list(actor.activeRequests(), actor.completedRequests())));
+                    assertEquals(0, (int) state.get().get(0));
+                    assertTrue(state.get().get(1) <= 1);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void failed_resolvers_fail_the_queries_they_resolve() {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            try (RocksTransaction txn = session.transaction(READ, infer())) {
+                ResolverRegistry registry = new ResolverRegistry(ExecutorService.eventLoopGroup(), txn.traversal(), txn.concepts(),
+                                                                 txn.logic(), Options.DEFAULT_RESOLVER_MAX_COMPLETED_REQUESTS);
+                registry.terminate(new IllegalStateException("resolver failed"));
+                Conjunction conjunction = disjunction("{ $f isa friendship; }").conjunctions().iterator().next();
+                ResourceIterator<ConceptMap> answers = buffer(new ReasonerProducer(conjunction, registry, 1, 1)).iterator();
+                try {
+                    answers.hasNext();
+                    fail();
+                } catch (GraknException e) {
+                    assertEquals("resolver failed", e.getCause().getMessage());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void single_concludable_matches_forward_chaining() {
+        assertInferredAnswersMatchForwardChaining("(from: $x, to: $y) isa link;", list("x", "y"));
+    }
+
+    @Test
+    public void joined_concludables_match_forward_chaining() {
+        assertInferredAnswersMatchForwardChaining("(from: $x, to: $y) isa link; (from: $y, to: $z) isa link;",
+                                                  list("x", "y", "z"));
+    }
+
+    @Test
+    public void concludables_joined_with_no_answers_match_forward_chaining() {
+        assertInferredAnswersMatchForwardChaining("(from: $x, to: $y) isa reachable; (from: $x, to: $x) isa link;",
+                                                  list("x", "y"));
+    }
+
+    @Test
+    public void recursive_rules_match_forward_chaining() {
+        assertInferredAnswersMatchForwardChaining("(from: $x, to: $y) isa reachable;", list("x", "y"));
+    }
+
+    @Test
+    public void recursive_rules_joined_with_concludables_match_forward_chaining() {
+        assertInferredAnswersMatchForwardChaining("(from: $x, to: $y) isa reachable; (from: $y, to: $z) isa link;",
+                                                  list("x", "y", "z"));
+    }
+
+    @Test
+    public void rules_chained_over_recursive_rules_match_forward_chaining() {
+        assertInferredAnswersMatchForwardChaining("(endpoint: $x, endpoint: $y) isa connection;", list("x", "y"));
+    }
+
+    @Test
+    public void identical_requests_sent_downstream_for_different_requests_match_forward_chaining() {
+        // the concludable that is joined second receives a request for each answer of the first, with the same path, and
+        // sends an identical request to each of its rules for every one of them, which must each be answered
+        String pattern = "(from: $x, to: $y) isa reachable; (from: $y, to: $z) isa reachable;";
+        try (RocksSession session = grakn.session(recursionDatabase, DATA)) {
+            Set<Map<String, String>> expected = expected(session, pattern, list("x", "y", "z"));
+            try (RocksTransaction txn = session.transaction(READ, infer())) {
+                Reasoner reasoner = new Reasoner(txn.concepts(), txn.traversal(), txn.logic(), txn.context());
+                List<ConceptMap> answers = reasoner.execute(disjunction("{ " + pattern + " }"),
+                                                            new Options.Query().resolverBatchSize(1)).toList();
+                assertEquals(expected, project(answers, list("x", "y", "z")));
+            }
+        }
+    }
+
+    @Test
+    public void recursive_rules_match_forward_chaining_when_repeated() {
+        try (RocksSession session = grakn.session(recursionDatabase, DATA)) {
+            Set<Map<String, String>> expected = expected(session, "(from: $x, to: $y) isa reachable;", list("x", "y"));
+            try (RocksTransaction txn = session.transaction(READ, infer())) {
+                Reasoner reasoner = new Reasoner(txn.concepts(), txn.traversal(), txn.logic(), txn.context());
+                for (int i = 0; i < 3; i++) {
+                    List<ConceptMap> answers = reasoner.execute(disjunction("{ (from: $x, to: $y) isa reachable; }")).toList();
+                    assertEquals(expected, project(answers, list("x", "y")));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void answer_tables_of_recursive_rules_are_completed_at_their_fixpoint() {
+        try (RocksSession session = grakn.session(recursionDatabase, DATA)) {
+            try (RocksTransaction txn = session.transaction(READ, infer())) {
+                ResolverRegistry registry = registry(txn);
+                List<ConceptMap> reachable = resolve("{ (from: $x, to: $y) isa reachable; }", registry);
+                assertFalse(reachable.isEmpty());
+
+                // the tables of the concludable that is joined second in the transitive rule depend on the rule itself, so they
+                // are only completed once the rule reaches a fixpoint, for every concept the other concludable bound them to
+                AnswerTables.Subgoal from = registry.answerTables().subgoal(concludable("{ (from: $y, to: $z) isa reachable; }"));
+                AnswerTables.Subgoal to = registry.answerTables().subgoal(concludable("{ (from: $x, to: $y) isa reachable; }"));
+                boolean isFromJoinedSecond = reachable.stream().allMatch(answer -> from.completed(bound("y", answer.get("y"))) != null);
+                boolean isToJoinedSecond = reachable.stream().allMatch(answer -> to.completed(bound("y", answer.get("x"))) != null);
+                assertTrue(isFromJoinedSecond || isToJoinedSecond);
+            }
+        }
+    }
+
+    /**
+     * Asserts that the answers to a pattern that the reasoner infers are the answers to the pattern in the graph,
+     * once every rule has been applied to the graph by forward chaining. The answers are only compared on the
+     * given variables, which must be answered by concepts that are in the graph before reasoning, as concepts
+     * that are inferred by the reasoner are distinct from the concepts that are concluded by forward chaining.
+     */
+    private static void assertInferredAnswersMatchForwardChaining(String pattern, List<String> variables) {
+        try (RocksSession session = grakn.session(recursionDatabase, DATA)) {
+            Set<Map<String, String>> expected = expected(session, pattern, variables);
+            try (RocksTransaction txn = session.transaction(READ, infer())) {
+                Reasoner reasoner = new Reasoner(txn.concepts(), txn.traversal(), txn.logic(), txn.context());
+                List<ConceptMap> answers = reasoner.execute(disjunction("{ " + pattern + " }")).toList();
+                assertEquals(expected, project(answers, variables));
+            }
+        }
+    }
+
+    private static Set<Map<String, String>> expected(RocksSession session, String pattern, List<String> variables) {
+        try (RocksTransaction txn = session.transaction(WRITE)) {
+            forwardChain(txn, RECURSIVE_RULES);
+            // the transaction is closed without committing the concepts concluded by forward chaining
+            return project(txn.query().match(Graql.parseQuery("match " + pattern).asMatch()).toList(), variables);
+        }
+    }
+
+    private static Set<Map<String, String>> project(List<ConceptMap> answers, List<String> variables) {
+        Set<Map<String, String>> projected = new HashSet<>();
+        for (ConceptMap answer : answers) {
+            Map<String, String> iids = new HashMap<>();
+            for (String variable : variables) iids.put(variable, Arrays.toString(answer.get(variable).asThing().getIID()));
+            projected.add(iids);
+        }
+        return projected;
+    }
+
+    /**
+     * Naively applies every rule to every answer of its condition, concluding its relation between the
+     * concepts of the answer that are not related by it yet, until no new relation can be concluded.
+     */
+    private static void forwardChain(RocksTransaction txn, List<RelationRule> rules) {
+        boolean isConcluded = true;
+        while (isConcluded) {
+            isConcluded = false;
+            for (RelationRule rule : rules) {
+                RelationType relationType = txn.concepts().getRelationType(rule.relation);
+                RoleType firstRole = relationType.getRelates(rule.firstRole);
+                RoleType secondRole = relationType.getRelates(rule.secondRole);
+                List<ConceptMap> conditions = txn.query().match(Graql.parseQuery("match " + rule.when).asMatch()).toList();
+                for (ConceptMap condition : conditions) {
+                    Thing first = condition.get(rule.firstPlayer).asThing();
+                    Thing second = condition.get(rule.secondPlayer).asThing();
+                    if (first.getRelations(firstRole).noneMatch(r -> r.getPlayers(secondRole).anyMatch(p -> p.equals(second)))) {
+                        Relation relation = relationType.create();
+                        relation.addPlayer(firstRole, first);
+                        relation.addPlayer(secondRole, second);
+                        isConcluded = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private static Set<Set<String>> friends(List<ConceptMap> answers) {
+        return answers.stream().map(answer -> set(answer.get("x").asThing(), answer.get("y").asThing())).collect(toSet());
+    }
+
+    private static Set<String> set(Thing x, Thing y) {
+        Set<String> players = new HashSet<>();
+        players.add(Arrays.toString(x.getIID()));
+        players.add(Arrays.toString(y.getIID()));
+        return players;
+    }
+
+    /**
+     * A rule that concludes a relation between two of the concepts that answer its condition.
+     */
+    private static class RelationRule {
+
+        private final String label;
+        private final String when;
+        private final String relation;
+        private final String firstRole;
+        private final String firstPlayer;
+        private final String secondRole;
+        private final String secondPlayer;
+
+        private RelationRule(String label, String when, String relation, String firstRole, String firstPlayer,
+                             String secondRole, String secondPlayer) {
+            this.label = label;
+            this.when = when;
+            this.relation = relation;
+            this.firstRole = firstRole;
+            this.firstPlayer = firstPlayer;
+            this.secondRole = secondRole;
+            this.secondPlayer = secondPlayer;
+        }
+
+        private void put(RocksTransaction txn) {
+            String then = "(" + firstRole + ": $" + firstPlayer + ", " + secondRole + ": $" + secondPlayer + ") isa " + relation;
+            txn.logic().putRule(label, Graql.parsePattern("{ " + when + " }").asConjunction(),
+                                Graql.parseVariable(then).asThing());
+        }
+    }
+
+    private static ResolverRegistry registry(RocksTransaction txn) {
+        return new ResolverRegistry(ExecutorService.eventLoopGroup(), txn.traversal(), txn.concepts(), txn.logic(),
+                                    Options.DEFAULT_RESOLVER_MAX_COMPLETED_REQUESTS);
+    }
+
+    private static List<ConceptMap> resolve(String pattern, ResolverRegistry registry) {
+        Conjunction conjunction = disjunction(pattern).conjunctions().iterator().next();
+        return buffer(new ReasonerProducer(conjunction, registry, Options.DEFAULT_RESOLVER_BATCH_SIZE,
+                                           Options.DEFAULT_RESOLVER_MAX_PENDING_REQUESTS)).iterator().toList();
+    }
+
+    private static ConceptMap bound(String variable, Concept concept) {
+        return new ConceptMap(Collections.singletonMap(Reference.named(variable), concept));
+    }
+
+    private static ConjunctionConcludable<?, ?> concludable(String pattern) {
+        Set<ConjunctionConcludable<?, ?>> concludables = ConjunctionConcludable.create(
+                disjunction(pattern).conjunctions().iterator().next());
+        assertEquals(1, concludables.size());
+        return concludables.iterator().next();
+    }
+
+    private static Options.Transaction infer() {
+        return new Options.Transaction().infer(true);
+    }
+
+    private static Disjunction disjunction(String pattern) {
+        return Disjunction.create(Graql.parsePattern(pattern).asConjunction().normalise());
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.rocks;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Options;
+import grakn.core.test.integration.util.Util;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static grakn.core.common.parameters.Arguments.Session.Type.DATA;
+import static grakn.core.common.parameters.Arguments.Transaction.Type.BULK;
+import static grakn.core.common.parameters.Arguments.Transaction.Type.READ;
+import static grakn.core.common.parameters.Arguments.Transaction.Type.WRITE;
+import static graql.lang.Graql.parseQuery;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class RocksAdjacencyCacheTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("rocks-adjacency-cache-test");
+    private static final String database = "rocks-adjacency-cache-test";
+    private static final String FRIENDS_OF_ALICE = "match $x isa person, has name 'alice'; (friend: $x, friend: $y) isa friendship;";
+
+    private RocksGrakn grakn;
+
+    @Before
+    public void before() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory, new Options.Database().cacheAdjacencySize(10_000));
+        grakn.databases().create(database);
+
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction transaction = session.transaction(WRITE)) {
+                transaction.query().define(parseQuery(
+                        "define name sub attribute, value string; " +
+                                "person sub entity, owns name, plays friendship:friend; " +
+                                "friendship sub relation, relates friend;"
+                ).asDefine());
+                transaction.commit();
+            }
+        }
+        try (RocksSession session = grakn.session(database, DATA)) {
+            try (RocksTransaction transaction = session.transaction(WRITE)) {
+                transaction.query().insert(parseQuery(
+                        "insert $x isa person, has name 'alice'; $y isa person; (friend: $x, friend: $y) isa friendship;"
+                ).asInsert());
+                transaction.commit();
+            }
+        }
+    }
+
+    @After
+    public void after() {
+        grakn.close();
+    }
+
+    private static int friendsOfAlice(RocksTransaction transaction) {
+        return transaction.query().match(parseQuery(FRIENDS_OF_ALICE).asMatch()).toList().size();
+    }
+
+    private static void befriendAlice(RocksSession session, Arguments.Transaction.Type type) {
+        try (RocksTransaction transaction = session.transaction(type)) {
+            transaction.query().insert(parseQuery(
+                    "match $x isa person, has name 'alice'; insert $y isa person; (friend: $x, friend: $y) isa friendship;"
+            ).asInsert()).toList();
+            transaction.commit();
+        }
+    }
+
+    /**
+     * Reads the friends of alice in a new read transaction twice, so that the second read is served by the
+     * adjacency cache, if the first read cached them.
+     */
+    private static void assertFriendsOfAlice(RocksSession session, int expected) {
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            assertEquals(expected, friendsOfAlice(transaction));
+        }
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            assertEquals(expected, friendsOfAlice(transaction));
+        }
+    }
+
+    @Test
+    public void reads_after_a_commit_see_the_edges_it_wrote() {
+        RocksDatabase.Cache cache = grakn.databases().get(database).borrowCache();
+        assertNotNull(cache.adjacency());
+        grakn.databases().get(database).unborrowCache(cache);
+
+        try (RocksSession session = grakn.session(database, DATA)) {
+            assertFriendsOfAlice(session, 1);
+            befriendAlice(session, WRITE);
+            assertFriendsOfAlice(session, 2);
+
+            try (RocksTransaction transaction = session.transaction(WRITE)) {
+                transaction.query().delete(parseQuery(
+                        "match $x isa person, has name 'alice'; $f (friend: $x, friend: $y) isa friendship; delete $f isa friendship;"
+                ).asDelete());
+                transaction.commit();
+            }
+            assertFriendsOfAlice(session, 0);
+        }
+    }
+
+    @Test
+    public void reads_after_a_bulk_commit_see_the_edges_it_wrote() {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            assertFriendsOfAlice(session, 1);
+            befriendAlice(session, BULK);
+            assertFriendsOfAlice(session, 2);
+            befriendAlice(session, BULK);
+            assertFriendsOfAlice(session, 3);
+        }
+    }
+
+    @Test
+    public void reads_opened_before_a_commit_do_not_cache_stale_edges_for_later_reads() {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            try (RocksTransaction before = session.transaction(READ)) {
+                befriendAlice(session, WRITE);
+                // the earlier transaction reads its own snapshot, which must not be served to later transactions
+                assertEquals(1, friendsOfAlice(before));
+                assertEquals(1, friendsOfAlice(before));
+                assertFriendsOfAlice(session, 2);
+            }
+            try (RocksTransaction before = session.transaction(READ)) {
+                befriendAlice(session, BULK);
+                assertEquals(2, friendsOfAlice(before));
+                assertFriendsOfAlice(session, 3);
+            }
+        }
+    }
+}
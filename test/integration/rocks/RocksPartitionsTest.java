@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.rocks;
+
+import grakn.core.common.parameters.Options;
+import grakn.core.graph.util.Encoding;
+import grakn.core.test.integration.util.Util;
+import org.junit.Before;
+import org.junit.Test;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.OptimisticTransactionDB;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static grakn.core.common.collection.Bytes.join;
+import static grakn.core.graph.util.Encoding.Prefix.SYSTEM_SCHEMA_VERSION;
+import static grakn.core.graph.util.Encoding.Prefix.VERTEX_ENTITY;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class RocksPartitionsTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("rocks-partitions-test");
+    private static final byte[] THING_KEY = join(VERTEX_ENTITY.bytes(), new byte[]{0, 1, 0, 0, 0, 0, 0, 0, 0, 1});
+    private static final byte[] SYSTEM_KEY = SYSTEM_SCHEMA_VERSION.bytes();
+    private static final byte[] VALUE = new byte[]{42};
+
+    @Before
+    public void before() throws IOException {
+        RocksDB.loadLibrary();
+        Util.resetDirectory(directory);
+    }
+
+    @Test
+    public void keys_of_unpartitioned_databases_are_moved_to_their_partitions() throws RocksDBException {
+        try (org.rocksdb.Options options = new org.rocksdb.Options().setCreateIfMissing(true);
+             RocksDB unpartitioned = RocksDB.open(options, directory.toString())) {
+            unpartitioned.put(THING_KEY, VALUE);
+            unpartitioned.put(SYSTEM_KEY, VALUE);
+        }
+
+        RocksPartitions.Config config = new RocksPartitions.Config(new Options.Database());
+        List<ColumnFamilyHandle> handles = new ArrayList<>();
+        try (OptimisticTransactionDB rocksDB = OptimisticTransactionDB.open(
+                config.dbOptions(), directory.toString(), config.descriptors(), handles)) {
+            RocksPartitions partitions = RocksPartitions.of(handles);
+            ColumnFamilyHandle defaultHandle = partitions.handle(Encoding.Partition.DEFAULT);
+
+            assertEquals(1, partitions.migrate(rocksDB));
+            assertArrayEquals(VALUE, rocksDB.get(partitions.handle(Encoding.Partition.THING), THING_KEY));
+            assertNull(rocksDB.get(defaultHandle, THING_KEY));
+            assertArrayEquals(VALUE, rocksDB.get(defaultHandle, SYSTEM_KEY));
+            assertArrayEquals(VALUE, rocksDB.get(partitions.handle(THING_KEY), THING_KEY));
+
+            assertEquals(0, partitions.migrate(rocksDB));
+            partitions.close();
+        } finally {
+            config.close();
+        }
+    }
+
+    @Test
+    public void singly_partitioned_storage_is_not_migrated() throws RocksDBException {
+        try (org.rocksdb.Options options = new org.rocksdb.Options().setCreateIfMissing(true);
+             OptimisticTransactionDB rocksDB = OptimisticTransactionDB.open(options, directory.toString())) {
+            rocksDB.put(THING_KEY, VALUE);
+            RocksPartitions partitions = RocksPartitions.single(rocksDB.getDefaultColumnFamily());
+            assertEquals(0, partitions.migrate(rocksDB));
+            assertArrayEquals(VALUE, rocksDB.get(THING_KEY));
+        }
+    }
+}
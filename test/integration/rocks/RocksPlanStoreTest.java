@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.rocks;
+
+import grakn.core.test.integration.util.Util;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.rocksdb.OptimisticTransactionDB;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static grakn.core.common.collection.Bytes.join;
+import static grakn.core.common.collection.Bytes.longToSortedBytes;
+import static grakn.core.graph.util.Encoding.Prefix.SYSTEM_PLAN;
+import static grakn.core.graph.util.Encoding.Prefix.SYSTEM_SCHEMA_VERSION;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class RocksPlanStoreTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("rocks-plan-store-test");
+    private static final byte[] FINGERPRINT = new byte[]{1, 2, 3};
+    private static final byte[] PLAN = new byte[]{4, 5, 6};
+
+    private Options options;
+    private OptimisticTransactionDB rocksSchema;
+
+    @Before
+    public void before() throws IOException, RocksDBException {
+        RocksDB.loadLibrary();
+        Util.resetDirectory(directory);
+        options = new Options().setCreateIfMissing(true);
+        rocksSchema = OptimisticTransactionDB.open(options, directory.toString());
+    }
+
+    @After
+    public void after() {
+        rocksSchema.close();
+        options.close();
+    }
+
+    private void changeSchemaVersion(long version) throws RocksDBException {
+        rocksSchema.put(SYSTEM_SCHEMA_VERSION.bytes(), longToSortedBytes(version));
+    }
+
+    private static byte[] key(long version) {
+        return join(SYSTEM_PLAN.bytes(), longToSortedBytes(version), FINGERPRINT);
+    }
+
+    @Test
+    public void plans_are_loaded_by_a_new_store_of_the_same_schema_version() throws RocksDBException {
+        RocksPlanStore store = new RocksPlanStore(rocksSchema, 16);
+        assertEquals(0, store.version());
+        store.put(store.version(), FINGERPRINT, PLAN);
+        assertArrayEquals(PLAN, store.get(FINGERPRINT));
+        store.close();
+
+        RocksPlanStore reopened = new RocksPlanStore(rocksSchema, 16);
+        assertNull(reopened.get(FINGERPRINT));
+        reopened.load();
+        assertArrayEquals(PLAN, reopened.get(FINGERPRINT));
+        reopened.close();
+    }
+
+    @Test
+    public void plans_of_a_previous_schema_version_are_neither_served_nor_written() throws RocksDBException {
+        RocksPlanStore store = new RocksPlanStore(rocksSchema, 16);
+        long staleVersion = store.version();
+        store.put(staleVersion, FINGERPRINT, PLAN);
+
+        changeSchemaVersion(staleVersion + 1);
+        store.schemaChanged();
+        assertEquals(staleVersion + 1, store.version());
+        assertNull(store.get(FINGERPRINT));
+
+        // a planner created before the schema changed finishes planning afterwards
+        store.put(staleVersion, FINGERPRINT, PLAN);
+        assertNull(store.get(FINGERPRINT));
+        store.flush();
+        assertNull(rocksSchema.get(key(staleVersion + 1)));
+
+        store.put(store.version(), FINGERPRINT, PLAN);
+        assertArrayEquals(PLAN, store.get(FINGERPRINT));
+        store.flush();
+        assertNotNull(rocksSchema.get(key(staleVersion + 1)));
+        store.close();
+    }
+
+    @Test
+    public void plans_of_a_previous_schema_version_are_deleted_on_load() throws RocksDBException {
+        RocksPlanStore store = new RocksPlanStore(rocksSchema, 16);
+        store.put(store.version(), FINGERPRINT, PLAN);
+        store.close();
+        assertNotNull(rocksSchema.get(key(0)));
+
+        changeSchemaVersion(1);
+        RocksPlanStore reopened = new RocksPlanStore(rocksSchema, 16);
+        reopened.load();
+        assertNull(reopened.get(FINGERPRINT));
+        assertNull(rocksSchema.get(key(0)));
+        reopened.close();
+    }
+
+    @Test
+    public void plans_evicted_from_memory_are_deleted_from_storage() throws RocksDBException {
+        RocksPlanStore store = new RocksPlanStore(rocksSchema, 4);
+        for (byte i = 0; i < 16; i++) store.put(store.version(), new byte[]{i}, PLAN);
+        store.flush();
+        int stored = 0;
+        for (byte i = 0; i < 16; i++) {
+            if (rocksSchema.get(join(SYSTEM_PLAN.bytes(), longToSortedBytes(0), new byte[]{i})) != null) stored++;
+        }
+        assertEquals(4, stored);
+        store.close();
+    }
+
+    @Test
+    public void closed_store_does_not_write_plans() throws RocksDBException {
+        RocksPlanStore store = new RocksPlanStore(rocksSchema, 16);
+        store.close();
+        store.put(store.version(), FINGERPRINT, PLAN);
+        assertNull(store.get(FINGERPRINT));
+        assertNull(rocksSchema.get(key(0)));
+    }
+}
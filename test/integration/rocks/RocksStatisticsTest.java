@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.rocks;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Options;
+import grakn.core.graph.SchemaGraph;
+import grakn.core.graph.iid.VertexIID;
+import grakn.core.test.integration.util.Util;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.function.Function;
+
+import static grakn.core.common.collection.Bytes.join;
+import static grakn.core.common.parameters.Arguments.Session.Type.DATA;
+import static grakn.core.common.parameters.Arguments.Transaction.Type.READ;
+import static grakn.core.common.parameters.Arguments.Transaction.Type.WRITE;
+import static grakn.core.graph.util.Encoding.Direction.Edge.BACKWARD;
+import static grakn.core.graph.util.Encoding.Direction.Edge.FORWARD;
+import static grakn.core.graph.util.Encoding.Edge.Thing.HAS;
+import static grakn.core.graph.util.Encoding.Edge.Thing.ROLEPLAYER;
+import static grakn.core.graph.util.Encoding.Prefix.STATISTICS_COUNTED;
+import static grakn.core.graph.util.Encoding.Prefix.STATISTICS_THINGS;
+import static grakn.core.graph.util.Encoding.Prefix.VERTEX_ROLE;
+import static grakn.core.graph.util.Encoding.StatisticsInfix.THING_EDGE_COUNT;
+import static grakn.core.graph.util.Encoding.StatisticsInfix.THING_EDGE_HEAVY_HITTERS;
+import static grakn.core.graph.util.StatisticsBytes.thingEdgesBackfillCursorKey;
+import static graql.lang.Graql.parseQuery;
+import static org.junit.Assert.assertEquals;
+
+public class RocksStatisticsTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("rocks-statistics-test");
+    private static final String database = "rocks-statistics-test";
+    private static final long COUNTING_TIMEOUT_MILLIS = 10_000;
+    // the index of the statistics infix in the keys of the statistics of a type
+    private static final int TYPE_STATISTICS_INFIX = STATISTICS_THINGS.bytes().length + VertexIID.Type.LENGTH;
+
+    private RocksGrakn grakn;
+
+    @Before
+    public void before() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory, new Options.Database());
+        grakn.databases().create(database);
+
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction transaction = session.transaction(WRITE)) {
+                transaction.query().define(parseQuery(
+                        "define name sub attribute, value string; " +
+                                "person sub entity, owns name, plays friendship:friend; " +
+                                "friendship sub relation, relates friend;"
+                ).asDefine());
+                transaction.commit();
+            }
+        }
+        try (RocksSession session = grakn.session(database, DATA)) {
+            try (RocksTransaction transaction = session.transaction(WRITE)) {
+                transaction.query().insert(parseQuery(
+                        "insert $alice isa person, has name 'alice', has name 'ali', has name 'al'; " +
+                                "$bob isa person, has name 'bob'; $carol isa person; " +
+                                "(friend: $alice, friend: $bob) isa friendship; " +
+                                "(friend: $alice, friend: $carol) isa friendship;"
+                ).asInsert());
+                transaction.commit();
+            }
+        }
+    }
+
+    @After
+    public void after() {
+        grakn.close();
+    }
+
+    private static long namesPerPersonMax(RocksTransaction transaction) {
+        SchemaGraph schema = transaction.graphMgr.schema();
+        return transaction.graphMgr.data().stats().degreeMax(schema.getType("person"), HAS, FORWARD, schema.getType("name"));
+    }
+
+    private static long namesOfPersons(RocksTransaction transaction) {
+        SchemaGraph schema = transaction.graphMgr.schema();
+        return transaction.graphMgr.data().stats().thingEdgeCount(schema.getType("person"), HAS, FORWARD, schema.getType("name"));
+    }
+
+    private static long playersOfFriendships(RocksTransaction transaction) {
+        SchemaGraph schema = transaction.graphMgr.schema();
+        return transaction.graphMgr.data().stats().thingEdgeCount(
+                schema.getType("friendship"), ROLEPLAYER, FORWARD, schema.getType("person")
+        );
+    }
+
+    private static long friendshipsPerPersonMax(RocksTransaction transaction) {
+        SchemaGraph schema = transaction.graphMgr.schema();
+        return transaction.graphMgr.data().stats().degreeMax(
+                schema.getType("person"), ROLEPLAYER, BACKWARD, schema.getType("friendship")
+        );
+    }
+
+    private static long playersPerFriendshipMax(RocksTransaction transaction) {
+        SchemaGraph schema = transaction.graphMgr.schema();
+        return transaction.graphMgr.data().stats().degreeMax(
+                schema.getType("friendship"), ROLEPLAYER, FORWARD, schema.getType("person")
+        );
+    }
+
+    /**
+     * Reads the statistic in new read transactions until the background counting has caught up with it.
+     */
+    private static void assertCounted(RocksSession session, long expected, Function<RocksTransaction, Long> statistic) {
+        long deadline = System.currentTimeMillis() + COUNTING_TIMEOUT_MILLIS;
+        long actual;
+        do {
+            try (RocksTransaction transaction = session.transaction(READ)) {
+                actual = statistic.apply(transaction);
+            }
+            if (actual == expected) return;
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        } while (System.currentTimeMillis() < deadline);
+        assertEquals(expected, actual);
+    }
+
+    private static void assertStatistics(RocksSession session, long namesPerPersonMax, long namesOfPersons,
+                                         long playersOfFriendships, long friendshipsPerPersonMax) {
+        assertCounted(session, namesPerPersonMax, RocksStatisticsTest::namesPerPersonMax);
+        assertCounted(session, namesOfPersons, RocksStatisticsTest::namesOfPersons);
+        assertCounted(session, playersOfFriendships, RocksStatisticsTest::playersOfFriendships);
+        assertCounted(session, friendshipsPerPersonMax, RocksStatisticsTest::friendshipsPerPersonMax);
+        assertCounted(session, 2, RocksStatisticsTest::playersPerFriendshipMax);
+    }
+
+    @Test
+    public void degrees_are_counted_after_commits() {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            assertStatistics(session, 3, 4, 4, 2);
+
+            try (RocksTransaction transaction = session.transaction(WRITE)) {
+                transaction.query().insert(parseQuery(
+                        "match $x isa person, has name 'bob'; " +
+                                "insert $x has name 'bobby', has name 'rob', has name 'robert'; " +
+                                "$y isa person; (friend: $x, friend: $y) isa friendship;"
+                ).asInsert()).toList();
+                transaction.commit();
+            }
+            assertStatistics(session, 4, 7, 6, 2);
+        }
+    }
+
+    @Test
+    public void degrees_are_counted_after_deletes() {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            assertStatistics(session, 3, 4, 4, 2);
+
+            try (RocksTransaction transaction = session.transaction(WRITE)) {
+                transaction.query().delete(parseQuery(
+                        "match $x isa person, has name $n; $n 'ali'; delete $x has $n;"
+                ).asDelete());
+                transaction.query().delete(parseQuery(
+                        "match $x isa person, has name 'bob'; $f (friend: $x) isa friendship; delete $f isa friendship;"
+                ).asDelete());
+                transaction.commit();
+            }
+            assertStatistics(session, 2, 3, 2, 1);
+        }
+    }
+
+    @Test
+    public void degrees_of_edges_written_before_degree_statistics_are_backfilled() {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            assertStatistics(session, 3, 4, 4, 2);
+
+            // remove the statistics that a database written before the degree statistics does not have
+            try (RocksTransaction.Data transaction = (RocksTransaction.Data) session.transaction(WRITE)) {
+                RocksStorage.Data storage = transaction.dataStorage();
+                List<byte[]> keys = storage.iterate(STATISTICS_THINGS.bytes(), (key, value) -> key).filter(
+                        key -> key.length > TYPE_STATISTICS_INFIX && (
+                                key[TYPE_STATISTICS_INFIX] == THING_EDGE_COUNT.key() ||
+                                        key[TYPE_STATISTICS_INFIX] == THING_EDGE_HEAVY_HITTERS.key()
+                        )
+                ).toList();
+                keys.addAll(storage.iterate(join(STATISTICS_COUNTED.bytes(), VERTEX_ROLE.bytes()), (key, value) -> key).toList());
+                keys.add(thingEdgesBackfillCursorKey());
+                keys.forEach(storage::delete);
+                transaction.commit();
+            }
+            try (RocksTransaction transaction = session.transaction(READ)) {
+                assertEquals(0, namesPerPersonMax(transaction));
+                assertEquals(0, playersOfFriendships(transaction));
+                assertEquals(0, friendshipsPerPersonMax(transaction));
+            }
+
+            grakn.databases().get(database).statisticsBackgroundCounter.needsBackgroundCounting();
+            assertStatistics(session, 3, 4, 4, 2);
+
+            // role player edges counted by the backfill are not counted again when they are deleted
+            try (RocksTransaction transaction = session.transaction(WRITE)) {
+                transaction.query().delete(parseQuery(
+                        "match $x isa person, has name 'bob'; $f (friend: $x) isa friendship; delete $f isa friendship;"
+                ).asDelete());
+                transaction.commit();
+            }
+            assertStatistics(session, 3, 4, 2, 1);
+        }
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.rocks;
+
+import grakn.core.common.exception.GraknException;
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Options;
+import grakn.core.graph.util.Storage;
+import grakn.core.test.integration.util.Util;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static grakn.core.common.collection.Bytes.bytesToLong;
+import static grakn.core.common.collection.Bytes.join;
+import static grakn.core.common.collection.Bytes.longToBytes;
+import static grakn.core.common.collection.Bytes.longToSortedBytes;
+import static grakn.core.common.collection.Bytes.shortToSortedBytes;
+import static grakn.core.common.collection.Bytes.sortedBytesToLong;
+import static grakn.core.common.exception.ErrorMessage.Transaction.BULK_COMMIT_INCOMPLETE;
+import static grakn.core.common.exception.ErrorMessage.Transaction.BULK_READ_AFTER_FLUSH;
+import static grakn.core.common.parameters.Arguments.Session.Type.DATA;
+import static grakn.core.common.parameters.Arguments.Transaction.Type.BULK;
+import static grakn.core.common.parameters.Arguments.Transaction.Type.READ;
+import static grakn.core.common.parameters.Arguments.Transaction.Type.WRITE;
+import static grakn.core.graph.util.Encoding.Prefix.STATISTICS_THINGS;
+import static grakn.core.graph.util.Encoding.Prefix.VERTEX_ENTITY;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class RocksStorageTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("rocks-storage-test");
+    private static final String database = "rocks-storage-test";
+    private static final long FLUSH_THRESHOLD = 64 * 1024;
+    private static final int WRITE_SIZE = key(0).length + value(0).length;
+    // the number of writes after which the buffer of a bulk transaction has grown past the flush threshold
+    private static final int WRITES_PER_FLUSH = (int) (FLUSH_THRESHOLD / WRITE_SIZE) + 1;
+    private static final byte[] COUNTER = join(STATISTICS_THINGS.bytes(), new byte[]{0, 1});
+
+    private RocksGrakn grakn;
+
+    @Before
+    public void before() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory, new Options.Database().storageWriteBufferSize(FLUSH_THRESHOLD));
+        grakn.databases().create(database);
+    }
+
+    @After
+    public void after() {
+        grakn.close();
+    }
+
+    private static byte[] key(long i) {
+        return join(VERTEX_ENTITY.bytes(), shortToSortedBytes(1), longToSortedBytes(i));
+    }
+
+    private static byte[] value(long v) {
+        return longToBytes(v);
+    }
+
+    private static void put(RocksStorage storage, long from, long to, long value) {
+        for (long i = from; i < to; i++) storage.put(key(i), value(value));
+    }
+
+    private List<Path> sstFiles() throws IOException {
+        Path bulkDirectory = grakn.databases().get(database).bulkDirectory();
+        if (!Files.exists(bulkDirectory)) return new ArrayList<>();
+        try (Stream<Path> files = Files.walk(bulkDirectory)) {
+            return files.filter(file -> file.toString().endsWith(".sst")).collect(Collectors.toList());
+        }
+    }
+
+    private static RocksTransaction.Data transaction(RocksSession session, Arguments.Transaction.Type type) {
+        return (RocksTransaction.Data) session.transaction(type);
+    }
+
+    private static List<Long> iterate(RocksStorage storage) {
+        List<Long> keys = new ArrayList<>();
+        ResourceIterator<byte[]> iterator = storage.iterate(join(VERTEX_ENTITY.bytes(), shortToSortedBytes(1)), (key, value) -> key);
+        while (iterator.hasNext()) keys.add(sortedBytesToLong(iterator.next(), 3));
+        return keys;
+    }
+
+    @Test
+    public void buffered_writes_are_read_by_their_transaction() {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            try (RocksTransaction.Data txn = transaction(session, WRITE)) {
+                put(txn.dataStorage(), 0, 4, 1);
+                txn.commit();
+            }
+            try (RocksTransaction.Data txn = transaction(session, WRITE)) {
+                RocksStorage storage = txn.dataStorage();
+                storage.put(key(1), value(2));
+                storage.put(key(5), value(2));
+                storage.delete(key(2));
+                storage.delete(key(6));
+                assertArrayEquals(value(1), storage.get(key(0)));
+                assertArrayEquals(value(2), storage.get(key(1)));
+                assertNull(storage.get(key(2)));
+                assertArrayEquals(value(2), storage.get(key(5)));
+                assertNull(storage.get(key(6)));
+                assertEquals(Arrays.asList(0L, 1L, 3L, 5L), iterate(storage));
+
+                // the writes are not seen by a concurrent transaction until they are committed
+                try (RocksTransaction.Data concurrent = transaction(session, READ)) {
+                    assertArrayEquals(value(1), concurrent.dataStorage().get(key(1)));
+                    assertEquals(Arrays.asList(0L, 1L, 2L, 3L), iterate(concurrent.dataStorage()));
+                }
+                txn.commit();
+            }
+            try (RocksTransaction.Data txn = transaction(session, READ)) {
+                assertArrayEquals(value(2), txn.dataStorage().get(key(1)));
+                assertEquals(Arrays.asList(0L, 1L, 3L, 5L), iterate(txn.dataStorage()));
+            }
+        }
+    }
+
+    @Test
+    public void seeking_skips_ahead_over_stored_and_buffered_keys_without_moving_backwards() {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            try (RocksTransaction.Data txn = transaction(session, WRITE)) {
+                put(txn.dataStorage(), 0, 10, 1);
+                txn.commit();
+            }
+            try (RocksTransaction.Data txn = transaction(session, WRITE)) {
+                RocksStorage storage = txn.dataStorage();
+                storage.put(key(12), value(2));
+                storage.delete(key(5));
+                Storage.Seekable<byte[]> iterator = storage.iterate(key(0), key(20), (key, value) -> key);
+                iterator.seek(key(4));
+                assertEquals(4L, sortedBytesToLong(iterator.next(), 3));
+                iterator.seek(key(5));
+                assertEquals(6L, sortedBytesToLong(iterator.next(), 3));
+                iterator.seek(key(2));
+                assertEquals(7L, sortedBytesToLong(iterator.next(), 3));
+                iterator.seek(key(11));
+                assertEquals(12L, sortedBytesToLong(iterator.next(), 3));
+                iterator.seek(key(13));
+                assertFalse(iterator.hasNext());
+            }
+        }
+    }
+
+    @Test
+    public void buffered_merges_are_only_read_once_committed() {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            try (RocksTransaction.Data txn = transaction(session, WRITE)) {
+                txn.dataStorage().putUntracked(COUNTER, longToBytes(5));
+                txn.commit();
+            }
+            try (RocksTransaction.Data txn = transaction(session, WRITE)) {
+                RocksStorage storage = txn.dataStorage();
+                storage.mergeUntracked(COUNTER, longToBytes(2));
+                storage.mergeUntracked(COUNTER, longToBytes(3));
+                assertEquals(5, bytesToLong(storage.get(COUNTER)));
+                txn.commit();
+            }
+            try (RocksTransaction.Data txn = transaction(session, READ)) {
+                assertEquals(10, bytesToLong(txn.dataStorage().get(COUNTER)));
+            }
+        }
+    }
+
+    @Test
+    public void bulk_writes_are_flushed_once_they_pass_the_threshold() throws IOException {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            try (RocksTransaction.Data txn = transaction(session, BULK)) {
+                RocksStorage storage = txn.dataStorage();
+                put(storage, 0, WRITES_PER_FLUSH - 1, 1);
+                assertEquals(0, sstFiles().size());
+                put(storage, WRITES_PER_FLUSH - 1, WRITES_PER_FLUSH, 1);
+                assertEquals(1, sstFiles().size());
+                put(storage, WRITES_PER_FLUSH, WRITES_PER_FLUSH + 10, 1);
+                txn.commit();
+            }
+            try (RocksTransaction.Data txn = transaction(session, READ)) {
+                for (long i = 0; i < WRITES_PER_FLUSH + 10; i++) {
+                    assertArrayEquals(value(1), txn.dataStorage().get(key(i)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void bulk_writes_of_later_flushes_take_precedence() {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            try (RocksTransaction.Data txn = transaction(session, BULK)) {
+                RocksStorage storage = txn.dataStorage();
+                put(storage, 0, WRITES_PER_FLUSH, 1);
+                put(storage, 0, WRITES_PER_FLUSH / 2, 2);
+                storage.delete(key(WRITES_PER_FLUSH - 1));
+                put(storage, WRITES_PER_FLUSH, 2 * WRITES_PER_FLUSH, 2);
+                txn.commit();
+            }
+            try (RocksTransaction.Data txn = transaction(session, READ)) {
+                RocksStorage storage = txn.dataStorage();
+                assertArrayEquals(value(2), storage.get(key(0)));
+                assertArrayEquals(value(1), storage.get(key(WRITES_PER_FLUSH / 2)));
+                assertNull(storage.get(key(WRITES_PER_FLUSH - 1)));
+                assertArrayEquals(value(2), storage.get(key(WRITES_PER_FLUSH)));
+            }
+        }
+    }
+
+    @Test
+    public void bulk_deletes_remove_stored_keys() {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            try (RocksTransaction.Data txn = transaction(session, WRITE)) {
+                put(txn.dataStorage(), 0, 10, 1);
+                txn.commit();
+            }
+            try (RocksTransaction.Data txn = transaction(session, BULK)) {
+                RocksStorage storage = txn.dataStorage();
+                for (long i = 0; i < 5; i++) storage.delete(key(i));
+                put(storage, 10, 10 + WRITES_PER_FLUSH, 1);
+                txn.commit();
+            }
+            try (RocksTransaction.Data txn = transaction(session, READ)) {
+                for (long i = 0; i < 5; i++) assertNull(txn.dataStorage().get(key(i)));
+                for (long i = 5; i < 10; i++) assertArrayEquals(value(1), txn.dataStorage().get(key(i)));
+            }
+        }
+    }
+
+    @Test
+    public void bulk_merges_are_applied_after_ingestion() {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            try (RocksTransaction.Data txn = transaction(session, BULK)) {
+                RocksStorage storage = txn.dataStorage();
+                storage.putUntracked(COUNTER, longToBytes(5));
+                put(storage, 0, WRITES_PER_FLUSH, 1);
+                storage.mergeUntracked(COUNTER, longToBytes(2));
+                txn.commit();
+            }
+            try (RocksTransaction.Data txn = transaction(session, READ)) {
+                assertEquals(7, bytesToLong(txn.dataStorage().get(COUNTER)));
+            }
+        }
+    }
+
+    @Test
+    public void bulk_reads_fail_once_writes_have_been_flushed() {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            try (RocksTransaction.Data txn = transaction(session, BULK)) {
+                RocksStorage storage = txn.dataStorage();
+                put(storage, 0, 1, 1);
+                assertArrayEquals(value(1), storage.get(key(0)));
+                put(storage, 1, WRITES_PER_FLUSH, 1);
+                try {
+                    storage.get(key(0));
+                    fail();
+                } catch (GraknException e) {
+                    assertEquals(BULK_READ_AFTER_FLUSH.code(), e.code().get());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void bulk_files_are_deleted_once_committed_or_closed() throws IOException {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            try (RocksTransaction.Data txn = transaction(session, BULK)) {
+                put(txn.dataStorage(), 0, WRITES_PER_FLUSH, 1);
+                assertEquals(1, sstFiles().size());
+                txn.commit();
+            }
+            assertEquals(0, sstFiles().size());
+
+            try (RocksTransaction.Data txn = transaction(session, BULK)) {
+                put(txn.dataStorage(), WRITES_PER_FLUSH, 2 * WRITES_PER_FLUSH, 1);
+                assertEquals(1, sstFiles().size());
+            }
+            assertEquals(0, sstFiles().size());
+            try (RocksTransaction.Data txn = transaction(session, READ)) {
+                assertNotNull(txn.dataStorage().get(key(0)));
+                assertNull(txn.dataStorage().get(key(WRITES_PER_FLUSH)));
+            }
+        }
+    }
+
+    @Test
+    public void bulk_commit_that_fails_after_ingesting_files_reports_a_partial_load() throws IOException {
+        try (RocksSession session = grakn.session(database, DATA)) {
+            try (RocksTransaction.Data txn = transaction(session, BULK)) {
+                put(txn.dataStorage(), 0, 2 * WRITES_PER_FLUSH, 1);
+                List<Path> files = sstFiles();
+                assertEquals(2, files.size());
+                for (Path file : files) {
+                    if (file.getFileName().toString().endsWith("-1.sst")) Files.delete(file);
+                }
+                try {
+                    txn.commit();
+                    fail();
+                } catch (GraknException e) {
+                    assertEquals(BULK_COMMIT_INCOMPLETE.code(), e.code().get());
+                }
+            }
+            assertEquals(0, sstFiles().size());
+            try (RocksTransaction.Data txn = transaction(session, READ)) {
+                assertNotNull(txn.dataStorage().get(key(0)));
+                assertNull(txn.dataStorage().get(key(WRITES_PER_FLUSH)));
+            }
+        }
+    }
+}
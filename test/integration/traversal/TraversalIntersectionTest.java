@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.traversal;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Label;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.graph.GraphManager;
+import grakn.core.graph.iid.IID;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import grakn.core.test.integration.util.Util;
+import grakn.core.traversal.procedure.GraphProcedure;
+import grakn.core.traversal.procedure.ProcedureVertex;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static grakn.common.collection.Collections.list;
+import static grakn.common.collection.Collections.set;
+import static grakn.core.common.parameters.Arguments.Session.Type.DATA;
+import static grakn.core.common.parameters.Arguments.Transaction.Type.READ;
+import static grakn.core.common.parameters.Arguments.Transaction.Type.WRITE;
+import static graql.lang.Graql.parseQuery;
+import static org.junit.Assert.assertEquals;
+
+public class TraversalIntersectionTest {
+    private static Path directory = Paths.get(System.getProperty("user.dir")).resolve("traversal-intersection-test");
+    private static String database = "traversal-intersection-test";
+
+    private static final String TRIANGLES = "match " +
+            "$a isa person, has name $na; $b isa person, has name $nb; $c isa person, has name $nc; " +
+            "(friend: $a, friend: $b) isa friendship; " +
+            "(friend: $b, friend: $c) isa friendship; " +
+            "(friend: $c, friend: $a) isa friendship;";
+
+    private static RocksGrakn grakn;
+    private static RocksSession session;
+
+    @BeforeClass
+    public static void before() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(database);
+
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction transaction = session.transaction(WRITE)) {
+                transaction.query().define(parseQuery(
+                        "define " +
+                                "name sub attribute, value string; " +
+                                "nickname sub attribute, value string; " +
+                                "age sub attribute, value long; " +
+                                "person sub entity, owns name, owns nickname, owns age, plays friendship:friend; " +
+                                "friendship sub relation, relates friend;"
+                ).asDefine());
+                transaction.commit();
+            }
+        }
+
+        session = grakn.session(database, DATA);
+        try (RocksTransaction transaction = session.transaction(WRITE)) {
+            transaction.query().insert(parseQuery(
+                    "insert " +
+                            "$a isa person, has name 'alice'; " +
+                            "$b isa person, has name 'bob'; " +
+                            "$c isa person, has name 'carol'; " +
+                            "(friend: $a, friend: $b) isa friendship; " +
+                            "(friend: $b, friend: $c) isa friendship;"
+            ).asInsert());
+            // the first person, whose nicknames are inserted in key order, shares its first nickname only with
+            // people that have no age, so the first nickname is exhausted before an answer is found
+            transaction.query().insert(parseQuery(
+                    "insert " +
+                            "$p isa person, has name 'dan', has nickname 'x', has nickname 'y'; " +
+                            "$q isa person, has name 'dan', has nickname 'x'; " +
+                            "$r isa person, has name 'dan', has nickname 'y', has age 30;"
+            ).asInsert());
+            transaction.commit();
+        }
+    }
+
+    @AfterClass
+    public static void after() {
+        session.close();
+        grakn.close();
+    }
+
+    private static Set<List<String>> triangles(RocksTransaction transaction) {
+        return transaction.query().match(parseQuery(TRIANGLES).asMatch()).toList().stream()
+                .map(TraversalIntersectionTest::names).collect(Collectors.toSet());
+    }
+
+    private static List<String> names(ConceptMap answer) {
+        return Arrays.asList(
+                answer.get("na").asThing().asAttribute().asString().getValue(),
+                answer.get("nb").asThing().asAttribute().asString().getValue(),
+                answer.get("nc").asThing().asAttribute().asString().getValue()
+        );
+    }
+
+    private static Set<Map<String, IID>> answers(RocksTransaction transaction, GraphProcedure procedure) {
+        GraphManager graphMgr = transaction.traversal().graph();
+        return procedure.iterator(graphMgr, new Traversal.Parameters()).toList().stream().map(answer -> {
+            Map<String, IID> iids = new HashMap<>();
+            answer.forEach((reference, vertex) -> iids.put(reference.syntax(), vertex.iid()));
+            return iids;
+        }).collect(Collectors.toSet());
+    }
+
+    @Test
+    public void edges_after_an_intersected_edge_backjump_to_the_bound_vertices_of_its_closures() {
+        GraphProcedure.Builder proc = GraphProcedure.builder(5);
+        ProcedureVertex.Thing p = proc.named("p", true);
+        ProcedureVertex.Thing n = proc.named("n");
+        ProcedureVertex.Thing k = proc.named("k");
+        ProcedureVertex.Thing q = proc.named("q");
+        ProcedureVertex.Thing g = proc.named("g");
+        p.props().types(set(Label.of("person")));
+        n.props().types(set(Label.of("name")));
+        k.props().types(set(Label.of("nickname")));
+        q.props().types(set(Label.of("person")));
+        g.props().types(set(Label.of("age")));
+
+        proc.forwardHas(1, p, n);
+        proc.forwardHas(2, p, k);
+        // q is branched from n, intersected with the closure to k, which is bound by edge 2 rather than by n
+        proc.backwardHas(3, n, q);
+        proc.forwardHas(4, q, k);
+        proc.forwardHas(5, q, g);
+        GraphProcedure procedure = proc.build();
+        assertEquals(list(procedure.edge(4)), procedure.intersectedEdges(3));
+
+        Set<Map<String, IID>> intersected, checked;
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            intersected = answers(transaction, procedure);
+        }
+        // uncommitted writes disable the intersection, so the closure is checked one answer at a time
+        try (RocksTransaction transaction = session.transaction(WRITE)) {
+            checked = answers(transaction, procedure);
+        }
+        assertEquals(2, checked.size());
+        assertEquals(checked, intersected);
+    }
+
+    @Test
+    public void cycles_closed_by_uncommitted_edges_are_found_before_and_after_commit() {
+        Set<List<String>> expected = new HashSet<>(Arrays.asList(
+                Arrays.asList("alice", "bob", "carol"), Arrays.asList("alice", "carol", "bob"),
+                Arrays.asList("bob", "alice", "carol"), Arrays.asList("bob", "carol", "alice"),
+                Arrays.asList("carol", "alice", "bob"), Arrays.asList("carol", "bob", "alice")
+        ));
+
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            assertEquals(0, triangles(transaction).size());
+        }
+
+        try (RocksTransaction transaction = session.transaction(WRITE)) {
+            // The closing edges only exist in memory, on vertices that are
+            // already in storage: a storage intersection would miss them.
+            transaction.query().insert(parseQuery(
+                    "match $a isa person, has name 'alice'; $c isa person, has name 'carol'; " +
+                            "insert (friend: $c, friend: $a) isa friendship;"
+            ).asInsert()).toList();
+            assertEquals(expected, triangles(transaction));
+            transaction.commit();
+        }
+
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            assertEquals(expected, triangles(transaction));
+        }
+    }
+}
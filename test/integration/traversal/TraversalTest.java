@@ -403,4 +403,19 @@ public class TraversalTest {
 
         }
     }
+
+    @Test
+    public void traversal_range_predicates() {
+        try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+            assertEquals(1, transaction.query().match(Graql.parseQuery("match $a isa age; $a > 20; $a <= 25;").asMatch()).toList().size());
+            assertEquals(2, transaction.query().match(Graql.parseQuery("match $a isa age; $a >= 25;").asMatch()).toList().size());
+            assertEquals(0, transaction.query().match(Graql.parseQuery("match $a isa age; $a > 26.5;").asMatch()).toList().size());
+            assertEquals(2, transaction.query().match(Graql.parseQuery("match $x isa person, has age $a; $a < 26;").asMatch()).toList().size());
+        }
+
+        try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            transaction.query().insert(Graql.parseQuery("insert $x isa person, has age 30;").asInsert());
+            assertEquals(2, transaction.query().match(Graql.parseQuery("match $a isa age; $a > 25;").asMatch()).toList().size());
+        }
+    }
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.traversal.planner;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Label;
+import grakn.core.graph.util.Encoding;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import grakn.core.test.integration.util.Util;
+import grakn.core.traversal.common.Identifier;
+import grakn.core.traversal.procedure.GraphProcedure;
+import grakn.core.traversal.structure.Structure;
+import grakn.core.traversal.structure.StructureVertex;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static grakn.common.collection.Collections.set;
+import static grakn.core.common.parameters.Arguments.Session.Type.DATA;
+import static grakn.core.common.parameters.Arguments.Transaction.Type.READ;
+import static grakn.core.common.parameters.Arguments.Transaction.Type.WRITE;
+import static grakn.core.common.parameters.Options.Database.MAX_PLANNER_EXHAUSTIVE_MAX_EDGES;
+import static graql.lang.Graql.parseQuery;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GraphPlannerTest {
+
+    private static Path directory = Paths.get(System.getProperty("user.dir")).resolve("graph-planner-test");
+    private static String database = "graph-planner-test";
+
+    private static RocksGrakn grakn;
+    private static RocksSession session;
+
+    @BeforeClass
+    public static void before() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(database);
+
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction transaction = session.transaction(WRITE)) {
+                transaction.query().define(parseQuery(
+                        "define name sub attribute, value string; person sub entity, owns name;"
+                ).asDefine());
+                transaction.commit();
+            }
+        }
+        session = grakn.session(database, DATA);
+    }
+
+    @AfterClass
+    public static void after() {
+        session.close();
+        grakn.close();
+    }
+
+    /**
+     * Returns the structure of {@code $x isa person, has name $n; $y isa person, has name $n;}.
+     */
+    private static Structure structure() {
+        Structure structure = new Structure();
+        StructureVertex.Thing x = structure.thingVertex(Identifier.Variable.name("x"));
+        StructureVertex.Thing y = structure.thingVertex(Identifier.Variable.name("y"));
+        StructureVertex.Thing n = structure.thingVertex(Identifier.Variable.name("n"));
+        x.props().types(set(Label.of("person")));
+        y.props().types(set(Label.of("person")));
+        n.props().types(set(Label.of("name")));
+        structure.nativeEdge(x, n, Encoding.Edge.Thing.HAS);
+        structure.nativeEdge(y, n, Encoding.Edge.Thing.HAS);
+        return structure;
+    }
+
+    /**
+     * Returns the structure of a chain of people, each of whom shares a name with the next, which has two edges for
+     * every link of the chain.
+     */
+    private static Structure chain(int links) {
+        Structure structure = new Structure();
+        StructureVertex.Thing person = structure.thingVertex(Identifier.Variable.name("p0"));
+        person.props().types(set(Label.of("person")));
+        for (int i = 0; i < links; i++) {
+            StructureVertex.Thing name = structure.thingVertex(Identifier.Variable.name("n" + i));
+            StructureVertex.Thing next = structure.thingVertex(Identifier.Variable.name("p" + (i + 1)));
+            name.props().types(set(Label.of("name")));
+            next.props().types(set(Label.of("person")));
+            structure.nativeEdge(person, name, Encoding.Edge.Thing.HAS);
+            structure.nativeEdge(next, name, Encoding.Edge.Thing.HAS);
+            person = next;
+        }
+        return structure;
+    }
+
+    @Test
+    public void exhaustive_plans_cost_the_same_as_solver_plans() {
+        for (int links = 1; links * 2 <= MAX_PLANNER_EXHAUSTIVE_MAX_EDGES; links++) {
+            GraphPlanner exhaustive = GraphPlanner.create(chain(links), MAX_PLANNER_EXHAUSTIVE_MAX_EDGES);
+            GraphPlanner solver = GraphPlanner.create(chain(links), 0);
+            assertFalse(exhaustive.isSolverInitialised());
+            assertTrue(solver.isSolverInitialised());
+
+            try (RocksTransaction transaction = session.transaction(READ)) {
+                exhaustive.optimise(transaction.traversal().graph());
+                solver.optimise(transaction.traversal().graph());
+            }
+            assertFalse(exhaustive.isSolverInitialised());
+            assertEquals(solver.planCost(), exhaustive.planCost(), solver.planCost() * 1e-6);
+        }
+    }
+
+    @Test
+    public void exhaustive_search_is_capped_regardless_of_the_given_maximum() {
+        GraphPlanner planner = GraphPlanner.create(chain(MAX_PLANNER_EXHAUSTIVE_MAX_EDGES), Integer.MAX_VALUE);
+        assertTrue(planner.isSolverInitialised());
+    }
+
+    @Test
+    public void stored_plans_are_discarded_once_the_number_of_things_has_drifted() {
+        Map<ByteBuffer, byte[]> plans = new HashMap<>();
+        PlanStore store = new PlanStore() {
+            @Override
+            public long version() { return 0; }
+
+            @Override
+            public byte[] get(byte[] fingerprint) { return plans.get(ByteBuffer.wrap(fingerprint)); }
+
+            @Override
+            public void put(long version, byte[] fingerprint, byte[] plan) { plans.put(ByteBuffer.wrap(fingerprint), plan); }
+        };
+        long things;
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            GraphPlanner.create(structure(), 0, store).optimise(transaction.traversal().graph());
+            things = GraphPlanner.thingCount(transaction.traversal().graph());
+        }
+        assertEquals(1, plans.size());
+        byte[] plan = plans.values().iterator().next();
+
+        assertTrue(GraphPlanner.create(structure(), 0, store).load(plan, things));
+        assertFalse(GraphPlanner.create(structure(), 0, store).load(plan, (things + 1) * 2));
+        assertFalse(GraphPlanner.create(structure(), 0, store).load(plan, (things + 1) / 2 - 1));
+    }
+
+    @Test
+    public void stale_solver_plans_are_replaced_in_the_background() throws Exception {
+        GraphPlanner planner = GraphPlanner.create(structure(), 0, null);
+
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            planner.optimise(transaction.traversal().graph());
+        }
+        GraphProcedure first = planner.procedure();
+        Instant firstOptimised = planner.lastOptimised();
+        assertNotNull(first);
+        assertNotNull(firstOptimised);
+        assertNull(planner.backgroundOptimisation());
+
+        try (RocksTransaction transaction = session.transaction(WRITE)) {
+            for (int i = 0; i < 1000; i++) {
+                transaction.query().insert(parseQuery("insert $x isa person, has name 'n" + (i % 10) + "';").asInsert());
+            }
+            transaction.commit();
+        }
+
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            planner.optimise(transaction.traversal().graph());
+            // the query thread carries on with the plan it already has
+            assertNotNull(planner.procedure());
+        }
+        CompletableFuture<Void> optimisation = planner.backgroundOptimisation();
+        assertNotNull(optimisation);
+        optimisation.get(10, TimeUnit.SECONDS);
+        assertNotSame(first, planner.procedure());
+        assertTrue(planner.lastOptimised().isAfter(firstOptimised));
+    }
+}
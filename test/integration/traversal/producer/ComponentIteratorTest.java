@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.traversal.producer;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import grakn.core.test.integration.util.Util;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static grakn.core.common.parameters.Arguments.Session.Type.DATA;
+import static grakn.core.common.parameters.Arguments.Transaction.Type.READ;
+import static grakn.core.common.parameters.Arguments.Transaction.Type.WRITE;
+import static graql.lang.Graql.parseQuery;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ComponentIteratorTest {
+
+    private static Path directory = Paths.get(System.getProperty("user.dir")).resolve("component-iterator-test");
+    private static String database = "component-iterator-test";
+    private static final String AGES = "$a isa age; $b isa age; $a > $b;";
+    private static final String PEOPLE = "$p isa person, has name $n;";
+
+    private static RocksGrakn grakn;
+    private static RocksSession session;
+
+    @BeforeClass
+    public static void before() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(database);
+
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction transaction = session.transaction(WRITE)) {
+                transaction.query().define(parseQuery(
+                        "define age sub attribute, value long; name sub attribute, value string; person sub entity, owns name;"
+                ).asDefine());
+                transaction.commit();
+            }
+        }
+
+        session = grakn.session(database, DATA);
+        try (RocksTransaction transaction = session.transaction(WRITE)) {
+            transaction.query().insert(parseQuery(
+                    "insert $a1 1 isa age; $a2 2 isa age; $a3 3 isa age; $a4 4 isa age; $a5 5 isa age;" +
+                            "$p1 isa person, has name 'alice'; $p2 isa person, has name 'bob'; $p3 isa person, has name 'carol';"
+            ).asInsert());
+            transaction.commit();
+        }
+    }
+
+    @AfterClass
+    public static void after() {
+        session.close();
+        grakn.close();
+    }
+
+    private static List<ConceptMap> match(RocksTransaction transaction, String pattern) {
+        return transaction.query().match(parseQuery("match " + pattern).asMatch()).toList();
+    }
+
+    private static Map<List<Object>, Integer> count(List<List<Object>> answers) {
+        Map<List<Object>, Integer> counts = new HashMap<>();
+        answers.forEach(answer -> counts.merge(answer, 1, Integer::sum));
+        return counts;
+    }
+
+    private static List<Object> values(ConceptMap ages, ConceptMap people) {
+        List<Object> values = new ArrayList<>();
+        values.add(ages.get("a").asThing().asAttribute().asLong().getValue());
+        values.add(ages.get("b").asThing().asAttribute().asLong().getValue());
+        values.add(people.get("n").asThing().asAttribute().asString().getValue());
+        return values;
+    }
+
+    @Test
+    public void disconnected_components_are_answered_with_their_cartesian_product() {
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            List<ConceptMap> ages = match(transaction, AGES);
+            List<ConceptMap> people = match(transaction, PEOPLE);
+            assertEquals(10, ages.size());
+            assertEquals(3, people.size());
+
+            List<List<Object>> expected = new ArrayList<>();
+            for (ConceptMap age : ages) {
+                for (ConceptMap person : people) expected.add(values(age, person));
+            }
+            List<List<Object>> answers = new ArrayList<>();
+            for (ConceptMap answer : match(transaction, AGES + " " + PEOPLE)) answers.add(values(answer, answer));
+            assertEquals(expected.size(), answers.size());
+            assertEquals(count(expected), count(answers));
+        }
+    }
+
+    @Test
+    public void disconnected_components_are_not_answered_if_any_component_has_no_answers() {
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            assertTrue(match(transaction, "$a isa age; $b isa age; $a > $b; $b > 4;").isEmpty());
+            assertTrue(match(transaction, "$a isa age; $b isa age; $a > $b; $b > 4; " + PEOPLE).isEmpty());
+            assertTrue(match(transaction, PEOPLE + " $a isa age; $b isa age; $a > $b; $b > 4;").isEmpty());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.traversal.producer;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Label;
+import grakn.core.graph.GraphManager;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import grakn.core.test.integration.util.Util;
+import grakn.core.traversal.Traversal;
+import grakn.core.traversal.common.VertexMap;
+import grakn.core.traversal.procedure.GraphProcedure;
+import grakn.core.traversal.procedure.ProcedureVertex;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static grakn.common.collection.Collections.set;
+import static grakn.core.common.parameters.Arguments.Session.Type.DATA;
+import static grakn.core.common.parameters.Arguments.Transaction.Type.READ;
+import static grakn.core.common.parameters.Arguments.Transaction.Type.WRITE;
+import static grakn.core.common.producer.Producers.buffer;
+import static graql.lang.Graql.parseQuery;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GraphProducerTest {
+
+    private static Path directory = Paths.get(System.getProperty("user.dir")).resolve("graph-producer-test");
+    private static String database = "graph-producer-test";
+    private static final int FRIENDSHIPS = 1_000;
+    private static final int PARALLELISATION = 4;
+
+    private static RocksGrakn grakn;
+    private static RocksSession session;
+
+    @BeforeClass
+    public static void before() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(database);
+
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction transaction = session.transaction(WRITE)) {
+                transaction.query().define(parseQuery(
+                        "define person sub entity, plays friendship:friend; friendship sub relation, relates friend;"
+                ).asDefine());
+                transaction.commit();
+            }
+        }
+
+        session = grakn.session(database, DATA);
+        try (RocksTransaction transaction = session.transaction(WRITE)) {
+            for (int i = 0; i < FRIENDSHIPS; i++) {
+                transaction.query().insert(parseQuery(
+                        "insert $x isa person; $y isa person; (friend: $x, friend: $y) isa friendship;"
+                ).asInsert());
+            }
+            transaction.commit();
+        }
+    }
+
+    @AfterClass
+    public static void after() {
+        session.close();
+        grakn.close();
+    }
+
+    private static Map<VertexMap, Integer> count(List<VertexMap> answers) {
+        Map<VertexMap, Integer> counts = new HashMap<>();
+        answers.forEach(answer -> counts.merge(answer, 1, Integer::sum));
+        return counts;
+    }
+
+    /**
+     * Asserts that the answers produced by the workers are the answers of the single threaded iterator, each
+     * produced exactly once, and that the workers were given more morsels than there are workers.
+     */
+    private static void assertProducedOnceByMoreMorselsThanWorkers(GraphProcedure procedure) {
+        Traversal.Parameters params = new Traversal.Parameters();
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            GraphManager graphMgr = transaction.traversal().graph();
+            List<VertexMap> expected = procedure.iterator(graphMgr, params).toList();
+            assertFalse(expected.isEmpty());
+
+            GraphProducer producer = new GraphProducer(graphMgr, procedure, params, PARALLELISATION);
+            List<VertexMap> produced = buffer(producer).iterator().toList();
+            assertEquals(expected.size(), produced.size());
+            assertEquals(count(expected), count(produced));
+            assertTrue(producer.morselsExecuted() > PARALLELISATION);
+        }
+    }
+
+    @Test
+    public void answers_of_start_vertex_ranges_are_produced_exactly_once() {
+        GraphProcedure.Builder proc = GraphProcedure.builder(2);
+        ProcedureVertex.Thing x = proc.named("x", true);
+        ProcedureVertex.Thing r = proc.named("r");
+        ProcedureVertex.Thing y = proc.named("y");
+        x.props().types(set(Label.of("person")));
+
+        proc.backwardRolePlayer(1, x, r, set());
+        proc.forwardRolePlayer(2, r, y, set());
+        assertProducedOnceByMoreMorselsThanWorkers(proc.build());
+    }
+
+    @Test
+    public void answers_of_split_hub_branches_are_produced_exactly_once() {
+        GraphProcedure.Builder proc = GraphProcedure.builder(3);
+        ProcedureVertex.Type friendship = proc.labelled("friendship", true);
+        ProcedureVertex.Thing r = proc.named("r");
+        ProcedureVertex.Thing x = proc.named("x");
+        ProcedureVertex.Thing y = proc.named("y");
+        proc.setLabel(friendship, "friendship");
+
+        // the type is a single start vertex, whose instances are split into chunks that the workers steal
+        proc.backwardIsa(1, friendship, r, true);
+        proc.forwardRolePlayer(2, r, x, set());
+        proc.forwardRolePlayer(3, r, y, set());
+        assertProducedOnceByMoreMorselsThanWorkers(proc.build());
+    }
+}
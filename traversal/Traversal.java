@@ -25,15 +25,19 @@ import grakn.core.common.producer.Producer;
 import grakn.core.graph.GraphManager;
 import grakn.core.graph.iid.VertexIID;
 import grakn.core.graph.util.Encoding;
-import grakn.core.graph.vertex.Vertex;
+import grakn.core.graph.util.ValueHistogram;
+import grakn.core.graph.vertex.TypeVertex;
 import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.common.Predicate;
 import grakn.core.traversal.common.VertexMap;
+import grakn.core.traversal.graph.TraversalVertex;
 import grakn.core.traversal.planner.Planner;
+import grakn.core.traversal.producer.ComponentIterator;
+import grakn.core.traversal.structure.CanonicalStructure;
 import grakn.core.traversal.structure.Structure;
+import grakn.core.traversal.structure.StructureVertex;
 import graql.lang.common.GraqlArg;
 import graql.lang.common.GraqlToken;
-import graql.lang.pattern.variable.Reference;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -43,9 +47,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 import static grakn.common.collection.Collections.pair;
-import static grakn.core.common.iterator.Iterators.cartesian;
 import static grakn.core.common.producer.Producers.buffer;
 import static grakn.core.common.producer.Producers.produce;
 import static grakn.core.graph.util.Encoding.Edge.ISA;
@@ -63,13 +67,18 @@ import static grakn.core.graph.util.Encoding.ValueType.DATETIME;
 import static grakn.core.graph.util.Encoding.ValueType.DOUBLE;
 import static grakn.core.graph.util.Encoding.ValueType.LONG;
 import static grakn.core.graph.util.Encoding.ValueType.STRING;
+import static grakn.core.traversal.common.Predicate.Operator.Equality.GT;
+import static grakn.core.traversal.common.Predicate.Operator.Equality.GTE;
 import static graql.lang.common.GraqlToken.Predicate.SubString.LIKE;
 import static java.util.stream.Collectors.toList;
 
 public class Traversal {
 
+    private static final double MIN_SELECTIVITY = 1.0 / (1 << 20);
+
     private final Parameters parameters;
     private final Structure structure;
+    private List<CanonicalStructure> canonicalStructures;
     private List<Planner> planners;
 
     public Traversal() {
@@ -81,46 +90,117 @@ public class Traversal {
         return structure.newIdentifier(scope);
     }
 
-    void initialisePlanner(TraversalCache cache) {
-        planners = structure.asGraphs().stream().map(s -> {
-            return cache.get(s, Planner::create);
+    /**
+     * Lets this traversal answer with the vertices and edges that rules have
+     * concluded into the graph, which every other traversal ignores.
+     */
+    public void includeInferred() {
+        parameters.includeInferred();
+    }
+
+    void initialisePlanner(GraphManager graphMgr, TraversalCache cache) {
+        structure.asGraphs().forEach(s -> estimateSelectivities(graphMgr, s));
+        canonicalStructures = structure.asGraphs().stream().map(CanonicalStructure::of).collect(toList());
+        planners = canonicalStructures.stream().map(s -> {
+            return cache.get(s.structure(), structure -> Planner.create(
+                    structure, cache.plannerExhaustiveMaxEdges(), cache.planStore()
+            ));
         }).collect(toList());
     }
 
+    /**
+     * Estimates the selectivity of the range predicates of every attribute
+     * vertex, for the values given to them, from the histograms of the values
+     * of its attribute types. The estimate is rounded to a power of two, so
+     * that queries with a similar selectivity still share a planner, while
+     * queries with a very different selectivity get a planner of their own.
+     */
+    private void estimateSelectivities(GraphManager graphMgr, Structure structure) {
+        for (StructureVertex<?> vertex : structure.vertices()) {
+            if (!vertex.isThing() || !vertex.id().isVariable()) continue;
+            TraversalVertex.Properties.Thing props = vertex.asThing().props();
+            if (props.types().isEmpty() || props.predicates().stream().noneMatch(p -> p.operator().isRange())) {
+                continue;
+            }
+            double total = 0;
+            double selected = 0;
+            for (Label label : props.types()) {
+                TypeVertex type = graphMgr.schema().getType(label);
+                if (type == null || !type.isAttributeType()) continue;
+                ValueHistogram histogram = graphMgr.data().stats().valueHistogram(type);
+                if (histogram == null) continue;
+                long count = graphMgr.data().stats().thingVertexCount(type);
+                total += count;
+                selected += count * selectivity(histogram, vertex.id().asVariable(), props.predicates());
+            }
+            if (total > 0) {
+                double selectivity = Math.max(selected / total, MIN_SELECTIVITY);
+                props.selectivity(Math.pow(2, Math.round(Math.log(selectivity) / Math.log(2))));
+            }
+        }
+    }
+
+    private double selectivity(ValueHistogram histogram, Identifier.Variable attribute,
+                               Set<Predicate.Value<?>> predicates) {
+        double selectivity = 1;
+        for (Predicate.Value<?> predicate : predicates) {
+            if (!predicate.operator().isRange()) continue;
+            Set<Parameters.Value> values = parameters.getValues(attribute, predicate);
+            if (values == null) continue;
+            for (Parameters.Value value : values) {
+                double numeric;
+                if (value.isLong()) numeric = value.getLong();
+                else if (value.isDouble()) numeric = value.getDouble();
+                else if (value.isDateTime()) numeric = ValueHistogram.numeric(value.getDateTime());
+                else continue;
+                double fractionBelow = histogram.fractionBelow(numeric);
+                if (predicate.operator().equals(GT) || predicate.operator().equals(GTE)) selectivity *= 1 - fractionBelow;
+                else selectivity *= fractionBelow;
+            }
+        }
+        return selectivity;
+    }
+
     ResourceIterator<VertexMap> iterator(GraphManager graphMgr) {
         assert !planners.isEmpty();
         if (planners.size() == 1) {
-            planners.get(0).tryOptimise(graphMgr);
-            return planners.get(0).procedure().iterator(graphMgr, parameters);
+            return iterator(graphMgr, 0);
         } else {
-            return cartesian(planners.parallelStream().map(planner -> {
-                planner.tryOptimise(graphMgr);
-                return planner.procedure().iterator(graphMgr, parameters);
-            }).collect(toList())).map(partialAnswers -> {
-                Map<Reference, Vertex<?, ?>> combinedAnswers = new HashMap<>();
-                partialAnswers.forEach(p -> combinedAnswers.putAll(p.map()));
-                return VertexMap.of(combinedAnswers);
-            });
+            return new ComponentIterator(iterator(graphMgr, 0), IntStream.range(1, planners.size()).mapToObj(
+                    i -> iterator(graphMgr, i)
+            ).collect(toList()));
         }
     }
 
     Producer<VertexMap> producer(GraphManager graphMgr, int parallelisation) {
         assert !planners.isEmpty();
         if (planners.size() == 1) {
-            planners.get(0).tryOptimise(graphMgr);
-            return planners.get(0).procedure().producer(graphMgr, parameters, parallelisation);
+            return producer(graphMgr, 0, parallelisation);
         } else {
-            return produce(cartesian(planners.parallelStream().map(planner -> {
-                planner.tryOptimise(graphMgr);
-                return planner.procedure().producer(graphMgr, parameters, parallelisation);
-            }).map(p -> buffer(p).iterator()).collect(toList())).map(partialAnswers -> {
-                Map<Reference, Vertex<?, ?>> combinedAnswers = new HashMap<>();
-                partialAnswers.forEach(p -> combinedAnswers.putAll(p.map()));
-                return VertexMap.of(combinedAnswers);
-            }));
+            return produce(new ComponentIterator(
+                    buffer(producer(graphMgr, 0, parallelisation)).iterator(),
+                    IntStream.range(1, planners.size()).mapToObj(
+                            i -> buffer(producer(graphMgr, i, parallelisation)).iterator()
+                    ).collect(toList())
+            ));
         }
     }
 
+    private ResourceIterator<VertexMap> iterator(GraphManager graphMgr, int component) {
+        CanonicalStructure canonical = canonicalStructures.get(component);
+        Planner planner = planners.get(component);
+        planner.tryOptimise(graphMgr);
+        return planner.procedure().iterator(graphMgr, parameters.canonical(canonical)).map(canonical::answer);
+    }
+
+    private Producer<VertexMap> producer(GraphManager graphMgr, int component, int parallelisation) {
+        CanonicalStructure canonical = canonicalStructures.get(component);
+        Planner planner = planners.get(component);
+        planner.tryOptimise(graphMgr);
+        return planner.procedure().producer(graphMgr, parameters.canonical(canonical), parallelisation)
+                .map(canonical::answer);
+    }
+
     public void equalThings(Identifier.Variable thing1, Identifier.Variable thing2) {
         structure.equalEdge(structure.thingVertex(thing1), structure.thingVertex(thing2));
     }
@@ -243,10 +323,20 @@ public class Traversal {
 
         private final Map<Identifier.Variable, VertexIID.Thing> iid;
         private final Map<Pair<Identifier.Variable, Predicate.Value<?>>, Set<Value>> values;
+        private boolean includesInferred;
 
         public Parameters() {
             iid = new HashMap<>();
             values = new HashMap<>();
+            includesInferred = false;
+        }
+
+        public void includeInferred() {
+            includesInferred = true;
+        }
+
+        public boolean includesInferred() {
+            return includesInferred;
         }
 
         public void putIID(Identifier.Variable identifier, VertexIID.Thing iid) {
@@ -257,6 +347,24 @@ public class Traversal {
             values.computeIfAbsent(pair(identifier, predicate), k -> new HashSet<>()).add(value);
         }
 
+        /**
+         * Returns the parameters of the identifiers of a structure, renamed into
+         * the identifiers of its canonical form.
+         */
+        Parameters canonical(CanonicalStructure structure) {
+            Parameters canonical = new Parameters();
+            canonical.includesInferred = includesInferred;
+            iid.forEach((identifier, iid) -> {
+                Identifier id = structure.canonical(identifier);
+                if (id != null) canonical.putIID(id.asVariable(), iid);
+            });
+            values.forEach((key, vals) -> {
+                Identifier id = structure.canonical(key.first());
+                if (id != null) canonical.values.put(pair(id.asVariable(), key.second()), vals);
+            });
+            return canonical;
+        }
+
         public VertexIID.Thing getIID(Identifier.Variable identifier) {
             return iid.get(identifier);
         }
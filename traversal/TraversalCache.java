@@ -19,16 +19,69 @@
 package grakn.core.traversal;
 
 import grakn.core.common.cache.CommonCache;
+import grakn.core.common.parameters.Options;
+import grakn.core.traversal.planner.PlanStore;
 import grakn.core.traversal.planner.Planner;
 import grakn.core.traversal.structure.Structure;
 
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
 public class TraversalCache extends CommonCache<Structure, Planner> {
 
+    private final int plannerExhaustiveMaxEdges;
+    private final PlanStore planStore;
+    private final LongAdder requests;
+    private final LongAdder misses;
+
     public TraversalCache() {
         super();
+        plannerExhaustiveMaxEdges = Options.Database.DEFAULT_PLANNER_EXHAUSTIVE_MAX_EDGES;
+        planStore = null;
+        requests = new LongAdder();
+        misses = new LongAdder();
+    }
+
+    public TraversalCache(int size, int timeOutMinutes, int plannerExhaustiveMaxEdges) {
+        this(size, timeOutMinutes, plannerExhaustiveMaxEdges, null);
     }
 
-    public TraversalCache(int size, int timeOutMinutes) {
+    public TraversalCache(int size, int timeOutMinutes, int plannerExhaustiveMaxEdges, @Nullable PlanStore planStore) {
         super(size, timeOutMinutes);
+        this.plannerExhaustiveMaxEdges = plannerExhaustiveMaxEdges;
+        this.planStore = planStore;
+        this.requests = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    /**
+     * Returns the planner of a structure, which is expected to be in its
+     * canonical form, and counts whether the planner was already cached.
+     */
+    @Override
+    public Planner get(Structure structure, Function<Structure, Planner> constructor) {
+        requests.increment();
+        return super.get(structure, s -> {
+            misses.increment();
+            return constructor.apply(s);
+        });
+    }
+
+    public long hitCount() {
+        return requests.sum() - misses.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public int plannerExhaustiveMaxEdges() {
+        return plannerExhaustiveMaxEdges;
+    }
+
+    @Nullable
+    public PlanStore planStore() {
+        return planStore;
     }
 }
@@ -39,12 +39,12 @@ public class TraversalEngine {
     }
 
     public Producer<VertexMap> producer(Traversal traversal, int parallelisation) {
-        traversal.initialisePlanner(cache);
+        traversal.initialisePlanner(graphMgr, cache);
         return traversal.producer(graphMgr, parallelisation);
     }
 
     public ResourceIterator<VertexMap> iterator(Traversal traversal) {
-        traversal.initialisePlanner(cache);
+        traversal.initialisePlanner(graphMgr, cache);
         return traversal.iterator(graphMgr);
     }
 
@@ -137,15 +137,22 @@ public abstract class Predicate<PRED_OP extends Predicate.Operator, PRED_ARG ext
             else throw GraknException.of(ILLEGAL_STATE);
         }
 
-        boolean isEquality() { return false; }
+        public boolean isEquality() { return false; }
 
-        boolean isSubString() { return false; }
+        public boolean isSubString() { return false; }
 
-        Operator.Equality asEquality() {
+        /**
+         * Returns whether the operator compares values by their order, i.e. it
+         * is one of {@code >}, {@code >=}, {@code <} or {@code <=}. An equality
+         * is not a range, as it only selects a single value.
+         */
+        public boolean isRange() { return false; }
+
+        public Operator.Equality asEquality() {
             throw GraknException.of(ILLEGAL_CAST, className(this.getClass()), className(Equality.class));
         }
 
-        Operator.SubString asSubString() {
+        public Operator.SubString asSubString() {
             throw GraknException.of(ILLEGAL_CAST, className(this.getClass()), className(SubString.class));
         }
 
@@ -179,10 +186,10 @@ public abstract class Predicate<PRED_OP extends Predicate.Operator, PRED_ARG ext
             abstract Equality reflection();
 
             @Override
-            boolean isEquality() { return true; }
+            public boolean isEquality() { return true; }
 
             @Override
-            Operator.Equality asEquality() { return this; }
+            public Operator.Equality asEquality() { return this; }
 
             public static final Equality EQ = new Equality(GraqlToken.Predicate.Equality.EQ) {
                 @Override
@@ -201,6 +208,9 @@ public abstract class Predicate<PRED_OP extends Predicate.Operator, PRED_ARG ext
             };
 
             public static final Equality GT = new Equality(GraqlToken.Predicate.Equality.GT) {
+                @Override
+                public boolean isRange() { return true; }
+
                 @Override
                 boolean apply(int comparisonResult) { return comparisonResult > 0; }
 
@@ -209,6 +219,9 @@ public abstract class Predicate<PRED_OP extends Predicate.Operator, PRED_ARG ext
             };
 
             public static final Equality GTE = new Equality(GraqlToken.Predicate.Equality.GTE) {
+                @Override
+                public boolean isRange() { return true; }
+
                 @Override
                 boolean apply(int comparisonResult) { return comparisonResult >= 0; }
 
@@ -217,6 +230,9 @@ public abstract class Predicate<PRED_OP extends Predicate.Operator, PRED_ARG ext
             };
 
             public static final Equality LT = new Equality(GraqlToken.Predicate.Equality.LT) {
+                @Override
+                public boolean isRange() { return true; }
+
                 @Override
                 boolean apply(int comparisonResult) { return comparisonResult < 0; }
 
@@ -225,6 +241,9 @@ public abstract class Predicate<PRED_OP extends Predicate.Operator, PRED_ARG ext
             };
 
             public static final Equality LTE = new Equality(GraqlToken.Predicate.Equality.LTE) {
+                @Override
+                public boolean isRange() { return true; }
+
                 @Override
                 boolean apply(int comparisonResult) { return comparisonResult <= 0; }
 
@@ -255,10 +274,10 @@ public abstract class Predicate<PRED_OP extends Predicate.Operator, PRED_ARG ext
             abstract boolean apply(String vertexValue, Traversal.Parameters.Value predicateValue);
 
             @Override
-            boolean isSubString() { return true; }
+            public boolean isSubString() { return true; }
 
             @Override
-            Operator.SubString asSubString() { return this; }
+            public Operator.SubString asSubString() { return this; }
 
             private static final SubString CONTAINS = new SubString(GraqlToken.Predicate.SubString.CONTAINS) {
                 @Override
@@ -29,8 +29,14 @@ import static java.util.Collections.unmodifiableMap;
 
 public class VertexMap {
 
+    private static final long SEED_HIGH = 0x9e3779b97f4a7c15L;
+    private static final long SEED_LOW = 0xc2b2ae3d27d4eb4fL;
+
     private final Map<Reference, Vertex<?, ?>> map;
     private final int hash;
+    private long fingerprintHigh;
+    private long fingerprintLow;
+    private boolean isFingerprinted;
 
     public VertexMap(Map<Reference, Vertex<?, ?>> map) {
         this.map = unmodifiableMap(map);
@@ -57,6 +63,50 @@ public class VertexMap {
         map.forEach(action);
     }
 
+    /**
+     * Returns the high word of a 128-bit fingerprint of this map, which is
+     * used to deduplicate answers without holding on to the answers. The
+     * fingerprint does not depend on the iteration order of the map, as the
+     * fingerprints of its entries are summed together. Each word is derived
+     * with its own seed, so the two words collide independently.
+     */
+    public long fingerprintHigh() {
+        if (!isFingerprinted) fingerprint();
+        return fingerprintHigh;
+    }
+
+    public long fingerprintLow() {
+        if (!isFingerprinted) fingerprint();
+        return fingerprintLow;
+    }
+
+    private void fingerprint() {
+        long high = 0, low = 0;
+        for (Map.Entry<Reference, Vertex<?, ?>> entry : map.entrySet()) {
+            byte[] iid = entry.getValue().iid().bytes();
+            high += fingerprint(SEED_HIGH, entry.getKey().hashCode(), iid);
+            low += fingerprint(SEED_LOW, entry.getKey().hashCode(), iid);
+        }
+        fingerprintHigh = high;
+        fingerprintLow = low;
+        isFingerprinted = true;
+    }
+
+    private static long fingerprint(long seed, int reference, byte[] iid) {
+        long hash = mix(seed ^ reference);
+        for (byte b : iid) hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        return mix(hash ^ iid.length);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
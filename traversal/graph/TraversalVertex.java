@@ -118,6 +118,7 @@ public abstract class TraversalVertex<EDGE extends TraversalEdge<?, ?>, PROPERTI
             private boolean hasIID;
             private final Set<Label> types;
             private final Set<Predicate.Value<?>> predicates;
+            private Double selectivity;
 
             public Thing() {
                 types = new HashSet<>();
@@ -148,10 +149,23 @@ public abstract class TraversalVertex<EDGE extends TraversalEdge<?, ?>, PROPERTI
                 predicates.add(predicate);
             }
 
+            /**
+             * Returns the estimated fraction of the instances of the types that
+             * satisfy the range predicates on the values of the vertex, if it
+             * has been estimated for the values given to the predicates.
+             */
+            public Optional<Double> selectivity() {
+                return Optional.ofNullable(selectivity);
+            }
+
+            public void selectivity(double selectivity) {
+                this.selectivity = selectivity;
+            }
+
             @Override
             public String toString() {
-                return String.format("[thing] { hasIID: %s, types: %s, predicates: %s }",
-                                     hasIID, types, predicates);
+                return String.format("[thing] { hasIID: %s, types: %s, predicates: %s, selectivity: %s }",
+                                     hasIID, types, predicates, selectivity);
             }
 
             @Override
@@ -162,12 +176,13 @@ public abstract class TraversalVertex<EDGE extends TraversalEdge<?, ?>, PROPERTI
                 Properties.Thing that = (Properties.Thing) o;
                 return (this.hasIID == that.hasIID &&
                         this.types.equals(that.types) &&
-                        this.predicates.equals(that.predicates));
+                        this.predicates.equals(that.predicates) &&
+                        Objects.equals(this.selectivity, that.selectivity));
             }
 
             @Override
             public int hashCode() {
-                return Objects.hash(this.hasIID, this.types, this.predicates);
+                return Objects.hash(this.hasIID, this.types, this.predicates, this.selectivity);
             }
         }
 
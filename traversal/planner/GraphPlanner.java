@@ -22,6 +22,8 @@ import com.google.ortools.linearsolver.MPConstraint;
 import com.google.ortools.linearsolver.MPObjective;
 import com.google.ortools.linearsolver.MPSolver;
 import com.google.ortools.linearsolver.MPSolverParameters;
+import grabl.tracing.client.GrablTracingThreadStatic.ThreadTrace;
+import grakn.common.collection.Pair;
 import grakn.core.common.concurrent.ManagedCountDownLatch;
 import grakn.core.common.exception.GraknException;
 import grakn.core.graph.GraphManager;
@@ -33,6 +35,10 @@ import grakn.core.traversal.structure.StructureVertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -42,7 +48,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static com.google.ortools.linearsolver.MPSolver.ResultStatus.ABNORMAL;
 import static com.google.ortools.linearsolver.MPSolver.ResultStatus.FEASIBLE;
@@ -53,8 +61,18 @@ import static com.google.ortools.linearsolver.MPSolverParameters.IncrementalityV
 import static com.google.ortools.linearsolver.MPSolverParameters.IntegerParam.INCREMENTALITY;
 import static com.google.ortools.linearsolver.MPSolverParameters.IntegerParam.PRESOLVE;
 import static com.google.ortools.linearsolver.MPSolverParameters.PresolveValues.PRESOLVE_ON;
+import static grabl.tracing.client.GrablTracingThreadStatic.traceOnThread;
+import static grakn.common.collection.Collections.list;
+import static grakn.common.collection.Collections.pair;
+import static grakn.core.common.collection.Bytes.DOUBLE_SIZE;
+import static grakn.core.common.collection.Bytes.INTEGER_SIZE;
+import static grakn.core.common.collection.Bytes.LONG_SIZE;
+import static grakn.core.common.concurrent.ExecutorService.plannerThreadPool;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static grakn.core.common.exception.ErrorMessage.Internal.UNEXPECTED_PLANNING_ERROR;
+import static grakn.core.common.parameters.Options.Database.MAX_PLANNER_EXHAUSTIVE_MAX_EDGES;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
 
 public class GraphPlanner implements Planner {
 
@@ -64,34 +82,48 @@ public class GraphPlanner implements Planner {
     static final double OBJECTIVE_PLANNER_COST_MAX_CHANGE = 0.2;
     static final double OBJECTIVE_VARIABLE_COST_MAX_CHANGE = 2.0;
     static final double OBJECTIVE_VARIABLE_TO_PLANNER_COST_MIN_CHANGE = 0.02;
+    static final double STORED_PLAN_THING_COUNT_MAX_CHANGE = 2.0;
+    private static final String TRACE_PREFIX = "planner.";
 
-    private final MPSolver solver;
-    private final MPSolverParameters parameters;
     private final Map<Identifier, PlannerVertex<?>> vertices;
     private final Set<PlannerEdge<?, ?>> edges;
-    private final AtomicBoolean isOptimising;
+    private final ReentrantLock optimisationLock;
+    private final AtomicBoolean isOptimisationScheduled;
     private final ManagedCountDownLatch procedureLatch;
+    private final int exhaustiveMaxEdges;
+    private final PlanStore planStore;
+    private final long planStoreVersion;
+    private final List<PlannerVertex<?>> canonicalVertices;
+    private final List<PlannerEdge<?, ?>> canonicalEdges;
+    private byte[] fingerprint;
+    private byte[] storedPlan;
+    private MPSolver solver;
+    private MPSolverParameters parameters;
 
     protected volatile GraphProcedure procedure;
     private volatile MPSolver.ResultStatus resultStatus;
     private volatile boolean isUpToDate;
     private volatile long totalDuration;
     private volatile long snapshot;
+    private volatile long thingCount;
+    private volatile Instant lastOptimised;
+    private volatile CompletableFuture<Void> backgroundOptimisation;
 
     volatile double totalCostPrevious;
     double totalCostNext;
     double branchingFactor;
 
-    private GraphPlanner() {
-        solver = MPSolver.createSolver("SCIP");
-        solver.objective().setMinimization();
-        parameters = new MPSolverParameters();
-        parameters.setIntegerParam(PRESOLVE, PRESOLVE_ON.swigValue());
-        parameters.setIntegerParam(INCREMENTALITY, INCREMENTALITY_ON.swigValue());
+    private GraphPlanner(int exhaustiveMaxEdges, @Nullable PlanStore planStore) {
+        this.exhaustiveMaxEdges = Math.min(exhaustiveMaxEdges, MAX_PLANNER_EXHAUSTIVE_MAX_EDGES);
+        this.planStore = planStore;
+        this.planStoreVersion = planStore != null ? planStore.version() : 0L;
         vertices = new HashMap<>();
         edges = new HashSet<>();
+        canonicalVertices = new ArrayList<>();
+        canonicalEdges = new ArrayList<>();
         procedureLatch = new ManagedCountDownLatch(1);
-        isOptimising = new AtomicBoolean(false);
+        optimisationLock = new ReentrantLock();
+        isOptimisationScheduled = new AtomicBoolean(false);
         resultStatus = MPSolver.ResultStatus.NOT_SOLVED;
         isUpToDate = false;
         totalDuration = 0L;
@@ -99,22 +131,38 @@ public class GraphPlanner implements Planner {
         totalCostNext = 0.01;
         branchingFactor = 0.01;
         snapshot = 0L;
+        thingCount = 0L;
+    }
+
+    /**
+     * Creates a planner that searches exhaustively for structures of up to
+     * {@code exhaustiveMaxEdges} edges, capped at {@code MAX_PLANNER_EXHAUSTIVE_MAX_EDGES}.
+     */
+    static GraphPlanner create(Structure structure, int exhaustiveMaxEdges) {
+        return create(structure, exhaustiveMaxEdges, null);
     }
 
-    static GraphPlanner create(Structure structure) {
-        GraphPlanner planner = new GraphPlanner();
+    /**
+     * Creates a planner, as above, that loads and records its plans in the given plan store.
+     */
+    static GraphPlanner create(Structure structure, int exhaustiveMaxEdges, @Nullable PlanStore planStore) {
+        GraphPlanner planner = new GraphPlanner(exhaustiveMaxEdges, planStore);
         Set<StructureVertex<?>> registeredVertices = new HashSet<>();
-        Set<StructureEdge<?, ?>> registeredEdges = new HashSet<>();
+        Map<StructureEdge<?, ?>, PlannerEdge<?, ?>> registeredEdges = new HashMap<>();
         structure.vertices().forEach(vertex -> planner.registerVertex(vertex, registeredVertices, registeredEdges));
         assert !planner.vertices().isEmpty() && !planner.edges().isEmpty();
-        planner.initialise();
+        if (planner.edges().size() > planner.exhaustiveMaxEdges) planner.initialiseSolver();
+        if (planStore != null) {
+            planner.canonicalise(registeredVertices, registeredEdges);
+            planner.storedPlan = planStore.get(planner.fingerprint);
+        }
         return planner;
     }
 
     @Override
     public GraphProcedure procedure() {
         if (procedure == null) {
-            assert isOptimising.get();
+            assert optimisationLock.isLocked();
             try {
                 procedureLatch.await();
                 assert procedure != null;
@@ -139,6 +187,13 @@ public class GraphPlanner implements Planner {
         return edges;
     }
 
+    /**
+     * Returns the time at which the procedure was last produced, or null if it has not been.
+     */
+    public Instant lastOptimised() {
+        return lastOptimised;
+    }
+
     void setOutOfDate() {
         this.isUpToDate = false;
     }
@@ -159,6 +214,10 @@ public class GraphPlanner implements Planner {
         return resultStatus == INFEASIBLE || resultStatus == UNBOUNDED || resultStatus == ABNORMAL;
     }
 
+    boolean isSolverInitialised() {
+        return solver != null;
+    }
+
     MPSolver solver() {
         return solver;
     }
@@ -168,7 +227,7 @@ public class GraphPlanner implements Planner {
     }
 
     private void registerVertex(StructureVertex<?> structureVertex, Set<StructureVertex<?>> registeredVertices,
-                                Set<StructureEdge<?, ?>> registeredEdges) {
+                                Map<StructureEdge<?, ?>, PlannerEdge<?, ?>> registeredEdges) {
         if (registeredVertices.contains(structureVertex)) return;
         registeredVertices.add(structureVertex);
         List<StructureVertex<?>> adjacents = new ArrayList<>();
@@ -176,29 +235,28 @@ public class GraphPlanner implements Planner {
         if (vertex.isThing()) vertex.asThing().props(structureVertex.asThing().props());
         else vertex.asType().props(structureVertex.asType().props());
         structureVertex.outs().forEach(structureEdge -> {
-            if (!registeredEdges.contains(structureEdge)) {
-                registeredEdges.add(structureEdge);
+            if (!registeredEdges.containsKey(structureEdge)) {
+                registeredEdges.put(structureEdge, registerEdge(structureEdge));
                 adjacents.add(structureEdge.to());
-                registerEdge(structureEdge);
             }
         });
         structureVertex.ins().forEach(structureEdge -> {
-            if (!registeredEdges.contains(structureEdge)) {
-                registeredEdges.add(structureEdge);
+            if (!registeredEdges.containsKey(structureEdge)) {
+                registeredEdges.put(structureEdge, registerEdge(structureEdge));
                 adjacents.add(structureEdge.from());
-                registerEdge(structureEdge);
             }
         });
         adjacents.forEach(v -> registerVertex(v, registeredVertices, registeredEdges));
     }
 
-    private void registerEdge(StructureEdge<?, ?> structureEdge) {
+    private PlannerEdge<?, ?> registerEdge(StructureEdge<?, ?> structureEdge) {
         PlannerVertex<?> from = vertex(structureEdge.from());
         PlannerVertex<?> to = vertex(structureEdge.to());
         PlannerEdge<?, ?> edge = PlannerEdge.of(from, to, structureEdge);
         edges.add(edge);
         from.out(edge);
         to.in(edge);
+        return edge;
     }
 
     private PlannerVertex<?> vertex(StructureVertex<?> structureVertex) {
@@ -218,10 +276,190 @@ public class GraphPlanner implements Planner {
         ).asType();
     }
 
-    private void initialise() {
+    private void canonicalise(Set<StructureVertex<?>> structureVertices,
+                              Map<StructureEdge<?, ?>, PlannerEdge<?, ?>> structureEdges) {
+        List<Pair<String, PlannerVertex<?>>> vertexDescriptors = new ArrayList<>();
+        List<Pair<String, PlannerEdge<?, ?>>> edgeDescriptors = new ArrayList<>();
+        structureVertices.forEach(v -> vertexDescriptors.add(pair(descriptor(v), vertices.get(v.id()))));
+        structureEdges.forEach((e, edge) -> edgeDescriptors.add(pair(descriptor(e), edge)));
+        vertexDescriptors.sort((first, second) -> first.first().compareTo(second.first()));
+        edgeDescriptors.sort((first, second) -> first.first().compareTo(second.first()));
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw GraknException.of(e);
+        }
+        for (Pair<String, PlannerVertex<?>> descriptor : vertexDescriptors) {
+            canonicalVertices.add(descriptor.second());
+            digest.update(descriptor.first().getBytes(UTF_8));
+            digest.update((byte) '\n');
+        }
+        for (Pair<String, PlannerEdge<?, ?>> descriptor : edgeDescriptors) {
+            canonicalEdges.add(descriptor.second());
+            digest.update(descriptor.first().getBytes(UTF_8));
+            digest.update((byte) '\n');
+        }
+        fingerprint = digest.digest();
+    }
+
+    private static String descriptor(StructureVertex<?> vertex) {
+        if (vertex.isThing()) {
+            StructureVertex.Thing thing = vertex.asThing();
+            return String.format("%s [thing] { hasIID: %s, types: %s, predicates: %s, selectivity: %s }",
+                                 thing.id(), thing.props().hasIID(), sorted(thing.props().types()),
+                                 sorted(thing.props().predicates()), thing.props().selectivity());
+        } else {
+            StructureVertex.Type type = vertex.asType();
+            return String.format("%s [type] { labels: %s, abstract: %s, value: %s, regex: %s }",
+                                 type.id(), sorted(type.props().labels()), type.props().isAbstract(),
+                                 type.props().valueType(), type.props().regex());
+        }
+    }
+
+    private static String descriptor(StructureEdge<?, ?> edge) {
+        String vertices = edge.from().id() + " --> " + edge.to().id();
+        if (edge.isEqual()) {
+            return vertices + " [equal]";
+        } else if (edge.isPredicate()) {
+            return vertices + " [predicate] { " + edge.asPredicate().predicate() + " }";
+        } else if (edge.asNative().isOptimised()) {
+            return vertices + " [native] { " + edge.asNative().encoding() + ", " + edge.asNative().isTransitive() +
+                    ", " + sorted(edge.asNative().asOptimised().types()) + " }";
+        } else {
+            return vertices + " [native] { " + edge.asNative().encoding() + ", " + edge.asNative().isTransitive() + " }";
+        }
+    }
+
+    private static List<String> sorted(Collection<?> values) {
+        return values.stream().map(Object::toString).sorted().collect(toList());
+    }
+
+    /**
+     * Serialises the plan and its costs, in the canonical order of the structure, after the number of things that
+     * the costs were estimated for.
+     */
+    private byte[] serialise() {
+        int[] orderEdges = new int[canonicalEdges.size()];
+        boolean[] orderForward = new boolean[canonicalEdges.size()];
+        for (int i = 0; i < canonicalEdges.size(); i++) {
+            PlannerEdge<?, ?> edge = canonicalEdges.get(i);
+            PlannerEdge.Directional<?, ?> directional = edge.forward().isSelected() ? edge.forward() : edge.backward();
+            assert directional.isSelected() && directional.orderNumber() > 0;
+            orderEdges[directional.orderNumber() - 1] = i;
+            orderForward[directional.orderNumber() - 1] = directional == edge.forward();
+        }
+        int start = -1;
+        for (int i = 0; i < canonicalVertices.size(); i++) {
+            if (canonicalVertices.get(i).isStartingVertex()) start = i;
+        }
+        assert start >= 0;
+
+        ByteBuffer plan = ByteBuffer.allocate(serialisedLength());
+        plan.putLong(thingCount);
+        plan.putInt(start);
+        for (int i = 0; i < orderEdges.length; i++) {
+            plan.putInt(orderEdges[i]);
+            plan.put(orderForward[i] ? (byte) 1 : (byte) 0);
+        }
+        plan.put(isOptimal() ? (byte) 1 : (byte) 0);
+        plan.putDouble(totalCostPrevious);
+        plan.putDouble(branchingFactor);
+        for (PlannerVertex<?> vertex : canonicalVertices) plan.putDouble(vertex.recordedCost());
+        for (PlannerEdge<?, ?> edge : canonicalEdges) {
+            plan.putDouble(edge.forward().recordedCost());
+            plan.putDouble(edge.backward().recordedCost());
+        }
+        return plan.array();
+    }
+
+    private int serialisedLength() {
+        return LONG_SIZE + INTEGER_SIZE + canonicalEdges.size() * (INTEGER_SIZE + 1) + 1 + DOUBLE_SIZE * 2 +
+                canonicalVertices.size() * DOUBLE_SIZE + canonicalEdges.size() * DOUBLE_SIZE * 2;
+    }
+
+    /**
+     * Loads a serialised plan and produces its procedure, unless it does not fit the structure, or the number of
+     * things has drifted too far from the one its costs were estimated for.
+     *
+     * @return false if the plan was discarded
+     */
+    boolean load(byte[] serialised, long thingCount) {
+        if (serialised.length != serialisedLength()) return false;
+        ByteBuffer plan = ByteBuffer.wrap(serialised);
+        long plannedThingCount = plan.getLong();
+        double change = (thingCount + 1.0) / (plannedThingCount + 1.0);
+        if (change >= STORED_PLAN_THING_COUNT_MAX_CHANGE || change <= 1 / STORED_PLAN_THING_COUNT_MAX_CHANGE) {
+            return false;
+        }
+        int start = plan.getInt();
+        if (start < 0 || start >= canonicalVertices.size() ||
+                !canonicalVertices.get(start).isPotentialStartingVertex) return false;
+        PlannerEdge.Directional<?, ?>[] order = new PlannerEdge.Directional<?, ?>[canonicalEdges.size()];
+        Set<Integer> orderEdges = new HashSet<>();
+        for (int i = 0; i < order.length; i++) {
+            int edge = plan.getInt();
+            boolean isForward = plan.get() == 1;
+            if (edge < 0 || edge >= canonicalEdges.size() || !orderEdges.add(edge)) return false;
+            order[i] = isForward ? canonicalEdges.get(edge).forward() : canonicalEdges.get(edge).backward();
+        }
+        boolean isOptimal = plan.get() == 1;
+        this.thingCount = plannedThingCount;
+        totalCostPrevious = plan.getDouble();
+        totalCostNext = totalCostPrevious;
+        branchingFactor = plan.getDouble();
+        for (PlannerVertex<?> vertex : canonicalVertices) vertex.recordCost(plan.getDouble());
+        for (PlannerEdge<?, ?> edge : canonicalEdges) {
+            edge.forward().recordCost(plan.getDouble());
+            edge.backward().recordCost(plan.getDouble());
+        }
+        if (isSolverInitialised()) {
+            vertices.values().forEach(PlannerVertex::applyObjectiveCoefficient);
+            edges.forEach(PlannerEdge::applyObjectiveCoefficient);
+        }
+
+        recordPlan(canonicalVertices.get(start), order);
+        resultStatus = isOptimal ? OPTIMAL : FEASIBLE;
+        procedure = GraphProcedure.create(this);
+        if (procedureLatch.getCount() > 0) procedureLatch.countDown();
+        isUpToDate = true;
+        lastOptimised = Instant.now();
+        return true;
+    }
+
+    /**
+     * Records a plan into the planner vertices and edges.
+     */
+    private void recordPlan(PlannerVertex<?> start, PlannerEdge.Directional<?, ?>[] order) {
+        Map<PlannerEdge.Directional<?, ?>, Integer> orderNumbers = new HashMap<>();
+        for (int i = 0; i < order.length; i++) orderNumbers.put(order[i], i + 1);
+        Set<PlannerVertex<?>> withIncoming = new HashSet<>();
+        Set<PlannerVertex<?>> withOutgoing = new HashSet<>();
+        for (PlannerEdge.Directional<?, ?> edge : order) {
+            withOutgoing.add(edge.from());
+            withIncoming.add(edge.to());
+        }
+        for (PlannerVertex<?> vertex : vertices.values()) {
+            vertex.recordValues(vertex == start, withIncoming.contains(vertex), withOutgoing.contains(vertex));
+        }
+        for (PlannerEdge<?, ?> edge : edges) {
+            edge.forward().recordValues(orderNumbers.getOrDefault(edge.forward(), 0));
+            edge.backward().recordValues(orderNumbers.getOrDefault(edge.backward(), 0));
+        }
+    }
+
+    private void initialiseSolver() {
+        solver = MPSolver.createSolver("SCIP");
+        solver.objective().setMinimization();
+        parameters = new MPSolverParameters();
+        parameters.setIntegerParam(PRESOLVE, PRESOLVE_ON.swigValue());
+        parameters.setIntegerParam(INCREMENTALITY, INCREMENTALITY_ON.swigValue());
         intialiseVariables();
         initialiseConstraintsForVariables();
         initialiseConstraintsForEdges();
+        vertices.values().forEach(PlannerVertex::applyObjectiveCoefficient);
+        edges.forEach(PlannerEdge::applyObjectiveCoefficient);
     }
 
     private void intialiseVariables() {
@@ -272,7 +510,7 @@ public class GraphPlanner implements Planner {
                 edges.forEach(PlannerEdge::recordCost);
             }
         }
-        LOG.trace(solver.exportModelAsLpFormat());
+        if (isSolverInitialised()) LOG.trace(solver.exportModelAsLpFormat());
     }
 
     void updateCostNext(double costPrevious, double costNext) {
@@ -291,6 +529,15 @@ public class GraphPlanner implements Planner {
         }
     }
 
+    /**
+     * Returns the number of things in the graph, which the costs of a stored plan are checked against.
+     */
+    static long thingCount(GraphManager graph) {
+        return graph.data().stats().thingVertexTransitiveCount(graph.schema().rootEntityType()) +
+                graph.data().stats().thingVertexTransitiveCount(graph.schema().rootRelationType()) +
+                graph.data().stats().thingVertexTransitiveCount(graph.schema().rootAttributeType());
+    }
+
     private void setBranchingFactor(GraphManager graph) {
         // TODO: We can refine the branching factor by not strictly considering entities being the only divisor
         double entities = graph.data().stats().thingVertexTransitiveCount(graph.schema().rootEntityType());
@@ -305,35 +552,209 @@ public class GraphPlanner implements Planner {
         edges.forEach(e -> e.updateObjective(graph));
     }
 
-    @SuppressWarnings("NonAtomicOperationOnVolatileField")
+    /**
+     * Updates the objective and re-optimises the plan, in the background if the solver already has a plan.
+     */
     void optimise(GraphManager graph) {
-        if (isOptimising.compareAndSet(false, true)) {
-            Instant s = Instant.now();
-            updateObjective(graph);
-            if (!isUpToDate() || !isOptimal()) {
-                do {
-                    totalDuration += TIME_LIMIT_MILLIS;
-                    solver.setTimeLimit(totalDuration);
-                    Instant start = Instant.now();
-                    resultStatus = solver.solve(parameters);
-                    Instant finish = Instant.now();
-                    long timeElapsed = Duration.between(start, finish).toMillis();
-                    totalDuration -= (TIME_LIMIT_MILLIS - timeElapsed);
-                    if (isError()) throw GraknException.of(UNEXPECTED_PLANNING_ERROR);
-                } while (!isPlanned());
-                produceProcedure();
-                isUpToDate = true;
+        if (optimisationLock.tryLock()) {
+            boolean optimiseInBackground = false;
+            try {
+                long things = thingCount(graph);
+                if (storedPlan != null) {
+                    load(storedPlan, things);
+                    storedPlan = null;
+                }
+                updateObjective(graph);
+                if (!isUpToDate() || !isOptimal()) {
+                    thingCount = things;
+                    if (procedure == null || !isSolverInitialised()) produceProcedure();
+                    else optimiseInBackground = true;
+                }
+            } finally {
+                optimisationLock.unlock();
+            }
+            if (optimiseInBackground) scheduleOptimisation();
+        }
+    }
+
+    private void scheduleOptimisation() {
+        if (isOptimisationScheduled.compareAndSet(false, true)) {
+            backgroundOptimisation = CompletableFuture.runAsync(this::optimiseInBackground, plannerThreadPool())
+                    .whenComplete((result, error) -> {
+                        if (error != null) LOG.error("Background optimisation of planner [" + this + "] failed", error);
+                    });
+        }
+    }
+
+    /**
+     * Re-optimises the plan on the planner thread pool.
+     */
+    private void optimiseInBackground() {
+        optimisationLock.lock();
+        try {
+            isOptimisationScheduled.set(false);
+            if (!isUpToDate() || !isOptimal()) produceProcedure();
+        } finally {
+            optimisationLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the last background optimisation that was scheduled, or null if none has been.
+     */
+    @Nullable
+    CompletableFuture<Void> backgroundOptimisation() {
+        return backgroundOptimisation;
+    }
+
+    /**
+     * Returns the cost of the recorded plan under the current objective.
+     */
+    double planCost() {
+        double cost = 0;
+        for (PlannerVertex<?> vertex : vertices.values()) {
+            if (vertex.isStartingVertex()) cost += vertex.cost() * Math.pow(branchingFactor, edges.size());
+        }
+        for (PlannerEdge<?, ?> edge : edges) {
+            for (PlannerEdge.Directional<?, ?> directional : list(edge.forward(), edge.backward())) {
+                if (!directional.isSelected()) continue;
+                cost += directional.cost() * Math.pow(branchingFactor, edges.size() - directional.orderNumber());
             }
-            isOptimising.set(false);
-            Instant e = Instant.now();
-            LOG.trace(String.format("[%s] optimisation duration: %s (ms)", toString(), Duration.between(s, e).toMillis()));
         }
+        return cost;
     }
 
     private void produceProcedure() {
-        vertices.values().forEach(PlannerVertex::recordValues);
-        edges.forEach(PlannerEdge::recordValues);
+        Instant s = Instant.now();
+        String tier;
+        if (!isSolverInitialised() && optimiseExhaustively()) {
+            tier = "exhaustive";
+        } else {
+            if (!isSolverInitialised()) initialiseSolver();
+            optimiseWithSolver();
+            tier = "solver";
+        }
         procedure = GraphProcedure.create(this);
         if (procedureLatch.getCount() > 0) procedureLatch.countDown();
+        isUpToDate = true;
+        if (planStore != null) planStore.put(planStoreVersion, fingerprint, serialise());
+        Instant e = Instant.now();
+        lastOptimised = e;
+        LOG.trace(String.format("[%s] %s optimisation duration: %s (ms)", toString(), tier, Duration.between(s, e).toMillis()));
+    }
+
+    /**
+     * Records the cheapest of every valid plan, under the objective of the solver.
+     *
+     * @return false if there is no valid plan for the structure
+     */
+    private boolean optimiseExhaustively() {
+        try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "optimise.exhaustive")) {
+            ExhaustiveSearch search = new ExhaustiveSearch();
+            if (!search.run()) return false;
+            search.record();
+            resultStatus = OPTIMAL;
+            return true;
+        }
+    }
+
+    @SuppressWarnings("NonAtomicOperationOnVolatileField")
+    private void optimiseWithSolver() {
+        try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "optimise.solver")) {
+            do {
+                totalDuration += TIME_LIMIT_MILLIS;
+                solver.setTimeLimit(totalDuration);
+                Instant start = Instant.now();
+                resultStatus = solver.solve(parameters);
+                Instant finish = Instant.now();
+                long timeElapsed = Duration.between(start, finish).toMillis();
+                totalDuration -= (TIME_LIMIT_MILLIS - timeElapsed);
+                if (isError()) throw GraknException.of(UNEXPECTED_PLANNING_ERROR);
+            } while (!isPlanned());
+            vertices.values().forEach(PlannerVertex::recordValues);
+            edges.forEach(PlannerEdge::recordValues);
+        }
+    }
+
+    /**
+     * A branch-and-bound search over the starting vertex and the order and direction of every edge.
+     */
+    private class ExhaustiveSearch {
+
+        private final List<PlannerVertex<?>> searchVertices;
+        private final List<PlannerEdge<?, ?>> searchEdges;
+        private final Map<PlannerVertex<?>, Integer> index;
+        private final int[] incoming;
+        private final boolean[] hasOutgoing;
+        private final boolean[] isTraversed;
+        private final PlannerEdge.Directional<?, ?>[] order;
+        private final PlannerEdge.Directional<?, ?>[] bestOrder;
+        private final double[] weights;
+        private int start;
+        private int bestStart;
+        private double bestCost;
+
+        ExhaustiveSearch() {
+            searchVertices = new ArrayList<>(vertices.values());
+            searchEdges = new ArrayList<>(edges);
+            index = new HashMap<>();
+            for (int i = 0; i < searchVertices.size(); i++) index.put(searchVertices.get(i), i);
+            incoming = new int[searchVertices.size()];
+            hasOutgoing = new boolean[searchVertices.size()];
+            isTraversed = new boolean[searchEdges.size()];
+            order = new PlannerEdge.Directional<?, ?>[searchEdges.size()];
+            bestOrder = new PlannerEdge.Directional<?, ?>[searchEdges.size()];
+            weights = new double[searchEdges.size() + 1];
+            for (int i = 0; i <= searchEdges.size(); i++) weights[i] = Math.pow(branchingFactor, i);
+            bestStart = -1;
+            bestCost = Double.MAX_VALUE;
+        }
+
+        boolean run() {
+            for (int i = 0; i < searchVertices.size(); i++) {
+                PlannerVertex<?> vertex = searchVertices.get(i);
+                if (!vertex.isPotentialStartingVertex) continue;
+                start = i;
+                search(0, vertex.cost() * weights[searchEdges.size()]);
+            }
+            return bestStart >= 0;
+        }
+
+        private void search(int position, double cost) {
+            if (cost >= bestCost) return;
+            if (position == searchEdges.size()) {
+                bestCost = cost;
+                bestStart = start;
+                System.arraycopy(order, 0, bestOrder, 0, order.length);
+                return;
+            }
+            double weight = weights[searchEdges.size() - 1 - position];
+            for (int e = 0; e < searchEdges.size(); e++) {
+                if (isTraversed[e]) continue;
+                isTraversed[e] = true;
+                traverse(searchEdges.get(e).forward(), position, cost, weight);
+                traverse(searchEdges.get(e).backward(), position, cost, weight);
+                isTraversed[e] = false;
+            }
+        }
+
+        private void traverse(PlannerEdge.Directional<?, ?> edge, int position, double cost, double weight) {
+            int from = index.get(edge.from());
+            int to = index.get(edge.to());
+            if (from != start && incoming[from] != 1) return;
+            if (to == start || hasOutgoing[to]) return;
+
+            boolean hadOutgoing = hasOutgoing[from];
+            hasOutgoing[from] = true;
+            incoming[to]++;
+            order[position] = edge;
+            search(position + 1, cost + edge.cost() * weight);
+            incoming[to]--;
+            hasOutgoing[from] = hadOutgoing;
+        }
+
+        void record() {
+            recordPlan(searchVertices.get(bestStart), bestOrder);
+        }
     }
 }
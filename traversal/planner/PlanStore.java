@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.traversal.planner;
+
+import javax.annotation.Nullable;
+
+/**
+ * A store of the plans produced by graph planners, that outlives the planners
+ * themselves. A plan is keyed by the fingerprint of the structure it was
+ * produced for, which is the same for every structure that is equal to it.
+ */
+public interface PlanStore {
+
+    /**
+     * Returns the version of the store, which changes whenever the plans it
+     * holds are no longer valid, e.g. when the schema changes.
+     */
+    long version();
+
+    @Nullable
+    byte[] get(byte[] fingerprint);
+
+    /**
+     * Records a plan produced by a planner that was created under the given
+     * version of the store. The plan is dropped if the store has moved on to
+     * another version since, as it may have been produced for a stale schema.
+     */
+    void put(long version, byte[] fingerprint, byte[] plan);
+}
@@ -23,6 +23,8 @@ import grakn.core.graph.GraphManager;
 import grakn.core.traversal.procedure.Procedure;
 import grakn.core.traversal.structure.Structure;
 
+import javax.annotation.Nullable;
+
 import static grakn.common.util.Objects.className;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
 
@@ -34,9 +36,13 @@ public interface Planner {
         if (isGraph()) this.asGraph().optimise(graphMgr);
     }
 
-    static Planner create(Structure structure) {
+    static Planner create(Structure structure, int exhaustiveMaxEdges) {
+        return create(structure, exhaustiveMaxEdges, null);
+    }
+
+    static Planner create(Structure structure, int exhaustiveMaxEdges, @Nullable PlanStore planStore) {
         if (structure.edges().isEmpty()) return VertexPlanner.create(structure);
-        else return GraphPlanner.create(structure);
+        else return GraphPlanner.create(structure, exhaustiveMaxEdges, planStore);
     }
 
     default boolean isVertex() { return false; }
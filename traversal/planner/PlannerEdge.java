@@ -28,6 +28,7 @@ import grakn.core.graph.vertex.TypeVertex;
 import grakn.core.traversal.graph.TraversalEdge;
 import grakn.core.traversal.structure.StructureEdge;
 
+import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -118,6 +119,11 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
         backward.recordValues();
     }
 
+    void applyObjectiveCoefficient() {
+        forward.applyObjectiveCoefficient();
+        backward.applyObjectiveCoefficient();
+    }
+
     public static abstract class Directional<VERTEX_DIR_FROM extends PlannerVertex<?>, VERTEX_DIR_TO extends PlannerVertex<?>>
             extends TraversalEdge<VERTEX_DIR_FROM, VERTEX_DIR_TO> {
 
@@ -224,14 +230,22 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
 
         protected void setObjectiveCoefficient(double cost) {
             assert !Double.isNaN(cost);
+            costNext = cost;
+            if (planner.isSolverInitialised()) applyObjectiveCoefficient();
+            planner.updateCostNext(costPrevious, costNext);
+        }
+
+        void applyObjectiveCoefficient() {
             int exp = planner.edges().size() - 1;
             for (int i = 0; i < planner.edges().size(); i++) {
                 planner.objective().setCoefficient(
-                        varOrderAssignment[i], cost * Math.pow(planner.branchingFactor, exp--)
+                        varOrderAssignment[i], costNext * Math.pow(planner.branchingFactor, exp--)
                 );
             }
-            costNext = cost;
-            planner.updateCostNext(costPrevious, costNext);
+        }
+
+        double cost() {
+            return costNext;
         }
 
         private void recordCost() {
@@ -239,11 +253,25 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
             costPrevious = costNext;
         }
 
+        void recordCost(double cost) {
+            costNext = cost;
+            costPrevious = cost;
+        }
+
+        double recordedCost() {
+            return costPrevious;
+        }
+
         private void recordValues() {
             valueIsSelected = (int) Math.round(varIsSelected.solutionValue());
             valueOrderNumber = (int) Math.round(varOrderNumber.solutionValue());
         }
 
+        void recordValues(int orderNumber) {
+            valueIsSelected = orderNumber > 0 ? 1 : 0;
+            valueOrderNumber = orderNumber;
+        }
+
         public boolean isEqual() { return false; }
 
         public boolean isPredicate() { return false; }
@@ -891,6 +919,37 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                 }
             }
 
+            /**
+             * Returns the expected degree of a thing of one of the given types,
+             * over edges of the given encoding to things of the corresponding
+             * adjacent types, when the thing is reached through one of its edges.
+             * This accounts for the few hubs of skewed graphs, which are reached
+             * far more often than the average thing. Returns null if no such
+             * edges have been counted yet.
+             */
+            @Nullable
+            static Double reachedDegree(GraphManager graphMgr, Map<TypeVertex, Set<TypeVertex>> typesToAdjacents,
+                                        Encoding.Edge.Thing encoding, Encoding.Direction.Edge direction) {
+                double edges = 0;
+                double squares = 0;
+                for (Map.Entry<TypeVertex, Set<TypeVertex>> entry : typesToAdjacents.entrySet()) {
+                    for (TypeVertex adjacent : entry.getValue()) {
+                        edges += graphMgr.data().stats().thingEdgeCount(entry.getKey(), encoding, direction, adjacent);
+                        squares += graphMgr.data().stats().degreeSquareSum(entry.getKey(), encoding, direction, adjacent);
+                    }
+                }
+                if (edges <= 0) return null;
+                return squares / edges;
+            }
+
+            static Map<TypeVertex, Set<TypeVertex>> typesToAdjacents(GraphManager graphMgr, Set<Label> types,
+                                                                     Set<Label> adjacentTypes) {
+                Set<TypeVertex> adjacents = adjacentTypes.stream().map(l -> graphMgr.schema().getType(l)).collect(toSet());
+                Map<TypeVertex, Set<TypeVertex>> typesToAdjacents = new HashMap<>();
+                for (Label type : types) typesToAdjacents.put(graphMgr.schema().getType(type), adjacents);
+                return typesToAdjacents;
+            }
+
             public abstract static class Directional extends Native.Directional<PlannerVertex.Thing, PlannerVertex.Thing> {
 
                 Directional(PlannerVertex.Thing from, PlannerVertex.Thing to, Native.Thing parent, Encoding.Direction.Edge direction) {
@@ -1047,6 +1106,12 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                             attributeTypesToOwners.put(graphMgr.schema().rootAttributeType(), set(graphMgr.schema().rootThingType()));
                         }
 
+                        Double degree = attTypes != null ? reachedDegree(graphMgr, attributeTypesToOwners, HAS, BACKWARD) : null;
+                        if (degree != null) {
+                            setObjectiveCoefficient(degree);
+                            return;
+                        }
+
                         double cost = 0.0;
                         for (TypeVertex owner : attributeTypesToOwners.keySet()) {
                             double div = graphMgr.data().stats().thingVertexCount(owner);
@@ -1097,7 +1162,15 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                     void updateObjective(GraphManager graphMgr) {
                         assert !to.props().hasIID();
                         double cost = 0.0;
+                        Double degree = null;
                         if (!to.props().types().isEmpty() && !from.props().types().isEmpty()) {
+                            degree = reachedDegree(graphMgr, typesToAdjacents(
+                                    graphMgr, from.props().types(), to.props().types()
+                            ), PLAYING, FORWARD);
+                        }
+                        if (degree != null) {
+                            cost = degree;
+                        } else if (!to.props().types().isEmpty() && !from.props().types().isEmpty()) {
                             double div = graphMgr.data().stats().thingVertexSum(from.props().types());
                             if (div > 0) cost = graphMgr.data().stats().thingVertexSum(to.props().types()) / div;
                         } else {
@@ -1160,7 +1233,15 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                     void updateObjective(GraphManager graphMgr) {
                         assert !to.props().hasIID();
                         double cost = 0;
-                        if (!to.props().types().isEmpty()) {
+                        Double degree = null;
+                        if (!to.props().types().isEmpty() && !from.props().types().isEmpty()) {
+                            degree = reachedDegree(graphMgr, typesToAdjacents(
+                                    graphMgr, from.props().types(), to.props().types()
+                            ), RELATING, FORWARD);
+                        }
+                        if (degree != null) {
+                            cost = degree;
+                        } else if (!to.props().types().isEmpty()) {
                             cost = 0;
                             for (final Label roleType : to.props().types()) {
                                 assert roleType.scope().isPresent();
@@ -1234,8 +1315,22 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                     @Override
                     void updateObjective(GraphManager graphMgr) {
                         double cost = 0;
+                        Double degree = null;
+                        if (!to.props().hasIID() && !from.props().types().isEmpty() && !to.props().types().isEmpty()) {
+                            degree = reachedDegree(graphMgr, typesToAdjacents(
+                                    graphMgr, from.props().types(), to.props().types()
+                            ), ROLEPLAYER, FORWARD);
+                            if (degree != null && !roleTypes.isEmpty()) {
+                                Double relating = reachedDegree(graphMgr, typesToAdjacents(
+                                        graphMgr, from.props().types(), roleTypes
+                                ), RELATING, FORWARD);
+                                if (relating != null) degree = Math.min(degree, relating);
+                            }
+                        }
                         if (to.props().hasIID()) {
                             cost = 1;
+                        } else if (degree != null) {
+                            cost = degree;
                         } else if (!roleTypes.isEmpty()) {
                             cost = 0;
                             for (final Label roleType : roleTypes) {
@@ -1265,8 +1360,22 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                     @Override
                     void updateObjective(GraphManager graphMgr) {
                         double cost = 0;
+                        Double degree = null;
+                        if (!to.props().hasIID() && !from.props().types().isEmpty() && !to.props().types().isEmpty()) {
+                            degree = reachedDegree(graphMgr, typesToAdjacents(
+                                    graphMgr, from.props().types(), to.props().types()
+                            ), ROLEPLAYER, BACKWARD);
+                            if (degree != null && !roleTypes.isEmpty()) {
+                                Double playing = reachedDegree(graphMgr, typesToAdjacents(
+                                        graphMgr, from.props().types(), roleTypes
+                                ), PLAYING, FORWARD);
+                                if (playing != null) degree = Math.min(degree, playing);
+                            }
+                        }
                         if (to.props().hasIID()) {
                             cost = 1;
+                        } else if (degree != null) {
+                            cost = degree;
                         } else if (!roleTypes.isEmpty() && !from.props().types().isEmpty()) {
                             double div = graphMgr.data().stats().thingVertexSum(from.props().types());
                             if (div > 0) cost = graphMgr.data().stats().thingVertexSum(roleTypes) / div;
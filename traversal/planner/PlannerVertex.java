@@ -22,8 +22,12 @@ import com.google.ortools.linearsolver.MPConstraint;
 import com.google.ortools.linearsolver.MPVariable;
 import grakn.core.common.exception.GraknException;
 import grakn.core.graph.GraphManager;
+import grakn.core.graph.vertex.TypeVertex;
 import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.graph.TraversalVertex;
+import grakn.core.traversal.procedure.ValueRange;
+
+import java.util.Objects;
 
 import static grakn.common.util.Objects.className;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
@@ -157,18 +161,36 @@ public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Propertie
 
     protected void setObjectiveCoefficient(double cost) {
         assert !Double.isNaN(cost);
-        planner.objective().setCoefficient(
-                varIsStartingVertex, cost * Math.pow(planner.branchingFactor, planner.edges().size())
-        );
         costNext = cost;
+        if (planner.isSolverInitialised()) applyObjectiveCoefficient();
         planner.updateCostNext(costPrevious, costNext);
     }
 
+    void applyObjectiveCoefficient() {
+        if (!isPotentialStartingVertex) return;
+        planner.objective().setCoefficient(
+                varIsStartingVertex, costNext * Math.pow(planner.branchingFactor, planner.edges().size())
+        );
+    }
+
+    double cost() {
+        return costNext;
+    }
+
     void recordCost() {
         if (costNext == 0) costNext = 0.01;
         costPrevious = costNext;
     }
 
+    void recordCost(double cost) {
+        costNext = cost;
+        costPrevious = cost;
+    }
+
+    double recordedCost() {
+        return costPrevious;
+    }
+
     void recordValues() {
         valueIsStartingVertex = isPotentialStartingVertex ? (int) Math.round(varIsStartingVertex.solutionValue()) : 0;
         valueIsEndingVertex = (int) Math.round(varIsEndingVertex.solutionValue());
@@ -176,6 +198,13 @@ public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Propertie
         valueHasOutgoingEdges = (int) Math.round(varHasOutgoingEdges.solutionValue());
     }
 
+    void recordValues(boolean isStartingVertex, boolean hasIncomingEdges, boolean hasOutgoingEdges) {
+        valueIsStartingVertex = isStartingVertex ? 1 : 0;
+        valueIsEndingVertex = hasOutgoingEdges ? 0 : 1;
+        valueHasIncomingEdges = hasIncomingEdges ? 1 : 0;
+        valueHasOutgoingEdges = hasOutgoingEdges ? 1 : 0;
+    }
+
     public PlannerVertex.Thing asThing() {
         throw GraknException.of(ILLEGAL_CAST, className(this.getClass()), className(Thing.class));
     }
@@ -186,6 +215,8 @@ public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Propertie
 
     public static class Thing extends PlannerVertex<Properties.Thing> {
 
+        private static final double RANGE_PREDICATE_SELECTIVITY = 0.3;
+
         Thing(Identifier identifier, GraphPlanner planner) {
             super(identifier, planner);
         }
@@ -202,6 +233,10 @@ public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Propertie
             } else if (!props().types().isEmpty()) {
                 if (props().predicates().stream().anyMatch(p -> p.operator().equals(EQ))) {
                     setObjectiveCoefficient(props().types().size());
+                } else if (props().predicates().stream().anyMatch(p -> p.operator().isRange())) {
+                    // range predicates on sortable values seek directly into the attribute keys
+                    setObjectiveCoefficient(props().types().stream().map(l -> graph.schema().getType(l))
+                                                    .filter(Objects::nonNull).mapToDouble(t -> rangeCost(graph, t)).sum());
                 } else {
                     setObjectiveCoefficient(graph.data().stats().thingVertexSum(props().types()));
                 }
@@ -210,6 +245,17 @@ public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Propertie
             }
         }
 
+        /**
+         * Returns the cost of seeking the attributes of a type by range, which
+         * is only cheaper than a scan of the type when {@link ValueRange}
+         * supports its value type, i.e. not for strings or booleans.
+         */
+        private double rangeCost(GraphManager graph, TypeVertex type) {
+            final long count = graph.data().stats().thingVertexCount(type);
+            if (ValueRange.isSupported(type)) return count * props().selectivity().orElse(RANGE_PREDICATE_SELECTIVITY);
+            else return count;
+        }
+
         @Override
         public boolean isThing() { return true; }
 
@@ -18,6 +18,7 @@
 
 package grakn.core.traversal.procedure;
 
+import grakn.core.common.collection.ConcurrentFingerprintSet;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Label;
@@ -45,6 +46,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
+import static grakn.common.collection.Collections.list;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 
 public class GraphProcedure implements Procedure {
@@ -54,6 +56,7 @@ public class GraphProcedure implements Procedure {
     private final Map<Identifier, ProcedureVertex<?, ?>> vertices;
     private final ProcedureEdge<?, ?>[] edges;
     private ProcedureVertex<?, ?> startVertex;
+    private Boolean mayProduceDuplicates;
 
     private GraphProcedure(int edgeSize) {
         vertices = new HashMap<>();
@@ -97,6 +100,34 @@ public class GraphProcedure implements Procedure {
         return edges.length;
     }
 
+    /**
+     * Returns whether the procedure may produce the same answer more than once.
+     * An answer only contains the vertices that are referenced by name, so
+     * this is only the case if there are other vertices that can be bound to
+     * more than one vertex for the same answer, such as anonymous things,
+     * roles, or labels that may be bound to any of several types.
+     */
+    public boolean mayProduceDuplicates() {
+        if (mayProduceDuplicates == null) {
+            mayProduceDuplicates = vertices().anyMatch(v -> !v.id().isNamedReference() && !(
+                    v.isType() && v.id().isVariable() && v.id().asVariable().reference().isLabel() &&
+                            v.asType().props().labels().size() == 1
+            ));
+        }
+        return mayProduceDuplicates;
+    }
+
+    /**
+     * Returns the closure edges that the edge at a given position can be
+     * intersected with, when branching to its {@code to} vertex. An empty list
+     * means the edge should be branched as usual.
+     */
+    public List<ProcedureEdge<?, ?>> intersectedEdges(int pos) {
+        ProcedureEdge<?, ?> edge = edge(pos);
+        if (edge.to().branchEdge() != edge) return list();
+        else return edge.to().intersectedEdges();
+    }
+
     private void registerVertex(PlannerVertex<?> plannerVertex, Set<PlannerVertex<?>> registeredVertices,
                                 Set<PlannerEdge.Directional<?, ?>> registeredEdges) {
         if (registeredVertices.contains(plannerVertex)) return;
@@ -169,9 +200,12 @@ public class GraphProcedure implements Procedure {
     @Override
     public ResourceIterator<VertexMap> iterator(GraphManager graphMgr, Traversal.Parameters params) {
         LOG.debug(toString()); // TODO: remove this
-        return startVertex().iterator(graphMgr, params).flatMap(
+        ResourceIterator<VertexMap> answers = startVertex().iterator(graphMgr, params).flatMap(
                 sv -> new GraphIterator(graphMgr, sv, this, params)
-        ).distinct();
+        );
+        if (!mayProduceDuplicates()) return answers;
+        ConcurrentFingerprintSet produced = new ConcurrentFingerprintSet();
+        return answers.filter(answer -> produced.add(answer.fingerprintHigh(), answer.fingerprintLow()));
     }
 
     @Override
@@ -244,6 +278,20 @@ public class GraphProcedure implements Procedure {
             return edge;
         }
 
+        public ProcedureEdge.Native.Thing.Has.Forward forwardHas(
+                int order, ProcedureVertex.Thing owner, ProcedureVertex.Thing attribute) {
+            ProcedureEdge.Native.Thing.Has.Forward edge = new ProcedureEdge.Native.Thing.Has.Forward(owner, attribute, order);
+            registerEdge(edge);
+            return edge;
+        }
+
+        public ProcedureEdge.Native.Thing.Has.Backward backwardHas(
+                int order, ProcedureVertex.Thing attribute, ProcedureVertex.Thing owner) {
+            ProcedureEdge.Native.Thing.Has.Backward edge = new ProcedureEdge.Native.Thing.Has.Backward(attribute, owner, order);
+            registerEdge(edge);
+            return edge;
+        }
+
         public ProcedureEdge.Native.Thing.RolePlayer.Forward forwardRolePlayer(
                 int order, ProcedureVertex.Thing relation, ProcedureVertex.Thing player, Set<Label> roleTypes) {
             ProcedureEdge.Native.Thing.RolePlayer.Forward edge =
@@ -23,6 +23,7 @@ import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Label;
 import grakn.core.graph.GraphManager;
 import grakn.core.graph.edge.ThingEdge;
+import grakn.core.graph.iid.InfixIID;
 import grakn.core.graph.iid.PrefixIID;
 import grakn.core.graph.iid.VertexIID;
 import grakn.core.graph.util.Encoding;
@@ -34,6 +35,7 @@ import grakn.core.traversal.Traversal;
 import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.graph.TraversalEdge;
 import grakn.core.traversal.planner.PlannerEdge;
+import grakn.core.traversal.producer.LeapfrogIterator;
 import graql.lang.common.GraqlToken;
 
 import java.util.Objects;
@@ -41,6 +43,7 @@ import java.util.Set;
 
 import static grakn.common.collection.Collections.list;
 import static grakn.common.util.Objects.className;
+import static grakn.core.common.collection.Bytes.join;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_OPERATION;
 import static grakn.core.common.exception.ErrorMessage.Internal.UNRECOGNISED_VALUE;
@@ -65,6 +68,7 @@ import static grakn.core.graph.util.Encoding.Edge.Type.SUB;
 import static grakn.core.graph.util.Encoding.Prefix.VERTEX_ATTRIBUTE;
 import static grakn.core.graph.util.Encoding.Prefix.VERTEX_ROLE;
 import static grakn.core.graph.util.Encoding.Vertex.Thing.RELATION;
+import static grakn.core.traversal.common.Predicate.Operator.Equality.EQ;
 
 public abstract class ProcedureEdge<
         VERTEX_FROM extends ProcedureVertex<?, ?>,
@@ -114,6 +118,20 @@ public abstract class ProcedureEdge<
         return order() > to().branchEdge().order();
     }
 
+    public boolean isSeekable() { return false; }
+
+    /**
+     * Returns the vertices adjacent to a given vertex through this edge, in the
+     * key order of the storage, so that they can be intersected with those of
+     * other edges. The vertex is bound to the {@code from} end of this edge,
+     * or to the {@code to} end if {@code isReverse} is true.
+     */
+    public LeapfrogIterator.Seekable seekableAdjacents(GraphManager graphMgr, ThingVertex vertex, boolean isReverse) {
+        throw GraknException.of(ILLEGAL_OPERATION);
+    }
+
+    public boolean isHas() { return false; }
+
     public boolean isRolePlayer() { return false; }
 
     public Native.Thing.RolePlayer asRolePlayer() {
@@ -175,14 +193,27 @@ public abstract class ProcedureEdge<
             if (to.props().hasIID()) {
                 toIter = to.iterateAndFilterFromIID(graphMgr, params)
                         .filter(ThingVertex::isAttribute).map(ThingVertex::asAttribute);
-            } else if (!to.props().types().isEmpty()) {
+            } else if (!to.props().types().isEmpty() &&
+                    to.props().predicates().stream().anyMatch(p -> p.operator().equals(EQ))) {
                 toIter = to.iterateAndFilterFromTypes(graphMgr, params)
                         .filter(ThingVertex::isAttribute).map(ThingVertex::asAttribute);
+            } else if (!to.props().types().isEmpty()) {
+                // join on the value of 'from': seek into each type of 'to', rather than scan all of its attributes
+                AttributeVertex<?> fromAttribute = fromVertex.asThing().asAttribute();
+                toIter = iterate(to.props().types().iterator())
+                        .map(l -> graphMgr.schema().getType(l)).noNulls()
+                        .filter(t -> t.isAttributeType() && t.valueType() != null &&
+                                fromAttribute.valueType().comparableTo(t.valueType()))
+                        .flatMap(t -> iterateFromType(graphMgr, t, fromAttribute, params));
+                if (!to.props().predicates().isEmpty()) {
+                    toIter = to.filterPredicates(toIter, params);
+                }
             } else {
                 assert !to.isStartingVertex();
-                toIter = iterate(fromVertex.asThing().asAttribute().valueType().comparables())
+                AttributeVertex<?> fromAttribute = fromVertex.asThing().asAttribute();
+                toIter = iterate(fromAttribute.valueType().comparables())
                         .flatMap(vt -> graphMgr.schema().attributeTypes(vt))
-                        .flatMap(at -> graphMgr.data().get(at)).map(ThingVertex::asAttribute);
+                        .flatMap(at -> iterateFromType(graphMgr, at, fromAttribute, params));
                 if (!to.props().predicates().isEmpty()) {
                     toIter = to.filterPredicates(toIter, params);
                 }
@@ -191,6 +222,32 @@ public abstract class ProcedureEdge<
             return toIter.filter(toVertex -> predicate.apply(fromVertex.asThing().asAttribute(), toVertex));
         }
 
+        private ResourceIterator<AttributeVertex<?>> iterateFromType(
+                GraphManager graphMgr, TypeVertex type, AttributeVertex<?> fromAttribute, Traversal.Parameters params) {
+            final ValueRange range = to.valueRange(type, params);
+            if (range == null) {
+                if (predicate.operator().equals(EQ)) return iterateEqual(graphMgr, type, fromAttribute);
+                else return graphMgr.data().get(type).map(ThingVertex::asAttribute);
+            }
+            // the predicate is applied as (from OP to), so we restrict the range of 'to' by the reflected operator
+            range.restrict(predicate.reflection().operator(), fromAttribute);
+            return range.iterator(graphMgr);
+        }
+
+        private ResourceIterator<AttributeVertex<?>> iterateEqual(GraphManager graphMgr, TypeVertex type,
+                                                                  AttributeVertex<?> fromAttribute) {
+            // strings and booleans are only equal to values of the same value type, which we look up directly
+            AttributeVertex<?> toAttribute = null;
+            if (fromAttribute.isString() && type.valueType().equals(Encoding.ValueType.STRING)) {
+                toAttribute = graphMgr.data().get(type, fromAttribute.asString().value());
+            } else if (fromAttribute.isBoolean() && type.valueType().equals(Encoding.ValueType.BOOLEAN)) {
+                toAttribute = graphMgr.data().get(type, fromAttribute.asBoolean().value());
+            } else {
+                return graphMgr.data().get(type).map(ThingVertex::asAttribute);
+            }
+            return single(toAttribute).noNulls();
+        }
+
         @Override
         public boolean isClosure(GraphManager graphMgr, Vertex<?, ?> fromVertex, Vertex<?, ?> toVertex,
                                  Traversal.Parameters params) {
@@ -300,7 +357,7 @@ public abstract class ProcedureEdge<
                     else typeIter = tree(type, v -> v.ins().edge(SUB).from());
                     if (!toTypes.isEmpty()) typeIter = typeIter.filter(t -> toTypes.contains(t.properLabel()));
 
-                    ResourceIterator<? extends ThingVertex> iter = typeIter.flatMap(t -> graphMgr.data().get(t));
+                    ResourceIterator<? extends ThingVertex> iter = typeIter.flatMap(t -> to.iterateFromType(graphMgr, t, params));
                     if (to.props().hasIID()) iter = to.filterIID(iter, params);
                     if (!to.props().predicates().isEmpty()) iter = to.filterPredicates(iter, params);
                     return iter;
@@ -613,6 +670,21 @@ public abstract class ProcedureEdge<
                 }
             }
 
+            Encoding.Infix infix(Encoding.Edge.Thing encoding, boolean isReverse) {
+                return direction().isForward() != isReverse ? encoding.out() : encoding.in();
+            }
+
+            LeapfrogIterator.Seekable seekableAdjacents(GraphManager graphMgr, byte[] base, boolean isReverse) {
+                Set<Label> adjacentTypes = isReverse ? from.props().types() : to.props().types();
+                return new LeapfrogIterator.Union(
+                        iterate(adjacentTypes).map(l -> graphMgr.schema().getType(l)).noNulls().<LeapfrogIterator.Seekable>map(
+                                t -> new LeapfrogIterator.Adjacency(
+                                        graphMgr.data().storage(), base, PrefixIID.of(t.encoding().instance()), t.iid()
+                                )
+                        ).toList()
+                );
+            }
+
             ResourceIterator<? extends ThingVertex> backwardBranchToIID(
                     GraphManager graphMgr, ThingVertex fromVertex,
                     Encoding.Edge.Thing encoding, VertexIID.Thing toIID) {
@@ -643,9 +715,22 @@ public abstract class ProcedureEdge<
                     super(from, to, order, direction, HAS.name());
                 }
 
+                @Override
+                public boolean isHas() { return true; }
+
+                @Override
+                public boolean isSeekable() { return true; }
+
+                @Override
+                public LeapfrogIterator.Seekable seekableAdjacents(GraphManager graphMgr, ThingVertex vertex,
+                                                                   boolean isReverse) {
+                    byte[] base = join(vertex.iid().bytes(), InfixIID.Thing.of(infix(HAS, isReverse)).bytes());
+                    return seekableAdjacents(graphMgr, base, isReverse);
+                }
+
                 static class Forward extends Has {
 
-                    private Forward(ProcedureVertex.Thing from, ProcedureVertex.Thing to, int order) {
+                    Forward(ProcedureVertex.Thing from, ProcedureVertex.Thing to, int order) {
                         super(from, to, order, FORWARD);
                     }
 
@@ -691,7 +776,7 @@ public abstract class ProcedureEdge<
 
                 static class Backward extends Has {
 
-                    private Backward(ProcedureVertex.Thing from, ProcedureVertex.Thing to, int order) {
+                    Backward(ProcedureVertex.Thing from, ProcedureVertex.Thing to, int order) {
                         super(from, to, order, BACKWARD);
                     }
 
@@ -863,6 +948,14 @@ public abstract class ProcedureEdge<
                 public abstract ResourceIterator<ThingEdge> branchEdge(GraphManager graphMgr, Vertex<?, ?> fromVertex,
                                                                        Traversal.Parameters params);
 
+                /**
+                 * Returns the edges of any of the role types from a given vertex
+                 * to a given vertex, which may be more than one if a player plays
+                 * several roles in the same relation.
+                 */
+                public abstract ResourceIterator<ThingEdge> branchEdge(GraphManager graphMgr, Vertex<?, ?> fromVertex,
+                                                                       ThingVertex toVertex);
+
                 public abstract boolean isClosure(GraphManager graphMgr, Vertex<?, ?> fromVertex,
                                                   Vertex<?, ?> toVertex, Traversal.Parameters params,
                                                   Set<ThingVertex> withinScope);
@@ -880,6 +973,21 @@ public abstract class ProcedureEdge<
                     throw GraknException.of(ILLEGAL_OPERATION);
                 }
 
+                @Override
+                public boolean isSeekable() { return !roleTypes.isEmpty(); }
+
+                @Override
+                public LeapfrogIterator.Seekable seekableAdjacents(GraphManager graphMgr, ThingVertex vertex,
+                                                                   boolean isReverse) {
+                    assert !roleTypes.isEmpty();
+                    Encoding.Infix infix = infix(ROLEPLAYER, isReverse);
+                    return new LeapfrogIterator.Union(
+                            iterate(roleTypes).map(l -> graphMgr.schema().getType(l)).noNulls().map(rt -> seekableAdjacents(
+                                    graphMgr, join(vertex.iid().bytes(), InfixIID.Thing.of(infix, rt.iid()).bytes()), isReverse
+                            )).toList()
+                    );
+                }
+
                 @Override
                 public boolean isRolePlayer() { return true; }
 
@@ -916,9 +1024,7 @@ public abstract class ProcedureEdge<
                                 filteredIID = true;
                                 ThingVertex player = graphMgr.data().get(params.getIID(to.id().asVariable()));
                                 if (player == null) return empty();
-                                iter = iterate(roleTypes).map(l -> graphMgr.schema().getType(l)).noNulls().flatMap(
-                                        rt -> rel.outs().edge(ROLEPLAYER, rt.iid(), player.iid().prefix(), player.iid().type()).get()
-                                ).filter(e -> e.to().equals(player));
+                                iter = branchEdge(graphMgr, rel, player);
                             } else if (!to.props().types().isEmpty()) {
                                 filteredTypes = true;
                                 iter = iterate(roleTypes).map(l -> graphMgr.schema().getType(l)).noNulls()
@@ -938,6 +1044,16 @@ public abstract class ProcedureEdge<
                         return iter;
                     }
 
+                    @Override
+                    public ResourceIterator<ThingEdge> branchEdge(GraphManager graphMgr, Vertex<?, ?> fromVertex,
+                                                                  ThingVertex player) {
+                        assert fromVertex.isThing() && !roleTypes.isEmpty();
+                        ThingVertex rel = fromVertex.asThing();
+                        return iterate(roleTypes).map(l -> graphMgr.schema().getType(l)).noNulls().flatMap(
+                                rt -> rel.outs().edge(ROLEPLAYER, rt.iid(), player.iid().prefix(), player.iid().type()).get()
+                        ).filter(e -> e.to().equals(player));
+                    }
+
                     public boolean isClosure(GraphManager graphMgr, Vertex<?, ?> fromVertex,
                                              Vertex<?, ?> toVertex, Traversal.Parameters params, Set<ThingVertex> withinScope) {
                         ThingVertex rel = fromVertex.asThing();
@@ -975,9 +1091,7 @@ public abstract class ProcedureEdge<
                                 filteredIID = true;
                                 ThingVertex relation = graphMgr.data().get(params.getIID(to.id().asVariable()));
                                 if (relation == null) return empty();
-                                iter = iterate(roleTypes).map(l -> graphMgr.schema().getType(l)).noNulls().flatMap(
-                                        rt -> player.ins().edge(ROLEPLAYER, rt.iid(), relation.iid().prefix(), relation.iid().type())
-                                                .get().filter(r -> r.from().equals(relation)));
+                                iter = branchEdge(graphMgr, player, relation);
                             } else if (!to.props().types().isEmpty()) {
                                 filteredTypes = true;
                                 iter = iterate(roleTypes).map(l -> graphMgr.schema().getType(l)).noNulls()
@@ -996,6 +1110,17 @@ public abstract class ProcedureEdge<
                         return iter;
                     }
 
+                    @Override
+                    public ResourceIterator<ThingEdge> branchEdge(GraphManager graphMgr, Vertex<?, ?> fromVertex,
+                                                                  ThingVertex relation) {
+                        assert fromVertex.isThing() && !roleTypes.isEmpty();
+                        ThingVertex player = fromVertex.asThing();
+                        return iterate(roleTypes).map(l -> graphMgr.schema().getType(l)).noNulls().flatMap(
+                                rt -> player.ins().edge(ROLEPLAYER, rt.iid(), relation.iid().prefix(), relation.iid().type())
+                                        .get().filter(r -> r.from().equals(relation))
+                        );
+                    }
+
                     public boolean isClosure(GraphManager graphMgr, Vertex<?, ?> fromVertex,
                                              Vertex<?, ?> toVertex, Traversal.Parameters params, Set<ThingVertex> withinScope) {
                         ThingVertex player = fromVertex.asThing();
@@ -32,11 +32,16 @@ import grakn.core.traversal.common.Predicate;
 import grakn.core.traversal.graph.TraversalVertex;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static grakn.common.collection.Collections.list;
 import static grakn.common.collection.Collections.set;
@@ -57,16 +62,27 @@ public abstract class ProcedureVertex<
 
     private final boolean isStartingVertex;
     private final AtomicReference<Set<Integer>> dependedEdgeOrders;
+    private final AtomicReference<List<ProcedureEdge<?, ?>>> intersectedEdges;
     private ProcedureEdge<?, ?> iteratorEdge;
 
     ProcedureVertex(Identifier identifier, boolean isStartingVertex) {
         super(identifier);
         this.isStartingVertex = isStartingVertex;
         this.dependedEdgeOrders = new AtomicReference<>(null);
+        this.intersectedEdges = new AtomicReference<>(null);
     }
 
     public abstract ResourceIterator<? extends VERTEX> iterator(GraphManager graphMgr, Traversal.Parameters parameters);
 
+    /**
+     * Returns the vertices of this starting vertex, split into a number of
+     * iterators that can be consumed independently of each other.
+     */
+    public List<ResourceIterator<? extends VERTEX>> iterators(GraphManager graphMgr, Traversal.Parameters parameters,
+                                                              int ranges) {
+        return list(iterator(graphMgr, parameters));
+    }
+
     @Override
     public void in(ProcedureEdge<?, ?> edge) {
         super.in(edge);
@@ -82,9 +98,50 @@ public abstract class ProcedureVertex<
         return dependedEdgeOrders.get();
     }
 
+    /**
+     * The edges that bound this vertex: those of its branch edge, and of the
+     * vertices bound to the closure edges that its branch is intersected with.
+     */
     private Set<Integer> computeDependedEdgeOrders() {
         if (ins().isEmpty()) return set();
-        else return set(branchEdge().from().dependedEdgeOrders(), branchEdge().order());
+        Set<Integer> orders = new HashSet<>(branchEdge().from().dependedEdgeOrders());
+        orders.add(branchEdge().order());
+        for (ProcedureEdge<?, ?> closure : intersectedEdges()) orders.addAll(boundVertex(closure).dependedEdgeOrders());
+        return orders;
+    }
+
+    /**
+     * Returns the closure edges that the branch edge of this vertex can be
+     * intersected with: its later edges whose other vertex is already bound
+     * before the branch edge, such that the cycles they close can be joined
+     * together instead of being checked one answer at a time.
+     */
+    public List<ProcedureEdge<?, ?>> intersectedEdges() {
+        intersectedEdges.compareAndSet(null, computeIntersectedEdges());
+        return intersectedEdges.get();
+    }
+
+    private List<ProcedureEdge<?, ?>> computeIntersectedEdges() {
+        ProcedureEdge<?, ?> edge = branchEdge();
+        if (edge == null || !edge.isSeekable() || !isThing() || id().isScoped() || asThing().props().hasIID() ||
+                !asThing().props().predicates().isEmpty() || asThing().props().types().isEmpty()) {
+            return list();
+        }
+
+        List<ProcedureEdge<?, ?>> closures = new ArrayList<>();
+        Stream.concat(ins().stream(), outs().stream()).forEach(closure -> {
+            ProcedureVertex<?, ?> bound = boundVertex(closure);
+            if (closure.order() > edge.order() && closure.isSeekable() && !bound.equals(this) &&
+                    (bound.isStartingVertex() || bound.branchEdge().order() < edge.order())) {
+                closures.add(closure);
+            }
+        });
+        closures.sort(Comparator.comparing(ProcedureEdge::order));
+        return closures;
+    }
+
+    private ProcedureVertex<?, ?> boundVertex(ProcedureEdge<?, ?> closure) {
+        return closure.from().equals(this) ? closure.to() : closure.from();
     }
 
     public ProcedureEdge<?, ?> branchEdge() {
@@ -126,9 +183,36 @@ public abstract class ProcedureVertex<
         @Override
         public ResourceIterator<? extends ThingVertex> iterator(GraphManager graphMgr, Traversal.Parameters parameters) {
             assert isStartingVertex();
-            if (props().hasIID()) return iterateAndFilterFromIID(graphMgr, parameters);
-            else if (!props().types().isEmpty()) return iterateAndFilterFromTypes(graphMgr, parameters);
-            else throw GraknException.of(ILLEGAL_STATE);
+            if (props().hasIID()) return filterInferred(iterateAndFilterFromIID(graphMgr, parameters), parameters);
+            else if (!props().types().isEmpty()) {
+                return filterInferred(iterateAndFilterFromTypes(graphMgr, parameters), parameters);
+            } else throw GraknException.of(ILLEGAL_STATE);
+        }
+
+        @Override
+        public List<ResourceIterator<? extends ThingVertex>> iterators(GraphManager graphMgr,
+                                                                       Traversal.Parameters parameters, int ranges) {
+            assert isStartingVertex();
+            if (props().hasIID() || props().types().isEmpty() ||
+                    props().predicates().stream().anyMatch(p -> p.operator().equals(EQ))) {
+                return super.iterators(graphMgr, parameters, ranges);
+            }
+
+            List<ResourceIterator<? extends ThingVertex>> iterators = new ArrayList<>();
+            iterate(props().types().iterator()).map(l -> graphMgr.schema().getType(l)).noNulls().forEachRemaining(t -> {
+                final ValueRange range = valueRange(t, parameters);
+                if (range != null && range.isBounded()) iterators.add(range.iterator(graphMgr));
+                else iterators.addAll(graphMgr.data().get(t, ranges));
+            });
+            if (!props().predicates().isEmpty()) iterators.replaceAll(iter -> filterPredicates(iter, parameters));
+            iterators.replaceAll(iter -> filterInferred(iter, parameters));
+            return iterators;
+        }
+
+        private ResourceIterator<? extends ThingVertex> filterInferred(ResourceIterator<? extends ThingVertex> iterator,
+                                                                       Traversal.Parameters parameters) {
+            if (parameters.includesInferred()) return iterator;
+            else return iterator.filter(vertex -> !vertex.isInferred());
         }
 
         ResourceIterator<? extends ThingVertex> iterateAndFilterFromIID(GraphManager graphMgr,
@@ -152,13 +236,35 @@ public abstract class ProcedureVertex<
             } else {
                 iter = iterate(props().types().iterator())
                         .map(l -> graphMgr.schema().getType(l)).noNulls()
-                        .flatMap(t -> graphMgr.data().get(t)).noNulls();
+                        .flatMap(t -> iterateFromType(graphMgr, t, parameters)).noNulls();
             }
 
             if (props().predicates().isEmpty()) return iter;
             else return filterPredicates(iter, parameters, eq.orElse(null));
         }
 
+        ResourceIterator<ThingVertex> iterateFromType(GraphManager graphMgr, TypeVertex type,
+                                                      Traversal.Parameters parameters) {
+            final ValueRange range = valueRange(type, parameters);
+            if (range != null && range.isBounded()) return range.iterator(graphMgr).map(attribute -> attribute);
+            else return graphMgr.data().get(type);
+        }
+
+        @Nullable
+        ValueRange valueRange(TypeVertex type, Traversal.Parameters parameters) {
+            if (!type.isAttributeType()) return null;
+            final ValueRange range = ValueRange.of(type);
+            if (range == null) return null;
+            assert id().isVariable();
+            for (Predicate.Value<?> predicate : props().predicates()) {
+                if (!ValueRange.isBounding(predicate.operator())) continue;
+                for (Traversal.Parameters.Value value : parameters.getValues(id().asVariable(), predicate)) {
+                    range.restrict(predicate.operator().asEquality(), value);
+                }
+            }
+            return range;
+        }
+
         ResourceIterator<? extends ThingVertex> filterIID(ResourceIterator<? extends ThingVertex> iterator, Traversal.Parameters parameters) {
             return iterator.filter(v -> v.iid().equals(parameters.getIID(id().asVariable())));
         }
@@ -192,7 +298,7 @@ public abstract class ProcedureVertex<
             ResourceIterator<? extends AttributeVertex<?>> attributes =
                     iterator.filter(ThingVertex::isAttribute).<AttributeVertex<?>>map(ThingVertex::asAttribute);
             for (Predicate.Value<?> predicate : props().predicates()) {
-                if (Objects.equals(predicate, exclude)) break;
+                if (Objects.equals(predicate, exclude)) continue;
                 for (Traversal.Parameters.Value value : parameters.getValues(id().asVariable(), predicate)) {
                     attributes = attributes.filter(a -> predicate.apply(a, value));
                 }
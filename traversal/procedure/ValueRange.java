@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.traversal.procedure;
+
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.graph.GraphManager;
+import grakn.core.graph.iid.VertexIID;
+import grakn.core.graph.vertex.AttributeVertex;
+import grakn.core.graph.vertex.TypeVertex;
+import grakn.core.traversal.Traversal;
+import grakn.core.traversal.common.Predicate;
+
+import javax.annotation.Nullable;
+import java.time.LocalDateTime;
+
+import static grakn.core.common.iterator.Iterators.empty;
+import static grakn.core.graph.util.Encoding.ValueType.DOUBLE_PRECISION;
+import static grakn.core.traversal.common.Predicate.Operator.Equality.EQ;
+import static grakn.core.traversal.common.Predicate.Operator.Equality.GT;
+import static grakn.core.traversal.common.Predicate.Operator.Equality.GTE;
+import static grakn.core.traversal.common.Predicate.Operator.Equality.LT;
+import static grakn.core.traversal.common.Predicate.Operator.Equality.LTE;
+
+/**
+ * The range of values of an attribute type that can satisfy a set of
+ * equality predicates, used to seek directly into the sorted attribute keys.
+ *
+ * The range is always conservative: it may include values that do not satisfy
+ * the predicates (e.g. due to the precision of comparing doubles), so the
+ * predicates still need to be applied to the attributes returned by the range.
+ *
+ * Only long, double and datetime attributes are supported. String attributes
+ * are keyed by their length before their content, and boolean attributes only
+ * have two values, so neither is sorted by value in a way a range could seek.
+ * Range predicates on them are applied to every attribute of the type.
+ */
+public abstract class ValueRange {
+
+    final TypeVertex type;
+    boolean isEmpty;
+    boolean isBounded;
+
+    private ValueRange(TypeVertex type) {
+        this.type = type;
+        this.isEmpty = false;
+        this.isBounded = false;
+    }
+
+    /**
+     * Returns whether the values of an attribute type can be sought by range.
+     */
+    public static boolean isSupported(TypeVertex type) {
+        if (!type.isAttributeType() || type.valueType() == null) return false;
+        switch (type.valueType()) {
+            case LONG:
+            case DOUBLE:
+            case DATETIME:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Nullable
+    static ValueRange of(TypeVertex type) {
+        assert type.isAttributeType();
+        if (!isSupported(type)) return null;
+        switch (type.valueType()) {
+            case LONG:
+                return new Long(type);
+            case DOUBLE:
+                return new Double(type);
+            case DATETIME:
+                return new DateTime(type);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns whether a predicate with the given operator bounds the range of
+     * values, which is the case for ranges, and for equalities, which bound it
+     * to a single value.
+     */
+    static boolean isBounding(Predicate.Operator operator) {
+        return operator.isRange() || operator.equals(EQ);
+    }
+
+    void restrict(Predicate.Operator.Equality operator, Traversal.Parameters.Value value) {
+        if (!isBounding(operator)) return;
+        if (value.isLong()) restrict(operator, value.getLong().longValue());
+        else if (value.isDouble()) restrict(operator, value.getDouble().doubleValue());
+        else if (value.isDateTime()) restrict(operator, value.getDateTime());
+    }
+
+    void restrict(Predicate.Operator.Equality operator, AttributeVertex<?> vertex) {
+        if (!isBounding(operator)) return;
+        if (vertex.isLong()) restrict(operator, vertex.asLong().value().longValue());
+        else if (vertex.isDouble()) restrict(operator, vertex.asDouble().value().doubleValue());
+        else if (vertex.isDateTime()) restrict(operator, vertex.asDateTime().value());
+    }
+
+    void restrict(Predicate.Operator.Equality operator, long value) {}
+
+    void restrict(Predicate.Operator.Equality operator, double value) {}
+
+    void restrict(Predicate.Operator.Equality operator, LocalDateTime value) {}
+
+    boolean isBounded() {
+        return isBounded;
+    }
+
+    @Nullable
+    abstract VertexIID.Attribute<?> lowerBound();
+
+    @Nullable
+    abstract VertexIID.Attribute<?> upperBound();
+
+    ResourceIterator<AttributeVertex<?>> iterator(GraphManager graphMgr) {
+        if (isEmpty) return empty();
+        else return graphMgr.data().get(type, lowerBound(), upperBound());
+    }
+
+    private static boolean isLowerBounding(Predicate.Operator.Equality operator) {
+        return operator.equals(EQ) || operator.equals(GT) || operator.equals(GTE);
+    }
+
+    private static boolean isUpperBounding(Predicate.Operator.Equality operator) {
+        return operator.equals(EQ) || operator.equals(LT) || operator.equals(LTE);
+    }
+
+    static class Long extends ValueRange {
+
+        private long lower;
+        private long upper;
+
+        private Long(TypeVertex type) {
+            super(type);
+            lower = java.lang.Long.MIN_VALUE;
+            upper = java.lang.Long.MAX_VALUE;
+        }
+
+        @Override
+        void restrict(Predicate.Operator.Equality operator, long value) {
+            isBounded = true;
+            if (operator.equals(GT)) {
+                if (value == java.lang.Long.MAX_VALUE) isEmpty = true;
+                else lower = Math.max(lower, value + 1);
+            } else if (operator.equals(LT)) {
+                if (value == java.lang.Long.MIN_VALUE) isEmpty = true;
+                else upper = Math.min(upper, value - 1);
+            } else {
+                if (isLowerBounding(operator)) lower = Math.max(lower, value);
+                if (isUpperBounding(operator)) upper = Math.min(upper, value);
+            }
+            if (lower > upper) isEmpty = true;
+        }
+
+        @Override
+        void restrict(Predicate.Operator.Equality operator, double value) {
+            if (java.lang.Double.isNaN(value)) return;
+            isBounded = true;
+            // doubles are compared with a precision margin, so we widen the range by the same margin
+            if (isLowerBounding(operator)) lower = Math.max(lower, (long) Math.ceil(value - DOUBLE_PRECISION));
+            if (isUpperBounding(operator)) upper = Math.min(upper, (long) Math.floor(value + DOUBLE_PRECISION));
+            if (lower > upper) isEmpty = true;
+        }
+
+        @Override
+        VertexIID.Attribute<?> lowerBound() {
+            return new VertexIID.Attribute.Long(type.iid(), lower);
+        }
+
+        @Override
+        VertexIID.Attribute<?> upperBound() {
+            return new VertexIID.Attribute.Long(type.iid(), upper);
+        }
+    }
+
+    static class Double extends ValueRange {
+
+        private double lower;
+        private double upper;
+
+        private Double(TypeVertex type) {
+            super(type);
+            lower = java.lang.Double.NEGATIVE_INFINITY;
+            upper = java.lang.Double.POSITIVE_INFINITY;
+        }
+
+        @Override
+        void restrict(Predicate.Operator.Equality operator, long value) {
+            restrict(operator, (double) value);
+        }
+
+        @Override
+        void restrict(Predicate.Operator.Equality operator, double value) {
+            if (java.lang.Double.isNaN(value)) return;
+            isBounded = true;
+            // doubles are compared with a precision margin, so we widen the range by the same margin
+            if (isLowerBounding(operator)) lower = Math.max(lower, value - DOUBLE_PRECISION);
+            if (isUpperBounding(operator)) upper = Math.min(upper, value + DOUBLE_PRECISION);
+            if (lower > upper) isEmpty = true;
+        }
+
+        @Override
+        VertexIID.Attribute<?> lowerBound() {
+            return new VertexIID.Attribute.Double(type.iid(), lower);
+        }
+
+        @Override
+        VertexIID.Attribute<?> upperBound() {
+            return new VertexIID.Attribute.Double(type.iid(), upper);
+        }
+    }
+
+    static class DateTime extends ValueRange {
+
+        private LocalDateTime lower;
+        private LocalDateTime upper;
+
+        private DateTime(TypeVertex type) {
+            super(type);
+            lower = null;
+            upper = null;
+        }
+
+        @Override
+        void restrict(Predicate.Operator.Equality operator, LocalDateTime value) {
+            isBounded = true;
+            // datetimes are encoded in milliseconds, so strict bounds are left to be filtered by the predicate
+            if (isLowerBounding(operator) && (lower == null || value.isAfter(lower))) lower = value;
+            if (isUpperBounding(operator) && (upper == null || value.isBefore(upper))) upper = value;
+            if (lower != null && upper != null && lower.isAfter(upper)) isEmpty = true;
+        }
+
+        @Override
+        VertexIID.Attribute<?> lowerBound() {
+            return lower == null ? null : new VertexIID.Attribute.DateTime(type.iid(), lower);
+        }
+
+        @Override
+        VertexIID.Attribute<?> upperBound() {
+            return upper == null ? null : new VertexIID.Attribute.DateTime(type.iid(), upper);
+        }
+    }
+}
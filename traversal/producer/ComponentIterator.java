@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.traversal.producer;
+
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.graph.vertex.Vertex;
+import grakn.core.traversal.common.VertexMap;
+import graql.lang.pattern.variable.Reference;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Combines the answers of the disconnected components of a traversal into
+ * their cartesian product.
+ *
+ * The answers of the first component are streamed, while the answers of every
+ * other component are materialised once, when the first component produces
+ * its first answer, into a {@link Columns} buffer: one array of vertices per
+ * reference, rather than one map per answer. If any component has no answers,
+ * the first component is never iterated beyond its first answer.
+ */
+public class ComponentIterator implements ResourceIterator<VertexMap> {
+
+    private final ResourceIterator<VertexMap> streamed;
+    private final List<ResourceIterator<VertexMap>> buffered;
+    private final List<Columns> columns;
+    private final int[] rows;
+    private VertexMap current;
+    private State state;
+
+    private enum State {INIT, EMPTY, FETCHED, COMPLETED}
+
+    public ComponentIterator(ResourceIterator<VertexMap> streamed, List<ResourceIterator<VertexMap>> buffered) {
+        this.streamed = streamed;
+        this.buffered = buffered;
+        this.columns = new ArrayList<>(buffered.size());
+        this.rows = new int[buffered.size()];
+        this.state = State.INIT;
+    }
+
+    @Override
+    public boolean hasNext() {
+        switch (state) {
+            case INIT:
+                return initialiseAndCheck();
+            case EMPTY:
+                return fetchAndCheck();
+            case FETCHED:
+                return true;
+            case COMPLETED:
+                return false;
+            default: // This should never be reached
+                return false;
+        }
+    }
+
+    private boolean initialiseAndCheck() {
+        if (!streamed.hasNext()) return complete();
+        for (ResourceIterator<VertexMap> iterator : buffered) {
+            Columns component = Columns.of(iterator);
+            if (component.size() == 0) return complete();
+            columns.add(component);
+        }
+        current = streamed.next();
+        state = State.FETCHED;
+        return true;
+    }
+
+    private boolean fetchAndCheck() {
+        for (int i = rows.length - 1; i >= 0; i--) {
+            if (++rows[i] < columns.get(i).size()) {
+                state = State.FETCHED;
+                return true;
+            }
+            rows[i] = 0;
+        }
+        if (!streamed.hasNext()) return complete();
+        current = streamed.next();
+        state = State.FETCHED;
+        return true;
+    }
+
+    private boolean complete() {
+        recycle();
+        state = State.COMPLETED;
+        return false;
+    }
+
+    @Override
+    public VertexMap next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        int size = current.map().size();
+        for (Columns component : columns) size += component.width();
+        Map<Reference, Vertex<?, ?>> answer = new HashMap<>((int) (size / 0.75f) + 1);
+        answer.putAll(current.map());
+        for (int i = 0; i < rows.length; i++) columns.get(i).putInto(rows[i], answer);
+        state = State.EMPTY;
+        return VertexMap.of(answer);
+    }
+
+    @Override
+    public void recycle() {
+        streamed.recycle();
+        buffered.forEach(ResourceIterator::recycle);
+    }
+
+    /**
+     * The answers of one component, stored column by column. Every answer of a
+     * component binds the same references, so we only store the vertices.
+     */
+    private static class Columns {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final Reference[] references;
+        private final Vertex<?, ?>[][] vertices;
+        private int size;
+
+        private Columns(Reference[] references) {
+            this.references = references;
+            this.vertices = new Vertex<?, ?>[references.length][INITIAL_CAPACITY];
+            this.size = 0;
+        }
+
+        static Columns of(ResourceIterator<VertexMap> iterator) {
+            if (!iterator.hasNext()) return new Columns(new Reference[0]);
+            VertexMap first = iterator.next();
+            Columns columns = new Columns(first.map().keySet().toArray(new Reference[0]));
+            columns.add(first);
+            iterator.forEachRemaining(columns::add);
+            return columns;
+        }
+
+        private void add(VertexMap answer) {
+            assert answer.map().size() == references.length;
+            if (references.length > 0 && size == vertices[0].length) grow();
+            for (int i = 0; i < references.length; i++) vertices[i][size] = answer.get(references[i]);
+            size++;
+        }
+
+        private void grow() {
+            for (int i = 0; i < references.length; i++) {
+                vertices[i] = Arrays.copyOf(vertices[i], vertices[i].length * 2);
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        int width() {
+            return references.length;
+        }
+
+        void putInto(int row, Map<Reference, Vertex<?, ?>> answer) {
+            assert row < size;
+            for (int i = 0; i < references.length; i++) answer.put(references[i], vertices[i][row]);
+        }
+    }
+}
@@ -21,6 +21,7 @@ package grakn.core.traversal.producer;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.graph.GraphManager;
+import grakn.core.graph.edge.ThingEdge;
 import grakn.core.graph.vertex.ThingVertex;
 import grakn.core.graph.vertex.Vertex;
 import grakn.core.traversal.Traversal;
@@ -28,14 +29,19 @@ import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.common.VertexMap;
 import grakn.core.traversal.procedure.GraphProcedure;
 import grakn.core.traversal.procedure.ProcedureEdge;
+import grakn.core.traversal.procedure.ProcedureVertex;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
+import static grakn.core.graph.util.Encoding.Edge.Thing.HAS;
 import static java.util.stream.Collectors.toMap;
 
 public class GraphIterator implements ResourceIterator<VertexMap> {
@@ -49,6 +55,8 @@ public class GraphIterator implements ResourceIterator<VertexMap> {
     private final SeekStack computeFirstSeekStack;
     private final int edgeCount;
     private final GraphManager graphMgr;
+    private final boolean isIntersectable;
+    private final ResourceIterator<? extends Vertex<?, ?>> firstBranch;
     private int computeNextSeekPos;
     private State state;
 
@@ -56,7 +64,18 @@ public class GraphIterator implements ResourceIterator<VertexMap> {
 
     public GraphIterator(GraphManager graphMgr, Vertex<?, ?> start,
                          GraphProcedure procedure, Traversal.Parameters parameters) {
+        this(graphMgr, start, procedure, parameters, null);
+    }
+
+    /**
+     * Constructs an iterator that continues from the given vertices of the
+     * first edge of the procedure, rather than branching the first edge from
+     * the start vertex itself, as given by {@link #firstBranch}.
+     */
+    GraphIterator(GraphManager graphMgr, Vertex<?, ?> start, GraphProcedure procedure,
+                  Traversal.Parameters parameters, @Nullable ResourceIterator<? extends Vertex<?, ?>> firstBranch) {
         assert procedure.edgesCount() > 0;
+        assert firstBranch == null || isFirstBranchSplittable(procedure);
         this.graphMgr = graphMgr;
         this.procedure = procedure;
         this.parameters = parameters;
@@ -68,6 +87,34 @@ public class GraphIterator implements ResourceIterator<VertexMap> {
         this.answer.put(procedure.startVertex().id(), start);
         this.computeFirstSeekStack = new SeekStack(edgeCount);
         this.state = State.INIT;
+        // edges that are not yet committed, or that are inferred, are not in the storage to be sought through
+        this.isIntersectable = graphMgr.data().storage().isReadOnly() && !graphMgr.data().isModified() &&
+                !(parameters.includesInferred() && graphMgr.data().hasInferred());
+        this.firstBranch = firstBranch;
+    }
+
+    /**
+     * Returns whether the vertices that the first edge of a procedure branches
+     * to can be split across several iterators, each continuing from a subset
+     * of them. This excludes role players and roles, as their branches keep
+     * track of the roles within the scope of a relation as they go, and
+     * branches intersected with closure edges.
+     */
+    static boolean isFirstBranchSplittable(GraphProcedure procedure) {
+        ProcedureEdge<?, ?> edge = procedure.edge(1);
+        return edge.from().isStartingVertex() && !edge.to().isStartingVertex() &&
+                !edge.isRolePlayer() && !edge.to().id().isScoped() && procedure.intersectedEdges(1).isEmpty();
+    }
+
+    /**
+     * Returns the vertices that the first edge of a procedure branches to from
+     * a start vertex, without constructing an iterator over its answers.
+     */
+    static ResourceIterator<? extends Vertex<?, ?>> firstBranch(GraphManager graphMgr, Vertex<?, ?> start,
+                                                                 GraphProcedure procedure, Traversal.Parameters parameters) {
+        assert isFirstBranchSplittable(procedure);
+        ProcedureEdge<?, ?> edge = procedure.edge(1);
+        return filter(graphMgr, parameters, edge, start, edge.branchTo(graphMgr, start, parameters));
     }
 
     @Override
@@ -95,7 +142,9 @@ public class GraphIterator implements ResourceIterator<VertexMap> {
     private boolean computeFirstBranch(int pos) {
         ProcedureEdge<?, ?> edge = procedure.edge(pos);
         Identifier toID = edge.to().id();
-        ResourceIterator<? extends Vertex<?, ?>> toIter = branchFrom(answer.get(edge.from().id()), edge);
+        ResourceIterator<? extends Vertex<?, ?>> toIter;
+        if (pos == 1 && firstBranch != null) toIter = firstBranch;
+        else toIter = branchFrom(answer.get(edge.from().id()), edge);
 
         if (toIter.hasNext()) {
             iterators.put(toID, toIter);
@@ -107,7 +156,7 @@ public class GraphIterator implements ResourceIterator<VertexMap> {
                     if (toIter.hasNext()) answer.put(toID, toIter.next());
                     else {
                         answer.remove(toID);
-                        computeFirstSeekStack.addSeeks(edge.from().dependedEdgeOrders());
+                        computeFirstSeekStack.addSeeks(dependedEdgeOrders(edge));
                         return false;
                     }
                 } else {
@@ -118,7 +167,7 @@ public class GraphIterator implements ResourceIterator<VertexMap> {
             }
             return true;
         } else {
-            computeFirstSeekStack.addSeeks(edge.from().dependedEdgeOrders());
+            computeFirstSeekStack.addSeeks(dependedEdgeOrders(edge));
             return false;
         }
     }
@@ -209,8 +258,12 @@ public class GraphIterator implements ResourceIterator<VertexMap> {
                 Vertex<?, ?> fromVertex = answer.get(edge.from().id());
                 newIter = branchFrom(fromVertex, edge);
                 if (!newIter.hasNext()) {
-                    assert !edge.from().ins().isEmpty();
-                    computeNextSeekPos = edge.from().branchEdge().order();
+                    if (isIntersected(edge)) {
+                        computeNextSeekPos = dependedEdgeOrders(edge).stream().max(Integer::compare).orElse(0);
+                    } else {
+                        assert !edge.from().ins().isEmpty();
+                        computeNextSeekPos = edge.from().branchEdge().order();
+                    }
                 }
             } else {
                 return false;
@@ -222,7 +275,8 @@ public class GraphIterator implements ResourceIterator<VertexMap> {
     }
 
     private boolean isClosure(ProcedureEdge<?, ?> edge, Vertex<?, ?> fromVertex, Vertex<?, ?> toVertex) {
-        if (edge.isRolePlayer()) {
+        if (!parameters.includesInferred() && isInferred(graphMgr, edge, fromVertex, toVertex)) return false;
+        else if (edge.isRolePlayer()) {
             Set<ThingVertex> withinScope = scoped.get(edge.asRolePlayer().scope());
             return edge.asRolePlayer().isClosure(graphMgr, fromVertex, toVertex, parameters, withinScope);
         } else {
@@ -230,6 +284,62 @@ public class GraphIterator implements ResourceIterator<VertexMap> {
         }
     }
 
+    /**
+     * Returns whether a vertex reached through an edge, or the edge itself, was
+     * concluded by a rule. Only has edges can be inferred between vertices that
+     * are not, as rules conclude relations along with all of their edges.
+     */
+    private static boolean isInferred(GraphManager graphMgr, ProcedureEdge<?, ?> edge,
+                                      Vertex<?, ?> fromVertex, Vertex<?, ?> toVertex) {
+        if (!toVertex.isThing() || !graphMgr.data().hasInferred()) return false;
+        else if (toVertex.asThing().isInferred()) return true;
+        else if (!edge.isHas()) return false;
+        ThingEdge has = edge.direction().isForward()
+                ? fromVertex.asThing().outs().edge(HAS, toVertex.asThing())
+                : fromVertex.asThing().ins().edge(HAS, toVertex.asThing());
+        return has != null && has.isInferred();
+    }
+
+    private boolean isIntersected(ProcedureEdge<?, ?> edge) {
+        return isIntersectable && !procedure.intersectedEdges(edge.order()).isEmpty();
+    }
+
+    private ProcedureVertex<?, ?> boundVertex(ProcedureEdge<?, ?> closure, ProcedureVertex<?, ?> vertex) {
+        return closure.from().equals(vertex) ? closure.to() : closure.from();
+    }
+
+    /**
+     * Returns the orders of the edges that the branch of a given edge depends
+     * on, which, when the branch is intersected with its closure edges, also
+     * includes the edges that bound the other vertices of those closures.
+     */
+    private Set<Integer> dependedEdgeOrders(ProcedureEdge<?, ?> edge) {
+        if (!isIntersected(edge)) return edge.from().dependedEdgeOrders();
+        Set<Integer> orders = new HashSet<>(edge.from().dependedEdgeOrders());
+        for (ProcedureEdge<?, ?> closure : procedure.intersectedEdges(edge.order())) {
+            orders.addAll(boundVertex(closure, edge.to()).dependedEdgeOrders());
+        }
+        return orders;
+    }
+
+    /**
+     * Intersects the vertices adjacent to the {@code from} vertex of an edge
+     * with those adjacent to the bound vertices of its closure edges, instead
+     * of iterating over the former and checking each closure edge in turn.
+     * The closure edges are still checked once reached, which retains the
+     * role scoping of role player edges.
+     */
+    private ResourceIterator<ThingVertex> intersect(Vertex<?, ?> fromVertex, ProcedureEdge<?, ?> edge) {
+        List<LeapfrogIterator.Seekable> seekables = new ArrayList<>();
+        seekables.add(edge.seekableAdjacents(graphMgr, fromVertex.asThing(), false));
+        for (ProcedureEdge<?, ?> closure : procedure.intersectedEdges(edge.order())) {
+            boolean isReverse = closure.from().equals(edge.to());
+            Vertex<?, ?> bound = answer.get(boundVertex(closure, edge.to()).id());
+            seekables.add(closure.seekableAdjacents(graphMgr, bound.asThing(), isReverse));
+        }
+        return new LeapfrogIterator(seekables).map(iid -> graphMgr.data().convert(iid));
+    }
+
     private ResourceIterator<? extends Vertex<?, ?>> branchFrom(Vertex<?, ?> fromVertex, ProcedureEdge<?, ?> edge) {
         ResourceIterator<? extends Vertex<?, ?>> toIter;
         if (edge.to().id().isScoped()) {
@@ -245,7 +355,13 @@ public class GraphIterator implements ResourceIterator<VertexMap> {
             });
         } else if (edge.isRolePlayer()) {
             Set<ThingVertex> withinScope = scoped.computeIfAbsent(edge.asRolePlayer().scope(), id -> new HashSet<>());
-            toIter = edge.asRolePlayer().branchEdge(graphMgr, fromVertex, parameters).filter(e -> {
+            ResourceIterator<ThingEdge> edgeIter;
+            if (isIntersected(edge)) {
+                edgeIter = intersect(fromVertex, edge).flatMap(v -> edge.asRolePlayer().branchEdge(graphMgr, fromVertex, v));
+            } else {
+                edgeIter = edge.asRolePlayer().branchEdge(graphMgr, fromVertex, parameters);
+            }
+            toIter = edgeIter.filter(e -> {
                 if (withinScope.contains(e.optimised().get())) return false;
                 else {
                     clearPriorScopedRole(edge.asRolePlayer().scope(), edge.to().id());
@@ -254,9 +370,22 @@ public class GraphIterator implements ResourceIterator<VertexMap> {
                     return true;
                 }
             }).map(e -> edge.direction().isForward() ? e.to() : e.from());
+        } else if (isIntersected(edge)) {
+            toIter = intersect(fromVertex, edge);
         } else {
             toIter = edge.branchTo(graphMgr, fromVertex, parameters);
         }
+        return filter(graphMgr, parameters, edge, fromVertex, toIter);
+    }
+
+    /**
+     * Filters out the inferred vertices of a branch, unless the traversal includes them, and limits the branch to
+     * a leaf that is not referenced by name to a single vertex.
+     */
+    private static ResourceIterator<? extends Vertex<?, ?>> filter(
+            GraphManager graphMgr, Traversal.Parameters parameters, ProcedureEdge<?, ?> edge,
+            Vertex<?, ?> fromVertex, ResourceIterator<? extends Vertex<?, ?>> toIter) {
+        if (!parameters.includesInferred()) toIter = toIter.filter(v -> !isInferred(graphMgr, edge, fromVertex, v));
         if (!edge.to().id().isNamedReference() && edge.to().outs().isEmpty() && edge.to().ins().size() == 1) {
             // TODO: This optimisation can apply to more situations, such as to
             //       an entire tree, where none of the leaves are referenced by name
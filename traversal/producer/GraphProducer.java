@@ -18,112 +18,284 @@
 
 package grakn.core.traversal.producer;
 
+import grakn.core.common.collection.ConcurrentFingerprintSet;
 import grakn.core.common.iterator.ResourceIterator;
-import grakn.core.common.iterator.SynchronisedIterator;
 import grakn.core.common.producer.Producer;
 import grakn.core.graph.GraphManager;
 import grakn.core.graph.vertex.Vertex;
 import grakn.core.traversal.Traversal;
 import grakn.core.traversal.common.VertexMap;
 import grakn.core.traversal.procedure.GraphProcedure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static grakn.core.common.concurrent.ExecutorService.forkJoinPool;
-import static grakn.core.common.iterator.Iterators.synchronised;
-import static java.util.concurrent.CompletableFuture.runAsync;
+import static grakn.core.common.iterator.Iterators.iterate;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 
+/**
+ * Produces the answers of a graph procedure in parallel, by splitting the
+ * traversal into morsels that are scheduled across a number of workers.
+ *
+ * The vertices of the start vertex are split into ranges of their IIDs, which
+ * are dealt to the workers up front. A start vertex with many vertices on its
+ * first edge, such as a hub, is further split into chunks of those vertices,
+ * which are pushed back onto the worker's own queue. A worker takes morsels
+ * from the front of its own queue, and once that runs out, steals morsels
+ * from the back of the queues of other workers, such that every worker stays
+ * busy regardless of how skewed the graph is.
+ */
 public class GraphProducer implements Producer<VertexMap> {
 
-    private final int parallelisation;
+    private static final Logger LOG = LoggerFactory.getLogger(GraphProducer.class);
+    private static final int RANGES_PER_WORKER = 4;
+    private static final int BRANCH_MORSEL_SIZE = 64;
+
     private final GraphManager graphMgr;
     private final GraphProcedure procedure;
     private final Traversal.Parameters params;
-    private final SynchronisedIterator<? extends Vertex<?, ?>> start;
-    private final ConcurrentMap<ResourceIterator<VertexMap>, CompletableFuture<Void>> futures;
-    private final ConcurrentHashMap.KeySetView<VertexMap, Boolean> produced;
+    private final boolean isFirstBranchSplittable;
+    private final List<Worker> workers;
+    @Nullable
+    private final ConcurrentFingerprintSet produced;
     private final AtomicBoolean isDone;
-    private final AtomicInteger runningJobs;
+    private final AtomicInteger runningWorkers;
+    private final AtomicLong morselsExecuted;
+    private final AtomicLong morselsStolen;
 
     public GraphProducer(GraphManager graphMgr, GraphProcedure procedure, Traversal.Parameters params, int parallelisation) {
         assert parallelisation > 0;
         this.graphMgr = graphMgr;
         this.procedure = procedure;
         this.params = params;
-        this.parallelisation = parallelisation;
+        this.isFirstBranchSplittable = GraphIterator.isFirstBranchSplittable(procedure);
         this.isDone = new AtomicBoolean(false);
-        this.futures = new ConcurrentHashMap<>();
-        this.produced = ConcurrentHashMap.newKeySet();
-        this.start = synchronised(procedure.startVertex().iterator(graphMgr, params));
-        this.runningJobs = new AtomicInteger(0);
+        this.produced = procedure.mayProduceDuplicates() ? new ConcurrentFingerprintSet() : null;
+        this.morselsExecuted = new AtomicLong(0);
+        this.morselsStolen = new AtomicLong(0);
+        this.workers = new ArrayList<>(parallelisation);
+        for (int i = 0; i < parallelisation; i++) workers.add(new Worker(i));
+        this.runningWorkers = new AtomicInteger(parallelisation);
+
+        List<? extends ResourceIterator<? extends Vertex<?, ?>>> ranges =
+                procedure.startVertex().iterators(graphMgr, params, parallelisation * RANGES_PER_WORKER);
+        for (int i = 0; i < ranges.size(); i++) {
+            workers.get(i % parallelisation).morsels.addLast(new StartMorsel(ranges.get(i)));
+        }
+    }
+
+    public long morselsExecuted() {
+        return morselsExecuted.get();
+    }
+
+    public long morselsStolen() {
+        return morselsStolen.get();
     }
 
     @Override
     public void produce(Sink<VertexMap> sink, int count) {
-        int p = futures.isEmpty() ? parallelisation : futures.size();
-        int splitCount = (int) Math.ceil((double) count / p);
+        List<Worker> running = new ArrayList<>();
+        for (Worker worker : workers) {
+            if (worker.isRunning.get()) running.add(worker);
+        }
+        if (running.isEmpty()) {
+            done(sink);
+            return;
+        }
+
+        int splitCount = (int) Math.ceil((double) count / running.size());
+        running.forEach(worker -> worker.schedule(splitCount, sink));
+    }
+
+    /**
+     * Filters out the answers that were already produced by any of the workers,
+     * by their fingerprints, unless the procedure cannot produce duplicates.
+     * Answers are not compared exactly: a fingerprint collision would drop an
+     * answer, which is accepted for the bound given in ConcurrentFingerprintSet
+     * in exchange for not holding on to every answer produced.
+     */
+    private ResourceIterator<VertexMap> distinct(ResourceIterator<VertexMap> answers) {
+        if (produced == null) return answers;
+        else return answers.filter(answer -> produced.add(answer.fingerprintHigh(), answer.fingerprintLow()));
+    }
+
+    private void done(Sink<VertexMap> sink) {
+        if (isDone.compareAndSet(false, true)) {
+            LOG.trace("{} morsels executed, of which {} were stolen", morselsExecuted.get(), morselsStolen.get());
+            sink.done(this);
+        }
+    }
+
+    @Override
+    public void recycle() {
+        workers.forEach(Worker::recycle);
+    }
+
+    private class Worker {
+
+        private final int id;
+        private final ConcurrentLinkedDeque<Morsel> morsels;
+        private final AtomicBoolean isRunning;
+        private CompletableFuture<Void> future;
+        private Morsel morsel;
+        private ResourceIterator<VertexMap> answers;
+
+        private Worker(int id) {
+            this.id = id;
+            this.morsels = new ConcurrentLinkedDeque<>();
+            this.isRunning = new AtomicBoolean(true);
+            this.future = completedFuture(null);
+        }
+
+        private synchronized void schedule(int count, Sink<VertexMap> sink) {
+            future = future.thenRunAsync(() -> consume(count, sink), forkJoinPool());
+        }
 
-        if (runningJobs.get() == 0) {
-            if (!start.hasNext()) {
-                done(sink);
+        private void consume(int count, Sink<VertexMap> sink) {
+            if (!isRunning.get()) {
+                produce(sink, count);
                 return;
             }
 
             int i = 0;
-            for (; i < parallelisation && start.hasNext(); i++) {
-                runningJobs.incrementAndGet(); // TODO: still not right
-                ResourceIterator<VertexMap> iterator = new GraphIterator(graphMgr, start.next(), procedure, params).distinct(produced);
-                futures.computeIfAbsent(iterator, k -> runAsync(consume(iterator, splitCount, sink), forkJoinPool()));
+            while (i < count) {
+                if (answers != null && answers.hasNext()) {
+                    sink.put(answers.next());
+                    i++;
+                } else if ((answers = nextAnswers()) == null) {
+                    break;
+                }
             }
-            if (i < parallelisation) produce(sink, (parallelisation - i) * splitCount);
-        } else {
-            for (ResourceIterator<VertexMap> iterator : futures.keySet()) {
-                futures.computeIfPresent(iterator, (k, v) -> v.thenRun(consume(k, splitCount, sink)));
+            if (i < count && isRunning.compareAndSet(true, false)) {
+                if (runningWorkers.decrementAndGet() == 0) done(sink);
+                else produce(sink, count - i);
             }
         }
-    }
 
-    private Runnable consume(ResourceIterator<VertexMap> iterator, int count, Sink<VertexMap> sink) {
-        return () -> {
-            int i = 0;
-            for (; i < count && iterator.hasNext(); i++) {
-                sink.put(iterator.next());
+        @Nullable
+        private ResourceIterator<VertexMap> nextAnswers() {
+            while (true) {
+                if (morsel != null) {
+                    ResourceIterator<VertexMap> next = morsel.next(this);
+                    if (next != null) return distinct(next);
+                    morsel = null;
+                }
+                if ((morsel = morsels.pollFirst()) == null && (morsel = steal()) == null) return null;
+                morselsExecuted.incrementAndGet();
             }
-            if (i < count) {
-                futures.remove(iterator);
-                compensate(count - i, sink);
+        }
+
+        /**
+         * Pushes a morsel onto the front of the queue of this worker, and revives
+         * a worker that has already run out of morsels, if any, to steal it.
+         */
+        private void push(Morsel morsel) {
+            morsels.addFirst(morsel);
+            for (Worker worker : workers) {
+                if (worker.isRunning.compareAndSet(false, true)) {
+                    runningWorkers.incrementAndGet();
+                    break;
+                }
             }
-        };
-    }
+        }
 
-    private void compensate(int remaining, Sink<VertexMap> sink) {
-        Vertex<?, ?> next;
-        if ((next = start.atomicNext()) != null) {
-            ResourceIterator<VertexMap> iterator = new GraphIterator(graphMgr, next, procedure, params).distinct(produced);
-            futures.put(iterator, runAsync(consume(iterator, remaining, sink), forkJoinPool()));
-            return;
+        @Nullable
+        private Morsel steal() {
+            for (int i = 1; i < workers.size(); i++) {
+                Morsel stolen = workers.get((id + i) % workers.size()).morsels.pollLast();
+                if (stolen != null) {
+                    morselsStolen.incrementAndGet();
+                    return stolen;
+                }
+            }
+            return null;
         }
 
-        if (runningJobs.decrementAndGet() == 0) {
-            done(sink);
-        } else {
-            produce(sink, remaining);
+        private void recycle() {
+            if (answers != null) answers.recycle();
+            if (morsel != null) morsel.recycle();
+            morsels.forEach(Morsel::recycle);
         }
     }
 
-    private void done(Sink<VertexMap> sink) {
-        if (isDone.compareAndSet(false, true)) {
-            sink.done(this);
+    private abstract class Morsel {
+
+        /**
+         * Returns the answers of the next part of this morsel, or null once
+         * the morsel is exhausted.
+         */
+        @Nullable
+        abstract ResourceIterator<VertexMap> next(Worker worker);
+
+        abstract void recycle();
+    }
+
+    private class StartMorsel extends Morsel {
+
+        private final ResourceIterator<? extends Vertex<?, ?>> starts;
+
+        private StartMorsel(ResourceIterator<? extends Vertex<?, ?>> starts) {
+            this.starts = starts;
+        }
+
+        @Override
+        ResourceIterator<VertexMap> next(Worker worker) {
+            while (starts.hasNext()) {
+                Vertex<?, ?> start = starts.next();
+                if (!isFirstBranchSplittable) return new GraphIterator(graphMgr, start, procedure, params);
+
+                ResourceIterator<VertexMap> answers = new BranchMorsel(
+                        start, GraphIterator.firstBranch(graphMgr, start, procedure, params)
+                ).next(worker);
+                if (answers != null) return answers;
+            }
+            return null;
+        }
+
+        @Override
+        void recycle() {
+            starts.recycle();
         }
     }
 
-    @Override
-    public void recycle() {
-        start.recycle();
-        futures.keySet().forEach(ResourceIterator::recycle);
+    private class BranchMorsel extends Morsel {
+
+        private final Vertex<?, ?> start;
+        private final ResourceIterator<? extends Vertex<?, ?>> branch;
+        private boolean isSplit;
+
+        private BranchMorsel(Vertex<?, ?> start, ResourceIterator<? extends Vertex<?, ?>> branch) {
+            this.start = start;
+            this.branch = branch;
+            this.isSplit = false;
+        }
+
+        /**
+         * Takes the next chunk of vertices from the first edge, and pushes the
+         * remainder back onto the queue of the worker, where it may be stolen.
+         */
+        @Override
+        ResourceIterator<VertexMap> next(Worker worker) {
+            if (isSplit || !branch.hasNext()) return null;
+            List<Vertex<?, ?>> chunk = new ArrayList<>(BRANCH_MORSEL_SIZE);
+            while (chunk.size() < BRANCH_MORSEL_SIZE && branch.hasNext()) chunk.add(branch.next());
+            if (branch.hasNext()) worker.push(new BranchMorsel(start, branch));
+            isSplit = true;
+            return new GraphIterator(graphMgr, start, procedure, params, iterate(chunk));
+        }
+
+        @Override
+        void recycle() {
+            if (!isSplit) branch.recycle();
+        }
     }
 }
@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.traversal.producer;
+
+import grakn.core.common.exception.GraknException;
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.graph.iid.PrefixIID;
+import grakn.core.graph.iid.VertexIID;
+import grakn.core.graph.util.Storage;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static grakn.core.common.collection.Bytes.compareBytes;
+import static grakn.core.common.collection.Bytes.join;
+import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
+
+/**
+ * Intersects the adjacent thing vertices of several edges, each given as a
+ * {@link Seekable} that iterates over its vertices in the key order of the
+ * storage, using the leapfrog join: every iterator is repeatedly sought to
+ * the largest vertex seen so far, until they all agree on the same vertex.
+ *
+ * Unlike branching from one edge and checking every other edge as a closure,
+ * the cost of the intersection is bounded by the smallest of the adjacencies,
+ * which keeps cyclic patterns (such as triangles) from blowing up on vertices
+ * of high degree.
+ */
+public class LeapfrogIterator implements ResourceIterator<VertexIID.Thing> {
+
+    private final List<Seekable> seekables;
+    private VertexIID.Thing next;
+    private State state;
+
+    private enum State {INIT, EMPTY, FETCHED, COMPLETED}
+
+    public LeapfrogIterator(List<Seekable> seekables) {
+        assert !seekables.isEmpty();
+        this.seekables = seekables;
+        this.state = State.INIT;
+    }
+
+    @Override
+    public boolean hasNext() {
+        switch (state) {
+            case COMPLETED:
+                return false;
+            case FETCHED:
+                return true;
+            case EMPTY:
+                seekables.get(0).advance();
+                return fetchAndCheck();
+            case INIT:
+                return fetchAndCheck();
+            default:
+                throw GraknException.of(ILLEGAL_STATE);
+        }
+    }
+
+    private boolean fetchAndCheck() {
+        VertexIID.Thing max = null;
+        for (Seekable seekable : seekables) {
+            VertexIID.Thing peek = seekable.peek();
+            if (peek == null) return complete();
+            else if (max == null || compareBytes(peek.bytes(), max.bytes()) > 0) max = peek;
+        }
+
+        int agreed = 0, i = 0;
+        while (agreed < seekables.size()) {
+            Seekable seekable = seekables.get(i);
+            seekable.seek(max);
+            VertexIID.Thing peek = seekable.peek();
+            if (peek == null) return complete();
+            else if (compareBytes(peek.bytes(), max.bytes()) > 0) {
+                max = peek;
+                agreed = 1;
+            } else {
+                agreed++;
+            }
+            i = (i + 1) % seekables.size();
+        }
+        next = max;
+        state = State.FETCHED;
+        return true;
+    }
+
+    private boolean complete() {
+        state = State.COMPLETED;
+        recycle();
+        return false;
+    }
+
+    @Override
+    public VertexIID.Thing next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        state = State.EMPTY;
+        return next;
+    }
+
+    @Override
+    public void recycle() {
+        seekables.forEach(Seekable::recycle);
+    }
+
+    /**
+     * An iterator over thing vertices, in the key order of the storage, that
+     * can skip ahead to a given vertex.
+     */
+    public interface Seekable {
+
+        /**
+         * @return the current vertex, or null if the iterator is exhausted
+         */
+        @Nullable
+        VertexIID.Thing peek();
+
+        /**
+         * Moves the iterator to the first vertex that is equal to, or greater
+         * than, the target vertex. The iterator never moves backwards.
+         */
+        void seek(VertexIID.Thing target);
+
+        /**
+         * Moves the iterator past every occurrence of the current vertex.
+         */
+        void advance();
+
+        void recycle();
+    }
+
+    /**
+     * The adjacent vertices of a given type that follow a key prefix in the
+     * storage, such as the owners of an attribute under the {@code HAS} infix.
+     *
+     * Short seeks step through the iterator, whereas longer ones seek the
+     * iterator directly to the target key.
+     */
+    public static class Adjacency implements Seekable {
+
+        private static final int LINEAR_SEEKS = 8;
+
+        private final byte[] base;
+        private final Storage.Seekable<VertexIID.Thing> iterator;
+        private VertexIID.Thing current;
+
+        public Adjacency(Storage storage, byte[] base, PrefixIID prefix, VertexIID.Type type) {
+            this.base = base;
+            byte[] lowerBound = join(base, prefix.bytes(), type.bytes());
+            this.iterator = storage.iterate(lowerBound, increment(lowerBound),
+                                            (key, value) -> VertexIID.Thing.extract(key, base.length));
+            this.current = iterator.hasNext() ? iterator.next() : null;
+        }
+
+        private static byte[] increment(byte[] bytes) {
+            byte[] incremented = Arrays.copyOf(bytes, bytes.length);
+            for (int i = incremented.length - 1; i >= 0; i--) {
+                if (++incremented[i] != 0) break;
+            }
+            return incremented;
+        }
+
+        @Override
+        public VertexIID.Thing peek() {
+            return current;
+        }
+
+        @Override
+        public void seek(VertexIID.Thing target) {
+            for (int i = 0; i < LINEAR_SEEKS; i++) {
+                if (current == null || compareBytes(current.bytes(), target.bytes()) >= 0) return;
+                current = iterator.hasNext() ? iterator.next() : null;
+            }
+            if (current == null || compareBytes(current.bytes(), target.bytes()) >= 0) return;
+            iterator.seek(join(base, target.bytes()));
+            current = iterator.hasNext() ? iterator.next() : null;
+        }
+
+        @Override
+        public void advance() {
+            if (current == null) return;
+            VertexIID.Thing previous = current;
+            do {
+                current = iterator.hasNext() ? iterator.next() : null;
+            } while (current != null && compareBytes(current.bytes(), previous.bytes()) == 0);
+        }
+
+        @Override
+        public void recycle() {
+            iterator.recycle();
+        }
+    }
+
+    /**
+     * The union of several seekable iterators, in key order, such as the
+     * adjacencies of a vertex over each of the types it may be adjacent to.
+     */
+    public static class Union implements Seekable {
+
+        private final List<Seekable> seekables;
+
+        public Union(List<Seekable> seekables) {
+            this.seekables = seekables;
+        }
+
+        @Override
+        public VertexIID.Thing peek() {
+            VertexIID.Thing min = null;
+            for (Seekable seekable : seekables) {
+                VertexIID.Thing peek = seekable.peek();
+                if (peek != null && (min == null || compareBytes(peek.bytes(), min.bytes()) < 0)) min = peek;
+            }
+            return min;
+        }
+
+        @Override
+        public void seek(VertexIID.Thing target) {
+            seekables.forEach(seekable -> seekable.seek(target));
+        }
+
+        @Override
+        public void advance() {
+            VertexIID.Thing min = peek();
+            if (min == null) return;
+            for (Seekable seekable : seekables) {
+                VertexIID.Thing peek = seekable.peek();
+                if (peek != null && compareBytes(peek.bytes(), min.bytes()) == 0) seekable.advance();
+            }
+        }
+
+        @Override
+        public void recycle() {
+            seekables.forEach(Seekable::recycle);
+        }
+    }
+}
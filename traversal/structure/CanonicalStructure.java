@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.traversal.structure;
+
+import grakn.core.graph.vertex.Vertex;
+import grakn.core.traversal.common.Identifier;
+import grakn.core.traversal.common.VertexMap;
+import grakn.core.traversal.graph.TraversalVertex;
+import graql.lang.pattern.variable.Reference;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * A structure with its identifiers renamed into a canonical form, which is the
+ * same for structures that only differ in the names of their variables, so that
+ * they can share a single planner.
+ *
+ * The vertices of the structure are ordered by colour refinement: every vertex
+ * starts with a colour given by its properties, which is then refined by the
+ * colours of its adjacent vertices and the edges to them, until no colour can be
+ * refined any further. Vertices that still share a colour are symmetric in most
+ * structures, so the first of them is given a colour of its own, and the colours
+ * are refined again. Every vertex is then renamed by its position in the order,
+ * keeping the kind of its identifier. Type labels are never renamed.
+ *
+ * An ordering that does not end up canonical, for rare structures, only costs
+ * a miss in the traversal cache: two canonical structures are only equal when
+ * the renamed structures are equal.
+ */
+public class CanonicalStructure {
+
+    private final Structure structure;
+    private final Map<Identifier, Identifier> identifiers;
+    private final Map<Reference, Reference> references;
+
+    private CanonicalStructure(Structure structure, Map<Identifier, Identifier> identifiers,
+                               Map<Reference, Reference> references) {
+        this.structure = structure;
+        this.identifiers = identifiers;
+        this.references = references;
+    }
+
+    public static CanonicalStructure of(Structure structure) {
+        List<StructureVertex<?>> order = order(structure);
+        Map<Identifier, Identifier> identifiers = new HashMap<>();
+        Map<Reference, Reference> references = new HashMap<>();
+        for (int i = 0; i < order.size(); i++) {
+            Identifier id = order.get(i).id();
+            if (id.isNamedReference()) {
+                Identifier.Variable canonical = Identifier.Variable.name("v" + i);
+                identifiers.put(id, canonical);
+                references.put(canonical.reference(), id.asVariable().reference());
+            } else if (id.isVariable() && id.asVariable().reference().isLabel()) {
+                identifiers.put(id, id);
+            } else if (id.isVariable()) {
+                identifiers.put(id, Identifier.Variable.of(id.asVariable().reference().asAnonymous(), i));
+            }
+        }
+        for (int i = 0; i < order.size(); i++) {
+            Identifier id = order.get(i).id();
+            if (id.isScoped()) {
+                Identifier scope = identifiers.getOrDefault(id.asScoped().scope(), id.asScoped().scope());
+                identifiers.put(id, Identifier.Scoped.of(scope.asVariable(), i));
+            }
+        }
+        return new CanonicalStructure(rename(structure, order, identifiers), identifiers, references);
+    }
+
+    public Structure structure() {
+        return structure;
+    }
+
+    @Nullable
+    public Identifier canonical(Identifier identifier) {
+        return identifiers.get(identifier);
+    }
+
+    /**
+     * Renames an answer of the canonical structure back into the references of
+     * the original structure.
+     */
+    public VertexMap answer(VertexMap canonicalAnswer) {
+        Map<Reference, Vertex<?, ?>> answer = new HashMap<>();
+        canonicalAnswer.forEach((ref, vertex) -> answer.put(references.getOrDefault(ref, ref), vertex));
+        return VertexMap.of(answer);
+    }
+
+    private static Structure rename(Structure structure, List<StructureVertex<?>> order,
+                                    Map<Identifier, Identifier> identifiers) {
+        Structure renamed = new Structure();
+        for (StructureVertex<?> vertex : order) {
+            Identifier id = identifiers.get(vertex.id());
+            if (vertex.isThing()) {
+                TraversalVertex.Properties.Thing props = vertex.asThing().props();
+                StructureVertex.Thing renamedVertex = renamed.thingVertex(id);
+                renamedVertex.props().hasIID(props.hasIID());
+                renamedVertex.props().types(props.types());
+                props.predicates().forEach(renamedVertex.props()::predicate);
+                props.selectivity().ifPresent(renamedVertex.props()::selectivity);
+            } else {
+                TraversalVertex.Properties.Type props = vertex.asType().props();
+                StructureVertex.Type renamedVertex = renamed.typeVertex(id);
+                renamedVertex.props().labels(props.labels());
+                if (props.isAbstract()) renamedVertex.props().setAbstract();
+                props.valueType().ifPresent(renamedVertex.props()::valueType);
+                props.regex().ifPresent(renamedVertex.props()::regex);
+            }
+        }
+        for (StructureEdge<?, ?> edge : structure.edges()) {
+            StructureVertex<?> from = renamedVertex(renamed, edge.from(), identifiers);
+            StructureVertex<?> to = renamedVertex(renamed, edge.to(), identifiers);
+            if (edge.isEqual()) {
+                renamed.equalEdge(from, to);
+            } else if (edge.isPredicate()) {
+                renamed.predicateEdge(from.asThing(), to.asThing(), edge.asPredicate().predicate());
+            } else if (edge.asNative().isOptimised()) {
+                renamed.optimisedEdge(from.asThing(), to.asThing(), edge.asNative().encoding(),
+                                      edge.asNative().asOptimised().types());
+            } else {
+                renamed.nativeEdge(from, to, edge.asNative().encoding(), edge.asNative().isTransitive());
+            }
+        }
+        return renamed;
+    }
+
+    private static StructureVertex<?> renamedVertex(Structure renamed, StructureVertex<?> vertex,
+                                                    Map<Identifier, Identifier> identifiers) {
+        if (vertex.isThing()) return renamed.thingVertex(identifiers.get(vertex.id()));
+        else return renamed.typeVertex(identifiers.get(vertex.id()));
+    }
+
+    private static List<StructureVertex<?>> order(Structure structure) {
+        List<StructureVertex<?>> vertices = new ArrayList<>(structure.vertices());
+        Map<StructureVertex<?>, Integer> colours = refine(vertices, colour(vertices, CanonicalStructure::descriptor));
+        while (colourCount(colours) < vertices.size()) {
+            Map<StructureVertex<?>, Integer> current = colours;
+            int shared = vertices.stream().map(current::get)
+                    .filter(c -> vertices.stream().filter(v -> current.get(v).equals(c)).count() > 1)
+                    .min(Integer::compare).get();
+            StructureVertex<?> first = vertices.stream().filter(v -> current.get(v) == shared)
+                    .min(comparing(v -> v.id().toString())).get();
+            colours = refine(vertices, colour(vertices, v -> current.get(v) + (v == first ? "" : "+")));
+        }
+        Map<StructureVertex<?>, Integer> result = colours;
+        vertices.sort(comparing(result::get));
+        return vertices;
+    }
+
+    private static Map<StructureVertex<?>, Integer> refine(List<StructureVertex<?>> vertices,
+                                                           Map<StructureVertex<?>, Integer> colours) {
+        int count = colourCount(colours);
+        while (true) {
+            Map<StructureVertex<?>, Integer> current = colours;
+            Map<StructureVertex<?>, Integer> refined = colour(vertices, v -> {
+                List<String> adjacents = new ArrayList<>();
+                v.outs().forEach(e -> adjacents.add("out " + descriptor(e) + " " + current.get(e.to())));
+                v.ins().forEach(e -> adjacents.add("in " + descriptor(e) + " " + current.get(e.from())));
+                return current.get(v) + " " + sorted(adjacents);
+            });
+            int refinedCount = colourCount(refined);
+            if (refinedCount == count) return colours;
+            colours = refined;
+            count = refinedCount;
+        }
+    }
+
+    private static Map<StructureVertex<?>, Integer> colour(List<StructureVertex<?>> vertices,
+                                                           Function<StructureVertex<?>, String> signature) {
+        TreeMap<String, Integer> signatures = new TreeMap<>();
+        Map<StructureVertex<?>, String> vertexSignatures = new HashMap<>();
+        vertices.forEach(v -> {
+            String s = signature.apply(v);
+            vertexSignatures.put(v, s);
+            signatures.put(s, 0);
+        });
+        int colour = 0;
+        for (Map.Entry<String, Integer> entry : signatures.entrySet()) entry.setValue(colour++);
+        Map<StructureVertex<?>, Integer> colours = new HashMap<>();
+        vertexSignatures.forEach((v, s) -> colours.put(v, signatures.get(s)));
+        return colours;
+    }
+
+    private static int colourCount(Map<StructureVertex<?>, Integer> colours) {
+        return (int) colours.values().stream().distinct().count();
+    }
+
+    private static String descriptor(StructureVertex<?> vertex) {
+        String identifier;
+        if (vertex.id().isScoped()) identifier = "scoped";
+        else if (vertex.id().isNamedReference()) identifier = "name";
+        else if (vertex.id().asVariable().reference().isLabel()) identifier = vertex.id().toString();
+        else identifier = "anonymous";
+
+        if (vertex.isThing()) {
+            TraversalVertex.Properties.Thing props = vertex.asThing().props();
+            return String.format("%s [thing] { hasIID: %s, types: %s, predicates: %s, selectivity: %s }",
+                                 identifier, props.hasIID(), sorted(props.types()), sorted(props.predicates()),
+                                 props.selectivity());
+        } else {
+            TraversalVertex.Properties.Type props = vertex.asType().props();
+            return String.format("%s [type] { labels: %s, abstract: %s, value: %s, regex: %s }",
+                                 identifier, sorted(props.labels()), props.isAbstract(), props.valueType(), props.regex());
+        }
+    }
+
+    private static String descriptor(StructureEdge<?, ?> edge) {
+        if (edge.isEqual()) return "[equal]";
+        else if (edge.isPredicate()) return "[predicate] { " + edge.asPredicate().predicate() + " }";
+        else if (edge.asNative().isOptimised()) {
+            return "[optimised] { " + edge.asNative().encoding() + ", " + sorted(edge.asNative().asOptimised().types()) + " }";
+        } else {
+            return "[native] { " + edge.asNative().encoding() + ", " + edge.asNative().isTransitive() + " }";
+        }
+    }
+
+    private static List<String> sorted(Collection<?> values) {
+        return values.stream().map(Object::toString).sorted().collect(toList());
+    }
+}
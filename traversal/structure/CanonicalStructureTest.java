@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.traversal.structure;
+
+import grakn.core.common.parameters.Label;
+import grakn.core.traversal.common.Identifier;
+import org.junit.Test;
+
+import static grakn.common.collection.Collections.set;
+import static grakn.core.graph.util.Encoding.Edge.Thing.HAS;
+import static grakn.core.graph.util.Encoding.Edge.Thing.PLAYING;
+import static grakn.core.graph.util.Encoding.Edge.Thing.RELATING;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+
+public class CanonicalStructureTest {
+
+    private static StructureVertex.Thing thing(Structure structure, String name, String type) {
+        StructureVertex.Thing vertex = structure.thingVertex(Identifier.Variable.name(name));
+        vertex.props().types(set(Label.of(type)));
+        return vertex;
+    }
+
+    /**
+     * Returns the structure of {@code $a has $n; $b has $n;}, with the given names.
+     */
+    private static Structure sharedAttribute(String a, String b, String n) {
+        Structure structure = new Structure();
+        StructureVertex.Thing attribute = thing(structure, n, "name");
+        structure.nativeEdge(thing(structure, a, "person"), attribute, HAS);
+        structure.nativeEdge(thing(structure, b, "person"), attribute, HAS);
+        return structure;
+    }
+
+    /**
+     * Returns the structure of a cycle of relations and role players, with the
+     * given names of its relations and players, in order around the cycle.
+     */
+    private static Structure cycle(String... names) {
+        Structure structure = new Structure();
+        StructureVertex.Thing[] vertices = new StructureVertex.Thing[names.length];
+        for (int i = 0; i < names.length; i++) {
+            vertices[i] = thing(structure, names[i], i % 2 == 0 ? "friendship" : "person");
+        }
+        for (int i = 0; i < names.length; i += 2) {
+            structure.nativeEdge(vertices[i], vertices[(i + 1) % names.length], RELATING);
+            structure.nativeEdge(vertices[(i + 2) % names.length], vertices[(i + 1) % names.length], RELATING);
+        }
+        return structure;
+    }
+
+    @Test
+    public void test_renamed_structures_are_canonicalised_identically() {
+        Structure structure = CanonicalStructure.of(sharedAttribute("x", "y", "n")).structure();
+        Structure renamed = CanonicalStructure.of(sharedAttribute("p", "q", "name")).structure();
+        assertEquals(structure, renamed);
+        assertEquals(structure.hashCode(), renamed.hashCode());
+    }
+
+    @Test
+    public void test_symmetric_vertices_are_ordered_the_same_whichever_names_sort_first() {
+        // the two persons cannot be told apart by colour refinement, so the tie is
+        // broken by their names, which sort in opposite orders in the two structures
+        Structure structure = CanonicalStructure.of(sharedAttribute("a", "z", "n")).structure();
+        Structure swapped = CanonicalStructure.of(sharedAttribute("z", "a", "n")).structure();
+        assertEquals(structure, swapped);
+
+        Structure cycle = CanonicalStructure.of(cycle("r1", "x", "r2", "y", "r3", "z")).structure();
+        Structure rotated = CanonicalStructure.of(cycle("r3", "z", "r1", "x", "r2", "y")).structure();
+        Structure renamed = CanonicalStructure.of(cycle("f", "c", "e", "b", "d", "a")).structure();
+        assertEquals(cycle, rotated);
+        assertEquals(cycle, renamed);
+    }
+
+    @Test
+    public void test_different_structures_are_not_canonicalised_identically() {
+        Structure persons = CanonicalStructure.of(sharedAttribute("x", "y", "n")).structure();
+
+        Structure structure = new Structure();
+        StructureVertex.Thing attribute = thing(structure, "n", "name");
+        structure.nativeEdge(thing(structure, "x", "person"), attribute, HAS);
+        structure.nativeEdge(thing(structure, "y", "company"), attribute, HAS);
+        assertFalse(persons.equals(CanonicalStructure.of(structure).structure()));
+
+        Structure playing = new Structure();
+        playing.nativeEdge(thing(playing, "x", "person"), thing(playing, "r", "friendship"), PLAYING);
+        assertFalse(persons.equals(CanonicalStructure.of(playing).structure()));
+    }
+
+    @Test
+    public void test_canonical_identifiers_map_back_to_the_original_ones() {
+        CanonicalStructure canonical = CanonicalStructure.of(sharedAttribute("x", "y", "n"));
+        CanonicalStructure renamed = CanonicalStructure.of(sharedAttribute("p", "q", "name"));
+        assertEquals(canonical.canonical(Identifier.Variable.name("n")), renamed.canonical(Identifier.Variable.name("name")));
+    }
+}